@@ -0,0 +1,21 @@
+package com.avaje.ebean;
+
+/**
+ * Callback notified when an asynchronous query completes.
+ *
+ * @param <R> the type of the query result
+ * @see AsyncFuture#whenComplete(AsyncCallback)
+ */
+public interface AsyncCallback<R> {
+
+  /**
+   * The query completed successfully with the given result.
+   */
+  void onSuccess(R result);
+
+  /**
+   * The query failed or was cancelled (with a java.util.concurrent.CancellationException).
+   */
+  void onFailure(Throwable e);
+
+}
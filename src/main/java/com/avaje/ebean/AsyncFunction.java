@@ -0,0 +1,17 @@
+package com.avaje.ebean;
+
+/**
+ * Function applied to the result of an asynchronous query.
+ *
+ * @param <R> the type of the query result
+ * @param <U> the type returned by the function
+ * @see AsyncFuture#thenApply(AsyncFunction)
+ */
+public interface AsyncFunction<R, U> {
+
+  /**
+   * Apply the function to the query result.
+   */
+  U apply(R result) throws Exception;
+
+}
@@ -0,0 +1,77 @@
+package com.avaje.ebean;
+
+import javax.persistence.PersistenceException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The result of a query executing asynchronously on the query executor.
+ * <p>
+ * Unlike {@link FutureList} the result can be processed without blocking by registering
+ * callbacks or by applying functions to produce dependent futures.
+ * </p>
+ * <p>
+ * Cancelling the future removes a query that is still queued from execution and cancels
+ * a query that is executing (if that is supported by the JDBC driver and database).
+ * </p>
+ *
+ * <pre>{@code
+ *
+ *  AsyncFuture<List<Order>> future =
+ *      Ebean.find(Order.class)
+ *        .where().eq("status", Order.Status.NEW)
+ *        .findListAsync();
+ *
+ *  future.whenComplete(new AsyncCallback<List<Order>>() {
+ *    public void onSuccess(List<Order> orders) {
+ *      ...
+ *    }
+ *    public void onFailure(Throwable e) {
+ *      ...
+ *    }
+ *  });
+ *
+ * }</pre>
+ *
+ * @param <R> the type of the query result
+ * @see Query#findListAsync()
+ */
+public interface AsyncFuture<R> extends Future<R> {
+
+  /**
+   * Register a callback to be notified when the query completes.
+   * <p>
+   * The callback is executed by the thread that completes the query or immediately by the
+   * calling thread when the query has already completed. Callbacks should not block.
+   * </p>
+   */
+  AsyncFuture<R> whenComplete(AsyncCallback<? super R> callback);
+
+  /**
+   * Return a future for the result of applying the function to the result of this query.
+   * <p>
+   * If this query fails then the returned future fails with the same exception.
+   * Cancelling the returned future cancels this query.
+   * </p>
+   */
+  <U> AsyncFuture<U> thenApply(AsyncFunction<? super R, U> function);
+
+  /**
+   * Same as {@link #get()} but wraps InterruptedException and ExecutionException in the
+   * unchecked PersistenceException.
+   *
+   * @throws PersistenceException when a InterruptedException or ExecutionException occurs.
+   */
+  R getUnchecked();
+
+  /**
+   * Same as {@link #get(long, java.util.concurrent.TimeUnit)} but wraps InterruptedException
+   * and ExecutionException in the unchecked PersistenceException.
+   *
+   * @throws TimeoutException if the wait timed out
+   * @throws PersistenceException if a InterruptedException or ExecutionException occurs.
+   */
+  R getUnchecked(long timeout, TimeUnit unit) throws TimeoutException;
+
+}
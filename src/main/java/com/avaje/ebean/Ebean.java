@@ -564,6 +564,13 @@ public final class Ebean {
     serverMgr.getDefaultServer().insertAll(beans);
   }
 
+  /**
+   * Insert a large number of beans using the database native bulk loading path.
+   */
+  public static <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans) {
+    serverMgr.getDefaultServer().bulkInsert(beanType, beans);
+  }
+
   /**
    * Marks the entity bean as dirty.
    * <p>
@@ -1003,6 +1003,54 @@ public interface EbeanServer {
    */
   <T> FutureList<T> findFutureList(Query<T> query, Transaction transaction);
 
+  /**
+   * Execute find list query asynchronously on the query executor.
+   * <p>
+   * This query will execute in it's own PersistenceContext and using its own transaction.
+   * The transaction is obtained when the query starts executing (not when it is queued).
+   * A transaction can not be shared with the query executor thread so the transaction
+   * parameter must be null.
+   * </p>
+   *
+   * @param query
+   *          the query to execute asynchronously
+   * @param transaction
+   *          must be null as the query uses its own transaction.
+   * @return an AsyncFuture for the list result of the query
+   * @throws IllegalArgumentException if the transaction is not null
+   *
+   * @see Query#findListAsync()
+   */
+  <T> AsyncFuture<List<T>> findListAsync(Query<T> query, Transaction transaction);
+
+  /**
+   * Execute find unique query asynchronously on the query executor.
+   *
+   * @param query
+   *          the query to execute asynchronously
+   * @param transaction
+   *          must be null as the query uses its own transaction.
+   * @return an AsyncFuture for the unique result of the query (which can be null)
+   * @throws IllegalArgumentException if the transaction is not null
+   *
+   * @see Query#findUniqueAsync()
+   */
+  <T> AsyncFuture<T> findUniqueAsync(Query<T> query, Transaction transaction);
+
+  /**
+   * Execute find row count query asynchronously on the query executor.
+   *
+   * @param query
+   *          the query to execute asynchronously
+   * @param transaction
+   *          must be null as the query uses its own transaction.
+   * @return an AsyncFuture for the row count
+   * @throws IllegalArgumentException if the transaction is not null
+   *
+   * @see Query#findRowCountAsync()
+   */
+  <T> AsyncFuture<Integer> findRowCountAsync(Query<T> query, Transaction transaction);
+
   /**
    * Execute find list SQL query in a background thread.
    * <p>
@@ -1241,6 +1289,38 @@ public interface EbeanServer {
   @Nullable
   SqlRow findUnique(SqlQuery query, Transaction transaction);
 
+  /**
+   * Execute the SqlQuery processing each row with the consumer.
+   * <p>
+   * Generally you are able to use {@link SqlQuery#findEach(QueryEachConsumer)} rather than
+   * explicitly calling this method. You could use this method if you wish to explicitly
+   * control the transaction used for the query.
+   * </p>
+   *
+   * @param query       the query to execute
+   * @param consumer    the consumer used to process each row
+   * @param transaction the transaction to use (can be null)
+   * @see SqlQuery#findEach(QueryEachConsumer)
+   */
+  void findEach(SqlQuery query, QueryEachConsumer<SqlRow> consumer, Transaction transaction);
+
+  /**
+   * Execute the SqlQuery processing each row with the consumer until it returns false.
+   *
+   * @see SqlQuery#findEachWhile(QueryEachWhileConsumer)
+   */
+  void findEachWhile(SqlQuery query, QueryEachWhileConsumer<SqlRow> consumer, Transaction transaction);
+
+  /**
+   * Execute the SqlQuery returning an iterator that reads the rows as they are requested.
+   * <p>
+   * The iterator must be closed.
+   * </p>
+   *
+   * @see SqlQuery#findIterate()
+   */
+  QueryIterator<SqlRow> findIterate(SqlQuery query, Transaction transaction);
+
   /**
    * Either Insert or Update the bean depending on its state.
    * <p>
@@ -1621,6 +1701,36 @@ public interface EbeanServer {
    */
   void insertAll(Collection<?> beans, Transaction transaction);
 
+  /**
+   * Insert a large number of beans using the database native bulk loading path.
+   * <p>
+   * On Postgres the rows are streamed via <code>COPY ... FROM STDIN</code> and on MySql via
+   * <code>LOAD DATA LOCAL INFILE</code>. Other databases use multi-row insert statements or
+   * JDBC batch. The L2 cache and table change notifications occur as per a normal insert.
+   * </p>
+   * <p>
+   * Bulk insert does not cascade to associated beans. The id values are expected to be set
+   * or generated by Ebean (sequence, UUID etc). Beans using database identity are inserted
+   * using a normal insert.
+   * </p>
+   *
+   * <pre>{@code
+   *
+   *   List<Customer> customers = ...
+   *   ebeanServer.bulkInsert(Customer.class, customers);
+   *
+   * }</pre>
+   *
+   * @param beanType the type of beans being inserted
+   * @param beans    the beans to insert
+   */
+  <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans);
+
+  /**
+   * Bulk insert the beans with an explicit transaction.
+   */
+  <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans, Transaction transaction);
+
   /**
    * Delete the associations (from the intersection table) of a ManyToMany given
    * the owner bean and the propertyName of the ManyToMany collection.
@@ -1941,6 +2051,31 @@ public interface EbeanServer {
    */
   <T> List<T> publish(Query<T> query);
 
+  /**
+   * Publish the beans that match the query in batches returning the number of beans published.
+   * <p>
+   * Rather than loading all the matching beans into memory the draft beans are read in Id
+   * order using findIterate() and published in batches of {@link PublishOptions#getBatchSize()}.
+   * Use this to publish a large number of beans.
+   * </p>
+   *
+   * @param <T>         the type of the entity bean
+   * @param query       the query used to select the draft beans to publish
+   * @param options     the batch size, commit per batch and progress listener
+   * @param transaction the transaction the publish process should use (can be null)
+   */
+  <T> int publishBatched(Query<T> query, PublishOptions options, Transaction transaction);
+
+  /**
+   * Publish the beans that match the query in batches returning the number of beans published.
+   * This will use the current transaction or create transactions as required.
+   *
+   * @param <T>     the type of the entity bean
+   * @param query   the query used to select the draft beans to publish
+   * @param options the batch size, commit per batch and progress listener
+   */
+  <T> int publishBatched(Query<T> query, PublishOptions options);
+
   /**
    * Restore the draft bean back to the live state.
    * <p>
@@ -1993,6 +2128,32 @@ public interface EbeanServer {
    */
   <T> List<T> draftRestore(Query<T> query);
 
+  /**
+   * Restore the draft beans matching the query back to the live state in batches returning
+   * the number of beans restored.
+   * <p>
+   * The live beans are read in Id order using findIterate() and restored in batches of
+   * {@link PublishOptions#getBatchSize()}.
+   * </p>
+   *
+   * @param <T>         the type of the entity bean
+   * @param query       the query used to select the beans to restore
+   * @param options     the batch size, commit per batch and progress listener
+   * @param transaction the transaction the restore process should use (can be null)
+   */
+  <T> int draftRestoreBatched(Query<T> query, PublishOptions options, Transaction transaction);
+
+  /**
+   * Restore the draft beans matching the query back to the live state in batches returning
+   * the number of beans restored. This will use the current transaction or create
+   * transactions as required.
+   *
+   * @param <T>     the type of the entity bean
+   * @param query   the query used to select the beans to restore
+   * @param options the batch size, commit per batch and progress listener
+   */
+  <T> int draftRestoreBatched(Query<T> query, PublishOptions options);
+
   /**
    * Returns the set of properties/paths that are unknown (do not map to known properties or paths).
    * <p>
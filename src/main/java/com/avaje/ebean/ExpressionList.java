@@ -244,6 +244,27 @@ public interface ExpressionList<T> extends Serializable {
    */
   FutureList<T> findFutureList();
 
+  /**
+   * Execute find list query asynchronously returning an AsyncFuture.
+   *
+   * @see Query#findListAsync()
+   */
+  AsyncFuture<List<T>> findListAsync();
+
+  /**
+   * Execute find unique query asynchronously returning an AsyncFuture.
+   *
+   * @see Query#findUniqueAsync()
+   */
+  AsyncFuture<T> findUniqueAsync();
+
+  /**
+   * Execute find row count query asynchronously returning an AsyncFuture.
+   *
+   * @see Query#findRowCountAsync()
+   */
+  AsyncFuture<Integer> findRowCountAsync();
+
   /**
    * Return a PagedList for this query using pageIndex and pageSize.
    * <p>
@@ -0,0 +1,24 @@
+package com.avaje.ebean;
+
+/**
+ * Listener notified of the progress of a batched publish or draftRestore.
+ *
+ * @see PublishOptions
+ * @see EbeanServer#publishBatched(Query, PublishOptions)
+ */
+public interface PublishListener {
+
+  /**
+   * Called after each batch of beans has been published (or restored).
+   * <p>
+   * When the options commit per batch this is called after the batch has been committed.
+   * </p>
+   *
+   * @param beanType    the type of bean being published
+   * @param insertCount the number of beans inserted in this batch (new live beans)
+   * @param updateCount the number of beans updated in this batch
+   * @param totalCount  the total number of beans published so far
+   */
+  void batchComplete(Class<?> beanType, int insertCount, int updateCount, int totalCount);
+
+}
@@ -0,0 +1,82 @@
+package com.avaje.ebean;
+
+/**
+ * Options for a batched publish or draftRestore of a large number of draftable beans.
+ * <p>
+ * The beans are read in Id order using findIterate() and processed in batches. For each batch
+ * the matching destination beans are fetched, the changes are written using JDBC batch and
+ * optionally the batch is committed. This means only a batch of beans is held in memory at a time.
+ * </p>
+ *
+ * <pre>{@code
+ *
+ *   PublishOptions options = new PublishOptions()
+ *     .setBatchSize(500)
+ *     .setCommitBatch(true)
+ *     .setListener(listener);
+ *
+ *   Query<Product> query = server.find(Product.class).where().eq("catalog.id", catalogId).query();
+ *   int count = server.publishBatched(query, options);
+ *
+ * }</pre>
+ */
+public final class PublishOptions {
+
+  private int batchSize = 100;
+
+  private boolean commitBatch;
+
+  private PublishListener listener;
+
+  /**
+   * Return the number of beans processed per batch.
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Set the number of beans processed per batch (defaults to 100).
+   */
+  public PublishOptions setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be greater than 0");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Return true if each batch is committed in its own transaction.
+   */
+  public boolean isCommitBatch() {
+    return commitBatch;
+  }
+
+  /**
+   * Set to true to commit each batch in its own transaction.
+   * <p>
+   * This is ignored when an explicit (or current) transaction is used in which case all
+   * the batches are written using that transaction.
+   * </p>
+   */
+  public PublishOptions setCommitBatch(boolean commitBatch) {
+    this.commitBatch = commitBatch;
+    return this;
+  }
+
+  /**
+   * Return the listener notified of the progress (can be null).
+   */
+  public PublishListener getListener() {
+    return listener;
+  }
+
+  /**
+   * Set a listener to be notified after each batch.
+   */
+  public PublishOptions setListener(PublishListener listener) {
+    this.listener = listener;
+    return this;
+  }
+}
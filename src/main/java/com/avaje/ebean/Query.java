@@ -821,6 +821,37 @@ public interface Query<T> extends Serializable {
    */
   FutureList<T> findFutureList();
 
+  /**
+   * Execute find list query asynchronously returning an AsyncFuture.
+   * <p>
+   * Unlike {@link #findFutureList()} the query executes on the query executor (sized via
+   * {@link com.avaje.ebean.config.ServerConfig#setAsyncQueryPoolSize(int)}) rather than the
+   * background executor and the result can be processed without blocking via callbacks.
+   * </p>
+   * <p>
+   * This query will execute in it's own PersistenceContext and using its own transaction.
+   * </p>
+   *
+   * @return an AsyncFuture for the list result of the query
+   */
+  AsyncFuture<List<T>> findListAsync();
+
+  /**
+   * Execute find unique query asynchronously returning an AsyncFuture.
+   *
+   * @return an AsyncFuture for the unique result of the query (which can be null)
+   * @see #findListAsync()
+   */
+  AsyncFuture<T> findUniqueAsync();
+
+  /**
+   * Execute find row count query asynchronously returning an AsyncFuture.
+   *
+   * @return an AsyncFuture for the row count
+   * @see #findListAsync()
+   */
+  AsyncFuture<Integer> findRowCountAsync();
+
   /**
    * Return a PagedList for this query using pageIndex and pageSize.
    * <p>
@@ -70,6 +70,41 @@ public interface SqlQuery extends Serializable {
    */
   SqlRow findUnique();
 
+  /**
+   * Execute the query processing each row with the consumer.
+   * <p>
+   * The rows are read from the ResultSet as they are processed rather than all being loaded
+   * into memory so this is suitable for queries returning a large number of rows. The rows
+   * share the column names (rather than each row holding its own map).
+   * </p>
+   *
+   * <pre>{@code
+   *
+   *  Ebean.createSqlQuery("select id, name from o_customer")
+   *    .findEach(new QueryEachConsumer<SqlRow>() {
+   *      public void accept(SqlRow row) {
+   *        ...
+   *      }
+   *    });
+   *
+   * }</pre>
+   */
+  void findEach(QueryEachConsumer<SqlRow> consumer);
+
+  /**
+   * Execute the query processing each row with the consumer until it returns false.
+   */
+  void findEachWhile(QueryEachWhileConsumer<SqlRow> consumer);
+
+  /**
+   * Execute the query returning an iterator that reads the rows as they are requested.
+   * <p>
+   * The iterator must be closed (which closes the underlying ResultSet). Generally
+   * {@link #findEach(QueryEachConsumer)} is preferred as it closes the iterator.
+   * </p>
+   */
+  QueryIterator<SqlRow> findIterate();
+
   /**
    * Execute find list SQL query in a background thread.
    * <p>
@@ -2,6 +2,9 @@ package com.avaje.ebean.cache;
 
 import com.avaje.ebean.EbeanServer;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Represents part of the "L2" server side cache.
  * <p>
@@ -43,6 +46,15 @@ public interface ServerCache {
    */
   Object get(Object id);
 
+  /**
+   * Return the values for the given keys.
+   * <p>
+   * The returned map contains only the entries found in the cache (keyed by the
+   * given key). Keys that are not in the cache are missing from the returned map.
+   * </p>
+   */
+  Map<Object, Object> getAll(Collection<Object> keys);
+
   /**
    * Put the value in the cache with a given id.
    */
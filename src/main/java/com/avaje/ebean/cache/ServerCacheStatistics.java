@@ -39,6 +39,10 @@ public class ServerCacheStatistics {
 
   protected long evictByLRU;
 
+  protected long offHeapBytes;
+
+  protected long offHeapUsedBytes;
+
   public String toString() {
     //noinspection StringBufferReplaceableByString
     StringBuilder sb = new StringBuilder(80);
@@ -57,6 +61,10 @@ public class ServerCacheStatistics {
     sb.append(" evictByLRU:").append(evictByLRU);
     sb.append(" evictionRunCount:").append(evictionRunCount);
     sb.append(" evictionRunMicros:").append(evictionRunMicros);
+    if (offHeapBytes > 0) {
+      sb.append(" offHeapBytes:").append(offHeapBytes);
+      sb.append(" offHeapUsedBytes:").append(offHeapUsedBytes);
+    }
     return sb.toString();
   }
 
@@ -274,4 +282,32 @@ public class ServerCacheStatistics {
   public long getEvictByLRU() {
     return evictByLRU;
   }
+
+  /**
+   * Set the bytes of memory allocated outside of the java heap.
+   */
+  public void setOffHeapBytes(long offHeapBytes) {
+    this.offHeapBytes = offHeapBytes;
+  }
+
+  /**
+   * Return the bytes of memory allocated outside of the java heap (0 for on heap caches).
+   */
+  public long getOffHeapBytes() {
+    return offHeapBytes;
+  }
+
+  /**
+   * Set the bytes of off heap memory that are holding cache entries.
+   */
+  public void setOffHeapUsedBytes(long offHeapUsedBytes) {
+    this.offHeapUsedBytes = offHeapUsedBytes;
+  }
+
+  /**
+   * Return the bytes of off heap memory that are holding cache entries.
+   */
+  public long getOffHeapUsedBytes() {
+    return offHeapUsedBytes;
+  }
 }
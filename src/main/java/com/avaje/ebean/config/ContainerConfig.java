@@ -30,7 +30,16 @@ public class ContainerConfig {
     /**
      * Use TCP Sockets for cluster wide communication.
      */
-    SOCKET
+    SOCKET,
+
+    /**
+     * Use non-blocking TCP sockets (NIO) for cluster wide communication.
+     * <p>
+     * Uses the SocketConfig with a single selector thread. Transaction events are sent
+     * in binary form with several events batched into each frame.
+     * </p>
+     */
+    NIO
   }
 
   /**
@@ -339,6 +348,11 @@ public class ContainerConfig {
 
     String threadPoolName = "EbeanCluster";
 
+    /**
+     * The maximum bytes queued to send to a member before broadcast blocks (NIO mode).
+     */
+    int maxPendingBytes = 4 * 1024 * 1024;
+
     /**
      * Return the host and port for this server instance.
      */
@@ -408,6 +422,25 @@ public class ContainerConfig {
     public void setThreadPoolName(String threadPoolName) {
       this.threadPoolName = threadPoolName;
     }
+
+    /**
+     * Return the maximum bytes queued to send to a member (NIO mode).
+     */
+    public int getMaxPendingBytes() {
+      return maxPendingBytes;
+    }
+
+    /**
+     * Set the maximum bytes queued to send to a member (NIO mode).
+     * <p>
+     * When a connected member is not keeping up and this is exceeded the broadcast of
+     * transaction events waits (for up to 5 seconds) providing back pressure on the
+     * committing threads.
+     * </p>
+     */
+    public void setMaxPendingBytes(int maxPendingBytes) {
+      this.maxPendingBytes = maxPendingBytes;
+    }
   }
 
   // -------------------------------------------------------------------------------------------
@@ -43,6 +43,8 @@ public class DataSourceConfig {
   
   private boolean captureStackTrace;
 
+  private boolean lockFree;
+
   private int maxStackTraceSize = 5;
 
   private int leakTimeMinutes = 30;
@@ -260,6 +262,29 @@ public class DataSourceConfig {
     this.captureStackTrace = captureStackTrace;
   }
 
+  /**
+   * Return true if the pool should use lock free mode.
+   */
+  public boolean isLockFree() {
+    return lockFree;
+  }
+
+  /**
+   * Set to true to use lock free mode for the connection pool.
+   * <p>
+   * In this mode taking a connection from the pool and returning it does not use a
+   * lock. Each thread first tries to reuse the connection it last returned and otherwise
+   * takes a free connection from a shared lock free queue. The lock is only used to grow
+   * or trim the pool and by threads waiting for a connection.
+   * </p>
+   * <p>
+   * This reduces lock contention when there are many threads using the pool.
+   * </p>
+   */
+  public void setLockFree(boolean lockFree) {
+    this.lockFree = lockFree;
+  }
+
   /**
    * Return the max size for reporting stack traces on busy connections.
    */
@@ -484,6 +509,7 @@ public class DataSourceConfig {
 
     autoCommit = properties.getBoolean("autoCommit", autoCommit);
     captureStackTrace = properties.getBoolean("captureStackTrace", captureStackTrace);
+    lockFree = properties.getBoolean("lockFree", lockFree);
     maxStackTraceSize = properties.getInt("maxStackTraceSize", maxStackTraceSize);
     leakTimeMinutes = properties.getInt("leakTimeMinutes", leakTimeMinutes);
     maxInactiveTimeSecs = properties.getInt("maxInactiveTimeSecs", maxInactiveTimeSecs);
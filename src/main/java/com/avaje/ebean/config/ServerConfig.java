@@ -27,6 +27,7 @@ import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * The configuration used for creating a EbeanServer.
@@ -129,6 +130,16 @@ public class ServerConfig {
    */
   private String classPathReaderClassName;
 
+  /**
+   * File the class path search results are written to and read from on later startups.
+   */
+  private String classPathSnapshot;
+
+  /**
+   * The number of threads used to deploy the entity beans.
+   */
+  private int deployParallelism = 1;
+
   /**
    * This is used to populate @WhoCreated, @WhoModified and
    * support other audit features (who executed a query etc).
@@ -196,6 +207,16 @@ public class ServerConfig {
 
   private int persistBatchSize = 20;
 
+  /**
+   * The window in millis over which post commit events are merged (0 for no merging).
+   */
+  private int postCommitBatchMillis;
+
+  /**
+   * The maximum number of transactions merged into one post commit batch.
+   */
+  private int postCommitBatchSize = 100;
+
   /** 
    * The default batch size for lazy loading 
    */
@@ -206,6 +227,12 @@ public class ServerConfig {
    */
   private int queryBatchSize = 100;
 
+  private boolean parallelSecondaryQueries;
+
+  private int parallelQueryPoolSize = 4;
+
+  private boolean findIteratePrefetch;
+
   private boolean eagerFetchLobs;
 
   private boolean ddlGenerate;
@@ -342,6 +369,11 @@ public class ServerConfig {
    */
   private PersistenceContextScope persistenceContextScope = PersistenceContextScope.TRANSACTION;
 
+  /**
+   * Set to true to use a PersistenceContext implementation for concurrent use.
+   */
+  private boolean concurrentPersistenceContext;
+
   private JsonFactory jsonFactory;
 
   private boolean localTimeWithNanos;
@@ -362,6 +394,12 @@ public class ServerConfig {
   private int backgroundExecutorIdleSecs = 60;
   private int backgroundExecutorShutdownSecs = 30;
 
+  // configuration for the asynchronous query executor
+
+  private int asyncQueryPoolSize = 4;
+  private int asyncQueryQueueSize = 1000;
+  private ThreadFactory asyncQueryThreadFactory;
+
   // defaults for the L2 bean caching
 
   private int cacheWarmingDelay = 30;
@@ -374,6 +412,10 @@ public class ServerConfig {
   private int queryCacheMaxSize = 1000;
   private int queryCacheMaxIdleTime = 600;
   private int queryCacheMaxTimeToLive = 60*60*6;
+
+  // max number of query plans held per bean type
+
+  private int queryPlanCacheMaxSize = 1000;
   private Object objectMapper;
 
   /**
@@ -620,6 +662,49 @@ public class ServerConfig {
     this.persistBatchSize = persistBatchSize;
   }
 
+  /**
+   * Return the window in milliseconds over which post commit events are merged.
+   * This defaults to 0 meaning each commit is processed individually.
+   */
+  public int getPostCommitBatchMillis() {
+    return postCommitBatchMillis;
+  }
+
+  /**
+   * Set the window in milliseconds over which post commit events are merged.
+   * <p>
+   * When set (greater than 0) the post commit processing of transactions committed
+   * within the window is merged such that a single RemoteTransactionEvent is broadcast
+   * to the cluster (with the changes merged per table and bean type) and the
+   * BeanPersistListeners are notified by one background task. The local L2 cache is
+   * still notified as part of each commit.
+   * </p>
+   * <p>
+   * This is a throughput optimisation for high commit rates on the same tables at the
+   * cost of delaying the cluster notification by up to the window.
+   * </p>
+   */
+  public void setPostCommitBatchMillis(int postCommitBatchMillis) {
+    this.postCommitBatchMillis = postCommitBatchMillis;
+  }
+
+  /**
+   * Return the maximum number of transactions merged into one post commit batch.
+   * This defaults to 100.
+   */
+  public int getPostCommitBatchSize() {
+    return postCommitBatchSize;
+  }
+
+  /**
+   * Set the maximum number of transactions merged into one post commit batch. When this
+   * number of transactions is pending the batch is processed without waiting for the
+   * window to elapse.
+   */
+  public void setPostCommitBatchSize(int postCommitBatchSize) {
+    this.postCommitBatchSize = postCommitBatchSize;
+  }
+
   /**
    * Gets the query batch size. This defaults to 100.
    * 
@@ -639,6 +724,68 @@ public class ServerConfig {
     this.queryBatchSize = queryBatchSize;
   }
 
+  /**
+   * Return true if independent secondary queries (query joins) execute in parallel.
+   */
+  public boolean isParallelSecondaryQueries() {
+    return parallelSecondaryQueries;
+  }
+
+  /**
+   * Set to true to execute independent secondary queries (query joins) in parallel.
+   * <p>
+   * When a query has multiple query joins (e.g. customer orders and customer contacts)
+   * these are executed in parallel (see {@link #setParallelQueryPoolSize(int)}) with each
+   * using its own read only transaction. This only occurs when the query is not executing
+   * in an existing transaction. This defaults to false.
+   * </p>
+   */
+  public void setParallelSecondaryQueries(boolean parallelSecondaryQueries) {
+    this.parallelSecondaryQueries = parallelSecondaryQueries;
+  }
+
+  /**
+   * Return the number of threads used to execute parallel secondary queries and findIterate
+   * prefetch. Defaults to 4.
+   */
+  public int getParallelQueryPoolSize() {
+    return parallelQueryPoolSize;
+  }
+
+  /**
+   * Set the number of threads used to execute parallel secondary queries and findIterate
+   * prefetch (see {@link #setFindIteratePrefetch(boolean)}).
+   * <p>
+   * Each executing query uses a connection so this should be sized relative to the
+   * DataSource maximum connections. When all the threads are busy (and the queue is full)
+   * the queries execute in the calling thread.
+   * </p>
+   */
+  public void setParallelQueryPoolSize(int parallelQueryPoolSize) {
+    this.parallelQueryPoolSize = parallelQueryPoolSize;
+  }
+
+  /**
+   * Return true if findIterate() and findEach() prefetch the next buffer of beans in the background.
+   */
+  public boolean isFindIteratePrefetch() {
+    return findIteratePrefetch;
+  }
+
+  /**
+   * Set to true for findIterate() and findEach() to prefetch the next buffer of beans in the background.
+   * <p>
+   * This applies to queries with secondary queries (query joins) where the beans are loaded in
+   * buffers. The next buffer of beans is read and its secondary queries executed in the
+   * background (see {@link #setParallelQueryPoolSize(int)}) while the application processes
+   * the current buffer. This only occurs when
+   * the query is not executing in an existing transaction. This defaults to false.
+   * </p>
+   */
+  public void setFindIteratePrefetch(boolean findIteratePrefetch) {
+    this.findIteratePrefetch = findIteratePrefetch;
+  }
+
   /**
    * Return the default batch size for lazy loading of beans and collections.
    */
@@ -1027,6 +1174,59 @@ public class ServerConfig {
     this.backgroundExecutorShutdownSecs = backgroundExecutorShutdownSecs;
   }
 
+  /**
+   * Return the number of threads used to execute asynchronous queries. Defaults to 4.
+   */
+  public int getAsyncQueryPoolSize() {
+    return asyncQueryPoolSize;
+  }
+
+  /**
+   * Set the number of threads used to execute asynchronous queries such as
+   * {@link com.avaje.ebean.Query#findListAsync()}.
+   * <p>
+   * These queries execute on their own executor (rather than the background executor)
+   * and each executing query uses a connection so this should be sized relative to the
+   * DataSource maximum connections.
+   * </p>
+   */
+  public void setAsyncQueryPoolSize(int asyncQueryPoolSize) {
+    this.asyncQueryPoolSize = asyncQueryPoolSize;
+  }
+
+  /**
+   * Return the maximum number of asynchronous queries waiting to execute. Defaults to 1000.
+   */
+  public int getAsyncQueryQueueSize() {
+    return asyncQueryQueueSize;
+  }
+
+  /**
+   * Set the maximum number of asynchronous queries waiting to execute. When the queue
+   * is full further asynchronous queries fail with a PersistenceException.
+   */
+  public void setAsyncQueryQueueSize(int asyncQueryQueueSize) {
+    this.asyncQueryQueueSize = asyncQueryQueueSize;
+  }
+
+  /**
+   * Return the ThreadFactory used by the asynchronous query executor (null for daemon threads).
+   */
+  public ThreadFactory getAsyncQueryThreadFactory() {
+    return asyncQueryThreadFactory;
+  }
+
+  /**
+   * Set the ThreadFactory used by the asynchronous query executor.
+   * <p>
+   * By default daemon threads are used. This can be set to a factory creating lightweight
+   * (virtual) threads when running on a JVM that supports them.
+   * </p>
+   */
+  public void setAsyncQueryThreadFactory(ThreadFactory asyncQueryThreadFactory) {
+    this.asyncQueryThreadFactory = asyncQueryThreadFactory;
+  }
+
   /**
    * Return the cache warming delay in seconds.
    */
@@ -1097,6 +1297,23 @@ public class ServerConfig {
     this.queryCacheMaxSize = queryCacheMaxSize;
   }
 
+  /**
+   * Return the max number of query plans held per bean type.
+   */
+  public int getQueryPlanCacheMaxSize() {
+    return queryPlanCacheMaxSize;
+  }
+
+  /**
+   * Set the max number of query plans held per bean type (0 for unbounded).
+   * <p>
+   * When exceeded the least frequently used query plans are evicted.
+   * </p>
+   */
+  public void setQueryPlanCacheMaxSize(int queryPlanCacheMaxSize) {
+    this.queryPlanCacheMaxSize = queryPlanCacheMaxSize;
+  }
+
   /**
    * Return the L2 query cache default max idle time in seconds.
    */
@@ -1692,6 +1909,48 @@ public class ServerConfig {
     this.classPathReaderClassName = classPathReaderClassName;
   }
 
+  /**
+   * Return the file used to snapshot the class path search results.
+   */
+  public String getClassPathSnapshot() {
+    return classPathSnapshot;
+  }
+
+  /**
+   * Set a file used to snapshot the class path search results.
+   * <p>
+   * When the file does not exist the class path is searched and the names of the interesting
+   * classes (entities, embeddables, listeners etc) are written to the file. Later startups read
+   * the class names from the file and skip the class path search. Delete the file (or use a
+   * build step to regenerate it) when entities are added or removed. If a class in the snapshot
+   * can not be loaded the class path is searched again and the snapshot rewritten.
+   * </p>
+   */
+  public void setClassPathSnapshot(String classPathSnapshot) {
+    this.classPathSnapshot = classPathSnapshot;
+  }
+
+  /**
+   * Return the number of threads used to deploy the entity beans. Defaults to 1.
+   */
+  public int getDeployParallelism() {
+    return deployParallelism;
+  }
+
+  /**
+   * Set the number of threads used to deploy the entity beans.
+   * <p>
+   * Reading the annotations and deployment information of each entity bean is independent
+   * of the other entity beans and with a value greater than 1 this is done in parallel.
+   * This can reduce startup time for applications with many entity beans. Any custom
+   * NamingConvention, EncryptDeployManager or ChangeLogRegister must be thread safe
+   * to use this.
+   * </p>
+   */
+  public void setDeployParallelism(int deployParallelism) {
+    this.deployParallelism = deployParallelism;
+  }
+
   /**
    * Set the list of classes (entities, listeners, scalarTypes etc) that should
    * be used for this server.
@@ -2034,6 +2293,27 @@ public class ServerConfig {
     this.persistenceContextScope = persistenceContextScope;
   }
 
+  /**
+   * Return true if the PersistenceContext implementation for concurrent use is used.
+   */
+  public boolean isConcurrentPersistenceContext() {
+    return concurrentPersistenceContext;
+  }
+
+  /**
+   * Set to true to use a PersistenceContext implementation for concurrent use.
+   * <p>
+   * The default PersistenceContext is optimised for single threaded use (a transaction or
+   * query is typically used by a single thread). Set this to true when a persistence context
+   * is commonly shared by multiple threads such as with parallel secondary queries
+   * (see {@link #setParallelSecondaryQueries(boolean)}) or lazy loading in background threads.
+   * This applies to both TRANSACTION and QUERY scoped persistence contexts.
+   * </p>
+   */
+  public void setConcurrentPersistenceContext(boolean concurrentPersistenceContext) {
+    this.concurrentPersistenceContext = concurrentPersistenceContext;
+  }
+
   /**
    * Return the ClassLoadConfig which is used to detect Joda, Java8 types etc and also
    * create new instances of plugins given a className.
@@ -2170,6 +2450,8 @@ public class ServerConfig {
     serverCacheManager = createInstance(p, ServerCacheManager.class, "serverCacheManager", serverCacheManager);
     cacheWarmingDelay = p.getInt("cacheWarmingDelay", cacheWarmingDelay);
     classPathReaderClassName = p.get("classpathreader");
+    classPathSnapshot = p.get("classPathSnapshot", classPathSnapshot);
+    deployParallelism = p.getInt("deployParallelism", deployParallelism);
     
     String jarsProp = p.get("search.jars", p.get("jars", null));
     if (jarsProp != null) {
@@ -2199,8 +2481,13 @@ public class ServerConfig {
 
     int batchSize = p.getInt("batch.size", persistBatchSize);
     persistBatchSize = p.getInt("persistBatchSize", batchSize);
+    postCommitBatchMillis = p.getInt("postCommitBatchMillis", postCommitBatchMillis);
+    postCommitBatchSize = p.getInt("postCommitBatchSize", postCommitBatchSize);
+    asyncQueryPoolSize = p.getInt("asyncQueryPoolSize", asyncQueryPoolSize);
+    asyncQueryQueueSize = p.getInt("asyncQueryQueueSize", asyncQueryQueueSize);
 
     persistenceContextScope = PersistenceContextScope.valueOf(p.get("persistenceContextScope", "TRANSACTION"));
+    concurrentPersistenceContext = p.getBoolean("concurrentPersistenceContext", concurrentPersistenceContext);
 
     changeLogIncludeInserts = p.getBoolean("changeLogIncludeInserts", changeLogIncludeInserts);
     expressionEqualsWithNullAsNoop = p.getBoolean("expressionEqualsWithNullAsNoop", expressionEqualsWithNullAsNoop);
@@ -2221,6 +2508,10 @@ public class ServerConfig {
 
     lazyLoadBatchSize = p.getInt("lazyLoadBatchSize", lazyLoadBatchSize);
     queryBatchSize = p.getInt("queryBatchSize", queryBatchSize);
+    parallelSecondaryQueries = p.getBoolean("parallelSecondaryQueries", parallelSecondaryQueries);
+    parallelQueryPoolSize = p.getInt("parallelQueryPoolSize", parallelQueryPoolSize);
+    findIteratePrefetch = p.getBoolean("findIteratePrefetch", findIteratePrefetch);
+    queryPlanCacheMaxSize = p.getInt("queryPlanCacheMaxSize", queryPlanCacheMaxSize);
 
     jsonInclude = p.getEnum(JsonConfig.Include.class, "jsonInclude", jsonInclude);
     String jsonDateTimeFormat = p.get("jsonDateTime", null);
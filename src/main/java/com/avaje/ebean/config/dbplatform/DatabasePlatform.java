@@ -132,6 +132,11 @@ public class DatabasePlatform {
 
   protected boolean idInExpandedForm;
 
+  /**
+   * Set to true if 'in' expression values can be bound as a single array parameter.
+   */
+  protected boolean bindInListAsArray;
+
   protected boolean selectCountWithAlias;
 
   /**
@@ -161,6 +166,27 @@ public class DatabasePlatform {
    */
   protected int maxConstraintNameLength = 60;
 
+  /**
+   * The maximum number of bind values used in a single IN clause (such as the Id's
+   * of a deleteAll()). Larger lists of Id's are processed in chunks of this size.
+   */
+  protected int maxInBinding = 1000;
+
+  /**
+   * The maximum number of bind parameters supported by a single statement.
+   */
+  protected int maxBindParameters = 2000;
+
+  /**
+   * Set to true to execute batched inserts using multi-row insert statements.
+   */
+  protected boolean multiRowBatchInsert;
+
+  /**
+   * Set to true if multi-row inserts can return the generated keys via insert ... returning.
+   */
+  protected boolean insertReturning;
+
   /**
    * Instantiates a new database platform.
    */
@@ -195,6 +221,72 @@ public class DatabasePlatform {
     return maxConstraintNameLength;
   }
 
+  /**
+   * Return the maximum number of bind values used in a single IN clause.
+   * <p>
+   * Deleting by a large list of Id's (including the cascade to children) is processed
+   * in chunks such that this many bind values are used per statement.
+   * </p>
+   */
+  public int getMaxInBinding() {
+    return maxInBinding;
+  }
+
+  /**
+   * Set the maximum number of bind values used in a single IN clause.
+   */
+  public void setMaxInBinding(int maxInBinding) {
+    this.maxInBinding = maxInBinding;
+  }
+
+  /**
+   * Return the maximum number of bind parameters supported by a single statement.
+   * <p>
+   * Batched multi-row inserts are limited to this many bind parameters per statement.
+   * </p>
+   */
+  public int getMaxBindParameters() {
+    return maxBindParameters;
+  }
+
+  /**
+   * Set the maximum number of bind parameters supported by a single statement.
+   */
+  public void setMaxBindParameters(int maxBindParameters) {
+    this.maxBindParameters = maxBindParameters;
+  }
+
+  /**
+   * Return true if batched inserts are executed using multi-row insert statements.
+   * <p>
+   * The inserts of a batch are rewritten into <code>insert ... values (..),(..)</code>
+   * statements rather than executed via JDBC batch (which some drivers execute using
+   * a round trip per row). Inserts that use generated keys are only rewritten when
+   * the platform supports <code>insert ... returning</code>.
+   * </p>
+   */
+  public boolean isMultiRowBatchInsert() {
+    return multiRowBatchInsert;
+  }
+
+  /**
+   * Set to true to execute batched inserts using multi-row insert statements.
+   * <p>
+   * This is off by default and should only be set for databases that support multiple
+   * rows in the values clause. This must be set before the EbeanServer is created.
+   * </p>
+   */
+  public void setMultiRowBatchInsert(boolean multiRowBatchInsert) {
+    this.multiRowBatchInsert = multiRowBatchInsert;
+  }
+
+  /**
+   * Return true if multi-row inserts can return the generated keys via insert ... returning.
+   */
+  public boolean isInsertReturning() {
+    return insertReturning;
+  }
+
   /**
    * Return the platform specific DDL.
    */
@@ -385,6 +477,26 @@ public class DatabasePlatform {
     return idInExpandedForm;
   }
 
+  /**
+   * Return true if the values of an 'in' expression can be bound as a single array
+   * parameter (rather than a placeholder per value).
+   * <p>
+   * This means the sql does not change with the number of values so the query plan
+   * and database prepared statement are reused. When false the number of values is
+   * padded to limit the number of distinct sql statements.
+   * </p>
+   */
+  public boolean isBindInListAsArray() {
+    return bindInListAsArray;
+  }
+
+  /**
+   * Set to false to turn off binding 'in' expression values as a single array parameter.
+   */
+  public void setBindInListAsArray(boolean bindInListAsArray) {
+    this.bindInListAsArray = bindInListAsArray;
+  }
+
   /**
    * Return true if the ResultSet TYPE_FORWARD_ONLY Hint should be used on
    * findIterate() and findVisit() PreparedStatements.
@@ -19,6 +19,8 @@ public class MsSqlServer2005Platform extends DatabasePlatform {
   public MsSqlServer2005Platform() {
     super();
     this.name = "mssqlserver2005";
+    // limit of 2100 parameters per statement
+    this.maxInBinding = 2000;
     // effectively disable persistBatchOnCascade mode for SQL Server
     // due to lack of support for getGeneratedKeys in batch mode
     this.disallowBatchOnCascade = true;
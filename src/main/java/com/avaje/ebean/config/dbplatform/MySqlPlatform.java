@@ -21,6 +21,8 @@ public class MySqlPlatform extends DatabasePlatform {
   public MySqlPlatform() {
     super();
     this.name = "mysql";
+    this.maxInBinding = 5000;
+    this.maxBindParameters = 65535;
     this.useExtraTransactionOnIterateSecondaryQueries = true;
     this.likeClause = "like ? escape''";
     this.selectCountWithAlias = true;
@@ -9,6 +9,9 @@ public class SQLitePlatform extends DatabasePlatform {
   public SQLitePlatform() {
     super();
     this.name = "sqlite";
+    // limit of 999 host parameters per statement by default
+    this.maxInBinding = 500;
+    this.maxBindParameters = 999;
     this.platformDdl = new SQLiteDdl(dbTypeMap, dbIdentity);
 
     this.dbIdentity.setIdType(IdType.IDENTITY);
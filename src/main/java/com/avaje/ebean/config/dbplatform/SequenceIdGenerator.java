@@ -5,6 +5,13 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.persistence.PersistenceException;
 import javax.sql.DataSource;
@@ -16,20 +23,42 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Database sequence based IdGenerator.
+ * <p>
+ * Sequence values are loaded in batches and held as blocks of primitive longs. Taking
+ * the next id is lock free (an increment on the current block and a compare and set to
+ * move to the next loaded block). Loading is single threaded and occurs in the background
+ * when the number of available ids drops below half the batch size. A caller only blocks
+ * when there are no ids available at all (see {@link #getBlockedCount()}).
+ * </p>
+ * <p>
+ * The batch size adapts to the rate ids are consumed. When a batch is used up quickly the
+ * batch size doubles (up to {@link #getMaxBatchSize()}) and when it is used up slowly the
+ * batch size halves (down to the configured batch size).
+ * </p>
  */
 public abstract class SequenceIdGenerator implements IdGenerator {
 
   private static final Logger logger = LoggerFactory.getLogger(SequenceIdGenerator.class);
 
   /**
-   * Used to synchronise the idList access.
+   * The default upper limit for the adaptive batch size.
    */
-  protected final Object monitor = new Object();
+  public static final int DEFAULT_MAX_BATCH_SIZE = 5000;
 
   /**
-   * Used to synchronise background loading (loadBatchInBackground).
+   * A batch consumed faster than this increases the batch size.
    */
-  protected final Object backgroundLoadMonitor = new Object();
+  private static final long FAST_CONSUMPTION_MILLIS = 1000;
+
+  /**
+   * A batch consumed slower than this decreases the batch size.
+   */
+  private static final long SLOW_CONSUMPTION_MILLIS = 30000;
+
+  /**
+   * Used to make loading the sequence values single threaded.
+   */
+  protected final ReentrantLock loadLock = new ReentrantLock();
 
   /**
    * The actual sequence name.
@@ -40,20 +69,93 @@ public abstract class SequenceIdGenerator implements IdGenerator {
 
   protected final BackgroundExecutor backgroundExecutor;
 
-  protected final ArrayList<Long> idList = new ArrayList<Long>(50);
-
+  /**
+   * The configured (minimum) batch size.
+   */
   protected final int batchSize;
 
-  protected int currentlyBackgroundLoading;
+  /**
+   * The maximum the batch size can grow to.
+   */
+  protected final int maxBatchSize;
+
+  /**
+   * Flag set when a background load has been requested and not yet completed.
+   */
+  protected final AtomicBoolean backgroundLoading = new AtomicBoolean();
+
+  /**
+   * The number of loaded ids not yet taken.
+   */
+  private final AtomicLong available = new AtomicLong();
+
+  /**
+   * The number of times a caller had to wait for ids to be loaded.
+   */
+  private final AtomicLong blockedCount = new AtomicLong();
+
+  /**
+   * The number of times sequence values were loaded.
+   */
+  private final AtomicLong loadCount = new AtomicLong();
+
+  /**
+   * The block ids are currently taken from.
+   */
+  private final AtomicReference<IdBlock> current;
+
+  /**
+   * The last loaded block (guarded by loadLock).
+   */
+  private IdBlock tail;
+
+  /**
+   * The current (adaptive) batch size.
+   */
+  private volatile int currentBatchSize;
+
+  private volatile long lastLoadTime;
+
+  /**
+   * True when a subclass overrides the deprecated {@link #getMoreIds(int, Transaction)}.
+   */
+  private final boolean legacyGetMoreIds;
 
   /**
    * Construct given a dataSource and sql to return the next sequence value.
    */
   public SequenceIdGenerator(BackgroundExecutor be, DataSource ds, String seqName, int batchSize) {
+    this(be, ds, seqName, batchSize, Math.max(batchSize, DEFAULT_MAX_BATCH_SIZE));
+  }
+
+  /**
+   * Construct with a maximum the batch size can adapt up to.
+   */
+  public SequenceIdGenerator(BackgroundExecutor be, DataSource ds, String seqName, int batchSize, int maxBatchSize) {
     this.backgroundExecutor = be;
     this.dataSource = ds;
     this.seqName = seqName;
     this.batchSize = batchSize;
+    this.maxBatchSize = Math.max(batchSize, maxBatchSize);
+    this.currentBatchSize = batchSize;
+    this.tail = new IdBlock(new long[0]);
+    this.current = new AtomicReference<IdBlock>(tail);
+    this.legacyGetMoreIds = isGetMoreIdsOverridden(getClass());
+  }
+
+  /**
+   * Return true if the class overrides the deprecated getMoreIds() method.
+   */
+  private static boolean isGetMoreIdsOverridden(Class<?> cls) {
+    for (; cls != SequenceIdGenerator.class; cls = cls.getSuperclass()) {
+      try {
+        cls.getDeclaredMethod("getMoreIds", int.class, Transaction.class);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // check the super class
+      }
+    }
+    return false;
   }
 
   public abstract String getSql(int batchSize);
@@ -72,6 +174,44 @@ public abstract class SequenceIdGenerator implements IdGenerator {
     return true;
   }
 
+  /**
+   * Return the current batch size (which adapts to the rate ids are used).
+   */
+  public int getCurrentBatchSize() {
+    return currentBatchSize;
+  }
+
+  /**
+   * Return the maximum the batch size can grow to.
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Return the number of times a caller blocked waiting for sequence values to be loaded.
+   * <p>
+   * A high value relative to the number of inserts suggests the batch size should be larger.
+   * </p>
+   */
+  public long getBlockedCount() {
+    return blockedCount.get();
+  }
+
+  /**
+   * Return the number of times sequence values have been loaded.
+   */
+  public long getLoadCount() {
+    return loadCount.get();
+  }
+
+  /**
+   * Return the number of loaded ids that are available.
+   */
+  public long getAvailable() {
+    return Math.max(0, available.get());
+  }
+
   /**
    * If allocateSize is large load some sequences in a background thread.
    * <p>
@@ -80,12 +220,10 @@ public abstract class SequenceIdGenerator implements IdGenerator {
    * </p>
    */
   public void preAllocateIds(int allocateSize) {
-    if (batchSize > 1 && allocateSize > batchSize) {
-      // only bother if allocateSize is bigger than
-      // the normal loading batchSize
-      if (allocateSize > 100) {
-        // max out at 100 for now
-        allocateSize = 100;
+    if (batchSize > 1 && allocateSize > getAvailable()) {
+      // only bother if we don't already have enough ids loaded
+      if (allocateSize > maxBatchSize) {
+        allocateSize = maxBatchSize;
       }
       loadLargeAllocation(allocateSize);
     }
@@ -112,20 +250,48 @@ public abstract class SequenceIdGenerator implements IdGenerator {
    * </p>
    */
   public Object nextId(Transaction t) {
-    synchronized (monitor) {
-
-      if (idList.size() == 0) {
-        loadMoreIds(batchSize, t);
-      }
-      Long nextId = idList.remove(0);
 
-      if (batchSize > 1) {
-        if (idList.size() <= batchSize / 2) {
+    for (; ; ) {
+      IdBlock block = current.get();
+      int pos = block.position.getAndIncrement();
+      if (pos < block.ids.length) {
+        long remaining = available.decrementAndGet();
+        if (batchSize > 1 && remaining <= currentBatchSize / 2) {
           loadBatchInBackground();
         }
+        return block.ids[pos];
       }
 
-      return nextId;
+      IdBlock next = block.next;
+      if (next != null) {
+        // move to the next block, if this fails another thread has already moved
+        current.compareAndSet(block, next);
+
+      } else {
+        loadBlocking(block, t);
+      }
+    }
+  }
+
+  /**
+   * Load more ids with the calling thread as there are none available.
+   */
+  private void loadBlocking(IdBlock block, Transaction t) {
+
+    blockedCount.incrementAndGet();
+    loadLock.lock();
+    try {
+      if (block.next == null) {
+        // still nothing loaded so load now using the transaction (if supplied)
+        if (batchSize > 1) {
+          adaptBatchSize(true);
+        }
+        if (loadMoreIds(currentBatchSize, t) == 0) {
+          throw new PersistenceException("No sequence values returned for " + seqName);
+        }
+      }
+    } finally {
+      loadLock.unlock();
     }
   }
 
@@ -134,51 +300,110 @@ public abstract class SequenceIdGenerator implements IdGenerator {
    */
   protected void loadBatchInBackground() {
 
-    // single threaded processing...
-    synchronized (backgroundLoadMonitor) {
+    if (!backgroundLoading.compareAndSet(false, true)) {
+      // skip as already background loading
+      return;
+    }
 
-      if (currentlyBackgroundLoading > 0) {
-        // skip as already background loading
-        logger.debug("... skip background sequence load (another load in progress)");
-        return;
+    adaptBatchSize(false);
+    final int loadSize = currentBatchSize;
+
+    backgroundExecutor.execute(new Runnable() {
+      public void run() {
+        try {
+          loadMoreIds(loadSize, null);
+        } finally {
+          backgroundLoading.set(false);
+        }
       }
+    });
+  }
 
-      currentlyBackgroundLoading = batchSize;
+  /**
+   * Adjust the batch size based on how quickly the last batch was consumed.
+   */
+  private void adaptBatchSize(boolean blocked) {
 
-      backgroundExecutor.execute(new Runnable() {
-        public void run() {
-          loadMoreIds(batchSize, null);
-          synchronized (backgroundLoadMonitor) {
-            currentlyBackgroundLoading = 0;
-          }
-        }
-      });
+    long now = System.currentTimeMillis();
+    long lastTime = lastLoadTime;
+    lastLoadTime = now;
+    if (lastTime == 0) {
+      return;
+    }
+
+    int size = currentBatchSize;
+    long elapsed = now - lastTime;
+    if ((blocked || elapsed < FAST_CONSUMPTION_MILLIS) && size < maxBatchSize) {
+      currentBatchSize = Math.min(maxBatchSize, size * 2);
+      logger.debug("... seq:{} batch size increased to {}", seqName, currentBatchSize);
+
+    } else if (elapsed > SLOW_CONSUMPTION_MILLIS && size > batchSize) {
+      currentBatchSize = Math.max(batchSize, size / 2);
+      logger.debug("... seq:{} batch size decreased to {}", seqName, currentBatchSize);
     }
   }
 
-  protected void loadMoreIds(final int numberToLoad, Transaction t) {
+  /**
+   * Load the ids and make them available returning the number of ids loaded.
+   */
+  protected int loadMoreIds(final int numberToLoad, Transaction t) {
 
-    ArrayList<Long> newIds = getMoreIds(numberToLoad, t);
+    loadLock.lock();
+    try {
+      long[] newIds = legacyGetMoreIds ? toArray(getMoreIds(numberToLoad, t)) : getMoreIdValues(numberToLoad, t);
+      loadCount.incrementAndGet();
 
-    if (logger.isDebugEnabled()) {
-      logger.debug("... seq:" + seqName + " loaded:" + numberToLoad + " ids:" + newIds);
-    }
+      if (logger.isDebugEnabled()) {
+        logger.debug("... seq:" + seqName + " loaded:" + newIds.length);
+      }
 
-    synchronized (monitor) {
-      for (int i = 0; i < newIds.size(); i++) {
-        idList.add(newIds.get(i));
+      if (newIds.length > 0) {
+        IdBlock block = new IdBlock(newIds);
+        // make the ids available before publishing the block
+        available.addAndGet(newIds.length);
+        tail.next = block;
+        tail = block;
       }
+      return newIds.length;
+
+    } finally {
+      loadLock.unlock();
+    }
+  }
+
+  private static long[] toArray(List<Long> ids) {
+    long[] values = new long[ids.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = ids.get(i);
     }
+    return values;
   }
 
   /**
    * Get more Id's by executing a query and reading the Id's returned.
+   *
+   * @deprecated Override {@link #getMoreIdValues(int, Transaction)} instead. This is only
+   * called when a subclass overrides it.
    */
+  @Deprecated
   protected ArrayList<Long> getMoreIds(int loadSize, Transaction t) {
+    long[] values = getMoreIdValues(loadSize, t);
+    ArrayList<Long> ids = new ArrayList<Long>(values.length);
+    for (int i = 0; i < values.length; i++) {
+      ids.add(values[i]);
+    }
+    return ids;
+  }
+
+  /**
+   * Get more Id's by executing a query and reading the Id's returned.
+   */
+  protected long[] getMoreIdValues(int loadSize, Transaction t) {
 
     String sql = getSql(loadSize);
 
-    ArrayList<Long> newIds = new ArrayList<Long>(loadSize);
+    long[] newIds = new long[loadSize];
+    int count = 0;
 
     boolean useTxnConnection = t != null;
 
@@ -191,20 +416,23 @@ public abstract class SequenceIdGenerator implements IdGenerator {
       pstmt = c.prepareStatement(sql);
       rset = pstmt.executeQuery();
       while (rset.next()) {
-        newIds.add(rset.getLong(1));
+        if (count == newIds.length) {
+          newIds = Arrays.copyOf(newIds, Math.max(1, count * 2));
+        }
+        newIds[count++] = rset.getLong(1);
       }
-      if (newIds.size() == 0) {
+      if (count == 0) {
         throw new PersistenceException("Always expecting more than 1 row from " + sql);
       }
 
-      return newIds;
+      return count == newIds.length ? newIds : Arrays.copyOf(newIds, count);
 
     } catch (SQLException e) {
       if (e.getMessage().contains("Database is already closed")) {
         String msg = "Error getting SEQ when DB shutting down " + e.getMessage();
         logger.info(msg);
         System.out.println(msg);
-        return newIds;
+        return new long[0];
       } else {
         throw new PersistenceException("Error getting sequence nextval", e);
       }
@@ -244,4 +472,22 @@ public abstract class SequenceIdGenerator implements IdGenerator {
     }
   }
 
+  /**
+   * A block of loaded sequence values.
+   */
+  private static final class IdBlock {
+
+    final long[] ids;
+
+    final AtomicInteger position = new AtomicInteger();
+
+    /**
+     * The block loaded after this one.
+     */
+    volatile IdBlock next;
+
+    IdBlock(long[] ids) {
+      this.ids = ids;
+    }
+  }
 }
@@ -14,4 +14,9 @@ public interface MetaBeanInfo {
    */  
   List<MetaQueryPlanStatistic> collectAllQueryPlanStatistics(boolean reset);
 
+  /**
+   * Return the hit, miss and eviction statistics of the query plan cache.
+   */
+  MetaQueryPlanCacheStatistic getQueryPlanCacheStatistic(boolean reset);
+
 }
@@ -26,6 +26,31 @@ public interface MetaInfoManager {
    */
   List<MetaQueryPlanStatistic> collectQueryPlanStatistics(boolean reset);
 
+  /**
+   * Collect and return the query plan cache statistics (hits, misses and evictions)
+   * for all the beans.
+   * <p>
+   * The number of query plans held per bean type is bounded by
+   * {@link com.avaje.ebean.config.ServerConfig#setQueryPlanCacheMaxSize(int)} and a
+   * high eviction count suggests ad hoc queries (such as dynamic 'in' list sizes)
+   * are creating many query plans.
+   * </p>
+   *
+   * @param reset Set to true to reset the underlying statistics after collection.
+   */
+  List<MetaQueryPlanCacheStatistic> collectQueryPlanCacheStatistics(boolean reset);
+
+  /**
+   * Collect and return the statistics of the executor used for asynchronous queries.
+   * <p>
+   * A growing queue depth and wait time suggest the executor is undersized relative to the
+   * asynchronous query load (see {@link com.avaje.ebean.config.ServerConfig#setAsyncQueryPoolSize(int)}).
+   * </p>
+   *
+   * @param reset Set to true to reset the underlying statistics after collection.
+   */
+  MetaQueryExecutorStatistic collectQueryExecutorStatistic(boolean reset);
+
   /**
    * Collect and return the ObjectGraphNode statistics.
    * <p>
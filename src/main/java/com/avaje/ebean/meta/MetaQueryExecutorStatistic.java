@@ -0,0 +1,60 @@
+package com.avaje.ebean.meta;
+
+/**
+ * Statistics of the executor used for asynchronous queries.
+ *
+ * @see MetaInfoManager#collectQueryExecutorStatistic(boolean)
+ * @see com.avaje.ebean.Query#findListAsync()
+ */
+public interface MetaQueryExecutorStatistic {
+
+  /**
+   * Return the number of threads of the executor.
+   */
+  int getPoolSize();
+
+  /**
+   * Return the number of threads currently executing queries.
+   */
+  int getActiveCount();
+
+  /**
+   * Return the number of queries currently waiting in the queue.
+   */
+  int getQueueDepth();
+
+  /**
+   * Return the maximum number of queries waiting in the queue.
+   */
+  int getMaxQueueDepth();
+
+  /**
+   * Return the maximum number of queries that can wait in the queue.
+   */
+  int getQueueCapacity();
+
+  /**
+   * Return the number of queries submitted.
+   */
+  long getSubmitCount();
+
+  /**
+   * Return the number of queries rejected as the queue was full.
+   */
+  long getRejectCount();
+
+  /**
+   * Return the total time in microseconds queries waited in the queue before executing.
+   */
+  long getTotalWaitMicros();
+
+  /**
+   * Return the maximum time in microseconds a query waited in the queue before executing.
+   */
+  long getMaxWaitMicros();
+
+  /**
+   * Return the time collection of these statistics started.
+   */
+  long getCollectionStart();
+}
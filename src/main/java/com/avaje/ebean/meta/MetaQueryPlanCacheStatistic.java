@@ -0,0 +1,44 @@
+package com.avaje.ebean.meta;
+
+/**
+ * Statistics of the query plan cache for a bean type.
+ *
+ * @see MetaInfoManager#collectQueryPlanCacheStatistics(boolean)
+ */
+public interface MetaQueryPlanCacheStatistic {
+
+  /**
+   * Return the bean type the query plans are for.
+   */
+  Class<?> getBeanType();
+
+  /**
+   * Return the number of query plans currently held in the cache.
+   */
+  int getSize();
+
+  /**
+   * Return the maximum number of query plans held in the cache.
+   */
+  int getMaxSize();
+
+  /**
+   * Return the number of times a query plan was found in the cache.
+   */
+  long getHitCount();
+
+  /**
+   * Return the number of times a query plan was not found in the cache (and was built).
+   */
+  long getMissCount();
+
+  /**
+   * Return the number of query plans evicted from the cache.
+   */
+  long getEvictCount();
+
+  /**
+   * Return the time collection of these statistics started.
+   */
+  long getCollectionStart();
+}
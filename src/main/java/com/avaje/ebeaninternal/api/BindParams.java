@@ -31,12 +31,6 @@ public class BindParams implements Serializable {
 	 */
 	private String preparedSql;
 
-  /**
-   * Bind hash and count used to detect when the bind values have changed such
-   * that the generated SQL (with named parameters) needs to be recalculated.
-   */
-  private int[] bindHash;
-
 	public BindParams() {  
 	}
 	
@@ -272,20 +266,6 @@ public class BindParams implements Serializable {
 		return preparedSql;
 	}
 
-  /**
-   * Return true if the bind hash and count has not changed.
-   */
-  public boolean isSameBindHash() {
-
-    if (bindHash == null) {
-      bindHash = calcQueryPlanHash();
-      return false;
-    }
-    int[] oldPlan = bindHash;
-    bindHash = calcQueryPlanHash();
-    return bindHash[0] == oldPlan[0] && bindHash[1] == oldPlan[1];
-  }
-
   /**
    * Create a new positioned parameters orderedList.
    */
@@ -2,16 +2,20 @@ package com.avaje.ebeaninternal.api;
 
 /**
  * A hash for a query plan.
+ * <p>
+ * The plan hash is 64 bits such that distinct query plans are very unlikely to collide
+ * (and silently use the wrong query plan).
+ * </p>
  */
 public class HashQueryPlan {
 
   private final String rawSql;
   
-  private final int planHash;
+  private final long planHash;
   
   private final int bindCount;
 
-  public HashQueryPlan(String rawSql, int planHash, int bindCount) {
+  public HashQueryPlan(String rawSql, long planHash, int bindCount) {
     this.rawSql = rawSql;
     this.planHash = planHash;
     this.bindCount = bindCount;
@@ -31,7 +35,7 @@ public class HashQueryPlan {
   }
 
   public int hashCode() {
-    int hc = planHash;
+    int hc = (int) (planHash ^ (planHash >>> 32));
     hc = hc * 31 + bindCount;
     hc = hc * 31 + (rawSql == null ? 0 : rawSql.hashCode());
     return hc;
@@ -2,17 +2,25 @@ package com.avaje.ebeaninternal.api;
 
 /**
  * Used to build HashQueryPlan instances.
+ * <p>
+ * The hash is calculated as 64 bits (FNV-1a style mixing) and strings are hashed
+ * with 64 bits rather than using their 32 bit hashCode().
+ * </p>
  */
 public class HashQueryPlanBuilder {
 
-  private int planHash;
+  private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+  private static final long PRIME = 0x100000001b3L;
+
+  private long planHash;
   
   private int bindCount;
 
   private String rawSql;
   
   public HashQueryPlanBuilder() {
-    this.planHash = 31;
+    this.planHash = OFFSET_BASIS;
   }
 
   public String toString() {
@@ -23,7 +31,7 @@ public class HashQueryPlanBuilder {
    * Add a class to the hash calculation.
    */
   public HashQueryPlanBuilder add(Class<?> cls) {
-    planHash = planHash * 31 + cls.getName().hashCode();
+    mix(hash64(cls.getName()));
     return this;
   }
 
@@ -31,7 +39,11 @@ public class HashQueryPlanBuilder {
    * Add an object to the hash calculation.
    */
   public HashQueryPlanBuilder add(Object object) {
-    planHash = planHash * 31 + (object == null ? 0 : object.hashCode());
+    if (object instanceof String) {
+      mix(hash64((String) object));
+    } else {
+      mix(object == null ? 0 : object.hashCode());
+    }
     return this;
   }
 
@@ -39,7 +51,7 @@ public class HashQueryPlanBuilder {
    * Add an integer to the hash calculation.
    */
   public HashQueryPlanBuilder add(int hashValue) {
-    planHash = planHash * 31 + (hashValue);
+    mix(hashValue);
     return this;
   }
   
@@ -47,7 +59,7 @@ public class HashQueryPlanBuilder {
    * Add a boolean to the hash calculation.
    */
   public HashQueryPlanBuilder add(boolean booleanValue) {
-    planHash = planHash * 31 + (booleanValue ? 31 : 0);
+    mix(booleanValue ? 31 : 0);
     return this;
   }
   
@@ -72,5 +84,18 @@ public class HashQueryPlanBuilder {
     return new HashQueryPlan(rawSql, planHash, bindCount);
   }
 
-  
+  private void mix(long value) {
+    planHash = (planHash ^ value) * PRIME;
+  }
+
+  /**
+   * Return a 64 bit hash of the string.
+   */
+  private static long hash64(String value) {
+    long h = OFFSET_BASIS;
+    for (int i = 0; i < value.length(); i++) {
+      h = (h ^ value.charAt(i)) * PRIME;
+    }
+    return h;
+  }
 }
@@ -2,6 +2,7 @@ package com.avaje.ebeaninternal.api;
 
 import java.util.List;
 
+import com.avaje.ebean.Transaction;
 import com.avaje.ebean.bean.EntityBeanIntercept;
 import com.avaje.ebeaninternal.server.core.OrmQueryRequest;
 
@@ -22,18 +23,18 @@ public class LoadBeanRequest extends LoadRequest {
    * Construct for lazy load request.
    */
   public LoadBeanRequest(LoadBeanBuffer LoadBuffer, String lazyLoadProperty, boolean loadCache) {
-    this(LoadBuffer, null, true, lazyLoadProperty, loadCache);
+    this(LoadBuffer, null, null, true, lazyLoadProperty, loadCache);
   }
 
   /**
-   * Construct for secondary query.
+   * Construct for secondary query using the given transaction.
    */
-  public LoadBeanRequest(LoadBeanBuffer LoadBuffer, OrmQueryRequest<?> parentRequest) {
-    this(LoadBuffer, parentRequest, false, null, false);
+  public LoadBeanRequest(LoadBeanBuffer LoadBuffer, OrmQueryRequest<?> parentRequest, Transaction transaction) {
+    this(LoadBuffer, parentRequest, transaction, false, null, false);
   }
 
-  private LoadBeanRequest(LoadBeanBuffer LoadBuffer, OrmQueryRequest<?> parentRequest, boolean lazy, String lazyLoadProperty, boolean loadCache) {
-    super(parentRequest, lazy);
+  private LoadBeanRequest(LoadBeanBuffer LoadBuffer, OrmQueryRequest<?> parentRequest, Transaction transaction, boolean lazy, String lazyLoadProperty, boolean loadCache) {
+    super(parentRequest, transaction, lazy);
     this.LoadBuffer = LoadBuffer;
     this.batch = LoadBuffer.getBatch();
     this.lazyLoadProperty = lazyLoadProperty;
@@ -31,6 +31,16 @@ public interface LoadContext {
 	 * </p>
 	 */
 	void registerSecondaryQueries(SpiQuery<?> query);
+
+	/**
+	 * Create a load context for the next buffer of a findIterate query.
+	 * <p>
+	 * The new load context has the same secondary queries and uses the persistence
+	 * context of the request. This load context is left unchanged such that the beans
+	 * of the previous buffer can still lazy load using it.
+	 * </p>
+	 */
+	LoadContext createForIterate(OrmQueryRequest<?> request);
 	
 	/**
 	 * Return the node for a given path which is used by AutoTune profiling.
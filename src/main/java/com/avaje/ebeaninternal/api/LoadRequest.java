@@ -14,10 +14,10 @@ public abstract class LoadRequest {
 
   protected final boolean lazy;
 
-	public LoadRequest(OrmQueryRequest<?> parentRequest, boolean lazy) {
+	public LoadRequest(OrmQueryRequest<?> parentRequest, Transaction transaction, boolean lazy) {
 
 	  this.parentRequest = parentRequest;
-		this.transaction = parentRequest == null ? null : parentRequest.getTransaction();
+		this.transaction = transaction;
 		this.lazy = lazy;
 	}
 
@@ -27,7 +27,10 @@ public abstract class LoadRequest {
    */
   public void logSecondaryQuery(SpiQuery<?> query) {
     if (parentRequest != null && parentRequest.isLogSecondaryQuery()) {
-      parentRequest.getQuery().logSecondaryQuery(query);
+      // synchronized as secondary queries can execute in parallel
+      synchronized (parentRequest) {
+        parentRequest.getQuery().logSecondaryQuery(query);
+      }
     }
   }
   
@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.api;
 
+import com.avaje.ebean.Transaction;
 import com.avaje.ebeaninternal.server.core.OrmQueryRequest;
 
 /**
@@ -13,6 +14,10 @@ public interface LoadSecondaryQuery {
 
 	/**
 	 * Execute the secondary query with a given batch size.
+	 * <p>
+	 * The transaction is the one of the parent request or a separate read only
+	 * transaction when secondary queries execute in parallel.
+	 * </p>
 	 */
-	void loadSecondaryQuery(OrmQueryRequest<?> parentRequest);
+	void loadSecondaryQuery(OrmQueryRequest<?> parentRequest, Transaction transaction);
 }
@@ -9,6 +9,7 @@ import com.avaje.ebean.bean.BeanCollectionLoader;
 import com.avaje.ebean.bean.BeanLoader;
 import com.avaje.ebean.bean.CallStack;
 import com.avaje.ebean.bean.ObjectGraphNode;
+import com.avaje.ebean.bean.PersistenceContext;
 import com.avaje.ebean.config.ServerConfig;
 import com.avaje.ebean.config.dbplatform.DatabasePlatform;
 import com.avaje.ebean.event.readaudit.ReadAuditLogger;
@@ -18,6 +19,7 @@ import com.avaje.ebean.dbmigration.DdlGenerator;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.query.CQuery;
 import com.avaje.ebeaninternal.server.query.CQueryEngine;
+import com.avaje.ebeaninternal.server.query.ParallelQueryExecutor;
 import com.avaje.ebeaninternal.server.transaction.RemoteTransactionEvent;
 
 import java.util.List;
@@ -52,6 +54,11 @@ public interface SpiEbeanServer extends EbeanServer, BeanLoader, BeanCollectionL
    */
   DatabasePlatform getDatabasePlatform();
 
+  /**
+   * Return true if 'in' (or 'not in') values of this type are bound as a single array parameter.
+   */
+  boolean isMultiValueSupported(Class<?> valueType, boolean not);
+
   /**
    * Create an object to represent the current CallStack.
    * <p>
@@ -66,6 +73,11 @@ public interface SpiEbeanServer extends EbeanServer, BeanLoader, BeanCollectionL
    */
   PersistenceContextScope getPersistenceContextScope(SpiQuery<?> query);
 
+  /**
+   * Create a new PersistenceContext (for concurrent use if configured).
+   */
+  PersistenceContext createPersistenceContext();
+
   /**
    * Return the DDL generator.
    */
@@ -129,6 +141,11 @@ public interface SpiEbeanServer extends EbeanServer, BeanLoader, BeanCollectionL
    */
   SpiTransaction createQueryTransaction();
 
+  /**
+   * Return the executor used to execute the parts of a query in parallel.
+   */
+  ParallelQueryExecutor getParallelQueryExecutor();
+
   /**
    * An event from another server in the cluster used to notify local
    * BeanListeners of remote inserts updates and deletes.
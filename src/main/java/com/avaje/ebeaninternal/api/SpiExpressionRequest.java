@@ -16,6 +16,16 @@ public interface SpiExpressionRequest {
    */
   JsonExpressionHandler getJsonHandler();
 
+  /**
+   * Return true if 'in' (or 'not in') values of this type can be bound as a single array parameter.
+   */
+  boolean isMultiValueSupported(Class<?> valueType, boolean not);
+
+  /**
+   * Return the sql for an 'in' expression with the values bound as a single array parameter.
+   */
+  String getMultiValueInExpression(boolean not);
+
   /**
    * Parse the logical property name to the deployment name.
    */
@@ -14,6 +14,10 @@ public class SpiExpressionValidation {
 
   private final LinkedHashSet<String> unknown = new LinkedHashSet<String>();
 
+  private final LinkedHashSet<String> properties = new LinkedHashSet<String>();
+
+  private boolean raw;
+
   public SpiExpressionValidation(SpiBeanType<?> desc) {
     this.desc = desc;
   }
@@ -22,11 +26,33 @@ public class SpiExpressionValidation {
    * Validate that the property expression (path) is valid.
    */
   public void validate(String propertyName) {
+    properties.add(propertyName);
     if (!desc.isValidExpression(propertyName)) {
       unknown.add(propertyName);
     }
   }
 
+  /**
+   * Register an expression (raw SQL or sub-query) where the properties it depends on are not known.
+   */
+  public void validateRaw() {
+    raw = true;
+  }
+
+  /**
+   * Return true if there are expressions where the properties they depend on are not known.
+   */
+  public boolean isRaw() {
+    return raw;
+  }
+
+  /**
+   * Return all the properties (paths) of the expressions.
+   */
+  public Set<String> getProperties() {
+    return properties;
+  }
+
   /**
    * Return the set of properties considered as having unknown paths.
    */
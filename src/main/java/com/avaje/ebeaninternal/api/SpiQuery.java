@@ -716,4 +716,12 @@ public interface SpiQuery<T> extends Query<T> {
    */
   Set<String> validate(SpiBeanType<T> desc);
 
+  /**
+   * Return the properties (paths) that the where, having and order by clauses depend on.
+   * <p>
+   * Returns null when these can not be determined such as with raw SQL expressions and sub-queries.
+   * </p>
+   */
+  Set<String> getPredicateProperties(SpiBeanType<T> desc);
+
 }
@@ -5,7 +5,9 @@ import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.transaction.DeleteByIdMap;
 
 import java.io.Serializable;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Holds information for a transaction. There is one TransactionEvent instance
@@ -31,6 +33,11 @@ public class TransactionEvent implements Serializable {
 
   private transient DeleteByIdMap deleteByIdMap;
 
+  /**
+   * The (lower case) base tables of the beans inserted, updated or deleted.
+   */
+  private transient Set<String> changedTables;
+
   /**
    * Create the TransactionEvent, one per Transaction.
    */
@@ -39,6 +46,7 @@ public class TransactionEvent implements Serializable {
   }
 
   public void addDeleteById(BeanDescriptor<?> desc, Object id) {
+    addChangedTable(desc);
     if (deleteByIdMap == null) {
       deleteByIdMap = new DeleteByIdMap();
     }
@@ -46,6 +54,7 @@ public class TransactionEvent implements Serializable {
   }
 
   public void addDeleteByIdList(BeanDescriptor<?> desc, List<Object> idList) {
+    addChangedTable(desc);
     if (deleteByIdMap == null) {
       deleteByIdMap = new DeleteByIdMap();
     }
@@ -94,6 +103,8 @@ public class TransactionEvent implements Serializable {
    */
   public void add(PersistRequestBean<?> request) {
 
+    // used to invalidate query cache entries that join to the table
+    addChangedTable(request.getBeanDescriptor());
     if (request.isNotify()) {
       // either a BeanListener or Cache is interested
       if (eventBeans == null) {
@@ -103,6 +114,23 @@ public class TransactionEvent implements Serializable {
     }
   }
 
+  private void addChangedTable(BeanDescriptor<?> desc) {
+    String baseTable = desc.getBaseTable();
+    if (baseTable != null) {
+      if (changedTables == null) {
+        changedTables = new HashSet<String>();
+      }
+      changedTables.add(baseTable.toLowerCase());
+    }
+  }
+
+  /**
+   * Return the (lower case) base tables of the beans inserted, updated or deleted (or null if none).
+   */
+  public Set<String> getChangedTables() {
+    return changedTables;
+  }
+
   /**
    * Notify the cache of bean changes.
    * <p>
@@ -17,7 +17,14 @@ public class CachedBeanData {
   private final Object oldNaturalKey;
 
   public CachedBeanData(Object sharableBean, boolean[] loaded, Object[] data, Object naturalKey, Object oldNaturalKey) {
-    this.whenCreated = System.currentTimeMillis();
+    this(System.currentTimeMillis(), sharableBean, loaded, data, naturalKey, oldNaturalKey);
+  }
+
+  /**
+   * Construct with an explicit creation time (typically when read back from binary form).
+   */
+  public CachedBeanData(long whenCreated, Object sharableBean, boolean[] loaded, Object[] data, Object naturalKey, Object oldNaturalKey) {
+    this.whenCreated = whenCreated;
     this.sharableBean = sharableBean;
     this.loaded = loaded;
     this.data = data;
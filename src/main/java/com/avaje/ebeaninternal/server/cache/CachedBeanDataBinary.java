@@ -0,0 +1,191 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocOne;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.PersistenceException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Converts CachedBeanData to and from a compact binary form using the ScalarType
+ * readData() and writeData() methods.
+ * <p>
+ * This is used by caches that hold the bean data outside of the java heap. The sharable
+ * bean is not included in the binary form.
+ * </p>
+ */
+public class CachedBeanDataBinary {
+
+  private static final Logger logger = LoggerFactory.getLogger(CachedBeanDataBinary.class);
+
+  /**
+   * Return true if all the cached properties of the bean type support binary form.
+   * <p>
+   * Compound value types are not supported and transient properties are not included.
+   * </p>
+   */
+  public static boolean isSupported(BeanDescriptor<?> desc) {
+
+    BeanProperty idProperty = desc.getIdProperty();
+    if (idProperty != null && !isSupported(idProperty)) {
+      return false;
+    }
+    BeanProperty[] props = desc.propertiesNonMany();
+    for (int i = 0; i < props.length; i++) {
+      if (!props[i].isTransient() && !isSupported(props[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSupported(BeanProperty prop) {
+    if (prop instanceof BeanPropertyAssocOne<?>) {
+      BeanPropertyAssocOne<?> assocOne = (BeanPropertyAssocOne<?>) prop;
+      return !assocOne.isEmbedded() || isSupported(assocOne.getTargetDescriptor());
+    }
+    return prop.getScalarType() != null;
+  }
+
+  /**
+   * Return the cached bean data in binary form or null if it can not be written.
+   * <p>
+   * For example, a string value longer than 64KB can not be written so the caller
+   * should cache the bean data as is.
+   * </p>
+   */
+  public static byte[] write(BeanDescriptor<?> desc, CachedBeanData data) {
+    try {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream(100);
+      DataOutputStream os = new DataOutputStream(buffer);
+      writeData(desc, data, os);
+      os.flush();
+      return buffer.toByteArray();
+
+    } catch (IOException e) {
+      logger.warn("Unable to write cached bean data in binary form for " + desc.getFullName() + " " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Read the cached bean data from binary form.
+   */
+  public static CachedBeanData read(BeanDescriptor<?> desc, byte[] bytes) {
+    try {
+      return readData(desc, new DataInputStream(new ByteArrayInputStream(bytes)));
+
+    } catch (IOException e) {
+      throw new PersistenceException("Error reading cached bean data for " + desc.getFullName(), e);
+    }
+  }
+
+  private static void writeData(BeanDescriptor<?> desc, CachedBeanData data, DataOutput os) throws IOException {
+
+    os.writeLong(data.getWhenCreated());
+
+    BeanProperty idProperty = desc.getIdProperty();
+    if (idProperty != null) {
+      writeProperty(idProperty, data, os);
+    }
+    BeanProperty[] props = desc.propertiesNonMany();
+    for (int i = 0; i < props.length; i++) {
+      writeProperty(props[i], data, os);
+    }
+  }
+
+  private static CachedBeanData readData(BeanDescriptor<?> desc, DataInput is) throws IOException {
+
+    long whenCreated = is.readLong();
+
+    Object[] data = new Object[desc.getPropertyCount()];
+    boolean[] loaded = new boolean[desc.getPropertyCount()];
+
+    BeanProperty idProperty = desc.getIdProperty();
+    if (idProperty != null) {
+      readProperty(idProperty, data, loaded, is);
+    }
+
+    Object naturalKey = null;
+    BeanProperty[] props = desc.propertiesNonMany();
+    for (int i = 0; i < props.length; i++) {
+      BeanProperty prop = props[i];
+      readProperty(prop, data, loaded, is);
+      if (prop.isNaturalKey() && loaded[prop.getPropertyIndex()]) {
+        naturalKey = data[prop.getPropertyIndex()];
+      }
+    }
+
+    // natural key read back as the 'old' natural key (no natural key update required)
+    return new CachedBeanData(whenCreated, null, loaded, data, null, naturalKey);
+  }
+
+  private static void writeProperty(BeanProperty prop, CachedBeanData data, DataOutput os) throws IOException {
+
+    int propertyIndex = prop.getPropertyIndex();
+    boolean loaded = !prop.isTransient() && data.isLoaded(propertyIndex);
+    os.writeBoolean(loaded);
+    if (loaded) {
+      Object value = data.getData(propertyIndex);
+      if (prop instanceof BeanPropertyAssocOne<?>) {
+        writeAssocOne((BeanPropertyAssocOne<?>) prop, value, os);
+      } else {
+        prop.writeData(os, value);
+      }
+    }
+  }
+
+  private static void readProperty(BeanProperty prop, Object[] data, boolean[] loaded, DataInput is) throws IOException {
+
+    if (is.readBoolean()) {
+      int propertyIndex = prop.getPropertyIndex();
+      if (prop instanceof BeanPropertyAssocOne<?>) {
+        data[propertyIndex] = readAssocOne((BeanPropertyAssocOne<?>) prop, is);
+      } else {
+        data[propertyIndex] = prop.readData(is);
+      }
+      loaded[propertyIndex] = true;
+    }
+  }
+
+  /**
+   * Write the embedded bean data or the id value of the associated bean.
+   */
+  private static void writeAssocOne(BeanPropertyAssocOne<?> prop, Object value, DataOutput os) throws IOException {
+
+    if (value == null) {
+      os.writeBoolean(false);
+    } else {
+      os.writeBoolean(true);
+      BeanDescriptor<?> targetDescriptor = prop.getTargetDescriptor();
+      if (prop.isEmbedded()) {
+        writeData(targetDescriptor, (CachedBeanData) value, os);
+      } else {
+        targetDescriptor.getIdBinder().writeData(os, value);
+      }
+    }
+  }
+
+  private static Object readAssocOne(BeanPropertyAssocOne<?> prop, DataInput is) throws IOException {
+
+    if (!is.readBoolean()) {
+      return null;
+    }
+    BeanDescriptor<?> targetDescriptor = prop.getTargetDescriptor();
+    if (prop.isEmbedded()) {
+      return readData(targetDescriptor, is);
+    } else {
+      return targetDescriptor.getIdBinder().readData(is);
+    }
+  }
+
+}
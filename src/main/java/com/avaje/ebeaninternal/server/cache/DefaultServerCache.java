@@ -219,6 +219,22 @@ public class DefaultServerCache implements ServerCache {
     }
   }
 
+  /**
+   * Return the values for the given keys (cache hits only).
+   */
+  @Override
+  public Map<Object, Object> getAll(Collection<Object> keys) {
+
+    Map<Object, Object> hits = new LinkedHashMap<Object, Object>();
+    for (Object key : keys) {
+      Object value = get(key);
+      if (value != null) {
+        hits.put(key, value);
+      }
+    }
+    return hits;
+  }
+
   /**
    * Put a value into the cache.
    */
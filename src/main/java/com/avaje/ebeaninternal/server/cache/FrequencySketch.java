@@ -0,0 +1,126 @@
+package com.avaje.ebeaninternal.server.cache;
+
+/**
+ * A probabilistic estimate of how often keys have been accessed (Count-Min sketch).
+ * <p>
+ * Each key maps to 4 counters of 4 bits each so the maximum frequency is 15. Once the
+ * number of increments reaches the sample size all the counters are halved so that the
+ * frequencies age and keys that were popular a long time ago do not stay popular forever.
+ * </p>
+ * <p>
+ * This is not thread safe and is expected to be guarded by the owning cache.
+ * </p>
+ */
+final class FrequencySketch {
+
+  private static final long[] SEED = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private long[] table;
+
+  private int tableMask;
+
+  private int sampleSize;
+
+  private int size;
+
+  /**
+   * Create a sketch sized for the given maximum number of cache entries.
+   */
+  FrequencySketch(int maximumSize) {
+    ensureCapacity(maximumSize);
+  }
+
+  /**
+   * Resize the sketch for a new maximum cache size (resetting the frequencies).
+   */
+  void ensureCapacity(int maximumSize) {
+    int maximum = Math.min(Math.max(1, maximumSize), 1 << 30);
+    int tableSize = (maximum == 1) ? 1 : Integer.highestOneBit(maximum - 1) << 1;
+    if (table != null && table.length >= tableSize) {
+      return;
+    }
+    table = new long[tableSize];
+    tableMask = tableSize - 1;
+    sampleSize = (maximum > Integer.MAX_VALUE / 10) ? Integer.MAX_VALUE : 10 * maximum;
+    size = 0;
+  }
+
+  /**
+   * Return the estimated number of times the key has been accessed (0 to 15).
+   */
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Increment the access frequency of the key, aging all frequencies if the sample size is reached.
+   */
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  /**
+   * Increment the 4 bit counter j in table[i] unless it is already at the maximum.
+   */
+  private boolean incrementAt(int i, int j) {
+    int offset = j << 2;
+    long mask = (0xfL << offset);
+    if ((table[i] & mask) != mask) {
+      table[i] += (1L << offset);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Halve all the counters.
+   */
+  private void reset() {
+    int oddCount = 0;
+    for (int i = 0; i < table.length; i++) {
+      oddCount += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size >>> 1) - (oddCount >>> 2);
+  }
+
+  /**
+   * Return the table index for the ith counter of the hash.
+   */
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEED[i]) * SEED[i];
+    h += (h >>> 32);
+    return ((int) h) & tableMask;
+  }
+
+  /**
+   * Apply a supplemental hash to defend against poor quality hashCode() implementations.
+   */
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
@@ -0,0 +1,123 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebean.cache.ServerCacheOptions;
+import com.avaje.ebean.cache.ServerCacheStatistics;
+
+/**
+ * Cache that holds byte[] values outside of the java heap in direct ByteBuffer slabs.
+ * <p>
+ * This is used for the bean cache where BeanDescriptorCacheHelp puts the CachedBeanData
+ * in binary form (see {@link CachedBeanDataBinary}) and converts it back to CachedBeanData
+ * on get. The keys (id values) are held on heap along with a small reference to the
+ * off-heap chunk. Values that are not byte[] or that can not be allocated off-heap (no
+ * more slab memory available) are held on heap.
+ * </p>
+ * <p>
+ * The eviction is the same as TinyLfuServerCache with the chunk being freed when the
+ * entry is removed or evicted.
+ * </p>
+ */
+public class OffHeapServerCache extends TinyLfuServerCache {
+
+  private final OffHeapSlabs slabs;
+
+  /**
+   * Construct with the slab size and maximum off-heap bytes.
+   */
+  public OffHeapServerCache(String name, ServerCacheOptions options, int slabSize, long maxOffHeapBytes) {
+    super(name, options);
+    this.slabs = new OffHeapSlabs(slabSize, maxOffHeapBytes);
+  }
+
+  /**
+   * Return the value with byte[] values copied from off-heap memory.
+   */
+  @Override
+  public Object get(Object key) {
+    Object value = super.get(key);
+    if (value instanceof OffHeapValue) {
+      return read((OffHeapValue) value);
+    }
+    return value;
+  }
+
+  /**
+   * Put the value with byte[] values copied into off-heap memory returning the previous value.
+   */
+  @Override
+  public Object put(Object key, Object value) {
+    if (value instanceof byte[]) {
+      long address = slabs.allocate((byte[]) value);
+      if (address > -1) {
+        value = new OffHeapValue(address);
+      }
+    }
+    return super.put(key, value);
+  }
+
+  /**
+   * Return the previous value copying byte[] values from off-heap memory before the chunk is freed.
+   */
+  @Override
+  protected Object removedValue(CacheEntry entry) {
+    Object value = entry.getValue();
+    if (value instanceof OffHeapValue) {
+      return read((OffHeapValue) value);
+    }
+    return value;
+  }
+
+  @Override
+  protected void onRemoval(CacheEntry entry) {
+    Object value = entry.getValue();
+    if (value instanceof OffHeapValue) {
+      OffHeapValue offHeapValue = (OffHeapValue) value;
+      // mark as freed before the chunk can be reused
+      offHeapValue.freed = true;
+      slabs.free(offHeapValue.address);
+    }
+  }
+
+  @Override
+  public ServerCacheStatistics getStatistics(boolean reset) {
+    ServerCacheStatistics statistics = super.getStatistics(reset);
+    statistics.setOffHeapBytes(slabs.getAllocatedBytes());
+    statistics.setOffHeapUsedBytes(slabs.getUsedBytes());
+    return statistics;
+  }
+
+  /**
+   * Read the bytes returning null if the chunk was freed during the read.
+   */
+  private byte[] read(OffHeapValue value) {
+    if (value.freed) {
+      return null;
+    }
+    try {
+      byte[] bytes = slabs.read(value.address);
+      // the chunk could have been freed and reused while reading
+      return value.freed ? null : bytes;
+
+    } catch (RuntimeException e) {
+      if (value.freed) {
+        // chunk reused while reading
+        return null;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Reference to a value held in an off-heap chunk.
+   */
+  static final class OffHeapValue {
+
+    final long address;
+
+    volatile boolean freed;
+
+    OffHeapValue(long address) {
+      this.address = address;
+    }
+  }
+}
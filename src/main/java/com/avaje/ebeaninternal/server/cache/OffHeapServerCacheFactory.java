@@ -0,0 +1,61 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.cache.ServerCache;
+import com.avaje.ebean.cache.ServerCacheFactory;
+import com.avaje.ebean.cache.ServerCacheOptions;
+
+/**
+ * ServerCacheFactory that creates caches holding the bean cache data outside of the java heap.
+ * <p>
+ * Bean data is held off-heap in binary form. Query results, natural keys and collection
+ * ids are held on heap. Register it via ServerConfig.setServerCacheFactory().
+ * </p>
+ */
+public class OffHeapServerCacheFactory implements ServerCacheFactory {
+
+  /**
+   * Default slab size of 1MB.
+   */
+  public static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+
+  /**
+   * Default maximum of 256MB off-heap memory per cache.
+   */
+  public static final long DEFAULT_MAX_OFF_HEAP_BYTES = 256L * 1024 * 1024;
+
+  private final int slabSize;
+
+  private final long maxOffHeapBytes;
+
+  private EbeanServer ebeanServer;
+
+  /**
+   * Construct with the default slab size and maximum off-heap bytes per cache.
+   */
+  public OffHeapServerCacheFactory() {
+    this(DEFAULT_SLAB_SIZE, DEFAULT_MAX_OFF_HEAP_BYTES);
+  }
+
+  /**
+   * Construct with the slab size and maximum off-heap bytes per cache.
+   */
+  public OffHeapServerCacheFactory(int slabSize, long maxOffHeapBytes) {
+    this.slabSize = slabSize;
+    this.maxOffHeapBytes = maxOffHeapBytes;
+  }
+
+  @Override
+  public void init(EbeanServer ebeanServer) {
+    this.ebeanServer = ebeanServer;
+  }
+
+  @Override
+  public ServerCache createCache(String cacheKey, ServerCacheOptions cacheOptions) {
+
+    ServerCache cache = new OffHeapServerCache(cacheKey, cacheOptions, slabSize, maxOffHeapBytes);
+    cache.init(ebeanServer);
+    return cache;
+  }
+
+}
@@ -0,0 +1,181 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocates chunks of memory from direct ByteBuffer slabs (outside of the java heap).
+ * <p>
+ * Each slab is assigned to a size class (powers of 2 from 64 bytes up to the slab size)
+ * and is divided into chunks of that size. Freed chunks go onto a free list for their size
+ * class and are reused. Slabs are allocated lazily up to the maximum number of bytes and
+ * are not released until the cache is garbage collected.
+ * </p>
+ * <p>
+ * Allocate and free are synchronized. Reading a chunk is not, so callers must ensure a
+ * chunk is not read after it has been freed (see {@link OffHeapServerCache.OffHeapValue}).
+ * </p>
+ */
+final class OffHeapSlabs {
+
+  private static final int MIN_CHUNK_SHIFT = 6;
+
+  /**
+   * Each chunk holds the length of the value followed by the value bytes.
+   */
+  private static final int HEADER_BYTES = 4;
+
+  private final int slabSize;
+
+  private final int maxSlabs;
+
+  private final List<ByteBuffer> slabs = new ArrayList<ByteBuffer>();
+
+  /**
+   * Free chunk addresses per size class.
+   */
+  private final LongStack[] freeChunks;
+
+  private long usedBytes;
+
+  /**
+   * Create with the slab size and maximum total bytes.
+   */
+  OffHeapSlabs(int slabSize, long maxBytes) {
+    this.slabSize = Math.max(1 << MIN_CHUNK_SHIFT, Integer.highestOneBit(slabSize));
+    this.maxSlabs = (int) Math.min(Integer.MAX_VALUE, Math.max(1, maxBytes / this.slabSize));
+    int sizeClasses = Integer.numberOfTrailingZeros(this.slabSize) - MIN_CHUNK_SHIFT + 1;
+    this.freeChunks = new LongStack[sizeClasses];
+    for (int i = 0; i < sizeClasses; i++) {
+      freeChunks[i] = new LongStack();
+    }
+  }
+
+  /**
+   * Copy the bytes into a chunk returning its address or -1 if there is no memory available.
+   */
+  long allocate(byte[] bytes) {
+
+    int chunkSize = bytes.length + HEADER_BYTES;
+    if (chunkSize > slabSize) {
+      return -1;
+    }
+    int sizeClass = sizeClass(chunkSize);
+
+    long address;
+    synchronized (this) {
+      LongStack free = freeChunks[sizeClass];
+      if (free.isEmpty() && !addSlab(sizeClass)) {
+        return -1;
+      }
+      address = free.pop();
+      usedBytes += (1 << (sizeClass + MIN_CHUNK_SHIFT));
+    }
+
+    ByteBuffer chunk = chunk(address);
+    chunk.putInt(bytes.length);
+    chunk.put(bytes);
+    return address;
+  }
+
+  /**
+   * Return a copy of the bytes held in the chunk.
+   */
+  byte[] read(long address) {
+    ByteBuffer chunk = chunk(address);
+    byte[] bytes = new byte[chunk.getInt()];
+    chunk.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Return the chunk to the free list for its size class.
+   */
+  void free(long address) {
+    synchronized (this) {
+      int length = chunk(address).getInt();
+      int sizeClass = sizeClass(length + HEADER_BYTES);
+      usedBytes -= (1 << (sizeClass + MIN_CHUNK_SHIFT));
+      freeChunks[sizeClass].push(address);
+    }
+  }
+
+  /**
+   * Return the total bytes allocated in slabs.
+   */
+  synchronized long getAllocatedBytes() {
+    return (long) slabs.size() * slabSize;
+  }
+
+  /**
+   * Return the bytes in chunks that are in use.
+   */
+  synchronized long getUsedBytes() {
+    return usedBytes;
+  }
+
+  /**
+   * Allocate a new slab for the size class adding its chunks to the free list.
+   */
+  private boolean addSlab(int sizeClass) {
+    if (slabs.size() >= maxSlabs) {
+      return false;
+    }
+    int slabIndex = slabs.size();
+    slabs.add(ByteBuffer.allocateDirect(slabSize));
+
+    int chunkSize = 1 << (sizeClass + MIN_CHUNK_SHIFT);
+    LongStack free = freeChunks[sizeClass];
+    for (int offset = slabSize - chunkSize; offset >= 0; offset -= chunkSize) {
+      free.push(((long) slabIndex << 32) | offset);
+    }
+    return true;
+  }
+
+  /**
+   * Return a buffer positioned at the start of the chunk.
+   */
+  private ByteBuffer chunk(long address) {
+    ByteBuffer slab;
+    synchronized (this) {
+      slab = slabs.get((int) (address >>> 32));
+    }
+    // duplicate such that position is not shared between threads
+    ByteBuffer chunk = slab.duplicate();
+    chunk.position((int) address);
+    return chunk;
+  }
+
+  private static int sizeClass(int chunkSize) {
+    int size = Math.max(chunkSize, 1 << MIN_CHUNK_SHIFT);
+    int ceiling = (Integer.bitCount(size) == 1) ? size : Integer.highestOneBit(size) << 1;
+    return Integer.numberOfTrailingZeros(ceiling) - MIN_CHUNK_SHIFT;
+  }
+
+  /**
+   * Growable stack of primitive longs.
+   */
+  private static final class LongStack {
+
+    private long[] values = new long[16];
+    private int size;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void push(long value) {
+      if (size == values.length) {
+        long[] newValues = new long[size * 2];
+        System.arraycopy(values, 0, newValues, 0, size);
+        values = newValues;
+      }
+      values[size++] = value;
+    }
+
+    long pop() {
+      return values[--size];
+    }
+  }
+}
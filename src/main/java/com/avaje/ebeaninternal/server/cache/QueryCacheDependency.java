@@ -0,0 +1,113 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import java.util.Set;
+
+/**
+ * What a query cache entry depends on such that it can be invalidated individually.
+ * <p>
+ * This holds the Ids of the beans in the cached result, the tables joined to by the query
+ * and the properties used by the where, having and order by clauses. An update to a bean
+ * only invalidates the entries that contain the bean or that have predicates on the updated
+ * properties (as the update could change the membership of the result).
+ * </p>
+ */
+public final class QueryCacheDependency {
+
+  /**
+   * Used when the dependencies are not known (invalidated by any change to any table).
+   */
+  public static final QueryCacheDependency UNKNOWN = new QueryCacheDependency(null, null, null);
+
+  private final Set<Object> ids;
+
+  private final Set<String> joinedTables;
+
+  private final Set<String> predicateProperties;
+
+  /**
+   * Create the dependency.
+   *
+   * @param ids                 the Ids of the beans in the result (null if unknown)
+   * @param joinedTables        the (lower case) tables joined to by the query (null if unknown)
+   * @param predicateProperties the properties of the where, having and order by clauses (null if unknown)
+   */
+  public QueryCacheDependency(Set<Object> ids, Set<String> joinedTables, Set<String> predicateProperties) {
+    this.ids = ids;
+    this.joinedTables = joinedTables;
+    this.predicateProperties = predicateProperties;
+  }
+
+  public String toString() {
+    return "ids:" + ids + " joinedTables:" + joinedTables + " predicateProperties:" + predicateProperties;
+  }
+
+  /**
+   * Return the Ids of the beans in the result (null if unknown).
+   */
+  Set<Object> getIds() {
+    return ids;
+  }
+
+  /**
+   * Return the tables joined to by the query (null if unknown).
+   */
+  Set<String> getJoinedTables() {
+    return joinedTables;
+  }
+
+  /**
+   * Return the properties of the where, having and order by clauses (null if unknown).
+   */
+  Set<String> getPredicateProperties() {
+    return predicateProperties;
+  }
+
+  /**
+   * Return true if the entry is invalidated by the update of the bean with the given
+   * Id and updated properties.
+   *
+   * @param updatedProperties the updated properties or null if they are not known
+   */
+  public boolean isInvalidatedByUpdate(Object id, Set<String> updatedProperties) {
+    if (ids == null || ids.contains(id)) {
+      return true;
+    }
+    return isPredicateUpdate(updatedProperties);
+  }
+
+  /**
+   * Return true if the updated properties are used by the predicates (or order by).
+   */
+  private boolean isPredicateUpdate(Set<String> updatedProperties) {
+    if (predicateProperties == null) {
+      return true;
+    }
+    if (predicateProperties.isEmpty()) {
+      return false;
+    }
+    if (updatedProperties == null) {
+      return true;
+    }
+    for (String path : predicateProperties) {
+      if (updatedProperties.contains(propertyName(path))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Return the property of the bean type for the given predicate property path.
+   */
+  static String propertyName(String path) {
+    int pos = path.indexOf('.');
+    return (pos == -1) ? path : path.substring(0, pos);
+  }
+
+  /**
+   * Return true if the query joins to the given (lower case) table (or the tables are not known).
+   */
+  public boolean isJoinedTable(String tableName) {
+    return joinedTables == null || joinedTables.contains(tableName);
+  }
+}
@@ -0,0 +1,211 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The dependencies of the query cache entries of a bean type indexed such that the entries
+ * invalidated by an update or a modified table are found without checking every entry.
+ * <p>
+ * The entries are indexed by the Ids in their result, the (top level) properties of their
+ * predicates and the tables they join to. Entries with unknown Ids or predicates are
+ * invalidated by any update and entries with unknown tables by any modified table.
+ * </p>
+ */
+public final class QueryCacheIndex {
+
+  private final Map<Object, QueryCacheDependency> dependencies = new HashMap<Object, QueryCacheDependency>();
+
+  /**
+   * The cache keys by the Ids in their result.
+   */
+  private final Map<Object, Set<Object>> keysById = new HashMap<Object, Set<Object>>();
+
+  /**
+   * The cache keys by the properties used by their predicates.
+   */
+  private final Map<String, Set<Object>> keysByProperty = new HashMap<String, Set<Object>>();
+
+  /**
+   * The cache keys by the tables they join to.
+   */
+  private final Map<String, Set<Object>> keysByTable = new HashMap<String, Set<Object>>();
+
+  /**
+   * The cache keys that have predicates (invalidated by an update when the updated properties are not known).
+   */
+  private final Set<Object> predicateKeys = new HashSet<Object>();
+
+  /**
+   * The cache keys invalidated by any update (unknown Ids or predicates).
+   */
+  private final Set<Object> anyUpdateKeys = new HashSet<Object>();
+
+  /**
+   * The cache keys invalidated by any modified table (unknown tables).
+   */
+  private final Set<Object> anyTableKeys = new HashSet<Object>();
+
+  /**
+   * Return the number of entries.
+   */
+  public synchronized int size() {
+    return dependencies.size();
+  }
+
+  /**
+   * Remove all the entries.
+   */
+  public synchronized void clear() {
+    dependencies.clear();
+    keysById.clear();
+    keysByProperty.clear();
+    keysByTable.clear();
+    predicateKeys.clear();
+    anyUpdateKeys.clear();
+    anyTableKeys.clear();
+  }
+
+  /**
+   * Add (or replace) the dependency of the query cache entry with the given key.
+   */
+  public synchronized void put(Object key, QueryCacheDependency dependency) {
+
+    QueryCacheDependency existing = dependencies.put(key, dependency);
+    if (existing != null) {
+      unindex(key, existing);
+    }
+
+    Set<Object> ids = dependency.getIds();
+    Set<String> predicateProperties = dependency.getPredicateProperties();
+    if (ids == null || predicateProperties == null) {
+      anyUpdateKeys.add(key);
+    } else {
+      for (Object id : ids) {
+        add(keysById, id, key);
+      }
+      for (String path : predicateProperties) {
+        add(keysByProperty, QueryCacheDependency.propertyName(path), key);
+      }
+      if (!predicateProperties.isEmpty()) {
+        predicateKeys.add(key);
+      }
+    }
+
+    Set<String> tables = dependency.getJoinedTables();
+    if (tables == null) {
+      anyTableKeys.add(key);
+    } else {
+      for (String table : tables) {
+        add(keysByTable, table, key);
+      }
+    }
+  }
+
+  /**
+   * Return true if the given dependency is (still) held for the query cache entry with the
+   * given key (that is, it has not been invalidated or replaced).
+   */
+  public synchronized boolean contains(Object key, QueryCacheDependency dependency) {
+    return dependencies.get(key) == dependency;
+  }
+
+  /**
+   * Remove and return the keys of the entries invalidated by the update of the bean with the
+   * given Id and updated properties.
+   *
+   * @param updatedProperties the updated properties or null if they are not known
+   */
+  public synchronized List<Object> removeByUpdate(Object id, Set<String> updatedProperties) {
+
+    Set<Object> keys = new HashSet<Object>(anyUpdateKeys);
+    addAll(keys, keysById.get(id));
+    if (updatedProperties == null) {
+      keys.addAll(predicateKeys);
+    } else {
+      for (String property : updatedProperties) {
+        addAll(keys, keysByProperty.get(property));
+      }
+    }
+    return remove(keys);
+  }
+
+  /**
+   * Remove and return the keys of the entries that join to any of the given (lower case) tables.
+   */
+  public synchronized List<Object> removeByTables(Set<String> tables) {
+
+    Set<Object> keys = new HashSet<Object>(anyTableKeys);
+    for (String table : tables) {
+      addAll(keys, keysByTable.get(table));
+    }
+    return remove(keys);
+  }
+
+  private List<Object> remove(Set<Object> keys) {
+    List<Object> removed = new ArrayList<Object>(keys.size());
+    for (Object key : keys) {
+      QueryCacheDependency dependency = dependencies.remove(key);
+      if (dependency != null) {
+        unindex(key, dependency);
+        removed.add(key);
+      }
+    }
+    return removed;
+  }
+
+  private void unindex(Object key, QueryCacheDependency dependency) {
+
+    anyUpdateKeys.remove(key);
+    predicateKeys.remove(key);
+    anyTableKeys.remove(key);
+
+    Set<Object> ids = dependency.getIds();
+    if (ids != null) {
+      for (Object id : ids) {
+        remove(keysById, id, key);
+      }
+    }
+    Set<String> predicateProperties = dependency.getPredicateProperties();
+    if (predicateProperties != null) {
+      for (String path : predicateProperties) {
+        remove(keysByProperty, QueryCacheDependency.propertyName(path), key);
+      }
+    }
+    Set<String> tables = dependency.getJoinedTables();
+    if (tables != null) {
+      for (String table : tables) {
+        remove(keysByTable, table, key);
+      }
+    }
+  }
+
+  private static <K> void add(Map<K, Set<Object>> index, K indexKey, Object key) {
+    Set<Object> keys = index.get(indexKey);
+    if (keys == null) {
+      keys = new HashSet<Object>();
+      index.put(indexKey, keys);
+    }
+    keys.add(key);
+  }
+
+  private static <K> void remove(Map<K, Set<Object>> index, K indexKey, Object key) {
+    Set<Object> keys = index.get(indexKey);
+    if (keys != null) {
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        index.remove(indexKey);
+      }
+    }
+  }
+
+  private static void addAll(Set<Object> keys, Set<Object> add) {
+    if (add != null) {
+      keys.addAll(add);
+    }
+  }
+}
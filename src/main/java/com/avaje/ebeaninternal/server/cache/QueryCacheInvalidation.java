@@ -0,0 +1,37 @@
+package com.avaje.ebeaninternal.server.cache;
+
+/**
+ * The cause of query cache invalidation (used for the invalidation counts).
+ */
+public enum QueryCacheInvalidation {
+
+  /**
+   * The query cache cleared due to an insert (which can change the membership of any result).
+   */
+  INSERT,
+
+  /**
+   * The query cache cleared due to a delete.
+   */
+  DELETE,
+
+  /**
+   * Entries invalidated that contain an updated bean or have predicates on the updated properties.
+   */
+  UPDATE,
+
+  /**
+   * The query cache cleared due to a bulk update or external modification of the table.
+   */
+  BULK_UPDATE,
+
+  /**
+   * Entries invalidated that join to a modified table.
+   */
+  JOINED_TABLE,
+
+  /**
+   * The query cache cleared explicitly (or the dependencies could not be held).
+   */
+  CLEAR
+}
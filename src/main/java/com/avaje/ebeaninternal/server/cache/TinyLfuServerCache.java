@@ -0,0 +1,463 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebean.cache.ServerCacheOptions;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache implementation using a W-TinyLFU admission and eviction policy.
+ * <p>
+ * Unlike DefaultServerCache this does not sort all the entries periodically to trim by
+ * LRU. Instead the maxSize is enforced on put() with amortized O(1) cost. New entries go
+ * into a small LRU 'window'. Entries leaving the window compete with the LRU victim of the
+ * main segmented LRU (probation and protected) and the one with the higher estimated
+ * access frequency (from a Count-Min sketch) is retained.
+ * </p>
+ * <p>
+ * The periodic background trim is still used for idle and time to live eviction.
+ * </p>
+ * <p>
+ * Reads do not block. Recording a read in the policy is skipped when another thread
+ * holds the eviction lock which is fine as the frequencies are only an estimate.
+ * </p>
+ */
+public class TinyLfuServerCache extends DefaultServerCache {
+
+  /**
+   * Queue marker for an entry that has been removed from the cache.
+   */
+  private static final int REMOVED = 0;
+
+  private static final int WINDOW = 1;
+
+  private static final int PROBATION = 2;
+
+  private static final int PROTECTED = 3;
+
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final NodeQueue window = new NodeQueue();
+
+  private final NodeQueue probation = new NodeQueue();
+
+  private final NodeQueue protectedQueue = new NodeQueue();
+
+  private final FrequencySketch sketch;
+
+  private int windowMax;
+
+  private int protectedMax;
+
+  /**
+   * Construct with the name and cache options.
+   */
+  public TinyLfuServerCache(String name, ServerCacheOptions options) {
+    super(name, new ConcurrentHashMap<Object, CacheEntry>(), options);
+    this.sketch = new FrequencySketch(maxSize);
+    setCapacity(maxSize);
+  }
+
+  /**
+   * Set the window and protected sizes given the max size.
+   * <p>
+   * The window is 1% and the protected segment is 80% of the main space.
+   * </p>
+   */
+  private void setCapacity(int maxSize) {
+    this.windowMax = Math.max(1, maxSize / 100);
+    this.protectedMax = (maxSize - windowMax) * 80 / 100;
+  }
+
+  @Override
+  public void setOptions(ServerCacheOptions options) {
+    evictionLock.lock();
+    try {
+      super.setOptions(options);
+      setCapacity(maxSize);
+      sketch.ensureCapacity(maxSize);
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      clearCount.increment();
+      for (CacheEntry entry : map.values()) {
+        onRemoval(entry);
+      }
+      map.clear();
+      window.clear();
+      probation.clear();
+      protectedQueue.clear();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public Object get(Object key) {
+
+    CacheEntry entry = map.get(key);
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    hitCount.increment();
+    if (evictionLock.tryLock()) {
+      try {
+        onAccess((Node) entry);
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+    return entry.getValue();
+  }
+
+  @Override
+  public Object put(Object key, Object value) {
+
+    Node node = new Node(key, value);
+    evictionLock.lock();
+    try {
+      sketch.increment(key);
+      Node existing = (Node) map.put(key, node);
+      Object existingValue = null;
+      if (existing != null) {
+        unlink(existing);
+        existingValue = removedValue(existing);
+        onRemoval(existing);
+      }
+      window.addFirst(node, WINDOW);
+      evict();
+
+      if (existing == null) {
+        insertCount.increment();
+        return null;
+      } else {
+        updateCount.increment();
+        return existingValue;
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public Object remove(Object key) {
+    evictionLock.lock();
+    try {
+      Node node = (Node) map.remove(key);
+      if (node == null) {
+        return null;
+      }
+      unlink(node);
+      Object removedValue = removedValue(node);
+      onRemoval(node);
+      removeCount.increment();
+      return removedValue;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Run eviction based on idle time and time to live.
+   * <p>
+   * Eviction by maxSize has already occurred as part of put().
+   * </p>
+   */
+  @Override
+  public void runEviction() {
+
+    if (maxIdleSecs == 0 && maxSecsToLive == 0) {
+      // nothing to trim on this cache
+      return;
+    }
+
+    long startNanos = System.nanoTime();
+
+    long trimmedByIdle = 0;
+    long trimmedByTTL = 0;
+
+    long idleExpire = System.currentTimeMillis() - (maxIdleSecs * 1000);
+    long ttlExpire = System.currentTimeMillis() - (maxSecsToLive * 1000);
+
+    Iterator<CacheEntry> it = map.values().iterator();
+    while (it.hasNext()) {
+      Node node = (Node) it.next();
+      if (maxIdleSecs > 0 && idleExpire > node.getLastAccessTime()) {
+        if (removeNode(node)) {
+          trimmedByIdle++;
+        }
+
+      } else if (maxSecsToLive > 0 && ttlExpire > node.getCreateTime()) {
+        if (removeNode(node)) {
+          trimmedByTTL++;
+        }
+      }
+    }
+
+    long exeNanos = System.nanoTime() - startNanos;
+    long exeMicros = TimeUnit.MICROSECONDS.convert(exeNanos, TimeUnit.NANOSECONDS);
+
+    // increment the eviction statistics
+    evictMicros.add(exeMicros);
+    evictCount.increment();
+    evictByIdle.add(trimmedByIdle);
+    evictByTTL.add(trimmedByTTL);
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Executed trim of cache {} in [{}]micros idle[{}] timeToLive[{}]"
+          , name, exeMicros, trimmedByIdle, trimmedByTTL);
+    }
+  }
+
+  /**
+   * Remove the node if it is still in the cache returning true if it was removed.
+   */
+  private boolean removeNode(Node node) {
+    evictionLock.lock();
+    try {
+      if (node.queue == REMOVED) {
+        // already removed or replaced by another put
+        return false;
+      }
+      map.remove(node.getKey());
+      unlink(node);
+      onRemoval(node);
+      return true;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Record a read of the entry in the frequency sketch and access order.
+   */
+  private void onAccess(Node node) {
+
+    sketch.increment(node.getKey());
+    switch (node.queue) {
+      case WINDOW:
+        window.moveToFirst(node);
+        break;
+
+      case PROBATION:
+        // promote to protected demoting the protected LRU if necessary
+        probation.remove(node);
+        protectedQueue.addFirst(node, PROTECTED);
+        if (protectedQueue.size > protectedMax) {
+          Node demoted = protectedQueue.removeLast();
+          probation.addFirst(demoted, PROBATION);
+        }
+        break;
+
+      case PROTECTED:
+        protectedQueue.moveToFirst(node);
+        break;
+
+      default:
+        // removed concurrently
+    }
+  }
+
+  /**
+   * Move entries that overflow the window into the main space and evict down to maxSize.
+   */
+  private void evict() {
+
+    if (maxSize <= 0) {
+      // unbounded so just LRU order in the window
+      return;
+    }
+
+    long evicted = 0;
+    while (window.size > windowMax) {
+      Node candidate = window.removeLast();
+      if (mainSize() < maxSize - windowMax) {
+        probation.addFirst(candidate, PROBATION);
+      } else {
+        Node victim = mainVictim();
+        if (victim == null || sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+          // admit the candidate evicting the victim
+          if (victim != null) {
+            evictNode(victim);
+            evicted++;
+          }
+          probation.addFirst(candidate, PROBATION);
+        } else {
+          // reject the candidate
+          candidate.queue = REMOVED;
+          map.remove(candidate.getKey());
+          onRemoval(candidate);
+          evicted++;
+        }
+      }
+    }
+
+    // when maxSize has been reduced via setOptions()
+    while (mainSize() + window.size > maxSize) {
+      Node victim = mainVictim();
+      if (victim == null) {
+        break;
+      }
+      evictNode(victim);
+      evicted++;
+    }
+
+    if (evicted > 0) {
+      evictByLRU.add(evicted);
+    }
+  }
+
+  /**
+   * Return the LRU entry of the main space (probation first, then protected).
+   */
+  private Node mainVictim() {
+    Node victim = probation.peekLast();
+    return (victim != null) ? victim : protectedQueue.peekLast();
+  }
+
+  private int mainSize() {
+    return probation.size + protectedQueue.size;
+  }
+
+  private void evictNode(Node node) {
+    unlink(node);
+    map.remove(node.getKey());
+    onRemoval(node);
+  }
+
+  /**
+   * Return the value of an entry being removed or replaced (returned by remove() and put()).
+   * <p>
+   * Called with the eviction lock held prior to onRemoval().
+   * </p>
+   */
+  protected Object removedValue(CacheEntry entry) {
+    return entry.getValue();
+  }
+
+  /**
+   * Called with the eviction lock held when an entry has been removed, replaced or evicted.
+   */
+  protected void onRemoval(CacheEntry entry) {
+    // do nothing by default
+  }
+
+  /**
+   * Unlink the node from whichever queue it is in.
+   */
+  private void unlink(Node node) {
+    switch (node.queue) {
+      case WINDOW:
+        window.remove(node);
+        break;
+      case PROBATION:
+        probation.remove(node);
+        break;
+      case PROTECTED:
+        protectedQueue.remove(node);
+        break;
+      default:
+        // not in a queue
+    }
+    node.queue = REMOVED;
+  }
+
+  /**
+   * Cache entry that is also a node in one of the access order queues.
+   */
+  static final class Node extends CacheEntry {
+
+    Node prev;
+    Node next;
+    int queue;
+
+    Node(Object key, Object value) {
+      super(key, value);
+    }
+  }
+
+  /**
+   * Doubly linked access order queue with the MRU entry first and LRU entry last.
+   */
+  static final class NodeQueue {
+
+    Node first;
+    Node last;
+    int size;
+
+    void addFirst(Node node, int queue) {
+      node.queue = queue;
+      node.prev = null;
+      node.next = first;
+      if (first == null) {
+        last = node;
+      } else {
+        first.prev = node;
+      }
+      first = node;
+      size++;
+    }
+
+    void moveToFirst(Node node) {
+      if (node != first) {
+        int queue = node.queue;
+        remove(node);
+        addFirst(node, queue);
+      }
+    }
+
+    Node peekLast() {
+      return last;
+    }
+
+    Node removeLast() {
+      Node node = last;
+      if (node != null) {
+        remove(node);
+      }
+      return node;
+    }
+
+    void remove(Node node) {
+      Node prev = node.prev;
+      Node next = node.next;
+      if (prev == null) {
+        first = next;
+      } else {
+        prev.next = next;
+      }
+      if (next == null) {
+        last = prev;
+      } else {
+        next.prev = prev;
+      }
+      node.prev = null;
+      node.next = null;
+      size--;
+    }
+
+    void clear() {
+      Node node = first;
+      while (node != null) {
+        Node next = node.next;
+        node.prev = null;
+        node.next = null;
+        node.queue = REMOVED;
+        node = next;
+      }
+      first = null;
+      last = null;
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.cache.ServerCache;
+import com.avaje.ebean.cache.ServerCacheFactory;
+import com.avaje.ebean.cache.ServerCacheOptions;
+
+/**
+ * ServerCacheFactory that creates caches using a W-TinyLFU admission and eviction policy.
+ * <p>
+ * Use this for large caches where the periodic sort based LRU trim of DefaultServerCache
+ * is too expensive. Register it via ServerConfig.setServerCacheFactory() or as a
+ * ServiceLoader service.
+ * </p>
+ */
+public class TinyLfuServerCacheFactory implements ServerCacheFactory {
+
+  private EbeanServer ebeanServer;
+
+  @Override
+  public void init(EbeanServer ebeanServer) {
+    this.ebeanServer = ebeanServer;
+  }
+
+  @Override
+  public ServerCache createCache(String cacheKey, ServerCacheOptions cacheOptions) {
+
+    ServerCache cache = new TinyLfuServerCache(cacheKey, cacheOptions);
+    cache.init(ebeanServer);
+    return cache;
+  }
+
+}
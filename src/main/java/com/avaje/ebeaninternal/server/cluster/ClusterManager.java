@@ -3,6 +3,7 @@ package com.avaje.ebeaninternal.server.cluster;
 import com.avaje.ebean.EbeanServer;
 import com.avaje.ebean.config.ContainerConfig;
 import com.avaje.ebeaninternal.server.cluster.mcast.McastClusterManager;
+import com.avaje.ebeaninternal.server.cluster.nio.NioClusterBroadcast;
 import com.avaje.ebeaninternal.server.cluster.socket.SocketClusterBroadcast;
 import com.avaje.ebeaninternal.server.transaction.RemoteTransactionEvent;
 import org.slf4j.Logger;
@@ -38,6 +39,10 @@ public class ClusterManager {
           this.broadcast = new McastClusterManager(containerConfig);
           break;
         }
+        case NIO: {
+          this.broadcast = new NioClusterBroadcast(containerConfig);
+          break;
+        }
         default: {
           this.broadcast = null;
         }
@@ -0,0 +1,436 @@
+package com.avaje.ebeaninternal.server.cluster.nio;
+
+import com.avaje.ebean.config.ContainerConfig;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.server.cluster.ClusterBroadcast;
+import com.avaje.ebeaninternal.server.cluster.ClusterManager;
+import com.avaje.ebeaninternal.server.cluster.DataHolder;
+import com.avaje.ebeaninternal.server.cluster.SerialiseTransactionHelper;
+import com.avaje.ebeaninternal.server.cluster.socket.SocketClusterStatus;
+import com.avaje.ebeaninternal.server.lib.DaemonThreadPool;
+import com.avaje.ebeaninternal.server.transaction.RemoteTransactionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Broadcast messages across the cluster using non-blocking sockets.
+ * <p>
+ * A single selector thread accepts the connections from the other members, reads the incoming
+ * frames and writes the outgoing frames. Transaction events are converted to binary form (as per
+ * the socket and multicast broadcast) and queued per member. The events queued while a frame
+ * is being written are sent together in the next frame.
+ * </p>
+ * <p>
+ * When a connected member falls behind such that more than maxPendingBytes are queued the
+ * broadcast waits for it to catch up (back pressure on the committing threads). Events for a
+ * member that is connecting are queued up to maxPendingBytes (without waiting) and events
+ * for a member that is offline are discarded.
+ * </p>
+ */
+public class NioClusterBroadcast implements ClusterBroadcast, Runnable {
+
+  private static final Logger logger = LoggerFactory.getLogger(NioClusterBroadcast.class);
+
+  /**
+   * The maximum time a broadcast waits for a member that has fallen behind.
+   */
+  private static final long BACKPRESSURE_WAIT_MILLIS = 5000;
+
+  /**
+   * The time to wait before trying to connect to a member again.
+   */
+  private static final long RECONNECT_MILLIS = 1000;
+
+  /**
+   * The maximum time to wait for a connect to a member to complete.
+   */
+  private static final long CONNECT_TIMEOUT_MILLIS = 3000;
+
+  /**
+   * The maximum bytes of messages batched into one frame.
+   */
+  private static final int MAX_FRAME_BYTES = 256 * 1024;
+
+  private final InetSocketAddress localAddress;
+
+  private final String localHostPort;
+
+  private final NioMember[] members;
+
+  private final int maxPendingBytes;
+
+  /**
+   * Processes the incoming events in order (off the selector thread).
+   */
+  private final DaemonThreadPool processor;
+
+  private final TxnSerialiseHelper txnSerialiseHelper = new TxnSerialiseHelper();
+
+  private final AtomicInteger txnOutgoing = new AtomicInteger();
+  private final AtomicInteger txnIncoming = new AtomicInteger();
+
+  private ClusterManager clusterManager;
+
+  private Selector selector;
+
+  private ServerSocketChannel serverChannel;
+
+  private Thread selectorThread;
+
+  private volatile boolean running;
+
+  public NioClusterBroadcast(ContainerConfig containerConfig) {
+
+    ContainerConfig.SocketConfig socketConfig = containerConfig.getSocketConfig();
+
+    this.localHostPort = socketConfig.getLocalHostPort();
+    List<String> memberHostPorts = socketConfig.getMembers();
+
+    logger.info("Clustering using NIO sockets local[" + localHostPort + "] members[" + memberHostPorts + "]");
+
+    this.localAddress = parseFullName(localHostPort);
+    this.maxPendingBytes = socketConfig.getMaxPendingBytes();
+
+    List<NioMember> memberList = new ArrayList<NioMember>();
+    for (String memberHostPort : memberHostPorts) {
+      InetSocketAddress address = parseFullName(memberHostPort);
+      if (!address.equals(localAddress)) {
+        // don't add the local one ...
+        memberList.add(new NioMember(address));
+      }
+    }
+    this.members = memberList.toArray(new NioMember[memberList.size()]);
+    this.processor = new DaemonThreadPool(1, 1, 60, 30, socketConfig.getThreadPoolName());
+  }
+
+  /**
+   * Return the current status of this instance.
+   */
+  public SocketClusterStatus getStatus() {
+
+    int currentGroupSize = 0;
+    for (NioMember member : members) {
+      if (member.isConnected()) {
+        ++currentGroupSize;
+      }
+    }
+    return new SocketClusterStatus(currentGroupSize, txnIncoming.get(), txnOutgoing.get());
+  }
+
+  public void startup(ClusterManager clusterManager) {
+
+    this.clusterManager = clusterManager;
+    try {
+      selector = Selector.open();
+      serverChannel = ServerSocketChannel.open();
+      serverChannel.configureBlocking(false);
+      serverChannel.socket().setReuseAddress(true);
+      serverChannel.socket().bind(new InetSocketAddress(localAddress.getPort()));
+      serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+    } catch (IOException e) {
+      throw new RuntimeException("Error starting cluster NIO listener on " + localHostPort, e);
+    }
+
+    running = true;
+    selectorThread = new Thread(this, "EbeanClusterNio");
+    selectorThread.setDaemon(true);
+    selectorThread.start();
+  }
+
+  public void shutdown() {
+
+    running = false;
+    selector.wakeup();
+    try {
+      selectorThread.join(5000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    processor.shutdown();
+  }
+
+  /**
+   * Send the transaction event to all the members of the cluster.
+   */
+  public void broadcast(RemoteTransactionEvent remoteTransEvent) {
+    try {
+      txnOutgoing.incrementAndGet();
+      DataHolder dataHolder = txnSerialiseHelper.createDataHolder(remoteTransEvent);
+      broadcast(dataHolder.getData());
+
+    } catch (Exception e) {
+      logger.error("Error sending RemoteTransactionEvent " + remoteTransEvent + " to cluster members.", e);
+    }
+  }
+
+  /**
+   * Queue the message to all the members.
+   */
+  protected void broadcast(byte[] message) throws InterruptedException {
+
+    for (NioMember member : members) {
+      if (!member.offer(message, maxPendingBytes, BACKPRESSURE_WAIT_MILLIS)) {
+        logger.warn("Cluster member [{}] offline or not keeping up, message discarded", member);
+      }
+    }
+    selector.wakeup();
+  }
+
+  /**
+   * Process an incoming message.
+   */
+  protected void process(final byte[] message) {
+
+    processor.execute(new Runnable() {
+      public void run() {
+        try {
+          txnIncoming.incrementAndGet();
+          RemoteTransactionEvent transEvent = txnSerialiseHelper.read(new DataHolder(message));
+          transEvent.run();
+        } catch (Exception e) {
+          logger.error("Error processing cluster message", e);
+        }
+      }
+    });
+  }
+
+  /**
+   * The selector loop.
+   */
+  public void run() {
+
+    while (running) {
+      try {
+        connectAndWrite();
+        selector.select(RECONNECT_MILLIS);
+
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+          SelectionKey key = it.next();
+          it.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            accept();
+          } else if (key.attachment() instanceof NioMember) {
+            NioMember member = (NioMember) key.attachment();
+            try {
+              if (key.isConnectable()) {
+                finishConnect(key, member);
+              }
+              if (key.isValid() && key.isWritable()) {
+                write(key, member);
+              }
+            } catch (IOException e) {
+              logger.info("Cluster member [{}] disconnected {}", member, e.getMessage());
+              disconnect(member);
+            }
+          } else if (key.isReadable()) {
+            read(key);
+          }
+        }
+      } catch (Exception e) {
+        logger.error("Error in cluster NIO selector loop", e);
+      }
+    }
+    close();
+  }
+
+  /**
+   * Connect to members (that are not connected) and register interest to write pending messages.
+   */
+  private void connectAndWrite() {
+
+    long now = System.currentTimeMillis();
+    for (NioMember member : members) {
+      SocketChannel channel = member.getChannel();
+      if (channel == null) {
+        if (now >= member.getNextConnectTime()) {
+          connect(member);
+        }
+      } else if (member.isConnecting()) {
+        if (now - member.getConnectStartTime() > CONNECT_TIMEOUT_MILLIS) {
+          logger.debug("Cluster member [{}] connect timed out", member);
+          disconnect(member);
+        }
+      } else if (channel.isConnected() && member.hasPending()) {
+        SelectionKey key = channel.keyFor(selector);
+        if (key != null && key.isValid() && (key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+          key.interestOps(SelectionKey.OP_WRITE);
+        }
+      }
+    }
+  }
+
+  private void connect(NioMember member) {
+    try {
+      SocketChannel channel = SocketChannel.open();
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);
+      channel.socket().setKeepAlive(true);
+      member.setChannel(channel);
+      // queue messages (bounded) while connecting
+      member.setConnecting(System.currentTimeMillis());
+      if (channel.connect(member.getAddress())) {
+        channel.register(selector, SelectionKey.OP_WRITE, member);
+        member.setConnected(true);
+        logger.info("Cluster Member [{}] online[true]", member);
+      } else {
+        channel.register(selector, SelectionKey.OP_CONNECT, member);
+      }
+    } catch (IOException e) {
+      logger.debug("Cluster member [{}] connect failed {}", member, e.getMessage());
+      disconnect(member);
+    }
+  }
+
+  private void finishConnect(SelectionKey key, NioMember member) throws IOException {
+    SocketChannel channel = (SocketChannel) key.channel();
+    if (channel.finishConnect()) {
+      key.interestOps(SelectionKey.OP_WRITE);
+      member.setConnected(true);
+      logger.info("Cluster Member [{}] online[true]", member);
+    }
+  }
+
+  /**
+   * Write the pending frames to the member until the socket buffer is full.
+   */
+  private void write(SelectionKey key, NioMember member) throws IOException {
+
+    SocketChannel channel = (SocketChannel) key.channel();
+    while (true) {
+      ByteBuffer frame = member.currentFrame(MAX_FRAME_BYTES);
+      if (frame == null) {
+        // nothing more to write
+        key.interestOps(0);
+        return;
+      }
+      channel.write(frame);
+      if (frame.hasRemaining()) {
+        // wait for the socket to be writable again
+        return;
+      }
+      member.frameWritten();
+    }
+  }
+
+  private void disconnect(NioMember member) {
+    boolean wasConnected = member.isConnected();
+    member.setConnected(false);
+    member.setNextConnectTime(System.currentTimeMillis() + RECONNECT_MILLIS);
+    SocketChannel channel = member.getChannel();
+    member.setChannel(null);
+    closeChannel(channel);
+    if (wasConnected) {
+      logger.debug("Cluster Member [{}] online[false]", member);
+    }
+  }
+
+  private void accept() throws IOException {
+    SocketChannel channel = serverChannel.accept();
+    if (channel != null) {
+      channel.configureBlocking(false);
+      channel.register(selector, SelectionKey.OP_READ, new NioFrames.Reader(8192));
+    }
+  }
+
+  /**
+   * Read incoming frames from a member.
+   */
+  private void read(SelectionKey key) {
+
+    SocketChannel channel = (SocketChannel) key.channel();
+    NioFrames.Reader reader = (NioFrames.Reader) key.attachment();
+    try {
+      int count;
+      while ((count = reader.read(channel)) > 0) {
+        for (byte[] message : reader.messages()) {
+          process(message);
+        }
+      }
+      if (count == -1) {
+        // member shutting down
+        key.cancel();
+        closeChannel(channel);
+      }
+    } catch (IOException e) {
+      logger.info("Error reading cluster message {}", e.getMessage());
+      key.cancel();
+      closeChannel(channel);
+    }
+  }
+
+  /**
+   * Close all the channels and the selector.
+   */
+  private void close() {
+    for (NioMember member : members) {
+      disconnect(member);
+    }
+    for (SelectionKey key : selector.keys()) {
+      closeChannel(key.channel());
+    }
+    try {
+      selector.close();
+    } catch (IOException e) {
+      logger.debug("Error closing selector", e);
+    }
+  }
+
+  private void closeChannel(java.nio.channels.Channel channel) {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        logger.debug("Error closing channel", e);
+      }
+    }
+  }
+
+  /**
+   * Parse a host:port into a InetSocketAddress.
+   */
+  private InetSocketAddress parseFullName(String hostAndPort) {
+
+    try {
+      hostAndPort = hostAndPort.trim();
+      int colonPos = hostAndPort.indexOf(":");
+      if (colonPos == -1) {
+        String msg = "No colon \":\" in " + hostAndPort;
+        throw new IllegalArgumentException(msg);
+      }
+      String host = hostAndPort.substring(0, colonPos);
+      String sPort = hostAndPort.substring(colonPos + 1, hostAndPort.length());
+      int port = Integer.parseInt(sPort);
+
+      return new InetSocketAddress(host, port);
+
+    } catch (Exception ex) {
+      throw new RuntimeException("Error parsing [" + hostAndPort + "] for the form [host:port]", ex);
+    }
+  }
+
+  class TxnSerialiseHelper extends SerialiseTransactionHelper {
+
+    @Override
+    public SpiEbeanServer getEbeanServer(String serverName) {
+      return (SpiEbeanServer) clusterManager.getServer(serverName);
+    }
+  }
+}
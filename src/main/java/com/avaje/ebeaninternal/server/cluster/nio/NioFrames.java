@@ -0,0 +1,119 @@
+package com.avaje.ebeaninternal.server.cluster.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Encodes and decodes the length prefixed frames sent between the cluster members.
+ * <p>
+ * A frame is: <code>[int frameLength][int count]</code> followed by count messages each of
+ * <code>[int length][bytes]</code>. Each message is the binary form of a RemoteTransactionEvent
+ * (as per the DataHolder content). The frameLength excludes its own 4 bytes.
+ * </p>
+ */
+final class NioFrames {
+
+  /**
+   * Frames larger than this are treated as a protocol error.
+   */
+  static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+
+  private NioFrames() {
+  }
+
+  /**
+   * Return a frame containing the messages ready to write.
+   */
+  static ByteBuffer encode(List<byte[]> messages) {
+
+    int frameLength = 4;
+    for (byte[] message : messages) {
+      frameLength += 4 + message.length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(4 + frameLength);
+    buffer.putInt(frameLength);
+    buffer.putInt(messages.size());
+    for (byte[] message : messages) {
+      buffer.putInt(message.length);
+      buffer.put(message);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Reads frames from the bytes received on a channel (where frames can span reads).
+   */
+  static final class Reader {
+
+    private ByteBuffer buffer;
+
+    Reader(int initialSize) {
+      this.buffer = ByteBuffer.allocate(initialSize);
+    }
+
+    /**
+     * Read available bytes from the channel returning -1 at end of stream.
+     */
+    int read(ReadableByteChannel channel) throws IOException {
+      ensureSpace();
+      return channel.read(buffer);
+    }
+
+    /**
+     * Return the messages of the complete frames read so far.
+     */
+    List<byte[]> messages() throws IOException {
+
+      buffer.flip();
+      List<byte[]> messages = null;
+      while (buffer.remaining() >= 4) {
+        int frameLength = frameLength(buffer.getInt(buffer.position()));
+        if (buffer.remaining() < 4 + frameLength) {
+          // partial frame
+          break;
+        }
+        buffer.getInt();
+        int count = buffer.getInt();
+        if (messages == null) {
+          messages = new ArrayList<byte[]>(count);
+        }
+        for (int i = 0; i < count; i++) {
+          byte[] message = new byte[buffer.getInt()];
+          buffer.get(message);
+          messages.add(message);
+        }
+      }
+      buffer.compact();
+      return (messages == null) ? Collections.<byte[]>emptyList() : messages;
+    }
+
+    /**
+     * Grow the buffer when it is full (a frame larger than the buffer).
+     */
+    private void ensureSpace() throws IOException {
+      if (buffer.hasRemaining()) {
+        return;
+      }
+      int required = buffer.capacity() * 2;
+      if (buffer.position() >= 4) {
+        required = Math.max(required, 4 + frameLength(buffer.getInt(0)));
+      }
+      ByteBuffer larger = ByteBuffer.allocate(required);
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+
+    private int frameLength(int frameLength) throws IOException {
+      if (frameLength < 4 || frameLength > MAX_FRAME_BYTES) {
+        throw new IOException("Invalid cluster frame length " + frameLength);
+      }
+      return frameLength;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.avaje.ebeaninternal.server.cluster.nio;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * An other member of the cluster that messages are sent to.
+ * <p>
+ * Messages are queued by the broadcasting threads and written by the selector thread. The
+ * messages queued while a frame is being written are sent together in the next frame.
+ * </p>
+ */
+final class NioMember {
+
+  private final InetSocketAddress address;
+
+  private final String hostPort;
+
+  private final LinkedList<byte[]> queue = new LinkedList<byte[]>();
+
+  /**
+   * The bytes queued and not yet written (guarded by this).
+   */
+  private int pendingBytes;
+
+  /**
+   * True when connected such that messages are queued (guarded by this).
+   */
+  private boolean connected;
+
+  /**
+   * True while connecting such that messages are queued up to maxPendingBytes without
+   * waiting (guarded by this).
+   */
+  private boolean connecting;
+
+  /**
+   * The channel to the member (selector thread only).
+   */
+  private SocketChannel channel;
+
+  /**
+   * The frame currently being written (selector thread only).
+   */
+  private ByteBuffer frame;
+
+  /**
+   * The time after which to try connecting again (selector thread only).
+   */
+  private long nextConnectTime;
+
+  /**
+   * The time the current connect started (selector thread only).
+   */
+  private long connectStartTime;
+
+  NioMember(InetSocketAddress address) {
+    this.address = address;
+    this.hostPort = address.getHostName() + ":" + address.getPort();
+  }
+
+  @Override
+  public String toString() {
+    return hostPort;
+  }
+
+  InetSocketAddress getAddress() {
+    return address;
+  }
+
+  String getHostPort() {
+    return hostPort;
+  }
+
+  /**
+   * Queue the message to send.
+   * <p>
+   * When connected and more than maxPendingBytes are queued this waits up to waitMillis
+   * for the member to catch up. While connecting messages are queued up to maxPendingBytes
+   * without waiting. Returns false if the message was not queued (the member is offline,
+   * the connecting queue is full or the member did not catch up in time).
+   * </p>
+   */
+  synchronized boolean offer(byte[] message, int maxPendingBytes, long waitMillis) throws InterruptedException {
+
+    long until = System.currentTimeMillis() + waitMillis;
+    while (connected && isFull(message, maxPendingBytes)) {
+      long remaining = until - System.currentTimeMillis();
+      if (remaining <= 0) {
+        return false;
+      }
+      wait(remaining);
+    }
+    if (!connected && !(connecting && !isFull(message, maxPendingBytes))) {
+      return false;
+    }
+    queue.add(message);
+    pendingBytes += message.length;
+    return true;
+  }
+
+  private boolean isFull(byte[] message, int maxPendingBytes) {
+    return pendingBytes > 0 && pendingBytes + message.length > maxPendingBytes;
+  }
+
+  /**
+   * Return true if there are messages to send.
+   */
+  synchronized boolean hasPending() {
+    return pendingBytes > 0;
+  }
+
+  synchronized boolean isConnected() {
+    return connected;
+  }
+
+  synchronized boolean isConnecting() {
+    return connecting;
+  }
+
+  /**
+   * Set the connecting state (messages are queued until connected or disconnected).
+   */
+  synchronized void setConnecting(long connectStartTime) {
+    this.connecting = true;
+    this.connected = false;
+    this.connectStartTime = connectStartTime;
+  }
+
+  /**
+   * Set the connected state. When disconnected the queued messages are discarded.
+   */
+  synchronized void setConnected(boolean connected) {
+    this.connected = connected;
+    this.connecting = false;
+    if (!connected) {
+      queue.clear();
+      pendingBytes = 0;
+      frame = null;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Return the frame to write (the partially written one or the next one) or null if
+   * there is nothing to write.
+   */
+  ByteBuffer currentFrame(int maxFrameBytes) {
+    if (frame == null) {
+      List<byte[]> messages = drain(maxFrameBytes);
+      if (!messages.isEmpty()) {
+        frame = NioFrames.encode(messages);
+      }
+    }
+    return frame;
+  }
+
+  /**
+   * The current frame has been fully written.
+   */
+  void frameWritten() {
+    frame = null;
+  }
+
+  /**
+   * Remove queued messages up to maxFrameBytes (at least one message).
+   */
+  private synchronized List<byte[]> drain(int maxFrameBytes) {
+    List<byte[]> messages = new ArrayList<byte[]>();
+    int frameBytes = 0;
+    while (!queue.isEmpty()) {
+      byte[] next = queue.getFirst();
+      if (!messages.isEmpty() && frameBytes + next.length > maxFrameBytes) {
+        break;
+      }
+      queue.removeFirst();
+      messages.add(next);
+      frameBytes += next.length;
+      pendingBytes -= next.length;
+    }
+    if (!messages.isEmpty()) {
+      // space for the broadcasting threads
+      notifyAll();
+    }
+    return messages;
+  }
+
+  SocketChannel getChannel() {
+    return channel;
+  }
+
+  void setChannel(SocketChannel channel) {
+    this.channel = channel;
+  }
+
+  long getNextConnectTime() {
+    return nextConnectTime;
+  }
+
+  void setNextConnectTime(long nextConnectTime) {
+    this.nextConnectTime = nextConnectTime;
+  }
+
+  long getConnectStartTime() {
+    return connectStartTime;
+  }
+}
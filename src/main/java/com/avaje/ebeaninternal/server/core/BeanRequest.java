@@ -48,6 +48,13 @@ public abstract class BeanRequest {
 		}
 	}
 
+  /**
+   * Return true if the transaction was created implicitly for this request.
+   */
+  public boolean isCreatedTransaction() {
+    return createdTransaction;
+  }
+
   /**
    * Commit this transaction if it was created for this request.
    */
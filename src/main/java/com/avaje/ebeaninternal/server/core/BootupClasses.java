@@ -16,7 +16,7 @@ import com.avaje.ebean.event.changelog.ChangeLogRegister;
 import com.avaje.ebean.event.readaudit.ReadAuditLogger;
 import com.avaje.ebean.event.readaudit.ReadAuditPrepare;
 import com.avaje.ebeaninternal.server.type.ScalarType;
-import com.avaje.ebeaninternal.server.util.ClassPathSearchMatcher;
+import com.avaje.ebeaninternal.server.util.ClassPathSearchTypeMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,16 +27,22 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Interesting classes for a EbeanServer such as Embeddable, Entity,
  * ScalarTypes, Finders, Listeners and Controllers.
  */
-public class BootupClasses implements ClassPathSearchMatcher {
+public class BootupClasses implements ClassPathSearchTypeMatcher {
 
   private static final Logger logger = LoggerFactory.getLogger(BootupClasses.class);
 
+  /**
+   * All the classes that matched (used to snapshot the class path search).
+   */
+  private final List<Class<?>> matchedList = new ArrayList<Class<?>>();
+
   private final List<Class<?>> embeddableList = new ArrayList<Class<?>>();
 
   private final List<Class<?>> entityList = new ArrayList<Class<?>>();
@@ -335,6 +341,13 @@ public class BootupClasses implements ClassPathSearchMatcher {
     return transactionEventListenerInstances;
   }
 
+  /**
+   * Return all the classes that matched.
+   */
+  public List<Class<?>> getMatchedClasses() {
+    return matchedList;
+  }
+
   /**
    * Return the list of Embeddable classes.
    */
@@ -370,6 +383,26 @@ public class BootupClasses implements ClassPathSearchMatcher {
     return compoundTypeList;
   }
 
+  /**
+   * Return the annotations of entities and embeddables.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<Class<? extends Annotation>> getMatchAnnotations() {
+    return Arrays.<Class<? extends Annotation>>asList(Embeddable.class, Entity.class, Table.class);
+  }
+
+  /**
+   * Return the interesting interfaces (checked by isInterestingInterface).
+   */
+  @Override
+  public List<Class<?>> getMatchTypes() {
+    return Arrays.<Class<?>>asList(BeanPersistController.class, BeanPostLoad.class, TransactionEventListener.class,
+        ScalarType.class, ScalarTypeConverter.class, CompoundType.class, BeanFindController.class,
+        BeanPersistListener.class, BeanQueryAdapter.class, ServerConfigStartup.class, ChangeLogListener.class,
+        ChangeLogRegister.class, ChangeLogPrepare.class, ReadAuditPrepare.class, ReadAuditLogger.class);
+  }
+
   public boolean isMatch(Class<?> cls) {
 
     if (isEmbeddable(cls)) {
@@ -378,10 +411,11 @@ public class BootupClasses implements ClassPathSearchMatcher {
     } else if (isEntity(cls)) {
       entityList.add(cls);
 
-    } else {
-      return isInterestingInterface(cls);
+    } else if (!isInterestingInterface(cls)) {
+      return false;
     }
 
+    matchedList.add(cls);
     return true;
   }
 
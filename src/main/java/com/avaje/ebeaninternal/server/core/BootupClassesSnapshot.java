@@ -0,0 +1,210 @@
+package com.avaje.ebeaninternal.server.core;
+
+import com.avaje.ebeaninternal.server.util.DefaultClassPathReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the names of the classes found by the class path search.
+ * <p>
+ * This allows later startups to load the interesting classes directly rather than
+ * searching the class path.
+ * </p>
+ * <p>
+ * The snapshot includes a fingerprint of the class path (the jars and directories with the
+ * size and last modified time of their files). When the class path changes, for example
+ * a new entity is compiled or a jar is replaced, the snapshot is stale and the class path
+ * is searched again.
+ * </p>
+ */
+class BootupClassesSnapshot {
+
+  private static final Logger logger = LoggerFactory.getLogger(BootupClassesSnapshot.class);
+
+  private static final String UTF8 = "UTF-8";
+
+  private static final String CLASSPATH_HEADER = "# classpath ";
+
+  private final File file;
+
+  private final ClassLoader classLoader;
+
+  private final Object[] classPath;
+
+  private String fingerprint;
+
+  BootupClassesSnapshot(String fileName, ClassLoader classLoader) {
+    this(fileName, classLoader, null);
+  }
+
+  /**
+   * Create with the class path entries (URL, File or String) to fingerprint. When null the
+   * class path is read from the class loader.
+   */
+  BootupClassesSnapshot(String fileName, ClassLoader classLoader, Object[] classPath) {
+    this.file = new File(fileName);
+    this.classLoader = (classLoader == null) ? getClass().getClassLoader() : classLoader;
+    this.classPath = (classPath != null) ? classPath : new DefaultClassPathReader().readPath(this.classLoader);
+  }
+
+  /**
+   * Return the BootupClasses from the snapshot or null if the snapshot does not exist or is stale.
+   */
+  BootupClasses read() {
+
+    if (!file.exists()) {
+      return null;
+    }
+    try {
+      List<Class<?>> classes = new ArrayList<Class<?>>();
+      BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF8));
+      try {
+        String snapshotFingerprint = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+          line = line.trim();
+          if (line.startsWith(CLASSPATH_HEADER)) {
+            snapshotFingerprint = line.substring(CLASSPATH_HEADER.length()).trim();
+            if (!snapshotFingerprint.equals(getFingerprint())) {
+              logger.info("Class path snapshot {} is stale (class path changed) - searching class path", file);
+              return null;
+            }
+          } else if (line.length() > 0 && !line.startsWith("#")) {
+            classes.add(Class.forName(line, false, classLoader));
+          }
+        }
+        if (snapshotFingerprint == null) {
+          logger.info("Class path snapshot {} has no class path fingerprint - searching class path", file);
+          return null;
+        }
+      } finally {
+        reader.close();
+      }
+      logger.info("Loaded {} classes from class path snapshot {}", classes.size(), file);
+      return new BootupClasses(classes);
+
+    } catch (ClassNotFoundException e) {
+      logger.info("Class path snapshot {} is stale ({}) - searching class path", file, e.getMessage());
+      return null;
+    } catch (IOException e) {
+      logger.warn("Error reading class path snapshot " + file + " - searching class path", e);
+      return null;
+    }
+  }
+
+  /**
+   * Write the classes that matched the class path search.
+   */
+  void write(BootupClasses bootupClasses) {
+
+    try {
+      File parent = file.getAbsoluteFile().getParentFile();
+      if (parent != null && !parent.exists() && !parent.mkdirs()) {
+        logger.warn("Unable to create directory for class path snapshot {}", file);
+        return;
+      }
+      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF8));
+      try {
+        writer.write("# classes found by the class path search - delete to search again");
+        writer.newLine();
+        writer.write(CLASSPATH_HEADER + getFingerprint());
+        writer.newLine();
+        for (Class<?> cls : bootupClasses.getMatchedClasses()) {
+          writer.write(cls.getName());
+          writer.newLine();
+        }
+      } finally {
+        writer.close();
+      }
+      logger.info("Wrote {} classes to class path snapshot {}", bootupClasses.getMatchedClasses().size(), file);
+
+    } catch (IOException e) {
+      logger.warn("Error writing class path snapshot " + file, e);
+    }
+  }
+
+  /**
+   * Return the fingerprint of the class path (computed once).
+   */
+  String getFingerprint() {
+    if (fingerprint == null) {
+      CRC32 crc = new CRC32();
+      for (Object entry : classPath) {
+        File entryFile = toFile(entry);
+        if (entryFile == null) {
+          update(crc, String.valueOf(entry));
+        } else {
+          update(crc, entryFile.getAbsolutePath());
+          addFile(crc, entryFile);
+        }
+      }
+      fingerprint = Long.toHexString(crc.getValue());
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Add the size and last modified time of the file, or of all the files in the directory.
+   */
+  private void addFile(CRC32 crc, File entryFile) {
+    if (entryFile.isDirectory()) {
+      // the directory last modified time changes when files are added or removed
+      update(crc, entryFile.getName() + ":" + entryFile.lastModified());
+      File[] files = entryFile.listFiles();
+      if (files != null) {
+        Arrays.sort(files);
+        for (File child : files) {
+          addFile(crc, child);
+        }
+      }
+    } else {
+      update(crc, entryFile.getName() + ":" + entryFile.length() + ":" + entryFile.lastModified());
+    }
+  }
+
+  private void update(CRC32 crc, String value) {
+    try {
+      crc.update(value.getBytes(UTF8));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Return the class path entry as a File or null if it is not a file URL.
+   */
+  private File toFile(Object entry) {
+    if (entry instanceof File) {
+      return (File) entry;
+    }
+    if (entry instanceof URL) {
+      URL url = (URL) entry;
+      if (!"file".equals(url.getProtocol())) {
+        return null;
+      }
+      try {
+        return new File(url.toURI());
+      } catch (URISyntaxException e) {
+        return new File(url.getPath());
+      } catch (IllegalArgumentException e) {
+        return new File(url.getPath());
+      }
+    }
+    return (entry == null) ? null : new File(entry.toString());
+  }
+}
@@ -17,7 +17,6 @@ import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor.EntityType;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 import com.avaje.ebeaninternal.server.lib.util.StringHelper;
-import com.avaje.ebeaninternal.server.transaction.DefaultPersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -206,7 +205,7 @@ public class DefaultBeanLoader {
     Object parentId = parentDesc.getId(parentBean);
 
     if (pc == null) {
-      pc = new DefaultPersistenceContext();
+      pc = server.createPersistenceContext();
       pc.put(parentId, parentBean);
     }
 
@@ -396,7 +395,7 @@ public class DefaultBeanLoader {
 
     if (pc == null) {
       // a reference with no existing persistenceContext
-      pc = new DefaultPersistenceContext();
+      pc = server.createPersistenceContext();
       pc.put(id, bean);
       ebi.setPersistenceContext(pc);
     }
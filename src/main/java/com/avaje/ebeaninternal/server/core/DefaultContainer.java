@@ -226,8 +226,22 @@ public class DefaultContainer implements SpiContainer {
       return new BootupClasses(serverConfig.getClasses());
     }
 
+    BootupClassesSnapshot snapshot = null;
+    if (serverConfig.getClassPathSnapshot() != null) {
+      // use the classes found by a prior class path search
+      snapshot = new BootupClassesSnapshot(serverConfig.getClassPathSnapshot(), null);
+      BootupClasses bootupClasses = snapshot.read();
+      if (bootupClasses != null) {
+        return bootupClasses;
+      }
+    }
+
     BootupClassPathSearch search = new BootupClassPathSearch(null, serverConfig.getPackages(), serverConfig.getJars(), serverConfig.getClassPathReaderClassName());
-    return search.getBootupClasses();
+    BootupClasses bootupClasses = search.getBootupClasses();
+    if (snapshot != null) {
+      snapshot.write(bootupClasses);
+    }
+    return bootupClasses;
   }
 
   /**
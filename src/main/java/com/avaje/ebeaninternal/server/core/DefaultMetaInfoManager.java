@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.avaje.ebean.meta.MetaBeanInfo;
+import com.avaje.ebean.meta.MetaQueryExecutorStatistic;
+import com.avaje.ebean.meta.MetaQueryPlanCacheStatistic;
 import com.avaje.ebean.meta.MetaQueryPlanStatistic;
 import com.avaje.ebean.meta.MetaInfoManager;
 import com.avaje.ebean.meta.MetaObjectGraphNodeStats;
@@ -41,6 +43,21 @@ public class DefaultMetaInfoManager implements MetaInfoManager {
     
     return list;    
   }
+
+  @Override
+  public List<MetaQueryPlanCacheStatistic> collectQueryPlanCacheStatistics(boolean reset) {
+
+    List<MetaQueryPlanCacheStatistic> list = new ArrayList<MetaQueryPlanCacheStatistic>();
+    for (MetaBeanInfo metaBeanInfo : getMetaBeanInfoList()) {
+      list.add(metaBeanInfo.getQueryPlanCacheStatistic(reset));
+    }
+    return list;
+  }
+
+  @Override
+  public MetaQueryExecutorStatistic collectQueryExecutorStatistic(boolean reset) {
+    return server.asyncQueryExecutor.getStatistic(reset);
+  }
   
   public List<MetaObjectGraphNodeStats> collectNodeStatistics(boolean reset) {
 
@@ -47,7 +47,12 @@ import com.avaje.ebeaninternal.server.deploy.DeployNamedUpdate;
 import com.avaje.ebeaninternal.server.deploy.InheritInfo;
 import com.avaje.ebeaninternal.server.el.ElFilter;
 import com.avaje.ebeaninternal.server.lib.ShutdownManager;
+import com.avaje.ebeaninternal.server.persist.Binder;
+import com.avaje.ebeaninternal.server.query.AsyncQueryExecutor;
+import com.avaje.ebeaninternal.server.query.ParallelQueryExecutor;
+import com.avaje.ebeaninternal.server.query.AsyncQueryFuture;
 import com.avaje.ebeaninternal.server.query.CQuery;
+import com.avaje.ebeaninternal.server.query.CallableAsyncQuery;
 import com.avaje.ebeaninternal.server.query.CQueryEngine;
 import com.avaje.ebeaninternal.server.query.CallableQueryIds;
 import com.avaje.ebeaninternal.server.query.CallableQueryList;
@@ -62,6 +67,7 @@ import com.avaje.ebeaninternal.server.querydefn.DefaultOrmQuery;
 import com.avaje.ebeaninternal.server.querydefn.DefaultOrmUpdate;
 import com.avaje.ebeaninternal.server.querydefn.DefaultRelationalQuery;
 import com.avaje.ebeaninternal.server.text.csv.TCsvReader;
+import com.avaje.ebeaninternal.server.transaction.ConcurrentPersistenceContext;
 import com.avaje.ebeaninternal.server.transaction.DefaultPersistenceContext;
 import com.avaje.ebeaninternal.server.transaction.RemoteTransactionEvent;
 import com.avaje.ebeaninternal.server.transaction.TransactionManager;
@@ -105,6 +111,8 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
 
   private final DatabasePlatform databasePlatform;
 
+  private final Binder binder;
+
   private final TransactionManager transactionManager;
 
   private final TransactionScopeManager transactionScopeManager;
@@ -148,6 +156,13 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
 
   private final SpiBackgroundExecutor backgroundExecutor;
 
+  /**
+   * Bounded executor for the asynchronous queries (findListAsync() etc).
+   */
+  protected final AsyncQueryExecutor asyncQueryExecutor;
+
+  protected final ParallelQueryExecutor parallelQueryExecutor;
+
   private final DefaultBeanLoader beanLoader;
 
   private final EncryptKeyManager encryptKeyManager;
@@ -161,6 +176,8 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
    */
   private final PersistenceContextScope defaultPersistenceContextScope;
 
+  private final boolean concurrentPersistenceContext;
+
   /**
    * Flag set when the server has shutdown.
    */
@@ -202,15 +219,20 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     this.metaInfoManager = new DefaultMetaInfoManager(this);
     this.serverCacheManager = cache;
     this.databasePlatform = config.getDatabasePlatform();
+    this.binder = config.getBinder();
     this.backgroundExecutor = config.getBackgroundExecutor();
 
     this.serverName = serverConfig.getName();
+    this.asyncQueryExecutor = new AsyncQueryExecutor(serverName, serverConfig.getAsyncQueryPoolSize(), serverConfig.getAsyncQueryQueueSize(),
+        serverConfig.getAsyncQueryThreadFactory(), serverConfig.getBackgroundExecutorShutdownSecs());
+    this.parallelQueryExecutor = new ParallelQueryExecutor(serverName, serverConfig.getParallelQueryPoolSize());
     this.lazyLoadBatchSize = serverConfig.getLazyLoadBatchSize();
     this.queryBatchSize = serverConfig.getQueryBatchSize();
     this.cqueryEngine = config.getCQueryEngine();
     this.expressionFactory = config.getExpressionFactory();
     this.encryptKeyManager = serverConfig.getEncryptKeyManager();
     this.defaultPersistenceContextScope = serverConfig.getPersistenceContextScope();
+    this.concurrentPersistenceContext = serverConfig.isConcurrentPersistenceContext();
 
     this.beanDescriptorManager = config.getBeanDescriptorManager();
     beanDescriptorManager.setEbeanServer(this);
@@ -318,6 +340,11 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
   public DatabasePlatform getDatabasePlatform() {
     return databasePlatform;
   }
+
+  @Override
+  public boolean isMultiValueSupported(Class<?> valueType, boolean not) {
+    return binder.isMultiValueSupported(valueType, not);
+  }
   
   @Override
   public MetaInfoManager getMetaInfoManager() {
@@ -414,6 +441,8 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
 
     autoTuneService.shutdown();
     // shutdown background threads
+    asyncQueryExecutor.shutdown();
+    parallelQueryExecutor.shutdown();
     backgroundExecutor.shutdown();
     // shutdown DataSource (if its an Ebean one)
     transactionManager.shutdown(shutdownDataSource, deregisterDriver);
@@ -1178,6 +1207,13 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     return (scope != null) ? scope : defaultPersistenceContextScope;
   }
 
+  /**
+   * Create a new PersistenceContext (for concurrent use if configured).
+   */
+  public PersistenceContext createPersistenceContext() {
+    return concurrentPersistenceContext ? new ConcurrentPersistenceContext() : new DefaultPersistenceContext();
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T findId(Query<T> query, Transaction t) {
 
@@ -1368,7 +1404,7 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     spiQuery.setFutureFetch(true);
 
     // FutureList query always run in it's own persistence content
-    spiQuery.setPersistenceContext(new DefaultPersistenceContext());
+    spiQuery.setPersistenceContext(createPersistenceContext());
 
     if (!spiQuery.isDisableReadAudit()) {
       BeanDescriptor<T> desc = beanDescriptorManager.getBeanDescriptor(spiQuery.getBeanType());
@@ -1383,6 +1419,55 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     return queryFuture;
   }
 
+  public <T> AsyncFuture<List<T>> findListAsync(Query<T> query, Transaction t) {
+
+    checkNoAsyncTransaction(t);
+    SpiQuery<T> spiQuery = prepareAsyncQuery(query);
+    return asyncQueryExecutor.executeQuery(new AsyncQueryFuture<List<T>>(new CallableAsyncQuery.FindList<T>(this, spiQuery)));
+  }
+
+  public <T> AsyncFuture<T> findUniqueAsync(Query<T> query, Transaction t) {
+
+    checkNoAsyncTransaction(t);
+    SpiQuery<T> spiQuery = prepareAsyncQuery(query);
+    return asyncQueryExecutor.executeQuery(new AsyncQueryFuture<T>(new CallableAsyncQuery.FindUnique<T>(this, spiQuery)));
+  }
+
+  public <T> AsyncFuture<Integer> findRowCountAsync(Query<T> query, Transaction t) {
+
+    checkNoAsyncTransaction(t);
+    SpiQuery<T> copy = ((SpiQuery<T>) query).copy();
+    copy.setFutureFetch(true);
+    return asyncQueryExecutor.executeQuery(new AsyncQueryFuture<Integer>(new CallableAsyncQuery.FindRowCount<T>(this, copy)));
+  }
+
+  /**
+   * Async queries always execute using their own transaction on the query executor thread so
+   * reject a supplied transaction rather than silently ignoring it.
+   */
+  private void checkNoAsyncTransaction(Transaction t) {
+    if (t != null) {
+      throw new IllegalArgumentException("An async query uses its own transaction - the transaction must be null");
+    }
+  }
+
+  /**
+   * Prepare the query for asynchronous execution in its own persistence context and transaction.
+   */
+  private <T> SpiQuery<T> prepareAsyncQuery(Query<T> query) {
+
+    SpiQuery<T> spiQuery = (SpiQuery<T>) query;
+    spiQuery.setFutureFetch(true);
+    spiQuery.setPersistenceContext(createPersistenceContext());
+
+    if (!spiQuery.isDisableReadAudit()) {
+      // prepare the read audit event in this thread (with the user context)
+      BeanDescriptor<T> desc = beanDescriptorManager.getBeanDescriptor(spiQuery.getBeanType());
+      desc.readAuditFutureList(spiQuery);
+    }
+    return spiQuery;
+  }
+
   @Override
   public <T> PagedList<T> findPagedList(Query<T> query, Transaction transaction, int pageIndex, int pageSize) {
 
@@ -1526,6 +1611,46 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     }
   }
 
+  public void findEach(SqlQuery query, QueryEachConsumer<SqlRow> consumer, Transaction t) {
+
+    QueryIterator<SqlRow> it = findIterate(query, t);
+    try {
+      while (it.hasNext()) {
+        consumer.accept(it.next());
+      }
+    } finally {
+      it.close();
+    }
+  }
+
+  public void findEachWhile(SqlQuery query, QueryEachWhileConsumer<SqlRow> consumer, Transaction t) {
+
+    QueryIterator<SqlRow> it = findIterate(query, t);
+    try {
+      while (it.hasNext()) {
+        if (!consumer.accept(it.next())) {
+          break;
+        }
+      }
+    } finally {
+      it.close();
+    }
+  }
+
+  public QueryIterator<SqlRow> findIterate(SqlQuery query, Transaction t) {
+
+    RelationalQueryRequest request = new RelationalQueryRequest(this, relationalQueryEngine, query, t);
+    try {
+      request.initTransIfRequired();
+      return request.findIterate();
+
+    } catch (RuntimeException e) {
+      // the iterator ends the transaction when it is closed
+      request.endTransIfRequired();
+      throw e;
+    }
+  }
+
   /**
    * Persist the bean by either performing an insert or update.
    */
@@ -1645,6 +1770,26 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     }
   }
 
+  public <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans) {
+    bulkInsert(beanType, beans, null);
+  }
+
+  /**
+   * Bulk insert the beans with a transaction.
+   */
+  public <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans, Transaction t) {
+
+    TransWrapper wrap = initTransIfRequired(t);
+    try {
+      persister.bulkInsert(beanType, beans, wrap.transaction);
+      wrap.commitIfCreated();
+
+    } catch (RuntimeException e) {
+      wrap.rollbackIfCreated();
+      throw e;
+    }
+  }
+
   public <T> List<T> publish(Query<T> query, Transaction transaction) {
 
     TransWrapper wrap = initTransIfRequired(transaction);
@@ -1671,6 +1816,16 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     return publish(query, null);
   }
 
+  @Override
+  public <T> int publishBatched(Query<T> query, PublishOptions options, Transaction transaction) {
+    return persister.publishBatched(query, options, transaction != null ? transaction : currentTransaction());
+  }
+
+  @Override
+  public <T> int publishBatched(Query<T> query, PublishOptions options) {
+    return publishBatched(query, options, null);
+  }
+
   @Override
   public <T> T publish(Class<T> beanType, Object id, Transaction transaction) {
 
@@ -1696,6 +1851,16 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     }
   }
 
+  @Override
+  public <T> int draftRestoreBatched(Query<T> query, PublishOptions options, Transaction transaction) {
+    return persister.draftRestoreBatched(query, options, transaction != null ? transaction : currentTransaction());
+  }
+
+  @Override
+  public <T> int draftRestoreBatched(Query<T> query, PublishOptions options) {
+    return draftRestoreBatched(query, options, null);
+  }
+
   @Override
   public <T> T draftRestore(Class<T> beanType, Object id, Transaction transaction) {
 
@@ -2126,6 +2291,11 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     return transactionManager.createQueryTransaction();
   }
 
+  @Override
+  public ParallelQueryExecutor getParallelQueryExecutor() {
+    return parallelQueryExecutor;
+  }
+
 
   /**
    * Create a CallStack object.
@@ -30,7 +30,13 @@ import com.avaje.ebeaninternal.server.deploy.parse.DeployUtil;
 import com.avaje.ebeaninternal.server.expression.DefaultExpressionFactory;
 import com.avaje.ebeaninternal.server.lib.sql.DataSourcePool;
 import com.avaje.ebeaninternal.server.persist.Binder;
+import com.avaje.ebeaninternal.server.persist.BulkInsert;
 import com.avaje.ebeaninternal.server.persist.DefaultPersister;
+import com.avaje.ebeaninternal.server.persist.H2MultiValueBind;
+import com.avaje.ebeaninternal.server.persist.MultiValueBind;
+import com.avaje.ebeaninternal.server.persist.MySqlBulkInsert;
+import com.avaje.ebeaninternal.server.persist.PostgresBulkInsert;
+import com.avaje.ebeaninternal.server.persist.PostgresMultiValueBind;
 import com.avaje.ebeaninternal.server.query.CQueryEngine;
 import com.avaje.ebeaninternal.server.query.DefaultOrmQueryEngine;
 import com.avaje.ebeaninternal.server.query.DefaultRelationalQueryEngine;
@@ -213,11 +219,48 @@ public class InternalConfiguration {
 
     JsonExpressionHandler jsonHandler = getJsonExpressionHandler(databasePlatform);
 
+    MultiValueBind multiValueBind = getMultiValueBind(databasePlatform);
+
     DbHistorySupport historySupport = databasePlatform.getHistorySupport();
     if (historySupport == null) {
-      return new Binder(typeManager, 0, false, jsonHandler);
+      return new Binder(typeManager, 0, false, jsonHandler, multiValueBind);
+    }
+    return new Binder(typeManager, historySupport.getBindCount(), historySupport.isBindWithFromClause(), jsonHandler, multiValueBind);
+  }
+
+  /**
+   * Return the support for binding 'in' values as a single array parameter.
+   */
+  private MultiValueBind getMultiValueBind(DatabasePlatform databasePlatform) {
+
+    if (databasePlatform.isBindInListAsArray()) {
+      String name = databasePlatform.getName();
+      if ("postgres".equalsIgnoreCase(name)) {
+        return new PostgresMultiValueBind();
+      }
+      if ("h2".equalsIgnoreCase(name)) {
+        return new H2MultiValueBind();
+      }
+    }
+    return new MultiValueBind();
+  }
+
+  /**
+   * Return the bulk insert implementation for the given database platform.
+   */
+  private BulkInsert getBulkInsert(DatabasePlatform databasePlatform) {
+
+    String name = databasePlatform.getName();
+    if ("postgres".equalsIgnoreCase(name)) {
+      return new PostgresBulkInsert();
+    }
+    if ("mysql".equalsIgnoreCase(name)) {
+      return new MySqlBulkInsert();
     }
-    return new Binder(typeManager, historySupport.getBindCount(), historySupport.isBindWithFromClause(), jsonHandler);
+    // platforms that support multiple rows in the insert values clause
+    boolean multiRow = "h2".equalsIgnoreCase(name) || "hsqldb".equalsIgnoreCase(name)
+        || "db2".equalsIgnoreCase(name) || "sqlite".equalsIgnoreCase(name);
+    return new BulkInsert(multiRow);
   }
 
   /**
@@ -285,7 +328,7 @@ public class InternalConfiguration {
   }
 
   public Persister createPersister(SpiEbeanServer server) {
-    return new DefaultPersister(server, binder, beanDescriptorManager);
+    return new DefaultPersister(server, binder, beanDescriptorManager, getBulkInsert(serverConfig.getDatabasePlatform()));
   }
 
   public ServerCacheManager getCacheManager() {
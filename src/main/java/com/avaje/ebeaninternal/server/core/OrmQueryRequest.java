@@ -2,6 +2,8 @@ package com.avaje.ebeaninternal.server.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -12,6 +14,7 @@ import com.avaje.ebean.*;
 import com.avaje.ebean.bean.BeanCollection;
 import com.avaje.ebean.bean.EntityBean;
 import com.avaje.ebean.bean.PersistenceContext;
+import com.avaje.ebean.common.BeanList;
 import com.avaje.ebean.event.BeanFindController;
 import com.avaje.ebean.event.BeanQueryRequest;
 import com.avaje.ebeaninternal.api.BeanIdList;
@@ -19,18 +22,21 @@ import com.avaje.ebeaninternal.api.HashQuery;
 import com.avaje.ebeaninternal.api.HashQueryPlan;
 import com.avaje.ebeaninternal.api.LoadContext;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.api.SpiExpression;
+import com.avaje.ebeaninternal.api.SpiExpressionList;
 import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.api.SpiQuery.Type;
 import com.avaje.ebeaninternal.api.SpiTransaction;
+import com.avaje.ebeaninternal.server.cache.QueryCacheDependency;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 import com.avaje.ebeaninternal.server.deploy.DeployParser;
 import com.avaje.ebeaninternal.server.deploy.DeployPropertyParserMap;
+import com.avaje.ebeaninternal.server.expression.IdInExpression;
 import com.avaje.ebeaninternal.server.loadcontext.DLoadContext;
 import com.avaje.ebeaninternal.server.query.CQueryPlan;
 import com.avaje.ebeaninternal.server.query.CancelableQuery;
-import com.avaje.ebeaninternal.server.transaction.DefaultPersistenceContext;
 
 /**
  * Wraps the objects involved in executing a Query.
@@ -198,10 +204,23 @@ public final class OrmQueryRequest<T> extends BeanRequest implements BeanQueryRe
    * For iterate queries reset the persistenceContext and loadContext.
    */
   public void flushPersistenceContextOnIterate() {
-    persistenceContext = new DefaultPersistenceContext();
+    persistenceContext = ebeanServer.createPersistenceContext();
     loadContext.resetPersistenceContext(persistenceContext);
   }
 
+  /**
+   * For iterate queries that prefetch use a new persistenceContext and loadContext.
+   * <p>
+   * The next buffer of beans is loaded in the background while the application is still
+   * processing (and lazy loading) the beans of the current buffer so rather than being reset
+   * the load context of the current buffer is left as is.
+   * </p>
+   */
+  public void nextPersistenceContextOnIterate() {
+    persistenceContext = ebeanServer.createPersistenceContext();
+    loadContext = loadContext.createForIterate(this);
+  }
+
   /**
    * Get the TransactionContext either explicitly set on the query or
    * transaction scoped.
@@ -215,7 +234,7 @@ public final class OrmQueryRequest<T> extends BeanRequest implements BeanQueryRe
 
     // determine the scope (from the query and then server)
     PersistenceContextScope scope = ebeanServer.getPersistenceContextScope(query);
-    return (scope == PersistenceContextScope.QUERY) ? new DefaultPersistenceContext() :  t.getPersistenceContext();
+    return (scope == PersistenceContextScope.QUERY) ? ebeanServer.createPersistenceContext() :  t.getPersistenceContext();
   }
 
   /**
@@ -293,9 +312,121 @@ public final class OrmQueryRequest<T> extends BeanRequest implements BeanQueryRe
    */
   @SuppressWarnings("unchecked")
   public List<T> findList() {
+    if (isBeanCacheIdIn()) {
+      return findListWithBeanCache();
+    }
     return (List<T>) queryEngine.findMany(this);
   }
 
+  /**
+   * Return true if this is a simple 'id in' query that can use the bean cache.
+   * <p>
+   * This is the list equivalent of findId() using the bean cache. Queries with order by,
+   * max rows or other predicates are not candidates.
+   * </p>
+   */
+  private boolean isBeanCacheIdIn() {
+
+    if (query.getType() != Type.LIST || query.getMode() != SpiQuery.Mode.NORMAL
+        || query.isLoadBeanCache() || query.isUseQueryCache() || rawSql != null
+        || query.getMaxRows() > 0 || query.getFirstRow() > 0
+        || query.getTemporalMode() != SpiQuery.TemporalMode.CURRENT
+        || beanDescriptor.getIdBinder().isComplexId()) {
+      return false;
+    }
+    OrderBy<T> orderBy = query.getOrderBy();
+    if (orderBy != null && !orderBy.isEmpty()) {
+      return false;
+    }
+    SpiExpressionList<T> having = query.getHavingExpressions();
+    if (having != null && !having.isEmpty()) {
+      return false;
+    }
+    SpiExpressionList<T> where = query.getWhereExpressions();
+    if (where == null) {
+      return false;
+    }
+    List<SpiExpression> whereList = where.getUnderlyingList();
+    return whereList.size() == 1 && whereList.get(0) instanceof IdInExpression && isUseBeanCache();
+  }
+
+  /**
+   * Execute the 'id in' query getting the beans from the persistence context and bean cache first.
+   * <p>
+   * Like findId the persistence context is checked first (and ids of beans deleted in the
+   * persistence context are skipped) and then the bean cache. Only the ids that are not
+   * found are included in the SQL query. The beans fetched from the database are put into
+   * the bean cache (like findId).
+   * </p>
+   */
+  @SuppressWarnings("unchecked")
+  private List<T> findListWithBeanCache() {
+
+    List<SpiExpression> whereList = query.getWhereExpressions().getUnderlyingList();
+    IdInExpression idIn = (IdInExpression) whereList.get(0);
+
+    List<?> idValues = idIn.getIdList();
+    List<Object> ids = new ArrayList<Object>(idValues.size());
+    for (int i = 0; i < idValues.size(); i++) {
+      ids.add(beanDescriptor.convertId(idValues.get(i)));
+    }
+
+    Map<Object, T> hits = new LinkedHashMap<Object, T>();
+    Set<Object> deletedIds = new HashSet<Object>();
+    List<Object> cacheIds = new ArrayList<Object>(ids.size());
+    Class<T> beanType = beanDescriptor.getBeanType();
+    for (int i = 0; i < ids.size(); i++) {
+      Object id = ids.get(i);
+      PersistenceContext.WithOption o = persistenceContext.getWithOption(beanType, id);
+      if (o == null) {
+        cacheIds.add(id);
+      } else if (o.isDeleted()) {
+        // bean was previously deleted in the same persistence context
+        deletedIds.add(id);
+      } else {
+        hits.put(id, (T) o.getBean());
+      }
+    }
+
+    if (!cacheIds.isEmpty()) {
+      hits.putAll(beanDescriptor.cacheBeanGetAll(cacheIds, readOnly, persistenceContext));
+    }
+    if (hits.isEmpty() && deletedIds.isEmpty()) {
+      return (List<T>) queryEngine.findMany(this);
+    }
+
+    List<Object> missingIds = new ArrayList<Object>(ids.size() - hits.size());
+    for (int i = 0; i < ids.size(); i++) {
+      Object id = ids.get(i);
+      if (!hits.containsKey(id) && !deletedIds.contains(id)) {
+        missingIds.add(id);
+      }
+    }
+
+    BeanCollection<T> result;
+    if (missingIds.isEmpty()) {
+      result = new BeanList<T>();
+
+    } else {
+      // temporarily replace the expression such that only the missing ids are queried
+      whereList.set(0, new IdInExpression(missingIds));
+      try {
+        calculateQueryPlanHash();
+        result = queryEngine.findMany(this);
+      } finally {
+        whereList.set(0, idIn);
+      }
+      for (T bean : result.getActualDetails()) {
+        beanDescriptor.cacheBeanPutData((EntityBean) bean);
+      }
+    }
+
+    for (T bean : hits.values()) {
+      result.internalAdd(bean);
+    }
+    return (List<T>) result;
+  }
+
   public List<Version<T>> findVersions() {
     return queryEngine.findVersions(this);
   }
@@ -426,7 +557,25 @@ public final class OrmQueryRequest<T> extends BeanRequest implements BeanQueryRe
   }
 
   public void putToQueryCache(BeanCollection<T> queryResult) {
-    beanDescriptor.queryCachePut(cacheKey, queryResult);
+    beanDescriptor.queryCachePut(cacheKey, queryResult, createQueryCacheDependency(queryResult));
+  }
+
+  /**
+   * Return what the query result depends on such that it can be invalidated individually.
+   */
+  private QueryCacheDependency createQueryCacheDependency(BeanCollection<T> queryResult) {
+
+    CQueryPlan queryPlan = getQueryPlan();
+    if (queryPlan == null) {
+      return null;
+    }
+    Collection<T> beans = queryResult.getActualDetails();
+    Set<Object> ids = new HashSet<Object>(beans.size() * 2);
+    for (T bean : beans) {
+      ids.add(beanDescriptor.getId((EntityBean) bean));
+    }
+    Set<String> joinedTables = queryPlan.getSqlTree().getJoinedTables();
+    return new QueryCacheDependency(ids, joinedTables, query.getPredicateProperties(beanDescriptor));
   }
 
   /**
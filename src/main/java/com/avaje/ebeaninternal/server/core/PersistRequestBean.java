@@ -97,8 +97,8 @@ public final class PersistRequestBean<T> extends PersistRequest implements BeanP
   private List<BeanPropertyAssocMany<?>> updatedManys;
 
   /**
-   * Need to get and store the updated properties because the persist listener is notified
-   * later on a different thread and the bean has been reset at that point.
+   * Need to get and store the updated properties because the persist listener and query cache
+   * are notified later (possibly on a different thread) and the bean has been reset at that point.
    */
   private Set<String> updatedProperties;
 
@@ -239,6 +239,14 @@ public final class PersistRequestBean<T> extends PersistRequest implements BeanP
     return intercept.getDirtyPropertyNames();
   }
 
+  /**
+   * Return the properties that were updated as stored when the update executed (or null if they
+   * were not stored).
+   */
+  public Set<String> getExecutedUpdatedProperties() {
+    return updatedProperties;
+  }
+
   /**
    * Return true if any of the given property names are dirty.
    */
@@ -516,7 +524,7 @@ public final class PersistRequestBean<T> extends PersistRequest implements BeanP
         return -1;
 
       case UPDATE:
-        if (beanPersistListener != null) {
+        if (beanPersistListener != null || beanDescriptor.isQueryCaching()) {
           // store the updated properties for sending later
           updatedProperties = getUpdatedProperties();
         }
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.List;
 
 import com.avaje.ebean.CallableSql;
+import com.avaje.ebean.PublishOptions;
 import com.avaje.ebean.Query;
 import com.avaje.ebean.SqlUpdate;
 import com.avaje.ebean.Transaction;
@@ -30,6 +31,11 @@ public interface Persister {
    */
   void insert(EntityBean entityBean, Transaction t);
 
+  /**
+   * Insert the beans using bulk insert.
+   */
+  <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans, Transaction t);
+
   /**
    * Insert or update the bean depending on its state.
    */
@@ -98,4 +104,17 @@ public interface Persister {
    */
   <T> List<T> draftRestore(Query<T> query, Transaction transaction);
 
+  /**
+   * Publish the draft beans matching the given query in batches.
+   * <p>
+   * The transaction is null when each batch (or the whole process) should use a created transaction.
+   * </p>
+   */
+  <T> int publishBatched(Query<T> query, PublishOptions options, Transaction transaction);
+
+  /**
+   * Restore the draft beans back to the matching live beans in batches.
+   */
+  <T> int draftRestoreBatched(Query<T> query, PublishOptions options, Transaction transaction);
+
 }
@@ -1,5 +1,7 @@
 package com.avaje.ebeaninternal.server.core;
 
+import com.avaje.ebean.QueryIterator;
+import com.avaje.ebean.SqlRow;
 
 public interface RelationalQueryEngine {
 
@@ -8,4 +10,9 @@ public interface RelationalQueryEngine {
 	 */
 	Object findMany(RelationalQueryRequest request);
 
+	/**
+	 * Find using relational query returning an iterator reading the rows as they are requested.
+	 */
+	QueryIterator<SqlRow> findIterate(RelationalQueryRequest request);
+
 }
\ No newline at end of file
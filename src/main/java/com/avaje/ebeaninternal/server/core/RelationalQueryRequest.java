@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Set;
 
 import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.QueryIterator;
 import com.avaje.ebean.SqlQuery;
 import com.avaje.ebean.SqlRow;
 import com.avaje.ebean.Transaction;
@@ -81,6 +82,17 @@ public final class RelationalQueryRequest {
         return (Map<?, SqlRow>) queryEngine.findMany(this);
     }
 
+    /**
+     * Return an iterator reading the rows as they are requested.
+     * <p>
+     * The iterator must be closed which also ends the transaction if it was created.
+     * </p>
+     */
+    public QueryIterator<SqlRow> findIterate() {
+        queryType = SpiQuery.Type.ITERATE;
+        return queryEngine.findIterate(this);
+    }
+
     /**
      * Return the find that is to be performed.
      */
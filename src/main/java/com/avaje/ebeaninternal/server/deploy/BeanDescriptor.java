@@ -27,6 +27,7 @@ import com.avaje.ebean.event.readaudit.ReadAuditLogger;
 import com.avaje.ebean.event.readaudit.ReadAuditPrepare;
 import com.avaje.ebean.event.readaudit.ReadEvent;
 import com.avaje.ebean.meta.MetaBeanInfo;
+import com.avaje.ebean.meta.MetaQueryPlanCacheStatistic;
 import com.avaje.ebean.meta.MetaQueryPlanStatistic;
 import com.avaje.ebean.plugin.SpiBeanType;
 import com.avaje.ebeaninternal.api.HashQueryPlan;
@@ -36,6 +37,8 @@ import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.api.SpiUpdatePlan;
 import com.avaje.ebeaninternal.api.TransactionEventTable.TableIUD;
 import com.avaje.ebeaninternal.server.cache.CachedBeanData;
+import com.avaje.ebeaninternal.server.cache.QueryCacheDependency;
+import com.avaje.ebeaninternal.server.cache.QueryCacheInvalidation;
 import com.avaje.ebeaninternal.server.core.CacheOptions;
 import com.avaje.ebeaninternal.server.core.DefaultSqlUpdate;
 import com.avaje.ebeaninternal.server.core.DiffHelp;
@@ -53,6 +56,7 @@ import com.avaje.ebeaninternal.server.el.ElPropertyDeploy;
 import com.avaje.ebeaninternal.server.el.ElPropertyValue;
 import com.avaje.ebeaninternal.server.persist.DmlUtil;
 import com.avaje.ebeaninternal.server.query.CQueryPlan;
+import com.avaje.ebeaninternal.server.query.CQueryPlanCache;
 import com.avaje.ebeaninternal.server.query.CQueryPlanStats.Snapshot;
 import com.avaje.ebeaninternal.server.query.SplitName;
 import com.avaje.ebeaninternal.server.querydefn.OrmQueryDetail;
@@ -87,7 +91,7 @@ public class BeanDescriptor<T> implements MetaBeanInfo, SpiBeanType<T> {
 
   private final ConcurrentHashMap<Integer, SpiUpdatePlan> updatePlanCache = new ConcurrentHashMap<Integer, SpiUpdatePlan>();
 
-  private final ConcurrentHashMap<HashQueryPlan, CQueryPlan> queryPlanCache = new ConcurrentHashMap<HashQueryPlan, CQueryPlan>();
+  private final CQueryPlanCache queryPlanCache;
 
   private final ConcurrentHashMap<String, ElPropertyValue> elCache = new ConcurrentHashMap<String, ElPropertyValue>();
 
@@ -366,6 +370,7 @@ public class BeanDescriptor<T> implements MetaBeanInfo, SpiBeanType<T> {
     this.fullName = InternString.intern(deploy.getFullName());
 
     this.beanType = deploy.getBeanType();
+    this.queryPlanCache = new CQueryPlanCache(beanType, owner.getServerConfig().getQueryPlanCacheMaxSize());
     this.prototypeEntityBean = createPrototypeEntityBean(beanType);
     
     this.namedQueries = deploy.getNamedQueries();
@@ -930,10 +935,47 @@ public class BeanDescriptor<T> implements MetaBeanInfo, SpiBeanType<T> {
   }
 
   /**
-   * Put a query result into the query cache.
+   * Put a query result into the query cache with what it depends on.
    */
-  public void queryCachePut(Object id, BeanCollection<T> query) {
-    cacheHelp.queryCachePut(id, query);
+  public void queryCachePut(Object id, BeanCollection<T> query, QueryCacheDependency dependency) {
+    cacheHelp.queryCachePut(id, query, dependency);
+  }
+
+  /**
+   * Clear the query cache for the given cause.
+   */
+  public void queryCacheClear(QueryCacheInvalidation cause) {
+    cacheHelp.queryCacheClear(cause);
+  }
+
+  /**
+   * Invalidate the query cache entries affected by the update of a bean.
+   *
+   * @param updatedProperties the updated properties or null if these are not known
+   */
+  public void queryCacheUpdate(Object id, Set<String> updatedProperties) {
+    cacheHelp.queryCacheUpdate(id, updatedProperties);
+  }
+
+  /**
+   * Invalidate the query cache entries that join to any of the modified (lower case) tables.
+   */
+  public void queryCacheJoinedTables(Set<String> tables) {
+    cacheHelp.queryCacheJoinedTables(tables);
+  }
+
+  /**
+   * Return true if there is currently query caching for this type of bean.
+   */
+  public boolean isQueryCaching() {
+    return cacheHelp.isQueryCaching();
+  }
+
+  /**
+   * Return the number of query cache invalidations by cause.
+   */
+  public Map<QueryCacheInvalidation, Long> getQueryCacheInvalidationCounts() {
+    return cacheHelp.getQueryCacheInvalidationCounts();
   }
 
   /**
@@ -990,6 +1032,20 @@ public class BeanDescriptor<T> implements MetaBeanInfo, SpiBeanType<T> {
     return cacheHelp.beanCacheGet(query, context);
   }
 
+  /**
+   * Return the beans from the bean cache for the given ids (hits only) keyed by id.
+   */
+  public Map<Object, T> cacheBeanGetAll(Collection<Object> ids, Boolean readOnly, PersistenceContext context) {
+    return cacheHelp.beanCacheGetAll(ids, readOnly, context);
+  }
+
+  /**
+   * Load the beans in the batch from the bean cache removing the loaded ones from the batch.
+   */
+  public void cacheBeanLoadAll(List<EntityBeanIntercept> batch) {
+    cacheHelp.beanCacheLoadAll(batch);
+  }
+
   /**
    * Remove a bean from the cache given its Id.
    */
@@ -1134,6 +1190,11 @@ public class BeanDescriptor<T> implements MetaBeanInfo, SpiBeanType<T> {
     return collectQueryPlanStatisticsInternal(reset, false);
   }
   
+  @Override
+  public MetaQueryPlanCacheStatistic getQueryPlanCacheStatistic(boolean reset) {
+    return queryPlanCache.getStatistic(reset);
+  }
+
   public List<MetaQueryPlanStatistic> collectQueryPlanStatisticsInternal(boolean reset, boolean collectAll) {
     List<MetaQueryPlanStatistic> list = new ArrayList<MetaQueryPlanStatistic>(queryPlanCache.size());
     for (CQueryPlan queryPlan :  queryPlanCache.values()) {
@@ -2,7 +2,13 @@ package com.avaje.ebeaninternal.server.deploy;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,10 +25,15 @@ import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.api.TransactionEventTable.TableIUD;
 import com.avaje.ebeaninternal.server.cache.CachedBeanData;
+import com.avaje.ebeaninternal.server.cache.CachedBeanDataBinary;
 import com.avaje.ebeaninternal.server.cache.CachedBeanDataFromBean;
 import com.avaje.ebeaninternal.server.cache.CachedBeanDataToBean;
 import com.avaje.ebeaninternal.server.cache.CachedBeanDataUpdate;
 import com.avaje.ebeaninternal.server.cache.CachedManyIds;
+import com.avaje.ebeaninternal.server.cache.OffHeapServerCache;
+import com.avaje.ebeaninternal.server.cache.QueryCacheDependency;
+import com.avaje.ebeaninternal.server.cache.QueryCacheIndex;
+import com.avaje.ebeaninternal.server.cache.QueryCacheInvalidation;
 import com.avaje.ebeaninternal.server.core.CacheOptions;
 import com.avaje.ebeaninternal.server.core.PersistRequestBean;
 import com.avaje.ebeaninternal.server.querydefn.NaturalKeyBindParam;
@@ -39,6 +50,11 @@ public final class BeanDescriptorCacheHelp<T> {
   public static final Logger beanLog = LoggerFactory.getLogger("org.avaje.ebean.cache.BEAN");
   public static final Logger manyLog = LoggerFactory.getLogger("org.avaje.ebean.cache.COLL");
   public static final Logger natLog = LoggerFactory.getLogger("org.avaje.ebean.cache.NATKEY");
+
+  /**
+   * The maximum number of query cache dependencies held (the query cache is cleared when exceeded).
+   */
+  private static final int MAX_QUERY_DEPENDENCIES = 10000;
   
   
   private final BeanDescriptor<T> desc;
@@ -62,6 +78,18 @@ public final class BeanDescriptorCacheHelp<T> {
   private ServerCache naturalKeyCache;
   private ServerCache queryCache;
 
+  /**
+   * The dependencies of the query cache entries by cache key.
+   */
+  private final QueryCacheIndex queryIndex = new QueryCacheIndex();
+
+  private final AtomicLong[] queryInvalidationCounts = new AtomicLong[QueryCacheInvalidation.values().length];
+
+  /**
+   * True if the bean data can be held in binary form (in an off-heap cache).
+   */
+  private boolean binarySupported;
+
   public BeanDescriptorCacheHelp(BeanDescriptor<T> desc, ServerCacheManager cacheManager, CacheOptions cacheOptions,
       boolean cacheSharableBeans, BeanPropertyAssocOne<?>[] propertiesOneImported) {
 
@@ -72,12 +100,16 @@ public final class BeanDescriptorCacheHelp<T> {
     this.cacheOptions = cacheOptions;
     this.cacheSharableBeans = cacheSharableBeans;
     this.propertiesOneImported = propertiesOneImported;
+    for (int i = 0; i < queryInvalidationCounts.length; i++) {
+      queryInvalidationCounts[i] = new AtomicLong();
+    }
   }
 
   /**
    * Initialise the cache once the server has started.
    */
   public void initialise() {
+    this.binarySupported = CachedBeanDataBinary.isSupported(desc);
     if (cacheOptions.isUseNaturalKeyCache()) {
       this.naturalKeyCache = cacheManager.getNaturalKeyCache(beanType);
     }
@@ -153,14 +185,78 @@ public final class BeanDescriptorCacheHelp<T> {
    * Clear the query cache.
    */
   public void queryCacheClear() {
+    queryCacheClear(QueryCacheInvalidation.CLEAR);
+  }
+
+  /**
+   * Clear the query cache for the given cause.
+   */
+  public void queryCacheClear(QueryCacheInvalidation cause) {
     if (queryCache != null) {
       if (queryLog.isDebugEnabled()) {
-        queryLog.debug("   CLEAR {}", cacheName);
+        queryLog.debug("   CLEAR {}(*) - {}", cacheName, cause);
       }
+      // dependencies are removed before entries (see queryCachePut)
+      queryIndex.clear();
       queryCache.clear();
+      queryInvalidationCounts[cause.ordinal()].incrementAndGet();
     }
   }
 
+  /**
+   * Invalidate the query cache entries that contain the updated bean or that have predicates
+   * on the updated properties.
+   *
+   * @param updatedProperties the updated properties or null if these are not known
+   */
+  public void queryCacheUpdate(Object id, Set<String> updatedProperties) {
+    if (queryCache != null) {
+      int count = queryCacheRemove(queryIndex.removeByUpdate(id, updatedProperties));
+      if (queryLog.isDebugEnabled()) {
+        queryLog.debug("   REMOVE {}({}) {} entries - update trigger", cacheName, id, count);
+      }
+      queryInvalidationCounts[QueryCacheInvalidation.UPDATE.ordinal()].addAndGet(count);
+    }
+  }
+
+  /**
+   * Invalidate the query cache entries that join to any of the modified (lower case) tables.
+   */
+  public void queryCacheJoinedTables(Set<String> tables) {
+    if (queryCache == null) {
+      return;
+    }
+    int count = queryCacheRemove(queryIndex.removeByTables(tables));
+    if (count == 0) {
+      return;
+    }
+    if (queryLog.isDebugEnabled()) {
+      queryLog.debug("   REMOVE {} {} entries - joined tables {}", cacheName, count, tables);
+    }
+    queryInvalidationCounts[QueryCacheInvalidation.JOINED_TABLE.ordinal()].addAndGet(count);
+  }
+
+  /**
+   * Remove the query cache entries (with dependencies already removed) returning the count.
+   */
+  private int queryCacheRemove(List<Object> keys) {
+    for (int i = 0; i < keys.size(); i++) {
+      queryCache.remove(keys.get(i));
+    }
+    return keys.size();
+  }
+
+  /**
+   * Return the number of query cache invalidations by cause.
+   */
+  public Map<QueryCacheInvalidation, Long> getQueryCacheInvalidationCounts() {
+    Map<QueryCacheInvalidation, Long> counts = new EnumMap<QueryCacheInvalidation, Long>(QueryCacheInvalidation.class);
+    for (QueryCacheInvalidation cause : QueryCacheInvalidation.values()) {
+      counts.put(cause, queryInvalidationCounts[cause.ordinal()].get());
+    }
+    return counts;
+  }
+
 
   /**
    * Get a query result from the query cache.
@@ -177,14 +273,29 @@ public final class BeanDescriptorCacheHelp<T> {
   /**
    * Put a query result into the query cache.
    */
-  public void queryCachePut(Object id, BeanCollection<T> query) {
+  public void queryCachePut(Object id, BeanCollection<T> query, QueryCacheDependency dependency) {
     if (queryCache == null) {
       queryCache = cacheManager.getQueryCache(beanType);
     }
     if (queryLog.isDebugEnabled()) {
       queryLog.debug("   PUT {} {}", cacheName, id);
     }
+    if (queryIndex.size() >= MAX_QUERY_DEPENDENCIES) {
+      // the dependencies of evicted entries are not removed so start again
+      queryCacheClear(QueryCacheInvalidation.CLEAR);
+    }
+    if (dependency == null) {
+      dependency = QueryCacheDependency.UNKNOWN;
+    }
+    // Invalidation removes the dependencies and then the entries so an invalidation running
+    // concurrently with this put can remove the dependency before the entry is put. Check the
+    // dependency is still held after the put and otherwise remove the entry such that an
+    // entry is never left in the cache without a dependency.
+    queryIndex.put(id, dependency);
     queryCache.put(id, query);
+    if (!queryIndex.contains(id, dependency)) {
+      queryCache.remove(id);
+    }
   }
 
 
@@ -347,6 +458,20 @@ public final class BeanDescriptorCacheHelp<T> {
 
   }
   
+  /**
+   * Put the bean from the cache into the persistence context unless it already holds a bean
+   * for the id in which case that instance is returned.
+   */
+  @SuppressWarnings("unchecked")
+  private T setupContextIfAbsent(Object id, T bean, PersistenceContext context) {
+    Object existing = context.putIfAbsent(id, bean);
+    if (existing != null) {
+      return (T) existing;
+    }
+    ((EntityBean) bean)._ebean_getIntercept().setPersistenceContext(context);
+    return bean;
+  }
+
   /**
    * Return the beanCache creating it if necessary.
    */
@@ -388,7 +513,7 @@ public final class BeanDescriptorCacheHelp<T> {
     if (beanLog.isDebugEnabled()) {
       beanLog.debug("   PUT {}({})", cacheName, id);
     }
-    getBeanCache().put(id, beanData);
+    beanCachePutData(getBeanCache(), id, beanData);
     
     if (beanData.isNaturalKeyUpdate() && naturalKeyCache != null) {
       Object naturalKey = beanData.getNaturalKey();
@@ -402,7 +527,34 @@ public final class BeanDescriptorCacheHelp<T> {
   }
 
   public CachedBeanData beanCacheGetData(Object id) {
-    return (CachedBeanData) getBeanCache().get(id);
+    return beanCacheData(getBeanCache().get(id));
+  }
+
+  /**
+   * Put the bean data into the cache (in binary form for an off-heap cache).
+   * <p>
+   * Bean data that can not be written in binary form is held on heap.
+   * </p>
+   */
+  private void beanCachePutData(ServerCache cache, Object id, CachedBeanData beanData) {
+    if (binarySupported && cache instanceof OffHeapServerCache) {
+      byte[] bytes = CachedBeanDataBinary.write(desc, beanData);
+      if (bytes != null) {
+        cache.put(id, bytes);
+        return;
+      }
+    }
+    cache.put(id, beanData);
+  }
+
+  /**
+   * Return the CachedBeanData for the cache value reading it from binary form if necessary.
+   */
+  private CachedBeanData beanCacheData(Object cacheValue) {
+    if (cacheValue instanceof byte[]) {
+      return CachedBeanDataBinary.read(desc, (byte[]) cacheValue);
+    }
+    return (CachedBeanData) cacheValue;
   }
   
   public T beanCacheGet(SpiQuery<T> query, PersistenceContext context) {
@@ -413,19 +565,56 @@ public final class BeanDescriptorCacheHelp<T> {
     return bean;
   }
   
+  /**
+   * Return the beans from the bean cache for the given ids keyed by id.
+   * <p>
+   * Only the beans found in the bean cache are included in the returned map. Where the
+   * persistence context already holds a bean for an id that instance is returned instead.
+   * </p>
+   */
+  public Map<Object, T> beanCacheGetAll(Collection<Object> ids, Boolean readOnly, PersistenceContext context) {
+
+    if (context == null) {
+      context = new DefaultPersistenceContext();
+    }
+
+    Map<Object, Object> hits = getBeanCache().getAll(ids);
+    if (beanLog.isDebugEnabled()) {
+      beanLog.debug("   GET ALL {}({}) - hits:{}", cacheName, ids.size(), hits.size());
+    }
+    Map<Object, T> beans = new LinkedHashMap<Object, T>();
+    for (Map.Entry<Object, Object> entry : hits.entrySet()) {
+      Object id = entry.getKey();
+      CachedBeanData data = beanCacheData(entry.getValue());
+      if (data != null) {
+        T bean = beanCacheLoadBean(id, data, readOnly);
+        beans.put(id, setupContextIfAbsent(id, bean, context));
+      }
+    }
+    return beans;
+  }
+
   /**
    * Return a bean from the bean cache.
    */
-  @SuppressWarnings("unchecked")
   private T beanCacheGetInternal(Object id, Boolean readOnly) {
 
-    CachedBeanData data = (CachedBeanData) getBeanCache().get(id);
+    CachedBeanData data = beanCacheData(getBeanCache().get(id));
     if (data == null) {
       if (beanLog.isTraceEnabled()) {
         beanLog.trace("   GET {}({}) - cache miss", cacheName, id);
       }
       return null;
     }
+    return beanCacheLoadBean(id, data, readOnly);
+  }
+
+  /**
+   * Return a bean for the cached bean data (using the sharable bean if appropriate).
+   */
+  @SuppressWarnings("unchecked")
+  private T beanCacheLoadBean(Object id, CachedBeanData data, Boolean readOnly) {
+
     if (cacheSharableBeans && !Boolean.FALSE.equals(readOnly)) {
       Object bean = data.getSharableBean();
       if (bean != null) {
@@ -479,7 +668,7 @@ public final class BeanDescriptorCacheHelp<T> {
    */
   public boolean beanCacheLoad(EntityBean bean, EntityBeanIntercept ebi, Object id) {
 
-    CachedBeanData cacheData = (CachedBeanData) getBeanCache().get(id);
+    CachedBeanData cacheData = beanCacheData(getBeanCache().get(id));
     if (cacheData == null) {
       if (beanLog.isTraceEnabled()) {
         beanLog.trace("   LOAD {}({}) - cache miss", cacheName, id);
@@ -502,15 +691,47 @@ public final class BeanDescriptorCacheHelp<T> {
   }
   
   /**
-   * Remove a bean from the cache given its Id.
+   * Load the beans in the batch from the bean cache using a single multi-get.
+   * <p>
+   * The beans that were loaded from the bean cache are removed from the batch list.
+   * </p>
    */
-  public void handleDelete(Object id, PersistRequestBean<T> deleteRequest) {
-    if (queryCache != null) {
-      if (queryLog.isDebugEnabled()) {
-        queryLog.debug("   CLEAR {}(*) - delete trigger", cacheName);
+  public void beanCacheLoadAll(List<EntityBeanIntercept> batch) {
+
+    Map<Object, EntityBeanIntercept> byId = new LinkedHashMap<Object, EntityBeanIntercept>();
+    for (int i = 0; i < batch.size(); i++) {
+      EntityBeanIntercept ebi = batch.get(i);
+      byId.put(desc.getId(ebi.getOwner()), ebi);
+    }
+
+    Map<Object, Object> hits = getBeanCache().getAll(byId.keySet());
+    if (beanLog.isDebugEnabled()) {
+      beanLog.debug("   LOAD ALL {}({}) - hits:{}", cacheName, byId.size(), hits.size());
+    }
+    if (hits.isEmpty()) {
+      return;
+    }
+
+    Iterator<EntityBeanIntercept> iterator = batch.iterator();
+    while (iterator.hasNext()) {
+      EntityBeanIntercept ebi = iterator.next();
+      EntityBean bean = ebi.getOwner();
+      CachedBeanData cacheData = beanCacheData(hits.get(desc.getId(bean)));
+      if (cacheData != null) {
+        int lazyLoadProperty = ebi.getLazyLoadPropertyIndex();
+        if (lazyLoadProperty == -1 || cacheData.isLoaded(lazyLoadProperty)) {
+          CachedBeanDataToBean.load(desc, bean, cacheData);
+          iterator.remove();
+        }
       }
-      queryCache.clear();
     }
+  }
+
+  /**
+   * Remove a bean from the cache given its Id.
+   */
+  public void handleDelete(Object id, PersistRequestBean<T> deleteRequest) {
+    queryCacheClear(QueryCacheInvalidation.DELETE);
     if (beanCache != null) {
       if (beanLog.isDebugEnabled()) {
         beanLog.debug("   REMOVE {}({})", cacheName, id);
@@ -526,12 +747,7 @@ public final class BeanDescriptorCacheHelp<T> {
   }
 
   public void handleInsert(PersistRequestBean<T> insertRequest) {
-    if (queryCache != null) {
-      if (queryLog.isDebugEnabled()) {
-        queryLog.debug("   CLEAR {}(*) - insert trigger", cacheName);
-      }
-      queryCache.clear();
-    }
+    queryCacheClear(QueryCacheInvalidation.INSERT);
     for (int i = 0; i < propertiesOneImported.length; i++) {
       propertiesOneImported[i].cacheDelete(false, insertRequest.getEntityBean());
     }
@@ -542,12 +758,8 @@ public final class BeanDescriptorCacheHelp<T> {
    */
   public void handleUpdate(Object id, PersistRequestBean<T> updateRequest) {
 
-    if (queryCache != null) {
-      if (queryLog.isDebugEnabled()) {
-        queryLog.debug("   CLEAR {}(*) - update trigger", cacheName);
-      }
-      queryCache.clear();
-    }
+    // only the entries containing the bean or with predicates on the updated properties
+    queryCacheUpdate(id, updateRequest.getExecutedUpdatedProperties());
 
     List<BeanPropertyAssocMany<?>> manyCollections = updateRequest.getUpdatedManyCollections();
     if (manyCollections != null) {
@@ -562,7 +774,7 @@ public final class BeanDescriptorCacheHelp<T> {
       
       // update the bean cache entry if it exists
       ServerCache cache = getBeanCache();
-      CachedBeanData existingData = (CachedBeanData) cache.get(id);
+      CachedBeanData existingData = beanCacheData(cache.get(id));
       if (existingData != null) {
         
         if (isCachedDataTooOld(existingData)) {
@@ -578,7 +790,7 @@ public final class BeanDescriptorCacheHelp<T> {
           if (beanLog.isDebugEnabled()) {
             beanLog.debug("   UPDATE {}({})", cacheName, id);
           }
-          cache.put(id, newData);
+          beanCachePutData(cache, id, newData);
           if (newData.isNaturalKeyUpdate() && naturalKeyCache != null) {
             
             Object oldKey = newData.getOldNaturalKey();
@@ -621,6 +833,6 @@ public final class BeanDescriptorCacheHelp<T> {
       beanCacheClear();
     }
     // any change invalidates the query cache
-    queryCacheClear();
+    queryCacheClear(QueryCacheInvalidation.BULK_UPDATE);
   }
 }
@@ -47,6 +47,7 @@ import com.avaje.ebeaninternal.server.deploy.parse.DeployUtil;
 import com.avaje.ebeaninternal.server.deploy.parse.ReadAnnotations;
 import com.avaje.ebeaninternal.server.deploy.parse.TransientProperties;
 import com.avaje.ebeaninternal.server.idgen.UuidIdGenerator;
+import com.avaje.ebeaninternal.server.lib.DaemonThreadFactory;
 import com.avaje.ebeaninternal.server.lib.util.Dnode;
 import com.avaje.ebeaninternal.server.properties.BeanPropertiesReader;
 import com.avaje.ebeaninternal.server.properties.BeanPropertyInfo;
@@ -63,6 +64,7 @@ import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -70,6 +72,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Creates BeanDescriptors.
@@ -117,7 +125,17 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
 
   private final ChangeLogPrepare changeLogPrepare;
 
-  private int enhancedClassCount;
+  private final AtomicInteger enhancedClassCount = new AtomicInteger();
+
+  /**
+   * The number of threads used to deploy the entity beans.
+   */
+  private final int deployParallelism;
+
+  /**
+   * Executor used during deployment when deployParallelism is greater than 1.
+   */
+  private ExecutorService deployExecutor;
   
   private final boolean updateChangesOnly;
 
@@ -191,6 +209,7 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
     this.databasePlatform = serverConfig.getDatabasePlatform();
     this.idBinderFactory = new IdBinderFactory(databasePlatform.isIdInExpandedForm());
     this.eagerFetchLobs = serverConfig.isEagerFetchLobs();
+    this.deployParallelism = serverConfig.getDeployParallelism();
 
     this.asOfViewSuffix = getAsOfViewSuffix(databasePlatform, serverConfig);
     String versionsBetweenSuffix = getVersionsBetweenSuffix(databasePlatform, serverConfig);
@@ -294,6 +313,9 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
   public Map<String,String> deploy() {
 
     try {
+      if (deployParallelism > 1) {
+        deployExecutor = Executors.newFixedThreadPool(deployParallelism, new DaemonThreadFactory("ebean-" + serverName + "-deploy-"));
+      }
       createListeners();
       readEmbeddedDeployment();
       readEntityDeploymentInitial();
@@ -325,6 +347,66 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
       String msg = "Error in deployment";
       logger.error(msg, e);
       throw e;
+
+    } finally {
+      if (deployExecutor != null) {
+        deployExecutor.shutdownNow();
+        deployExecutor = null;
+      }
+    }
+  }
+
+  /**
+   * A deployment step performed for each bean type independently of the other bean types.
+   */
+  private interface DeployStep<I, O> {
+
+    O deploy(I input);
+  }
+
+  /**
+   * Perform the deployment step for each of the inputs returning the results in order.
+   * <p>
+   * The steps execute in parallel when deployParallelism is greater than 1.
+   * </p>
+   */
+  private <I, O> List<O> deployEach(Collection<I> inputs, final DeployStep<I, O> step) {
+
+    List<O> results = new ArrayList<O>(inputs.size());
+    if (deployExecutor == null || inputs.size() < 2) {
+      for (I input : inputs) {
+        results.add(step.deploy(input));
+      }
+      return results;
+    }
+
+    List<Future<O>> futures = new ArrayList<Future<O>>(inputs.size());
+    for (final I input : inputs) {
+      futures.add(deployExecutor.submit(new Callable<O>() {
+        public O call() {
+          return step.deploy(input);
+        }
+      }));
+    }
+    try {
+      for (Future<O> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PersistenceException("Interrupted during deployment", e);
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new PersistenceException(cause);
     }
   }
 
@@ -349,6 +431,21 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
     }
   }
 
+  /**
+   * Invalidate the query cache entries (of all bean types) that join to any of the modified tables.
+   *
+   * @param tables the lower case names of the modified tables
+   */
+  public void queryCacheJoinedTables(Set<String> tables) {
+    if (tables != null && !tables.isEmpty()) {
+      for (BeanDescriptor<?> desc : immutableDescriptorList) {
+        if (desc.isQueryCaching()) {
+          desc.queryCacheJoinedTables(tables);
+        }
+      }
+    }
+  }
+
   /**
    * Return the BeanDescriptors mapped to the table.
    */
@@ -506,7 +603,7 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
   }
 
   private void logStatus() {
-    logger.info("Entities enhanced[" + enhancedClassCount + "]");
+    logger.info("Entities enhanced[" + enhancedClassCount.get() + "]");
   }
 
   private <T> BeanDescriptor<T> createEmbedded(Class<T> beanClass) {
@@ -548,9 +645,13 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
 
     List<Class<?>> entityClasses = bootupClasses.getEntities();
 
-    for (Class<?> entityClass : entityClasses) {
-      DeployBeanInfo<?> info = createDeployBeanInfo(entityClass);
-      deplyInfoMap.put(entityClass, info);
+    List<DeployBeanInfo<?>> infos = deployEach(entityClasses, new DeployStep<Class<?>, DeployBeanInfo<?>>() {
+      public DeployBeanInfo<?> deploy(Class<?> entityClass) {
+        return createDeployBeanInfo(entityClass);
+      }
+    });
+    for (DeployBeanInfo<?> info : infos) {
+      deplyInfoMap.put(info.getDescriptor().getBeanType(), info);
     }
   }
 
@@ -576,9 +677,12 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
    */
   private void readEntityDeploymentAssociations() {
 
-    for (DeployBeanInfo<?> info : deplyInfoMap.values()) {
-      readDeployAssociations(info);
-    }
+    deployEach(deplyInfoMap.values(), new DeployStep<DeployBeanInfo<?>, Void>() {
+      public Void deploy(DeployBeanInfo<?> info) {
+        readDeployAssociations(info);
+        return null;
+      }
+    });
   }
 
   private void readInheritedIdGenerators() {
@@ -1440,7 +1544,7 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
     checkInheritedClasses(beanClass);
 
     if (!beanClass.getName().startsWith("com.avaje.ebean.meta")) {
-      enhancedClassCount++;
+      enhancedClassCount.incrementAndGet();
     }
   }
 
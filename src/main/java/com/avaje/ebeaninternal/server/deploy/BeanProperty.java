@@ -23,6 +23,7 @@ import com.avaje.ebeaninternal.server.text.json.WriteJson;
 import com.avaje.ebeaninternal.server.type.DataBind;
 import com.avaje.ebeaninternal.server.type.ScalarType;
 import com.avaje.ebeaninternal.server.type.ScalarTypeBoolean;
+import com.avaje.ebeaninternal.server.type.ScalarTypePrimitive;
 import com.avaje.ebeaninternal.util.ValueUtil;
 import com.fasterxml.jackson.core.JsonToken;
 import org.slf4j.Logger;
@@ -33,6 +34,7 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.List;
@@ -196,6 +198,11 @@ public class BeanProperty implements ElPropertyValue {
   @SuppressWarnings("rawtypes")
   final ScalarType scalarType;
 
+  /**
+   * The ScalarType used to read directly into a primitive field (null when not applicable).
+   */
+  final ScalarTypePrimitive primitiveScalarType;
+
   /**
    * The length or precision for DB column.
    */
@@ -313,6 +320,7 @@ public class BeanProperty implements ElPropertyValue {
     this.lob = isLobType(dbType);
     this.propertyType = deploy.getPropertyType();
     this.field = deploy.getField();
+    this.primitiveScalarType = initPrimitiveScalarType(field, scalarType);
 
     this.elPlaceHolder = tableAliasIntern(descriptor, deploy.getElPlaceHolder(), false, null);
     this.elPlaceHolderEncrypted = tableAliasIntern(descriptor, deploy.getElPlaceHolder(), dbEncrypted, dbColumn);
@@ -414,6 +422,8 @@ public class BeanProperty implements ElPropertyValue {
     this.lob = isLobType(dbType);
     this.propertyType = source.getPropertyType();
     this.field = source.getField();
+    // embedded properties are not loaded via SqlBeanLoad
+    this.primitiveScalarType = null;
 
     this.elPlaceHolder = override.replace(source.elPlaceHolder, source.dbColumn);
     this.elPlaceHolderEncrypted = override.replace(source.elPlaceHolderEncrypted, source.dbColumn);
@@ -422,6 +432,26 @@ public class BeanProperty implements ElPropertyValue {
     this.jsonDeserialize = source.jsonDeserialize;
   }
 
+  /**
+   * Return the ScalarType to read directly into the field when it is a primitive field supported
+   * by the ScalarType (and the field is accessible).
+   */
+  private static ScalarTypePrimitive initPrimitiveScalarType(Field field, ScalarType<?> scalarType) {
+    if (field == null || !(scalarType instanceof ScalarTypePrimitive)) {
+      return null;
+    }
+    ScalarTypePrimitive primitiveType = (ScalarTypePrimitive) scalarType;
+    if (field.getType() != primitiveType.getPrimitiveType() || Modifier.isFinal(field.getModifiers())) {
+      return null;
+    }
+    try {
+      field.setAccessible(true);
+      return primitiveType;
+    } catch (SecurityException e) {
+      return null;
+    }
+  }
+
   /**
    * Initialise the property before returning to client code. Used to
    * initialise variables that can't be done in construction due to recursive
@@ -581,6 +611,23 @@ public class BeanProperty implements ElPropertyValue {
     return scalarType.read(ctx.getDataReader());
   }
 
+  /**
+   * Return true if the value can be read directly into the primitive field of the bean (without boxing).
+   */
+  public boolean isPrimitiveRead() {
+    return primitiveScalarType != null;
+  }
+
+  /**
+   * Read the value directly into the primitive field of the bean.
+   * <p>
+   * Returns false without setting the field when the value read is null.
+   * </p>
+   */
+  public boolean readPrimitive(DbReadContext ctx, EntityBean bean) throws SQLException, IllegalAccessException {
+    return primitiveScalarType.readPrimitive(ctx.getDataReader(), bean, field);
+  }
+
   public Object readSet(DbReadContext ctx, EntityBean bean) throws SQLException {
 
     try {
@@ -1188,6 +1235,13 @@ public class BeanProperty implements ElPropertyValue {
   }
 
 
+  /**
+   * Return true if this property is included in JSON output.
+   */
+  public boolean isJsonSerialize() {
+    return jsonSerialize;
+  }
+
   @SuppressWarnings(value = "unchecked")
   public void jsonWrite(WriteJson writeJson, EntityBean bean) throws IOException {
     if (!jsonSerialize) {
@@ -339,6 +339,56 @@ public class BeanPropertyAssocMany<T> extends BeanPropertyAssoc<T> {
     return delete;
   }
 
+  /**
+   * Return true if the details can be deleted using a sub-query for the parent Id's.
+   * <p>
+   * This requires a single column foreign key, a scalar Id on the detail and that the
+   * detail is not the same table as the parent (which some databases do not support).
+   * </p>
+   */
+  public boolean isDeleteBySubQuery() {
+    if (manyToMany || exportedProperties.length != 1 || embeddedExportedProperties) {
+      return false;
+    }
+    BeanProperty targetId = targetDescriptor.getIdProperty();
+    return targetId != null && !targetId.isEmbedded()
+        && !targetDescriptor.getBaseTable().equalsIgnoreCase(descriptor.getBaseTable());
+  }
+
+  /**
+   * Return the in clause selecting the Id's of the details given the in clause of the parent Id's.
+   * <p>
+   * For example: <code> in (select id from order_detail where (order_id) in (?,?))</code>
+   * </p>
+   */
+  public String getIdInByParentIdSubQuery(String parentIdIn) {
+    String idColumn = targetDescriptor.getIdProperty().getDbColumn();
+    return " in (select " + idColumn + " from " + targetDescriptor.getBaseTable()
+        + " where " + deriveWhereParentIdSql(true, "") + parentIdIn + ")";
+  }
+
+  /**
+   * Return the in clause binding the given number of parent Id's.
+   */
+  public String getParentIdInBinding(int size) {
+    return buildInClauseBinding(size, exportedPropertyBindProto);
+  }
+
+  /**
+   * Delete the details (or intersection rows for ManyToMany) given the in clause of the parent Id's.
+   * <p>
+   * The parentIdIn is either a list of bind values or a sub-query with the bind values at the root.
+   * </p>
+   */
+  public SqlUpdate deleteByParentIdIn(String parentIdIn, List<Object> bindValues) {
+
+    DefaultSqlUpdate delete = new DefaultSqlUpdate(deleteByParentIdInSql + parentIdIn);
+    for (int i = 0; i < bindValues.size(); i++) {
+      delete.addParameter(bindValues.get(i));
+    }
+    return delete;
+  }
+
   private String deriveExportedPropertyBindProto() {
     if (exportedProperties.length == 1) {
       return "?";
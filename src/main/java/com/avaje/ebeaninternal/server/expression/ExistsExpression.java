@@ -89,6 +89,7 @@ public class ExistsExpression implements SpiExpression {
 
   @Override
   public void validate(SpiExpressionValidation validation) {
-    // Nothing to do for exists expression
+    // depends on the tables of the sub-query
+    validation.validateRaw();
   }
 }
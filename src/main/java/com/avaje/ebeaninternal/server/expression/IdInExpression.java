@@ -4,12 +4,15 @@ import java.util.List;
 
 import com.avaje.ebean.event.BeanQueryRequest;
 import com.avaje.ebeaninternal.api.HashQueryPlanBuilder;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.ManyWhereJoins;
 import com.avaje.ebeaninternal.api.SpiExpression;
 import com.avaje.ebeaninternal.api.SpiExpressionRequest;
 import com.avaje.ebeaninternal.api.SpiExpressionValidation;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.id.IdBinder;
+import com.avaje.ebeaninternal.server.persist.MultiValueBind;
+import com.avaje.ebeaninternal.server.persist.MultiValueWrapper;
 import com.avaje.ebeaninternal.util.DefaultExpressionRequest;
 
 /**
@@ -25,6 +28,13 @@ public class IdInExpression implements SpiExpression {
     this.idList = idList;
   }
 
+  /**
+   * Return the id values.
+   */
+  public List<?> getIdList() {
+    return idList;
+  }
+
   public void containsMany(BeanDescriptor<?> desc, ManyWhereJoins manyWhereJoin) {
   }
 
@@ -41,9 +51,38 @@ public class IdInExpression implements SpiExpression {
     BeanDescriptor<?> descriptor = r.getBeanDescriptor();
     IdBinder idBinder = descriptor.getIdBinder();
 
-    for (int i = 0; i < idList.size(); i++) {
-      idBinder.addIdInBindValue(request, idList.get(i));
+    if (isMultiValue(request, idBinder)) {
+      Object[] ids = new Object[idList.size()];
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = idBinder.convertId(idList.get(i));
+      }
+      request.addBindValue(new MultiValueWrapper(idBinder.getBeanProperty().getPropertyType(), ids));
+      return;
+    }
+
+    // pad with the last id to limit the number of distinct sql statements
+    int padSize = MultiValueBind.padSize(idList.size());
+    for (int i = 0; i < padSize; i++) {
+      idBinder.addIdInBindValue(request, idList.get(Math.min(i, idList.size() - 1)));
+    }
+  }
+
+  /**
+   * Return true if the ids can be bound as a single array parameter (not for embedded ids).
+   */
+  private boolean isMultiValue(SpiExpressionRequest request, IdBinder idBinder) {
+    return !idList.isEmpty() && !idBinder.isComplexId()
+        && request.isMultiValueSupported(idBinder.getBeanProperty().getPropertyType(), false);
+  }
+
+  /**
+   * Return the 'in' clause appended after the id column(s).
+   */
+  private String getIdInValueExpr(SpiExpressionRequest request, IdBinder idBinder) {
+    if (isMultiValue(request, idBinder)) {
+      return request.getMultiValueInExpression(false);
     }
+    return idBinder.getIdInValueExpr(MultiValueBind.padSize(idList.size()));
   }
 
   /**
@@ -56,8 +95,7 @@ public class IdInExpression implements SpiExpression {
     IdBinder idBinder = descriptor.getIdBinder();
 
     request.append(descriptor.getIdBinder().getBindIdInSql(null));
-    String inClause = idBinder.getIdInValueExpr(idList.size());
-    request.append(inClause);
+    request.append(getIdInValueExpr(request, idBinder));
   }
 
   public void addSql(SpiExpressionRequest request) {
@@ -67,20 +105,39 @@ public class IdInExpression implements SpiExpression {
     IdBinder idBinder = descriptor.getIdBinder();
 
     request.append(descriptor.getIdBinderInLHSSql());
-    String inClause = idBinder.getIdInValueExpr(idList.size());
-    request.append(inClause);
+    request.append(getIdInValueExpr(request, idBinder));
   }
 
   /**
-   * Incorporates the number of Id values to bind.
+   * Incorporates the number of Id values to bind (padded).
    */
   public void queryAutoTuneHash(HashQueryPlanBuilder builder) {
-    builder.add(IdInExpression.class).add(idList.size());
-    builder.bind(idList.size());
+    int padSize = MultiValueBind.padSize(idList.size());
+    builder.add(IdInExpression.class).add(padSize);
+    builder.bind(padSize);
   }
 
+  /**
+   * Incorporates the number of Id values to bind (padded) unless the ids are bound as a
+   * single array parameter.
+   */
   public void queryPlanHash(BeanQueryRequest<?> request, HashQueryPlanBuilder builder) {
-    queryAutoTuneHash(builder);
+    if (isMultiValue(request)) {
+      builder.add(IdInExpression.class).add(-1);
+      builder.bind(1);
+    } else {
+      queryAutoTuneHash(builder);
+    }
+  }
+
+  /**
+   * Return true if the ids are bound as a single array parameter for this query.
+   */
+  private boolean isMultiValue(BeanQueryRequest<?> request) {
+    SpiEbeanServer server = (SpiEbeanServer) request.getEbeanServer();
+    IdBinder idBinder = server.getBeanDescriptor(request.getQuery().getBeanType()).getIdBinder();
+    return !idList.isEmpty() && !idBinder.isComplexId()
+        && server.isMultiValueSupported(idBinder.getBeanProperty().getPropertyType(), false);
   }
 
   public int queryBindHash() {
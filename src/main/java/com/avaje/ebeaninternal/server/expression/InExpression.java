@@ -5,8 +5,11 @@ import java.util.Collection;
 import com.avaje.ebean.bean.EntityBean;
 import com.avaje.ebean.event.BeanQueryRequest;
 import com.avaje.ebeaninternal.api.HashQueryPlanBuilder;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiExpressionRequest;
 import com.avaje.ebeaninternal.server.el.ElPropertyValue;
+import com.avaje.ebeaninternal.server.persist.MultiValueBind;
+import com.avaje.ebeaninternal.server.persist.MultiValueWrapper;
 
 class InExpression extends AbstractExpression {
 
@@ -35,13 +38,21 @@ class InExpression extends AbstractExpression {
       prop = null;
     }
 
-    for (int i = 0; i < values.length; i++) {
+    if (prop == null && isMultiValue(request)) {
+      request.addBindValue(new MultiValueWrapper(values[0].getClass(), values));
+      return;
+    }
+
+    // pad with the last value to limit the number of distinct sql statements
+    int padSize = MultiValueBind.padSize(values.length);
+    for (int i = 0; i < padSize; i++) {
+      Object value = values[Math.min(i, values.length - 1)];
       if (prop == null) {
-        request.addBindValue(values[i]);
+        request.addBindValue(value);
 
       } else {
         // extract the id values from the bean
-        Object[] ids = prop.getAssocOneIdValues((EntityBean) values[i]);
+        Object[] ids = prop.getAssocOneIdValues((EntityBean) value);
         if (ids != null) {
           for (int j = 0; j < ids.length; j++) {
             request.addBindValue(ids[j]);
@@ -51,6 +62,33 @@ class InExpression extends AbstractExpression {
     }
   }
 
+  /**
+   * Return true if the values can be bound as a single array parameter.
+   * <p>
+   * This requires all the values to be of the same (supported) type.
+   * </p>
+   */
+  private boolean isMultiValue(SpiExpressionRequest request) {
+    Class<?> type = getSingleValueType();
+    return type != null && request.isMultiValueSupported(type, not);
+  }
+
+  /**
+   * Return the type of the values if they are all non null and of the same type.
+   */
+  private Class<?> getSingleValueType() {
+    if (values.length == 0 || values[0] == null) {
+      return null;
+    }
+    Class<?> type = values[0].getClass();
+    for (int i = 1; i < values.length; i++) {
+      if (values[i] == null || values[i].getClass() != type) {
+        return null;
+      }
+    }
+    return type;
+  }
+
   public void addSql(SpiExpressionRequest request) {
 
     if (values.length == 0) {
@@ -68,18 +106,24 @@ class InExpression extends AbstractExpression {
       prop = null;
     }
 
+    int padSize = MultiValueBind.padSize(values.length);
+
     if (prop != null) {
       request.append(prop.getAssocIdInExpr(propertyName));
-      String inClause = prop.getAssocIdInValueExpr(values.length);
+      String inClause = prop.getAssocIdInValueExpr(padSize);
       request.append(inClause);
 
+    } else if (isMultiValue(request)) {
+      request.append(propertyName);
+      request.append(request.getMultiValueInExpression(not));
+
     } else {
       request.append(propertyName);
       if (not) {
         request.append(" not");
       }
       request.append(" in (?");
-      for (int i = 1; i < values.length; i++) {
+      for (int i = 1; i < padSize; i++) {
         request.append(", ").append("?");
       }
 
@@ -88,15 +132,34 @@ class InExpression extends AbstractExpression {
   }
 
   /**
-   * Based on the number of values in the in clause.
+   * Based on the number of values in the in clause (padded).
    */
   public void queryAutoTuneHash(HashQueryPlanBuilder builder) {
-    builder.add(InExpression.class).add(propName).add(values.length).add(not);
-    builder.bind(values.length);
+    int padSize = MultiValueBind.padSize(values.length);
+    builder.add(InExpression.class).add(propName).add(padSize).add(not);
+    builder.bind(padSize);
   }
 
+  /**
+   * Based on the number of values in the in clause (padded) unless the values are bound as
+   * a single array parameter in which case the sql is the same for any number of values
+   * (and the value type determines the array type bound).
+   */
   public void queryPlanHash(BeanQueryRequest<?> request, HashQueryPlanBuilder builder) {
-    queryAutoTuneHash(builder);
+    if (isMultiValue(request)) {
+      builder.add(InExpression.class).add(propName).add(-1).add(not).add(getSingleValueType());
+      builder.bind(1);
+    } else {
+      queryAutoTuneHash(builder);
+    }
+  }
+
+  /**
+   * Return true if the values are bound as a single array parameter for this query.
+   */
+  private boolean isMultiValue(BeanQueryRequest<?> request) {
+    Class<?> type = getSingleValueType();
+    return type != null && ((SpiEbeanServer) request.getEbeanServer()).isMultiValueSupported(type, not);
   }
 
   public int queryBindHash() {
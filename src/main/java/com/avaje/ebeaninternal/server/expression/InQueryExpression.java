@@ -6,6 +6,7 @@ import com.avaje.ebean.event.BeanQueryRequest;
 import com.avaje.ebeaninternal.api.HashQueryPlanBuilder;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiExpressionRequest;
+import com.avaje.ebeaninternal.api.SpiExpressionValidation;
 import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.server.query.CQuery;
 
@@ -28,6 +29,13 @@ class InQueryExpression extends AbstractExpression {
     this.not = not;
   }
 
+  @Override
+  public void validate(SpiExpressionValidation validation) {
+    super.validate(validation);
+    // depends on the tables of the sub-query
+    validation.validateRaw();
+  }
+
   public void queryAutoTuneHash(HashQueryPlanBuilder builder) {
     builder.add(InQueryExpression.class).add(propName).add(not);
     subQuery.queryAutoTuneHash(builder);
@@ -274,6 +274,21 @@ abstract class JunctionExpression<T> implements Junction<T>, SpiExpression, Expr
     return exprList.findFutureRowCount();
   }
 
+  @Override
+  public AsyncFuture<List<T>> findListAsync() {
+    return exprList.findListAsync();
+  }
+
+  @Override
+  public AsyncFuture<T> findUniqueAsync() {
+    return exprList.findUniqueAsync();
+  }
+
+  @Override
+  public AsyncFuture<Integer> findRowCountAsync() {
+    return exprList.findRowCountAsync();
+  }
+
   @Override
   public List<Object> findIds() {
     return exprList.findIds();
@@ -27,7 +27,7 @@ class RawExpression implements SpiExpression {
 
   @Override
   public void validate(SpiExpressionValidation validation) {
-    // always ignored
+    validation.validateRaw();
   }
 
   public void addBindValues(SpiExpressionRequest request) {
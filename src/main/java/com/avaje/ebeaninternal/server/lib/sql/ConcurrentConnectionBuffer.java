@@ -0,0 +1,289 @@
+package com.avaje.ebeaninternal.server.lib.sql;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.avaje.ebeaninternal.server.lib.sql.PooledConnectionStatistics.LoadValues;
+
+/**
+ * A buffer holding both the free and busy connections for a pool in lock free mode.
+ * <p>
+ * Each PooledConnection holds its buffer state (free, busy, reserved or removed) and
+ * taking or releasing a connection is a compare and set on that state. A thread first
+ * tries to take the connection it last released (thread affinity) and otherwise polls
+ * free connections from a shared lock free queue. A connection taken via thread affinity
+ * remains in the shared queue and is skipped when another thread polls it.
+ * </p>
+ * <p>
+ * Taking and releasing connections is thread safe and lock free. Adding and removing
+ * connections (grow, trim and close) is guarded externally (by PooledConnectionQueue).
+ * </p>
+ */
+class ConcurrentConnectionBuffer {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConcurrentConnectionBuffer.class);
+
+  static final int STATE_FREE = 0;
+
+  static final int STATE_BUSY = 1;
+
+  /**
+   * Free connection being checked by trim.
+   */
+  static final int STATE_RESERVED = 2;
+
+  /**
+   * Connection that has left the pool.
+   */
+  static final int STATE_REMOVED = 3;
+
+  /**
+   * All the connections in the pool (free and busy).
+   */
+  private final CopyOnWriteArrayList<PooledConnection> connections = new CopyOnWriteArrayList<PooledConnection>();
+
+  /**
+   * Free connections that can be taken by any thread (may contain busy connections).
+   */
+  private final ConcurrentLinkedQueue<PooledConnection> freeQueue = new ConcurrentLinkedQueue<PooledConnection>();
+
+  /**
+   * The connection last released by each thread.
+   */
+  private final ThreadLocal<PooledConnection> lastReleased = new ThreadLocal<PooledConnection>();
+
+  private final AtomicInteger busyCount = new AtomicInteger();
+
+  private final AtomicInteger highWaterMark = new AtomicInteger();
+
+  private int slotId;
+
+  protected ConcurrentConnectionBuffer() {
+  }
+
+  /**
+   * Return the total number of connections (free and busy).
+   */
+  protected int size() {
+    return connections.size();
+  }
+
+  protected int busySize() {
+    return busyCount.get();
+  }
+
+  protected int freeSize() {
+    return Math.max(0, connections.size() - busyCount.get());
+  }
+
+  protected int getHighWaterMark() {
+    return highWaterMark.get();
+  }
+
+  protected void resetHighWaterMark() {
+    highWaterMark.set(busyCount.get());
+  }
+
+  /**
+   * Add a new connection to the buffer returning the number of busy connections.
+   *
+   * @param pc   the new connection
+   * @param busy true if the connection is being given to the caller
+   */
+  protected int add(PooledConnection pc, boolean busy) {
+    pc.setSlotId(slotId++);
+    if (busy) {
+      pc.setBufferState(STATE_BUSY);
+      connections.add(pc);
+      return registerBusy();
+    } else {
+      pc.setBufferState(STATE_FREE);
+      connections.add(pc);
+      enqueue(pc);
+      return busyCount.get();
+    }
+  }
+
+  /**
+   * Take a free connection returning null if there are no free connections.
+   */
+  protected PooledConnection take() {
+
+    PooledConnection pc = lastReleased.get();
+    if (pc != null) {
+      if (pc.compareAndSetBufferState(STATE_FREE, STATE_BUSY)) {
+        registerBusy();
+        return pc;
+      }
+      if (pc.getBufferState() == STATE_REMOVED) {
+        lastReleased.remove();
+      }
+    }
+
+    while ((pc = freeQueue.poll()) != null) {
+      // clear the queued flag before the state check so that a concurrent
+      // release() of a busy connection will put it back on the queue
+      pc.setBufferQueued(false);
+      if (pc.compareAndSetBufferState(STATE_FREE, STATE_BUSY)) {
+        registerBusy();
+        return pc;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Release a busy connection back into the buffer.
+   * <p>
+   * Returns false if the connection was not busy (closed as a leaked connection).
+   * </p>
+   */
+  protected boolean release(PooledConnection pc) {
+    if (!pc.compareAndSetBufferState(STATE_BUSY, STATE_FREE)) {
+      return false;
+    }
+    busyCount.decrementAndGet();
+    lastReleased.set(pc);
+    enqueue(pc);
+    return true;
+  }
+
+  /**
+   * Remove a busy connection that is going to be closed fully.
+   */
+  protected boolean removeBusy(PooledConnection pc) {
+    if (!pc.compareAndSetBufferState(STATE_BUSY, STATE_REMOVED)) {
+      return false;
+    }
+    busyCount.decrementAndGet();
+    connections.remove(pc);
+    return true;
+  }
+
+  /**
+   * Close all the free connections in this buffer.
+   */
+  protected void closeAll(boolean logErrors) {
+
+    int count = 0;
+    for (PooledConnection pc : connections) {
+      if (pc.compareAndSetBufferState(STATE_FREE, STATE_REMOVED)) {
+        connections.remove(pc);
+        logger.debug("... closing {} connection from the free list", pc.getName());
+        pc.closeConnectionFully(logErrors);
+        count++;
+      }
+    }
+    logger.debug("... closed {} connections from the free list with logErrors: {}", count, logErrors);
+  }
+
+  /**
+   * Trim any free connections that have not been used since usedSince.
+   */
+  protected int trim(long usedSince, long createdSince) {
+
+    int trimCount = 0;
+    for (PooledConnection pc : connections) {
+      if (pc.compareAndSetBufferState(STATE_FREE, STATE_RESERVED)) {
+        if (pc.shouldTrim(usedSince, createdSince)) {
+          pc.setBufferState(STATE_REMOVED);
+          connections.remove(pc);
+          pc.closeConnectionFully(true);
+          trimCount++;
+        } else {
+          // could have been polled and skipped while reserved
+          pc.setBufferState(STATE_FREE);
+          enqueue(pc);
+        }
+      }
+    }
+    return trimCount;
+  }
+
+  /**
+   * Close busy connections that should be considered leaked.
+   */
+  protected void closeBusyConnections(long leakTimeMinutes) {
+
+    long olderThanTime = System.currentTimeMillis() - (leakTimeMinutes * 60000);
+
+    logger.debug("Closing busy connections using leakTimeMinutes {}", leakTimeMinutes);
+
+    for (PooledConnection pc : connections) {
+      if (pc.getBufferState() == STATE_BUSY && !pc.isLongRunning() && pc.getLastUsedTime() <= olderThanTime) {
+        if (removeBusy(pc)) {
+          closeBusyConnection(pc);
+        }
+      }
+    }
+  }
+
+  private void closeBusyConnection(PooledConnection pc) {
+    try {
+      logger.warn("DataSourcePool closing busy connection? " + pc.getFullDescription());
+      pc.closeConnectionFully(false);
+
+    } catch (Exception ex) {
+      // this should never actually happen
+      logger.error("Error when closing potentially leaked connection " + pc.getDescription(), ex);
+    }
+  }
+
+  /**
+   * Returns information describing connections that are currently being used.
+   */
+  protected String getBusyConnectionInformation(boolean toLogger) {
+
+    if (toLogger) {
+      logger.info("Dumping [{}] busy connections: (Use datasource.xxx.capturestacktrace=true  ... to get stackTraces)", busySize());
+    }
+
+    StringBuilder sb = new StringBuilder();
+    for (PooledConnection pc : connections) {
+      if (pc.getBufferState() == STATE_BUSY) {
+        if (toLogger) {
+          logger.info("Busy Connection - {}", pc.getFullDescription());
+        } else {
+          sb.append(pc.getFullDescription()).append("\r\n");
+        }
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Collect the load statistics from all the connections (free and busy).
+   */
+  protected void collectStatistics(LoadValues values, boolean reset) {
+
+    for (PooledConnection pc : connections) {
+      values.plus(pc.getStatistics().getValues(reset));
+    }
+  }
+
+  /**
+   * Put the free connection on the shared queue unless it is already on it.
+   */
+  private void enqueue(PooledConnection pc) {
+    if (pc.compareAndSetBufferQueued(false, true)) {
+      freeQueue.offer(pc);
+    }
+  }
+
+  /**
+   * Increment the busy count maintaining the high water mark.
+   */
+  private int registerBusy() {
+    int busy = busyCount.incrementAndGet();
+    for (; ; ) {
+      int hwm = highWaterMark.get();
+      if (busy <= hwm || highWaterMark.compareAndSet(hwm, busy)) {
+        return busy;
+      }
+    }
+  }
+}
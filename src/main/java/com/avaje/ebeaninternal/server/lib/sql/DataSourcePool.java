@@ -113,6 +113,11 @@ public class DataSourcePool implements DataSource {
    */
   private final int maxStackTraceSize;
 
+  /**
+   * Flag set to true to take and return connections without locking.
+   */
+  private final boolean lockFree;
+
   /**
    * flag to indicate we have sent an alert message.
    */
@@ -188,6 +193,7 @@ public class DataSourcePool implements DataSource {
     this.leakTimeMinutes = params.getLeakTimeMinutes();
     this.captureStackTrace = params.isCaptureStackTrace();
     this.maxStackTraceSize = params.getMaxStackTraceSize();
+    this.lockFree = params.isLockFree();
     this.databaseDriver = params.getDriver();
     this.databaseUrl = params.getUrl();
     this.pstmtCacheSize = params.getPstmtCacheSize();
@@ -251,7 +257,8 @@ public class DataSourcePool implements DataSource {
     sb.append("] autoCommit[").append(autoCommit);
     sb.append("] transIsolation[").append(transIsolation);
     sb.append("] min[").append(minConnections);
-    sb.append("] max[").append(maxConnections).append("]");
+    sb.append("] max[").append(maxConnections);
+    sb.append("] lockFree[").append(lockFree).append("]");
 
     logger.info(sb.toString());
 
@@ -784,6 +791,13 @@ public class DataSourcePool implements DataSource {
     return captureStackTrace;
   }
 
+  /**
+   * Return true if connections are taken from and returned to the pool without locking.
+   */
+  public boolean isLockFree() {
+    return lockFree;
+  }
+
   /**
    * Set this to true means that the StackElements are captured every time a
    * connection is retrieved from the pool. This can be used to identify
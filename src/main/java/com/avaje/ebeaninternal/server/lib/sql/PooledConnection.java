@@ -11,6 +11,8 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -165,6 +167,16 @@ public class PooledConnection extends ConnectionDelegator {
 
   private boolean resetIsolationReadOnlyRequired;
 
+  /**
+   * State in the ConcurrentConnectionBuffer (when the pool is in lock free mode).
+   */
+  private final AtomicInteger bufferState = new AtomicInteger();
+
+  /**
+   * True when in the ConcurrentConnectionBuffer shared free queue.
+   */
+  private final AtomicBoolean bufferQueued = new AtomicBoolean();
+
 
   /**
    * Construct the connection that can refer back to the pool it belongs to.
@@ -213,6 +225,41 @@ public class PooledConnection extends ConnectionDelegator {
     this.slotId = slotId;
   }
 
+  /**
+   * Return the state in the ConcurrentConnectionBuffer.
+   */
+  protected int getBufferState() {
+    return bufferState.get();
+  }
+
+  /**
+   * Set the state in the ConcurrentConnectionBuffer.
+   */
+  protected void setBufferState(int state) {
+    bufferState.set(state);
+  }
+
+  /**
+   * Atomically change the state in the ConcurrentConnectionBuffer.
+   */
+  protected boolean compareAndSetBufferState(int expect, int update) {
+    return bufferState.compareAndSet(expect, update);
+  }
+
+  /**
+   * Set whether this connection is in the ConcurrentConnectionBuffer shared free queue.
+   */
+  protected void setBufferQueued(boolean queued) {
+    bufferQueued.set(queued);
+  }
+
+  /**
+   * Atomically change whether this connection is in the shared free queue.
+   */
+  protected boolean compareAndSetBufferQueued(boolean expect, boolean update) {
+    return bufferQueued.compareAndSet(expect, update);
+  }
+
   /**
    * Return a string to identify the connection.
    */
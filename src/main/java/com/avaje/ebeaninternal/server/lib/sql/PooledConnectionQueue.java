@@ -2,6 +2,7 @@ package com.avaje.ebeaninternal.server.lib.sql;
 
 import java.sql.SQLException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -32,6 +33,16 @@ public class PooledConnectionQueue {
    */
   private final BusyConnectionBuffer busyList;
 
+  /**
+   * Free and busy connections when in lock free mode (freeList and busyList are not used).
+   */
+  private final ConcurrentConnectionBuffer concurrentList;
+
+  /**
+   * When true connections are taken and returned without using the lock.
+   */
+  private final boolean lockFree;
+
   /**
    * Load statistics collected off connections that have closed fully (left the pool).
    */
@@ -43,7 +54,7 @@ public class PooledConnectionQueue {
   private LoadValues accumulatedValues = new LoadValues();
 
   /**
-   * Main lock guarding all access
+   * Main lock guarding all access (in lock free mode only growth, trimming and waiting).
    */
   private final ReentrantLock lock;
 
@@ -68,8 +79,11 @@ public class PooledConnectionQueue {
 
   /**
    * Number of threads in the wait queue.
+   * <p>
+   * Modified under the lock but read without it when returning connections in lock free mode.
+   * </p>
    */
-  private int waitingThreads;
+  private volatile int waitingThreads;
 
   /**
    * Number of times a thread had to wait.
@@ -79,7 +93,7 @@ public class PooledConnectionQueue {
   /**
    * Number of times a connection was got from this queue.
    */
-  private int hitCount;
+  private final AtomicInteger hitCount = new AtomicInteger();
 
   /**
    * The high water mark for the queue size.
@@ -90,9 +104,9 @@ public class PooledConnectionQueue {
    * Last time the pool was reset. Used to close busy connections as they are
    * returned to the pool that where created prior to the lastResetTime.
    */
-  private long lastResetTime;
+  private volatile long lastResetTime;
 
-  private boolean doingShutdown;
+  private volatile boolean doingShutdown;
 
   public PooledConnectionQueue(DataSourcePool pool) {
 
@@ -108,13 +122,18 @@ public class PooledConnectionQueue {
 
     this.busyList = new BusyConnectionBuffer(maxSize, 20);
     this.freeList = new FreeConnectionBuffer();
+    this.lockFree = pool.isLockFree();
+    this.concurrentList = new ConcurrentConnectionBuffer();
 
     this.lock = new ReentrantLock(false);
     this.notEmpty = lock.newCondition();
   }
 
   private Status createStatus() {
-    return new Status(name, minSize, maxSize, freeList.size(), busyList.size(), waitingThreads, highWaterMark, waitCount, hitCount);
+    if (lockFree) {
+      return new Status(name, minSize, maxSize, concurrentList.freeSize(), concurrentList.busySize(), waitingThreads, concurrentList.getHighWaterMark(), waitCount, hitCount.get());
+    }
+    return new Status(name, minSize, maxSize, freeList.size(), busyList.size(), waitingThreads, highWaterMark, waitCount, hitCount.get());
   }
 
   public String toString() {
@@ -143,8 +162,12 @@ public class PooledConnectionQueue {
 
       LoadValues aggregate = collectedStats.getValues(reset);
 
-      freeList.collectStatistics(aggregate, reset);
-      busyList.collectStatistics(aggregate, reset);
+      if (lockFree) {
+        concurrentList.collectStatistics(aggregate, reset);
+      } else {
+        freeList.collectStatistics(aggregate, reset);
+        busyList.collectStatistics(aggregate, reset);
+      }
 
       aggregate.plus(accumulatedValues);
 
@@ -164,7 +187,8 @@ public class PooledConnectionQueue {
       Status s = createStatus();
       if (reset) {
         highWaterMark = busyList.size();
-        hitCount = 0;
+        concurrentList.resetHighWaterMark();
+        hitCount.set(0);
         waitCount = 0;
       }
       return s;
@@ -214,6 +238,9 @@ public class PooledConnectionQueue {
   }
 
   private int totalConnections() {
+    if (lockFree) {
+      return concurrentList.size();
+    }
     return freeList.size() + busyList.size();
   }
 
@@ -225,7 +252,11 @@ public class PooledConnectionQueue {
       if (add > 0) {
         for (int i = 0; i < add; i++) {
           PooledConnection c = pool.createConnectionForQueue(connectionId++);
-          freeList.add(c);
+          if (lockFree) {
+            concurrentList.add(c, false);
+          } else {
+            freeList.add(c);
+          }
         }
         notEmpty.signal();
       }
@@ -240,6 +271,11 @@ public class PooledConnectionQueue {
    */
   protected void returnPooledConnection(PooledConnection c, boolean forceClose) {
 
+    if (lockFree) {
+      returnPooledConnectionLockFree(c, forceClose);
+      return;
+    }
+
     final ReentrantLock lock = this.lock;
     lock.lock();
     try {
@@ -258,6 +294,41 @@ public class PooledConnectionQueue {
     }
   }
 
+  /**
+   * Return a PooledConnection in lock free mode.
+   * <p>
+   * The lock is only used to close the connection or to signal a waiting thread.
+   * </p>
+   */
+  private void returnPooledConnectionLockFree(PooledConnection c, boolean forceClose) {
+
+    if (forceClose || c.shouldTrimOnReturn(lastResetTime, maxAgeMillis)) {
+      final ReentrantLock lock = this.lock;
+      lock.lock();
+      try {
+        if (!concurrentList.removeBusy(c)) {
+          logger.error("Connection [{}] not found in BusyList? ", c);
+        }
+        c.closeConnectionFully(false);
+      } finally {
+        lock.unlock();
+      }
+
+    } else if (!concurrentList.release(c)) {
+      // closed as a leaked connection (so not put back into the pool)
+      logger.error("Connection [{}] not found in BusyList? ", c);
+
+    } else if (waitingThreads > 0) {
+      final ReentrantLock lock = this.lock;
+      lock.lock();
+      try {
+        notEmpty.signal();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
   private PooledConnection extractFromFreeList() {
     PooledConnection c = freeList.remove();
     registerBusyConnection(c);
@@ -267,7 +338,7 @@ public class PooledConnectionQueue {
   public PooledConnection getPooledConnection() throws SQLException {
 
     try {
-      PooledConnection pc = _getPooledConnection();
+      PooledConnection pc = (lockFree) ? _getPooledConnectionLockFree() : _getPooledConnection();
       pc.resetForUse();
       return pc;
 
@@ -298,7 +369,7 @@ public class PooledConnectionQueue {
 
       // this includes attempts that fail with InterruptedException
       // or SQLException but that is ok as its only an indicator
-      hitCount++;
+      hitCount.incrementAndGet();
 
       // are other threads already waiting? (they get priority)
       if (waitingThreads == 0) {
@@ -336,6 +407,57 @@ public class PooledConnectionQueue {
     }
   }
 
+  /**
+   * Return a connection in lock free mode.
+   * <p>
+   * Firstly try to take a free connection without locking. If there are no free
+   * connections then use the lock to grow the pool or wait for a connection.
+   * </p>
+   */
+  private PooledConnection _getPooledConnectionLockFree() throws InterruptedException, SQLException {
+
+    if (doingShutdown) {
+      throw new SQLException("Trying to access the Connection Pool when it is shutting down");
+    }
+    hitCount.incrementAndGet();
+
+    PooledConnection c = concurrentList.take();
+    if (c != null) {
+      return c;
+    }
+
+    final ReentrantLock lock = this.lock;
+    lock.lockInterruptibly();
+    try {
+      if (doingShutdown) {
+        throw new SQLException("Trying to access the Connection Pool when it is shutting down");
+      }
+
+      if (concurrentList.size() < maxSize) {
+        // grow the connection pool
+        c = pool.createConnectionForQueue(connectionId++);
+        int busySize = concurrentList.add(c, true);
+
+        if (logger.isDebugEnabled()) {
+          logger.debug("DataSourcePool [{}] grow; id[{}] busy[{}] max[{}]", name, c.getName(), busySize, maxSize);
+        }
+        checkForWarningSize();
+        return c;
+      }
+
+      try {
+        waitCount++;
+        waitingThreads++;
+        return _getPooledConnectionWaitLoop();
+      } finally {
+        waitingThreads--;
+      }
+
+    } finally {
+      lock.unlock();
+    }
+  }
+
   /**
    * Got into a loop waiting for connections to be returned to the pool.
    */
@@ -344,6 +466,14 @@ public class PooledConnectionQueue {
     long nanos = MILLIS_TIME_UNIT.toNanos(waitTimeoutMillis);
     for (; ; ) {
 
+      if (lockFree) {
+        // connections are returned without the lock so check before waiting
+        PooledConnection c = concurrentList.take();
+        if (c != null) {
+          return c;
+        }
+      }
+
       if (nanos <= 0) {
         String msg = "Unsuccessfully waited [" + waitTimeoutMillis + "] millis for a connection to be returned."
             + " No connections are free. You need to Increase the max connections of [" + maxSize + "]"
@@ -357,7 +487,7 @@ public class PooledConnectionQueue {
 
       try {
         nanos = notEmpty.awaitNanos(nanos);
-        if (!freeList.isEmpty()) {
+        if (!lockFree && !freeList.isEmpty()) {
           // successfully waited
           return extractFromFreeList();
         }
@@ -379,8 +509,9 @@ public class PooledConnectionQueue {
 
       closeFreeConnections(true);
 
-      if (!busyList.isEmpty()) {
-        logger.warn("Closing busy connections on shutdown size: " + busyList.size());
+      int busySize = (lockFree) ? concurrentList.busySize() : busyList.size();
+      if (busySize > 0) {
+        logger.warn("Closing busy connections on shutdown size: " + busySize);
         dumpBusyConnectionInformation();
         closeBusyConnections(0);
       }
@@ -438,7 +569,7 @@ public class PooledConnectionQueue {
     long usedSince = System.currentTimeMillis() - maxInactiveMillis;
     long createdSince = (maxAgeMillis == 0) ? 0 : System.currentTimeMillis() - maxAgeMillis;
 
-    int trimedCount = freeList.trim(usedSince, createdSince);
+    int trimedCount = (lockFree) ? concurrentList.trim(usedSince, createdSince) : freeList.trim(usedSince, createdSince);
     if (trimedCount > 0) {
       logger.debug("DataSourcePool [{}] trimmed [{}] inactive connections. New size[{}]", name, trimedCount, totalConnections());
     }
@@ -452,7 +583,11 @@ public class PooledConnectionQueue {
     final ReentrantLock lock = this.lock;
     lock.lock();
     try {
-      freeList.closeAll(logErrors);
+      if (lockFree) {
+        concurrentList.closeAll(logErrors);
+      } else {
+        freeList.closeAll(logErrors);
+      }
     } finally {
       lock.unlock();
     }
@@ -475,7 +610,11 @@ public class PooledConnectionQueue {
     final ReentrantLock lock = this.lock;
     lock.lock();
     try {
-      busyList.closeBusyConnections(leakTimeMinutes);
+      if (lockFree) {
+        concurrentList.closeBusyConnections(leakTimeMinutes);
+      } else {
+        busyList.closeBusyConnections(leakTimeMinutes);
+      }
     } finally {
       lock.unlock();
     }
@@ -521,6 +660,9 @@ public class PooledConnectionQueue {
     lock.lock();
     try {
 
+      if (lockFree) {
+        return concurrentList.getBusyConnectionInformation(toLogger);
+      }
       return busyList.getBusyConnectionInformation(toLogger);
 
     } finally {
@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.server.loadcontext;
 
+import com.avaje.ebean.Transaction;
 import com.avaje.ebean.bean.BeanLoader;
 import com.avaje.ebean.bean.EntityBeanIntercept;
 import com.avaje.ebean.bean.PersistenceContext;
@@ -12,7 +13,6 @@ import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.querydefn.OrmQueryProperties;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -71,7 +71,7 @@ public class DLoadBeanContext extends DLoadBaseContext implements LoadBeanContex
     return buffer;
   }
 
-  public void loadSecondaryQuery(OrmQueryRequest<?> parentRequest) {
+  public void loadSecondaryQuery(OrmQueryRequest<?> parentRequest, Transaction transaction) {
 
     if (!queryFetch) {
       throw new IllegalStateException("Not expecting loadSecondaryQuery() to be called?");
@@ -81,7 +81,7 @@ public class DLoadBeanContext extends DLoadBaseContext implements LoadBeanContex
       if (bufferList != null) {
         for (LoadBuffer loadBuffer : bufferList) {
           if (!loadBuffer.list.isEmpty()) {
-            LoadBeanRequest req = new LoadBeanRequest(loadBuffer, parentRequest);
+            LoadBeanRequest req = new LoadBeanRequest(loadBuffer, parentRequest, transaction);
             parent.getEbeanServer().loadBean(req);
             if (!queryProps.isQueryFetchAll()) {
               // Stop - only fetch the first batch ... the rest will be lazy loaded
@@ -180,14 +180,8 @@ public class DLoadBeanContext extends DLoadBaseContext implements LoadBeanContex
       }
 
       if (context.hitCache) {
-        // Check each of the beans in the batch to see if they are in the L2 cache.
-        Iterator<EntityBeanIntercept> iterator = list.iterator();
-        while (iterator.hasNext()) {
-          EntityBeanIntercept bean = iterator.next();
-          if (context.desc.cacheBeanLoad(bean)) {
-            iterator.remove();
-          }
-        }
+        // Check the beans in the batch to see if they are in the L2 cache (single multi-get).
+        context.desc.cacheBeanLoadAll(list);
       }
 
       LoadBeanRequest req = new LoadBeanRequest(this, ebi.getLazyLoadProperty(), context.hitCache);
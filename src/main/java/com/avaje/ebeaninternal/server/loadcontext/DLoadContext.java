@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.server.loadcontext;
 
+import com.avaje.ebean.Transaction;
 import com.avaje.ebean.bean.BeanCollection;
 import com.avaje.ebean.bean.EntityBeanIntercept;
 import com.avaje.ebean.bean.ObjectGraphNode;
@@ -9,30 +10,48 @@ import com.avaje.ebeaninternal.api.LoadContext;
 import com.avaje.ebeaninternal.api.LoadSecondaryQuery;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiQuery;
+import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.server.core.OrmQueryRequest;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssoc;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 import com.avaje.ebeaninternal.server.el.ElPropertyValue;
+import com.avaje.ebeaninternal.server.query.ParallelQueryExecutor;
 import com.avaje.ebeaninternal.server.querydefn.OrmQueryProperties;
 
+import javax.persistence.PersistenceException;
 import java.sql.Timestamp;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Default implementation of LoadContext.
  */
 public class DLoadContext implements LoadContext {
 
+  /**
+   * Key used in nodePathMap for the root path (as ConcurrentHashMap does not support null keys).
+   */
+  private static final String ROOT_PATH = "";
+
   private final SpiEbeanServer ebeanServer;
 
   private final BeanDescriptor<?> rootDescriptor;
 
-  private final Map<String, DLoadBeanContext> beanMap = new HashMap<String, DLoadBeanContext>();
-  private final Map<String, DLoadManyContext> manyMap = new HashMap<String, DLoadManyContext>();
+  /**
+   * Concurrent maps as parallel secondary query branches register bean and many contexts.
+   */
+  private final ConcurrentMap<String, DLoadBeanContext> beanMap = new ConcurrentHashMap<String, DLoadBeanContext>();
+  private final ConcurrentMap<String, DLoadManyContext> manyMap = new ConcurrentHashMap<String, DLoadManyContext>();
 
   private final DLoadBeanContext rootBeanContext;
 
@@ -44,6 +63,7 @@ public class DLoadContext implements LoadContext {
   private final boolean disableLazyLoading;
   private final boolean disableReadAudit;
   private final boolean includeSoftDeletes;
+  private final boolean parallelSecondaryQueries;
 
   /**
    * The path relative to the root of the object graph.
@@ -52,17 +72,20 @@ public class DLoadContext implements LoadContext {
   private final ObjectGraphOrigin origin;
   private final boolean useProfiling;
 
-  private final Map<String, ObjectGraphNode> nodePathMap = new HashMap<String, ObjectGraphNode>();
+  private final ConcurrentMap<String, ObjectGraphNode> nodePathMap = new ConcurrentHashMap<String, ObjectGraphNode>();
 
   private PersistenceContext persistenceContext;
 
   private List<OrmQueryProperties> secQuery;
 
+  private List<OrmQueryProperties> lazyQueries;
+
   public DLoadContext(OrmQueryRequest<?> request) {
 
     this.persistenceContext = request.getPersistenceContext();
     this.ebeanServer = request.getServer();
     this.defaultBatchSize = request.getLazyLoadBatchSize();
+    this.parallelSecondaryQueries = ebeanServer.getServerConfig().isParallelSecondaryQueries();
     this.rootDescriptor = request.getBeanDescriptor();
 
     SpiQuery<?> query = request.getQuery();
@@ -118,12 +141,149 @@ public class DLoadContext implements LoadContext {
   public void executeSecondaryQueries(OrmQueryRequest<?> parentRequest) {
 
     if (secQuery != null) {
-      for (int i = 0; i < secQuery.size(); i++) {
-        OrmQueryProperties properties = secQuery.get(i);
-        LoadSecondaryQuery load = getLoadSecondaryQuery(properties.getPath());
-        load.loadSecondaryQuery(parentRequest);
+      if (parallelSecondaryQueries && secQuery.size() > 1 && parentRequest.isCreatedTransaction()
+          && !ebeanServer.getParallelQueryExecutor().isExecutorThread()) {
+        // not when already executing on a parallel query thread (the branches could wait
+        // for threads that are waiting on this)
+        List<List<OrmQueryProperties>> branches = parallelBranches();
+        if (branches.size() > 1) {
+          executeParallel(parentRequest, branches);
+          return;
+        }
+      }
+      executeBranch(parentRequest, secQuery, parentRequest.getTransaction());
+    }
+  }
+
+  /**
+   * Execute the secondary queries in order using the given transaction.
+   */
+  private void executeBranch(OrmQueryRequest<?> parentRequest, List<OrmQueryProperties> queries, Transaction transaction) {
+    for (int i = 0; i < queries.size(); i++) {
+      OrmQueryProperties properties = queries.get(i);
+      LoadSecondaryQuery load = getLoadSecondaryQuery(properties.getPath());
+      load.loadSecondaryQuery(parentRequest, transaction);
+    }
+  }
+
+  /**
+   * Execute the branches in parallel with each branch using its own read only transaction.
+   * <p>
+   * The first branch executes in the calling thread using the parent transaction and the
+   * other branches execute using the ParallelQueryExecutor. The beans loaded by all the
+   * branches are merged into the shared persistence context.
+   * </p>
+   */
+  private void executeParallel(final OrmQueryRequest<?> parentRequest, List<List<OrmQueryProperties>> branches) {
+
+    final CountDownLatch latch = new CountDownLatch(branches.size() - 1);
+    final AtomicReference<RuntimeException> error = new AtomicReference<RuntimeException>();
+
+    ParallelQueryExecutor executor = ebeanServer.getParallelQueryExecutor();
+    for (int i = 1; i < branches.size(); i++) {
+      final List<OrmQueryProperties> branch = branches.get(i);
+      executor.execute(new Runnable() {
+        public void run() {
+          SpiTransaction transaction = ebeanServer.createQueryTransaction();
+          try {
+            executeBranch(parentRequest, branch, transaction);
+          } catch (RuntimeException e) {
+            error.compareAndSet(null, e);
+          } finally {
+            transaction.end();
+            latch.countDown();
+          }
+        }
+      });
+    }
+
+    try {
+      executeBranch(parentRequest, branches.get(0), parentRequest.getTransaction());
+    } finally {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PersistenceException("Interrupted waiting for secondary queries", e);
       }
     }
+
+    RuntimeException e = error.get();
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  /**
+   * Split the secondary queries into branches that can execute independently.
+   * <p>
+   * A secondary query on a nested path (e.g. orders.details) is in the same branch as the
+   * secondary query on its parent path (e.g. orders) and executes after it. Branches that
+   * load the same bean type are combined such that the same bean is not loaded concurrently.
+   * </p>
+   */
+  private List<List<OrmQueryProperties>> parallelBranches() {
+
+    List<List<OrmQueryProperties>> branches = new ArrayList<List<OrmQueryProperties>>();
+    List<Set<BeanDescriptor<?>>> branchTypes = new ArrayList<Set<BeanDescriptor<?>>>();
+
+    for (int i = 0; i < secQuery.size(); i++) {
+      OrmQueryProperties props = secQuery.get(i);
+      BeanDescriptor<?> targetType = getTargetDescriptor(props.getPath());
+
+      int match = -1;
+      for (int j = 0; j < branches.size(); j++) {
+        if (isDependent(props, branches.get(j)) || branchTypes.get(j).contains(targetType)) {
+          if (match == -1) {
+            match = j;
+            branches.get(j).add(props);
+            branchTypes.get(j).add(targetType);
+          } else {
+            // this query links two branches so combine them
+            branches.get(match).addAll(branches.remove(j));
+            branchTypes.get(match).addAll(branchTypes.remove(j));
+            j--;
+          }
+        }
+      }
+      if (match == -1) {
+        List<OrmQueryProperties> branch = new ArrayList<OrmQueryProperties>();
+        branch.add(props);
+        branches.add(branch);
+        Set<BeanDescriptor<?>> types = new HashSet<BeanDescriptor<?>>();
+        types.add(targetType);
+        branchTypes.add(types);
+      }
+    }
+    if (branches.size() > 1) {
+      // combining branches can change the order so restore the original order per branch
+      for (List<OrmQueryProperties> branch : branches) {
+        Collections.sort(branch, new Comparator<OrmQueryProperties>() {
+          public int compare(OrmQueryProperties o1, OrmQueryProperties o2) {
+            return secQuery.indexOf(o1) - secQuery.indexOf(o2);
+          }
+        });
+      }
+    }
+    return branches;
+  }
+
+  /**
+   * Return true if the path of the query is nested within (or the parent of) a path in the branch.
+   */
+  private boolean isDependent(OrmQueryProperties props, List<OrmQueryProperties> branch) {
+    String path = props.getPath();
+    for (int i = 0; i < branch.size(); i++) {
+      String other = branch.get(i).getPath();
+      if (path.startsWith(other + ".") || other.startsWith(path + ".")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private BeanDescriptor<?> getTargetDescriptor(String path) {
+    return ((BeanPropertyAssoc<?>) getBeanProperty(rootDescriptor, path)).getTargetDescriptor();
   }
 
   /**
@@ -148,8 +308,19 @@ public class DLoadContext implements LoadContext {
    * </p>
    */
   public void registerSecondaryQueries(SpiQuery<?> query) {
+    registerSecondaryQueries(query.removeQueryJoins(), query.removeLazyJoins());
+  }
 
-    secQuery = query.removeQueryJoins();
+  public LoadContext createForIterate(OrmQueryRequest<?> request) {
+    DLoadContext next = new DLoadContext(request);
+    next.registerSecondaryQueries(secQuery, lazyQueries);
+    return next;
+  }
+
+  private void registerSecondaryQueries(List<OrmQueryProperties> secQuery, List<OrmQueryProperties> lazyQueries) {
+
+    this.secQuery = secQuery;
+    this.lazyQueries = lazyQueries;
     if (secQuery != null) {
       for (int i = 0; i < secQuery.size(); i++) {
         OrmQueryProperties props = secQuery.get(i);
@@ -157,7 +328,6 @@ public class DLoadContext implements LoadContext {
       }
     }
 
-    List<OrmQueryProperties> lazyQueries = query.removeLazyJoins();
     if (lazyQueries != null) {
       for (int i = 0; i < lazyQueries.size(); i++) {
         OrmQueryProperties lazyProps = lazyQueries.get(i);
@@ -182,10 +352,14 @@ public class DLoadContext implements LoadContext {
 
   public ObjectGraphNode getObjectGraphNode(String path) {
 
-    ObjectGraphNode node = nodePathMap.get(path);
+    String key = (path == null) ? ROOT_PATH : path;
+    ObjectGraphNode node = nodePathMap.get(key);
     if (node == null) {
       node = createObjectGraphNode(path);
-      nodePathMap.put(path, node);
+      ObjectGraphNode existing = nodePathMap.putIfAbsent(key, node);
+      if (existing != null) {
+        return existing;
+      }
     }
 
     return node;
@@ -254,7 +428,10 @@ public class DLoadContext implements LoadContext {
     DLoadBeanContext beanContext = beanMap.get(path);
     if (beanContext == null) {
       beanContext = createBeanContext(path, defaultBatchSize, null);
-      beanMap.put(path, beanContext);
+      DLoadBeanContext existing = beanMap.putIfAbsent(path, beanContext);
+      if (existing != null) {
+        return existing;
+      }
     }
     return beanContext;
   }
@@ -281,7 +458,10 @@ public class DLoadContext implements LoadContext {
     DLoadManyContext ctx = manyMap.get(path);
     if (ctx == null) {
       ctx = createManyContext(path, defaultBatchSize, null);
-      manyMap.put(path, ctx);
+      DLoadManyContext existing = manyMap.putIfAbsent(path, ctx);
+      if (existing != null) {
+        return existing;
+      }
     }
     return ctx;
   }
@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.server.loadcontext;
 
+import com.avaje.ebean.Transaction;
 import com.avaje.ebean.bean.BeanCollection;
 import com.avaje.ebean.bean.BeanCollectionLoader;
 import com.avaje.ebean.bean.EntityBean;
@@ -85,7 +86,7 @@ public class DLoadManyContext extends DLoadBaseContext implements LoadManyContex
     bc.setLoader(currentBuffer);
   }
 
-  public void loadSecondaryQuery(OrmQueryRequest<?> parentRequest) {
+  public void loadSecondaryQuery(OrmQueryRequest<?> parentRequest, Transaction transaction) {
 
     if (!queryFetch) {
       throw new IllegalStateException("Not expecting loadSecondaryQuery() to be called?");
@@ -94,7 +95,7 @@ public class DLoadManyContext extends DLoadBaseContext implements LoadManyContex
       if (bufferList != null) {
         for (LoadBuffer loadBuffer : bufferList) {
           if (!loadBuffer.list.isEmpty()) {
-            LoadManyRequest req = new LoadManyRequest(loadBuffer, parentRequest);
+            LoadManyRequest req = new LoadManyRequest(loadBuffer, parentRequest, transaction);
             parent.getEbeanServer().loadMany(req);
             if (!queryProps.isQueryFetchAll()) {
               // Stop - only fetch the first batch ... the rest will be lazy loaded
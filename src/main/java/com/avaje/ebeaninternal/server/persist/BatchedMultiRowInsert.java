@@ -0,0 +1,184 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import com.avaje.ebeaninternal.server.type.DataBind;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batched insert that is executed using multi-row insert statements.
+ * <p>
+ * Rather than binding to a PreparedStatement and using addBatch() the bound values of
+ * each bean are captured as a row. On flush the rows are inserted using
+ * <code>insert ... values (..),(..)</code> statements with as many rows per statement
+ * as the maximum number of bind parameters allows.
+ * </p>
+ * <p>
+ * When generated keys are required the statements use <code>insert ... returning</code>
+ * with the keys returned in the order of the rows.
+ * </p>
+ */
+public final class BatchedMultiRowInsert extends BatchedPstmt {
+
+  private final Connection connection;
+
+  /**
+   * The insert statement up to (and excluding) the values clause.
+   */
+  private final String insertPrefix;
+
+  /**
+   * The values clause (bind placeholders) for a single row.
+   */
+  private final String valuesClause;
+
+  /**
+   * The identity column returned for generated keys (null when not required).
+   */
+  private final String returningColumn;
+
+  private final int bindCount;
+
+  private final int rowsPerStatement;
+
+  private final List<BulkInsertRows.Row> rows = new ArrayList<BulkInsertRows.Row>();
+
+  private final BulkInsertDataBind dataBind;
+
+  /**
+   * Create for the given single row insert sql.
+   *
+   * @param connection        the connection used to execute the inserts
+   * @param sql               the single row insert sql (insert into t (..) values (..))
+   * @param returningColumn   the identity column when generated keys are required
+   * @param maxBindParameters the maximum number of bind parameters per statement
+   */
+  public BatchedMultiRowInsert(Connection connection, String sql, String returningColumn, int maxBindParameters) {
+    super(null, returningColumn != null, sql);
+    this.connection = connection;
+    this.returningColumn = returningColumn;
+    int pos = sql.indexOf(") values (");
+    if (pos == -1 || !sql.endsWith(")")) {
+      throw new IllegalArgumentException("Expected insert into .. values (..) but got " + sql);
+    }
+    this.insertPrefix = sql.substring(0, pos + 8);
+    this.valuesClause = sql.substring(pos + 10, sql.length() - 1);
+    this.bindCount = BulkInsertRows.countBind(valuesClause);
+    this.rowsPerStatement = Math.max(1, maxBindParameters / Math.max(1, bindCount));
+    this.dataBind = new BulkInsertDataBind(connection);
+  }
+
+  /**
+   * Add a new row returning the DataBind that the bean values are bound to.
+   */
+  public DataBind addRow() {
+    BulkInsertRows.Row row = new BulkInsertRows.Row(bindCount);
+    rows.add(row);
+    dataBind.setRow(row);
+    return dataBind;
+  }
+
+  /**
+   * Return the number of rows inserted per statement.
+   */
+  public int getRowsPerStatement() {
+    return rowsPerStatement;
+  }
+
+  /**
+   * Execute the multi-row inserts and run the post processing.
+   */
+  @Override
+  public void executeBatch(boolean getGeneratedKeys) throws SQLException {
+
+    if (rows.size() != list.size()) {
+      throw new SQLException("rows error " + rows.size() + " " + list.size());
+    }
+
+    PreparedStatement pstmt = null;
+    try {
+      int start = 0;
+      while (start < rows.size()) {
+        int count = Math.min(rowsPerStatement, rows.size() - start);
+        if (pstmt == null || count < rowsPerStatement) {
+          // the statement for full chunks is reused
+          if (pstmt != null) {
+            pstmt.close();
+          }
+          pstmt = connection.prepareStatement(insertSql(count));
+        }
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+          pos = rows.get(start + i).bind(pstmt, pos);
+        }
+        if (returningColumn != null) {
+          executeReturning(pstmt, start, count, getGeneratedKeys);
+        } else {
+          checkRowCounts(start, count, pstmt.executeUpdate());
+        }
+        start += count;
+      }
+    } finally {
+      if (pstmt != null) {
+        pstmt.close();
+      }
+    }
+    postExecute();
+    rows.clear();
+  }
+
+  /**
+   * Execute the insert reading the returned keys in the order of the rows.
+   */
+  private void executeReturning(PreparedStatement pstmt, int start, int count, boolean getGeneratedKeys) throws SQLException {
+
+    int index = 0;
+    ResultSet rset = pstmt.executeQuery();
+    try {
+      while (rset.next()) {
+        if (index >= count) {
+          throw new SQLException("returning error more than " + count + " rows");
+        }
+        if (getGeneratedKeys) {
+          list.get(start + index).setGeneratedKey(rset.getObject(1));
+        }
+        index++;
+      }
+    } finally {
+      rset.close();
+    }
+    checkRowCounts(start, count, index);
+  }
+
+  private void checkRowCounts(int start, int count, int rowCount) throws SQLException {
+    if (rowCount != count) {
+      throw new SQLException("results row count error " + rowCount + " " + count);
+    }
+    for (int i = 0; i < count; i++) {
+      list.get(start + i).checkRowCount(1);
+    }
+  }
+
+  /**
+   * Return the insert statement for the given number of rows.
+   */
+  String insertSql(int rowCount) {
+
+    StringBuilder sb = new StringBuilder(insertPrefix.length() + 20 + rowCount * (valuesClause.length() + 3));
+    sb.append(insertPrefix).append(" ");
+    for (int i = 0; i < rowCount; i++) {
+      if (i > 0) {
+        sb.append(",");
+      }
+      sb.append("(").append(valuesClause).append(")");
+    }
+    if (returningColumn != null) {
+      sb.append(" returning ").append(returningColumn);
+    }
+    return sb.toString();
+  }
+}
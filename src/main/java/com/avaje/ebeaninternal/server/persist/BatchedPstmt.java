@@ -27,7 +27,7 @@ public class BatchedPstmt {
   /**
    * The list of BatchPostExecute used to perform post processing.
    */
-  private final ArrayList<BatchPostExecute> list = new ArrayList<BatchPostExecute>();
+  protected final ArrayList<BatchPostExecute> list = new ArrayList<BatchPostExecute>();
 
   private final String sql;
 
@@ -92,7 +92,7 @@ public class BatchedPstmt {
     }
   }
 
-  private void postExecute() {
+  protected void postExecute() {
     for (int i = 0; i < list.size(); i++) {
       list.get(i).postExecute();
     }
@@ -40,6 +40,19 @@ public class BatchedPstmtHolder {
    * This will return null if no matching PreparedStatement is found.
    */
   public PreparedStatement getStmt(String stmtKey, BatchPostExecute postExecute) {
+    BatchedPstmt bs = getBatched(stmtKey, postExecute);
+    return (bs == null) ? null : bs.getStatement();
+  }
+
+  /**
+   * Return the multi-row insert if it has already been used in this Batch.
+   * This will return null if no matching insert is found.
+   */
+  public BatchedMultiRowInsert getMultiRowInsert(String stmtKey, BatchPostExecute postExecute) {
+    return (BatchedMultiRowInsert) getBatched(stmtKey, postExecute);
+  }
+
+  private BatchedPstmt getBatched(String stmtKey, BatchPostExecute postExecute) {
     BatchedPstmt bs = stmtMap.get(stmtKey);
     if (bs == null) {
       // the PreparedStatement has need been created
@@ -54,7 +67,7 @@ public class BatchedPstmtHolder {
     if (bsSize > maxSize) {
       maxSize = bsSize;
     }
-    return bs.getStatement();
+    return bs;
   }
 
   /**
@@ -1,5 +1,7 @@
 package com.avaje.ebeaninternal.server.persist;
 
+import java.util.List;
+
 import javax.persistence.PersistenceException;
 
 import com.avaje.ebeaninternal.server.core.PersistRequestBean;
@@ -14,6 +16,11 @@ public interface BeanPersister {
    */
   void insert(PersistRequestBean<?> request) throws PersistenceException;
 
+  /**
+   * execute the insert bean requests together using bulk insert.
+   */
+  void insertBulk(List<PersistRequestBean<?>> requests, BulkInsert bulkInsert) throws PersistenceException;
+
   /**
    * execute the update bean request.
    */
@@ -15,6 +15,7 @@ import com.avaje.ebeaninternal.server.core.JsonExpressionHandler;
 import com.avaje.ebeaninternal.server.core.Message;
 import com.avaje.ebeaninternal.server.type.DataBind;
 import com.avaje.ebeaninternal.server.type.ScalarType;
+import com.avaje.ebeaninternal.server.type.StatementDataBind;
 import com.avaje.ebeaninternal.server.type.TypeManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,14 +35,36 @@ public class Binder {
 
   private final JsonExpressionHandler jsonExpressionHandler;
 
+  private final MultiValueBind multiValueBind;
+
   /**
    * Set the PreparedStatement with which to bind variables to.
    */
-  public Binder(TypeManager typeManager, int asOfBindCount, boolean bindAsOfWithFromClause, JsonExpressionHandler jsonExpressionHandler) {
+  public Binder(TypeManager typeManager, int asOfBindCount, boolean bindAsOfWithFromClause,
+                JsonExpressionHandler jsonExpressionHandler, MultiValueBind multiValueBind) {
     this.typeManager = typeManager;
     this.asOfBindCount = asOfBindCount;
     this.bindAsOfWithFromClause = bindAsOfWithFromClause;
     this.jsonExpressionHandler = jsonExpressionHandler;
+    this.multiValueBind = multiValueBind;
+  }
+
+  /**
+   * Return true if 'in' (or 'not in') values of this type can be bound as a single array parameter.
+   */
+  public boolean isMultiValueSupported(Class<?> valueType, boolean not) {
+    if (not && !multiValueBind.isNotInSupported()) {
+      return false;
+    }
+    ScalarType<?> type = typeManager.getScalarType(valueType);
+    return type != null && multiValueBind.isTypeSupported(type);
+  }
+
+  /**
+   * Return the sql for an 'in' expression with the values bound as a single array parameter.
+   */
+  public String getMultiValueInExpression(boolean not) {
+    return multiValueBind.getInExpression(not);
   }
 
   /**
@@ -115,9 +138,13 @@ public class Binder {
   public void bind(List<BindParams.Param> list, DataBind dataBind, StringBuilder bindLog) throws SQLException {
 
     CallableStatement cstmt = null;
+    StatementDataBind statementBind = null;
 
-    if (dataBind.getPstmt() instanceof CallableStatement) {
-      cstmt = (CallableStatement) dataBind.getPstmt();
+    if (dataBind instanceof StatementDataBind) {
+      statementBind = (StatementDataBind) dataBind;
+      if (statementBind.getPstmt() instanceof CallableStatement) {
+        cstmt = (CallableStatement) statementBind.getPstmt();
+      }
     }
 
     // the iterator is assumed to be in the correct order
@@ -128,9 +155,9 @@ public class Binder {
         BindParams.Param param = list.get(i);
 
         if (param.isOutParam() && cstmt != null) {
-          cstmt.registerOutParameter(dataBind.nextPos(), param.getType());
+          cstmt.registerOutParameter(statementBind.nextPos(), param.getType());
           if (param.isInParam()) {
-            dataBind.decrementPos();
+            statementBind.decrementPos();
           }
         }
         if (param.isInParam()) {
@@ -168,6 +195,10 @@ public class Binder {
       bindObject(dataBind, null, Types.OTHER);
       return null;
 
+    } else if (value instanceof MultiValueWrapper) {
+      bindMultiValues(dataBind, (MultiValueWrapper) value);
+      return value;
+
     } else {
 
       ScalarType<?> type = typeManager.getScalarType(value.getClass());
@@ -187,6 +218,24 @@ public class Binder {
     }
   }
 
+  /**
+   * Bind all the values of an 'in' expression as a single array parameter.
+   */
+  private void bindMultiValues(DataBind dataBind, MultiValueWrapper wrapper) throws SQLException {
+
+    ScalarType<?> type = typeManager.getScalarType(wrapper.getType());
+    Object[] values = wrapper.getValues();
+    if (!type.isJdbcNative()) {
+      // convert to JDBC native types
+      Object[] converted = new Object[values.length];
+      for (int i = 0; i < values.length; i++) {
+        converted[i] = type.toJdbcType(values[i]);
+      }
+      values = converted;
+    }
+    multiValueBind.bindMultiValues(dataBind, type, values);
+  }
+
   /**
    * bind a single value.
    * <p>
@@ -0,0 +1,257 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts the rows captured for bulk insert.
+ * <p>
+ * This default implementation uses multi-row insert statements (when supported by the
+ * database) or otherwise a JDBC batch of single row inserts. Database specific
+ * implementations stream the rows via the native loading path (COPY, LOAD DATA).
+ * </p>
+ */
+public class BulkInsert {
+
+  /**
+   * The maximum number of bind values in a single multi-row insert statement (SQL Server
+   * supports 2100).
+   */
+  private static final int MAX_BIND_VALUES = 2000;
+
+  private final boolean multiRow;
+
+  /**
+   * Create specifying if multi-row insert statements are supported.
+   */
+  public BulkInsert(boolean multiRow) {
+    this.multiRow = multiRow;
+  }
+
+  /**
+   * Insert the rows using the given connection returning the number of rows inserted.
+   */
+  public int insert(Connection connection, BulkInsertRows rows) throws SQLException {
+    if (multiRow) {
+      return insertMultiRow(connection, rows);
+    } else {
+      return insertBatch(connection, rows);
+    }
+  }
+
+  /**
+   * Insert the rows using a JDBC batch of single row insert statements.
+   */
+  protected int insertBatch(Connection connection, BulkInsertRows rows) throws SQLException {
+
+    PreparedStatement pstmt = connection.prepareStatement(insertSql(rows, 1));
+    try {
+      List<BulkInsertRows.Row> rowList = rows.getRows();
+      for (int i = 0; i < rowList.size(); i++) {
+        bindRow(pstmt, 0, rowList.get(i));
+        pstmt.addBatch();
+      }
+      int count = 0;
+      for (int rowCount : pstmt.executeBatch()) {
+        // SUCCESS_NO_INFO means the row was inserted but the count is not known
+        count += (rowCount == Statement.SUCCESS_NO_INFO) ? 1 : rowCount;
+      }
+      return count;
+    } finally {
+      pstmt.close();
+    }
+  }
+
+  /**
+   * Insert the rows using insert statements with multiple rows in the values clause.
+   */
+  protected int insertMultiRow(Connection connection, BulkInsertRows rows) throws SQLException {
+
+    int rowsPerStatement = Math.max(1, MAX_BIND_VALUES / Math.max(1, rows.getBindCount()));
+    List<BulkInsertRows.Row> rowList = rows.getRows();
+
+    PreparedStatement pstmt = null;
+    try {
+      int insertCount = 0;
+      int start = 0;
+      while (start < rowList.size()) {
+        int count = Math.min(rowsPerStatement, rowList.size() - start);
+        if (pstmt == null || count < rowsPerStatement) {
+          // the statement for full chunks is reused
+          if (pstmt != null) {
+            pstmt.close();
+          }
+          pstmt = connection.prepareStatement(insertSql(rows, count));
+        }
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+          pos = bindRow(pstmt, pos, rowList.get(start + i));
+        }
+        insertCount += pstmt.executeUpdate();
+        start += count;
+      }
+      return insertCount;
+    } finally {
+      if (pstmt != null) {
+        pstmt.close();
+      }
+    }
+  }
+
+  /**
+   * Return the insert statement for the given number of rows.
+   */
+  protected String insertSql(BulkInsertRows rows, int rowCount) {
+
+    String values = rows.getValuesClause();
+    StringBuilder sb = new StringBuilder(100 + rowCount * (values.length() + 3));
+    sb.append("insert into ").append(rows.getTable()).append(" (").append(rows.getColumnList()).append(") values ");
+    for (int i = 0; i < rowCount; i++) {
+      if (i > 0) {
+        sb.append(",");
+      }
+      sb.append("(").append(values).append(")");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Bind the values of the row starting after the given position returning the last position bound.
+   */
+  protected int bindRow(PreparedStatement pstmt, int pos, BulkInsertRows.Row row) throws SQLException {
+    return row.bind(pstmt, pos);
+  }
+
+  /**
+   * Return true if all the values of the rows have a text format such that the rows can be
+   * loaded via the database native loading path (otherwise use insert statements).
+   */
+  protected boolean isTextFormat(List<BulkInsertRows.Row> rows) {
+    for (int i = 0; i < rows.size(); i++) {
+      BulkInsertRows.Row row = rows.get(i);
+      for (int j = 0; j < row.size(); j++) {
+        if (!isTextFormat(row.getValue(j))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Return true if the value has a text format.
+   * <p>
+   * Other values (like Map for hstore, arrays and driver specific objects) are only bound
+   * via insert statements.
+   * </p>
+   */
+  protected boolean isTextFormat(Object value) {
+    return value == null
+        || value instanceof String
+        || value instanceof Number
+        || value instanceof Boolean
+        || value instanceof byte[]
+        || value instanceof java.sql.Date
+        || value instanceof Time
+        || value instanceof Timestamp
+        || value instanceof UUID;
+  }
+
+  /**
+   * Append the row in the tab delimited text format (shared by COPY and LOAD DATA).
+   */
+  protected void appendRow(StringBuilder sb, BulkInsertRows.Row row) {
+    for (int i = 0; i < row.size(); i++) {
+      if (i > 0) {
+        sb.append('\t');
+      }
+      appendValue(sb, row.getValue(i));
+    }
+    sb.append('\n');
+  }
+
+  /**
+   * Append the value in text format with null as \N and special characters escaped.
+   */
+  protected void appendValue(StringBuilder sb, Object value) {
+    if (value == null) {
+      sb.append("\\N");
+    } else if (value instanceof Boolean) {
+      sb.append(formatBoolean((Boolean) value));
+    } else if (value instanceof byte[]) {
+      appendEscaped(sb, formatBytes((byte[]) value));
+    } else if (value instanceof BigDecimal) {
+      sb.append(((BigDecimal) value).toPlainString());
+    } else {
+      appendEscaped(sb, formatText(value));
+    }
+  }
+
+  /**
+   * Return the text format of a boolean value.
+   */
+  protected String formatBoolean(Boolean value) {
+    return value ? "1" : "0";
+  }
+
+  /**
+   * Return the text format of a binary value (hex by default).
+   */
+  protected String formatBytes(byte[] value) {
+    return toHex(value);
+  }
+
+  /**
+   * Return the text format of the value (prior to escaping).
+   * <p>
+   * This is only used for values that have a text format (see {@link #isTextFormat(Object)}).
+   * </p>
+   */
+  protected String formatText(Object value) {
+    return value.toString();
+  }
+
+  /**
+   * Return the bytes as hex.
+   */
+  protected static String toHex(byte[] bytes) {
+    char[] hexChars = "0123456789abcdef".toCharArray();
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(hexChars[(b >> 4) & 0xF]).append(hexChars[b & 0xF]);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Append the text escaping backslash, tab, newline and carriage return.
+   */
+  protected static void appendEscaped(StringBuilder sb, String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      switch (ch) {
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        default:
+          sb.append(ch);
+      }
+    }
+  }
+}
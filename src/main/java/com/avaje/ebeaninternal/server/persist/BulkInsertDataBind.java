@@ -0,0 +1,175 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import com.avaje.ebeaninternal.server.type.DataBind;
+
+/**
+ * DataBind that captures the bound values into a row for bulk insert.
+ * <p>
+ * The ScalarTypes bind to this as they would to a PreparedStatement such that the captured
+ * values are already converted to their JDBC form.
+ * </p>
+ */
+public final class BulkInsertDataBind extends DataBind {
+
+  /**
+   * The connection used to create array values (null when arrays are not supported).
+   */
+  private final Connection connection;
+
+  private BulkInsertRows.Row row;
+
+  public BulkInsertDataBind() {
+    this(null);
+  }
+
+  /**
+   * Create with a connection used to create array values.
+   */
+  public BulkInsertDataBind(Connection connection) {
+    this.connection = connection;
+  }
+
+  /**
+   * Set the row that subsequent values are bound to.
+   */
+  public void setRow(BulkInsertRows.Row row) {
+    this.row = row;
+  }
+
+  @Override
+  public int currentPos() {
+    return row.size();
+  }
+
+  @Override
+  public void setObject(Object value) throws SQLException {
+    row.set(value, BulkInsertRows.NO_TYPE);
+  }
+
+  @Override
+  public void setObject(Object value, int sqlType) throws SQLException {
+    row.set(value, sqlType);
+  }
+
+  @Override
+  public void setArray(String typeName, Object[] elements) throws SQLException {
+    if (connection == null) {
+      throw new UnsupportedOperationException("Array values are not supported by bulk insert");
+    }
+    row.set(connection.createArrayOf(typeName, elements), Types.ARRAY);
+  }
+
+  @Override
+  public void setNull(int jdbcType) throws SQLException {
+    row.set(null, jdbcType);
+  }
+
+  @Override
+  public void setString(String s) throws SQLException {
+    row.set(s, Types.VARCHAR);
+  }
+
+  @Override
+  public void setInt(int i) throws SQLException {
+    row.set(i, Types.INTEGER);
+  }
+
+  @Override
+  public void setLong(long i) throws SQLException {
+    row.set(i, Types.BIGINT);
+  }
+
+  @Override
+  public void setShort(short i) throws SQLException {
+    row.set(i, Types.SMALLINT);
+  }
+
+  @Override
+  public void setFloat(float i) throws SQLException {
+    row.set(i, Types.REAL);
+  }
+
+  @Override
+  public void setDouble(double i) throws SQLException {
+    row.set(i, Types.DOUBLE);
+  }
+
+  @Override
+  public void setBigDecimal(BigDecimal v) throws SQLException {
+    row.set(v, Types.DECIMAL);
+  }
+
+  @Override
+  public void setDate(java.sql.Date v) throws SQLException {
+    row.set(v, Types.DATE);
+  }
+
+  @Override
+  public void setTimestamp(Timestamp v) throws SQLException {
+    row.set(v, Types.TIMESTAMP);
+  }
+
+  @Override
+  public void setTime(Time v) throws SQLException {
+    row.set(v, Types.TIME);
+  }
+
+  @Override
+  public void setBoolean(boolean v) throws SQLException {
+    row.set(v, Types.BOOLEAN);
+  }
+
+  @Override
+  public void setBytes(byte[] v) throws SQLException {
+    row.set(v, Types.VARBINARY);
+  }
+
+  @Override
+  public void setByte(byte v) throws SQLException {
+    row.set(v, Types.TINYINT);
+  }
+
+  @Override
+  public void setChar(char v) throws SQLException {
+    row.set(String.valueOf(v), Types.VARCHAR);
+  }
+
+  @Override
+  public void setBinaryStream(InputStream inputStream, long length) throws SQLException {
+    row.set(readBytes(inputStream, length), Types.LONGVARBINARY);
+  }
+
+  @Override
+  public void setBlob(byte[] bytes) throws SQLException {
+    row.set(bytes, Types.LONGVARBINARY);
+  }
+
+  @Override
+  public void setClob(String content) throws SQLException {
+    row.set(content, Types.LONGVARCHAR);
+  }
+
+  private byte[] readBytes(InputStream inputStream, long length) throws SQLException {
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.max(length, 32));
+      byte[] buffer = new byte[4096];
+      int len;
+      while ((len = inputStream.read(buffer)) != -1) {
+        out.write(buffer, 0, len);
+      }
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new SQLException("Error reading stream for bulk insert", e);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bound values of beans to insert via bulk insert.
+ * <p>
+ * The values are captured in their JDBC form (after ScalarType conversion) such that
+ * they can be bound to a PreparedStatement or formatted as text for the database
+ * native loading paths (COPY, LOAD DATA).
+ * </p>
+ */
+public final class BulkInsertRows {
+
+  /**
+   * Type used for a value bound via setObject(value) without an explicit sql type.
+   */
+  public static final int NO_TYPE = Integer.MIN_VALUE;
+
+  private final String table;
+
+  private final String[] columns;
+
+  private final String valuesClause;
+
+  private final int bindCount;
+
+  private final List<Row> rows = new ArrayList<Row>();
+
+  public BulkInsertRows(String table, String[] columns, String valuesClause) {
+    this.table = table;
+    this.columns = columns;
+    this.valuesClause = valuesClause;
+    this.bindCount = countBind(valuesClause);
+  }
+
+  static int countBind(String valuesClause) {
+    int count = 0;
+    for (int i = 0; i < valuesClause.length(); i++) {
+      if (valuesClause.charAt(i) == '?') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Return the table the rows are inserted into.
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Return the columns inserted.
+   */
+  public String[] getColumns() {
+    return columns;
+  }
+
+  /**
+   * Return the columns as a comma delimited list.
+   */
+  public String getColumnList() {
+    StringBuilder sb = new StringBuilder(columns.length * 10);
+    for (int i = 0; i < columns.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(columns[i]);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Return the values clause (bind placeholders) for a single row.
+   */
+  public String getValuesClause() {
+    return valuesClause;
+  }
+
+  /**
+   * Return the number of bind values per row.
+   */
+  public int getBindCount() {
+    return bindCount;
+  }
+
+  /**
+   * Return true if each column is bound with a plain placeholder.
+   * <p>
+   * When false some columns are bound using an expression (like DB encryption) and the
+   * rows can only be inserted using an insert statement.
+   * </p>
+   */
+  public boolean isPlainBind() {
+    return bindCount == columns.length && valuesClause.replace("?", "").replace(",", "").trim().isEmpty();
+  }
+
+  /**
+   * Create and add a new row.
+   */
+  public Row addRow() {
+    Row row = new Row(bindCount);
+    rows.add(row);
+    return row;
+  }
+
+  /**
+   * Return the rows.
+   */
+  public List<Row> getRows() {
+    return rows;
+  }
+
+  /**
+   * Return the number of rows.
+   */
+  public int size() {
+    return rows.size();
+  }
+
+  /**
+   * Clear the rows.
+   */
+  public void clear() {
+    rows.clear();
+  }
+
+  /**
+   * The values bound for a single bean.
+   */
+  public static final class Row {
+
+    private final Object[] values;
+
+    private final int[] types;
+
+    private int pos;
+
+    Row(int bindCount) {
+      this.values = new Object[bindCount];
+      this.types = new int[bindCount];
+    }
+
+    /**
+     * Set the next value with its sql type (or NO_TYPE).
+     */
+    public void set(Object value, int sqlType) {
+      if (pos >= values.length) {
+        throw new IllegalStateException("More than " + values.length + " values bound for bulk insert row?");
+      }
+      values[pos] = value;
+      types[pos++] = sqlType;
+    }
+
+    /**
+     * Return the number of values bound.
+     */
+    public int size() {
+      return pos;
+    }
+
+    /**
+     * Return the value at the given index.
+     */
+    public Object getValue(int index) {
+      return values[index];
+    }
+
+    /**
+     * Return the sql type at the given index (NO_TYPE when not specified).
+     */
+    public int getType(int index) {
+      return types[index];
+    }
+
+    /**
+     * Bind the values starting after the given position returning the last position bound.
+     */
+    public int bind(PreparedStatement pstmt, int pos) throws SQLException {
+      for (int i = 0; i < this.pos; i++) {
+        Object value = values[i];
+        int sqlType = types[i];
+        ++pos;
+        if (value == null) {
+          pstmt.setNull(pos, sqlType == NO_TYPE ? Types.NULL : sqlType);
+        } else if (sqlType == NO_TYPE) {
+          pstmt.setObject(pos, value);
+        } else {
+          pstmt.setObject(pos, value, sqlType);
+        }
+      }
+      return pos;
+    }
+  }
+}
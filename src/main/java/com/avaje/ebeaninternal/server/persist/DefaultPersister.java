@@ -1,7 +1,10 @@
 package com.avaje.ebeaninternal.server.persist;
 
 import com.avaje.ebean.CallableSql;
+import com.avaje.ebean.PublishListener;
+import com.avaje.ebean.PublishOptions;
 import com.avaje.ebean.Query;
+import com.avaje.ebean.QueryIterator;
 import com.avaje.ebean.SqlUpdate;
 import com.avaje.ebean.Transaction;
 import com.avaje.ebean.Update;
@@ -10,6 +13,8 @@ import com.avaje.ebean.bean.BeanCollection.ModifyListenMode;
 import com.avaje.ebean.bean.EntityBean;
 import com.avaje.ebean.bean.EntityBeanIntercept;
 import com.avaje.ebean.bean.PersistenceContext;
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
+import com.avaje.ebean.event.BeanPersistController;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.api.SpiUpdate;
@@ -63,6 +68,16 @@ public final class DefaultPersister implements Persister {
 
   private static final Logger logger = LoggerFactory.getLogger(DefaultPersister.class);
 
+  /**
+   * The maximum number of beans inserted together by bulk insert.
+   */
+  private static final int BULK_INSERT_SIZE = 10000;
+
+  /**
+   * The maximum depth of nested sub-queries used to cascade delete to children.
+   */
+  private static final int MAX_DELETE_SUBQUERY_DEPTH = 3;
+
   /**
    * Actually does the persisting work.
    */
@@ -74,8 +89,20 @@ public final class DefaultPersister implements Persister {
 
   private final boolean updatesDeleteMissingChildren;
 
-  public DefaultPersister(SpiEbeanServer server, Binder binder, BeanDescriptorManager descMgr) {
+  /**
+   * The database specific bulk insert.
+   */
+  private final BulkInsert bulkInsert;
+
+  /**
+   * Provides the maximum number of bind values in an IN clause (delete by Id's processed in chunks).
+   */
+  private final DatabasePlatform databasePlatform;
+
+  public DefaultPersister(SpiEbeanServer server, Binder binder, BeanDescriptorManager descMgr, BulkInsert bulkInsert) {
     this.server = server;
+    this.bulkInsert = bulkInsert;
+    this.databasePlatform = server.getDatabasePlatform();
     this.updatesDeleteMissingChildren = server.getServerConfig().isUpdatesDeleteMissingChildren();
     this.beanDescriptorManager = descMgr;
     this.persistExecute = new DefaultPersistExecute(binder, server.getServerConfig().getPersistBatchSize());
@@ -144,9 +171,21 @@ public final class DefaultPersister implements Persister {
       return Collections.emptyList();
     }
 
+    draftRestoreBeans(draftHandler, liveBeans);
+
+    PUB.debug("draftRestore - complete for [{}]", desc.getName());
+    return draftHandler.getDrafts();
+  }
+
+  /**
+   * Restore the draft beans matching the given live beans.
+   */
+  private <T> void draftRestoreBeans(DraftHandler<T> draftHandler, List<T> liveBeans) {
+
     draftHandler.fetchDestinationBeans(liveBeans, true);
 
-    BeanManager<T> mgr = beanDescriptorManager.getBeanManager(beanType);
+    BeanDescriptor<T> desc = draftHandler.desc;
+    BeanManager<T> mgr = beanDescriptorManager.getBeanManager(desc.getBeanType());
 
     for (T liveBean: liveBeans) {
       T draftBean = draftHandler.publishToDestinationBean(liveBean);
@@ -154,11 +193,8 @@ public final class DefaultPersister implements Persister {
       draftHandler.resetDraft(draftBean);
 
       PUB.trace("draftRestore bean [{}] id[{}]", desc.getName(), draftHandler.getId());
-      update(createRequest(draftBean, transaction, null, mgr, Type.UPDATE, true, false));
+      update(createRequest(draftBean, draftHandler.transaction, null, mgr, Type.UPDATE, true, false));
     }
-
-    PUB.debug("draftRestore - complete for [{}]", desc.getName());
-    return draftHandler.getDrafts();
   }
 
   /**
@@ -189,15 +225,32 @@ public final class DefaultPersister implements Persister {
       return Collections.emptyList();
     }
 
+    List<T> livePublish = new ArrayList<T>(draftBeans.size());
+    publishBeans(draftHandler, draftBeans, livePublish);
+
+    PUB.debug("publish - complete for [{}]", desc.getName());
+    return livePublish;
+  }
+
+  /**
+   * Publish the draft beans adding the resulting live beans to livePublish (if not null).
+   * Returns the number of live beans inserted.
+   */
+  private <T> int publishBeans(DraftHandler<T> draftHandler, List<T> draftBeans, List<T> livePublish) {
+
     draftHandler.fetchDestinationBeans(draftBeans, false);
 
-    BeanManager<T> mgr = beanDescriptorManager.getBeanManager(beanType);
+    BeanDescriptor<T> desc = draftHandler.desc;
+    Transaction transaction = draftHandler.transaction;
+    BeanManager<T> mgr = beanDescriptorManager.getBeanManager(desc.getBeanType());
 
-    List<T> livePublish = new ArrayList<T>(draftBeans.size());
+    int insertCount = 0;
     for (T draftBean: draftBeans) {
       T liveBean = draftHandler.publishToDestinationBean(draftBean);
-      livePublish.add(liveBean);
-      
+      if (livePublish != null) {
+        livePublish.add(liveBean);
+      }
+
       // reset @DraftDirty and @DraftReset properties
       draftHandler.resetDraft(draftBean);
 
@@ -206,6 +259,7 @@ public final class DefaultPersister implements Persister {
 
       PersistRequestBean<T> request = createRequest(liveBean, transaction, null, mgr, persistType, true, true);
       if (persistType == Type.INSERT) {
+        insertCount++;
         insert(request);
       } else {
         update(request);
@@ -213,9 +267,176 @@ public final class DefaultPersister implements Persister {
     }
 
     draftHandler.updateDrafts(transaction, mgr);
+    return insertCount;
+  }
 
-    PUB.debug("publish - complete for [{}]", desc.getName());
-    return livePublish;
+  /**
+   * Publish the draft beans matching the query in batches.
+   */
+  @Override
+  public <T> int publishBatched(Query<T> query, PublishOptions options, Transaction transaction) {
+    return new BatchedDraftCopy<T>(query, options, transaction, true).execute();
+  }
+
+  /**
+   * Restore the draft beans matching the query in batches.
+   */
+  @Override
+  public <T> int draftRestoreBatched(Query<T> query, PublishOptions options, Transaction transaction) {
+    return new BatchedDraftCopy<T>(query, options, transaction, false).execute();
+  }
+
+  /**
+   * Publish or draftRestore reading the source beans with findIterate() and processing them in batches.
+   * <p>
+   * Without a transaction each batch is written with JDBC batch in a created transaction that
+   * is either committed per batch or at the end. With a transaction all the batches use it
+   * (with a new persistence context per batch and its own persistence context restored at the end).
+   * </p>
+   */
+  class BatchedDraftCopy<T> {
+
+    final BeanDescriptor<T> desc;
+    final Query<T> query;
+    final PublishOptions options;
+    final PublishListener listener;
+    final Transaction transaction;
+    final boolean publish;
+    final String mode;
+
+    /**
+     * Created transaction used for all the batches (when not committing per batch).
+     */
+    SpiTransaction createdTransaction;
+
+    /**
+     * The persistence context of the supplied transaction (restored when complete).
+     */
+    PersistenceContext suppliedPersistenceContext;
+
+    int totalCount;
+
+    BatchedDraftCopy(Query<T> query, PublishOptions options, Transaction transaction, boolean publish) {
+      this.desc = server.getBeanDescriptor(query.getBeanType());
+      this.query = query;
+      this.options = options;
+      this.listener = options.getListener();
+      this.transaction = transaction;
+      this.publish = publish;
+      this.mode = publish ? "publish" : "draftRestore";
+    }
+
+    int execute() {
+
+      desc.draftQueryOptimise(query);
+      if (publish) {
+        query.asDraft();
+      }
+      // read the source beans in Id order
+      query.orderBy(desc.getIdBinder().getDefaultOrderBy());
+
+      int batchSize = options.getBatchSize();
+      List<T> batch = new ArrayList<T>(batchSize);
+
+      QueryIterator<T> it = server.findIterate(query, transaction);
+      try {
+        while (it.hasNext()) {
+          batch.add(it.next());
+          if (batch.size() == batchSize) {
+            processBatch(batch);
+            batch.clear();
+          }
+        }
+        if (!batch.isEmpty()) {
+          processBatch(batch);
+        }
+      } catch (RuntimeException e) {
+        if (createdTransaction != null) {
+          createdTransaction.rollback(e);
+        }
+        throw e;
+
+      } finally {
+        it.close();
+        if (suppliedPersistenceContext != null) {
+          ((SpiTransaction) transaction).setPersistenceContext(suppliedPersistenceContext);
+        }
+      }
+
+      if (createdTransaction != null) {
+        createdTransaction.commit();
+      }
+      PUB.debug("{} batched - complete for [{}] count[{}]", mode, desc.getName(), totalCount);
+      return totalCount;
+    }
+
+    /**
+     * Process a batch of source beans using the appropriate transaction.
+     */
+    private void processBatch(List<T> batch) {
+
+      int insertCount;
+      if (transaction != null) {
+        // do not hold the beans of prior batches in memory
+        SpiTransaction t = (SpiTransaction) transaction;
+        if (suppliedPersistenceContext == null) {
+          suppliedPersistenceContext = t.getPersistenceContext();
+        }
+        t.setPersistenceContext(server.createPersistenceContext());
+        insertCount = copyBatch(batch, transaction);
+        transaction.flushBatch();
+
+      } else if (options.isCommitBatch()) {
+        SpiTransaction batchTransaction = createTransaction();
+        try {
+          insertCount = copyBatch(batch, batchTransaction);
+          batchTransaction.commit();
+        } catch (RuntimeException e) {
+          batchTransaction.rollback(e);
+          throw e;
+        }
+
+      } else {
+        if (createdTransaction == null) {
+          createdTransaction = createTransaction();
+        } else {
+          // do not hold the beans of prior batches in memory
+          createdTransaction.setPersistenceContext(server.createPersistenceContext());
+        }
+        insertCount = copyBatch(batch, createdTransaction);
+        createdTransaction.flushBatch();
+      }
+
+      totalCount += batch.size();
+      PUB.debug("{} batched [{}] count[{}] total[{}]", mode, desc.getName(), batch.size(), totalCount);
+      if (listener != null) {
+        listener.batchComplete(desc.getBeanType(), insertCount, batch.size() - insertCount, totalCount);
+      }
+    }
+
+    /**
+     * Publish or restore the batch returning the number of beans inserted.
+     */
+    private int copyBatch(List<T> batch, Transaction batchTransaction) {
+
+      DraftHandler<T> draftHandler = new DraftHandler<T>(desc, batchTransaction);
+      if (publish) {
+        return publishBeans(draftHandler, batch, null);
+      } else {
+        draftRestoreBeans(draftHandler, batch);
+        return 0;
+      }
+    }
+
+    /**
+     * Create a transaction using JDBC batch for the writes.
+     */
+    private SpiTransaction createTransaction() {
+      SpiTransaction t = (SpiTransaction) server.createTransaction();
+      t.setBatchMode(true);
+      t.setBatchSize(options.getBatchSize());
+      return t;
+    }
   }
 
   /**
@@ -406,6 +627,60 @@ public final class DefaultPersister implements Persister {
     }
   }
 
+  /**
+   * Insert the beans using bulk insert.
+   * <p>
+   * The beans are inserted in chunks without cascading to associated beans. Beans that
+   * require the id to be generated by the database (identity) and draftable beans use the
+   * standard insert.
+   * </p>
+   */
+  public <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans, Transaction t) {
+
+    if (beanDescriptorManager.getBeanManager(beanType) == null) {
+      throw new PersistenceException(errNotRegistered(beanType));
+    }
+
+    // execute any batched statements first
+    t.flushBatch();
+
+    BeanManager<?> chunkManager = null;
+    List<PersistRequestBean<?>> chunk = new ArrayList<PersistRequestBean<?>>();
+    for (T bean : beans) {
+      PersistRequestBean<T> request = createRequest(bean, t, PersistRequest.Type.INSERT);
+      BeanDescriptor<T> desc = request.getBeanDescriptor();
+      if (desc.isDraftable()) {
+        request.executeNow();
+        continue;
+      }
+      setIdGenValue(request);
+      if (DmlUtil.isNullOrZero(desc.getId(request.getEntityBean()))) {
+        // the id is generated by the database (identity)
+        request.executeNow();
+        continue;
+      }
+      BeanPersistController controller = request.getBeanController();
+      if (controller != null && !controller.preInsert(request)) {
+        continue;
+      }
+      BeanManager<T> mgr = request.getBeanManager();
+      if (mgr != chunkManager || chunk.size() >= BULK_INSERT_SIZE) {
+        // inheritance means the rows could be for different bean types
+        bulkInsertChunk(chunkManager, chunk);
+        chunkManager = mgr;
+      }
+      chunk.add(request);
+    }
+    bulkInsertChunk(chunkManager, chunk);
+  }
+
+  private void bulkInsertChunk(BeanManager<?> mgr, List<PersistRequestBean<?>> chunk) {
+    if (!chunk.isEmpty()) {
+      mgr.getBeanPersister().insertBulk(chunk, bulkInsert);
+      chunk.clear();
+    }
+  }
+
   private void saveRecurse(EntityBean bean, Transaction t, Object parentBean, boolean insertMode, boolean publish) {
 
     // determine insert or update taking into account stateless updates
@@ -600,6 +875,19 @@ public final class DefaultPersister implements Persister {
    */
   private int delete(BeanDescriptor<?> descriptor, Object id, List<Object> idList, Transaction transaction, boolean softDelete) {
 
+    if (idList != null) {
+      int chunkSize = deleteChunkSize(descriptor, idList);
+      if (idList.size() > chunkSize) {
+        // process in chunks to limit the number of bind values per statement
+        int rows = 0;
+        for (int i = 0; i < idList.size(); i += chunkSize) {
+          List<Object> chunk = new ArrayList<Object>(idList.subList(i, Math.min(i + chunkSize, idList.size())));
+          rows += delete(descriptor, null, chunk, transaction, softDelete);
+        }
+        return rows;
+      }
+    }
+
     SpiTransaction t = (SpiTransaction) transaction;
     if (t.isPersistCascade()) {
       BeanPropertyAssocOne<?>[] propImportDelete = descriptor.propertiesOneImportedDelete();
@@ -660,6 +948,14 @@ public final class DefaultPersister implements Persister {
             // we can just delete children with a single statement
             SqlUpdate sqlDelete = manys[i].deleteByParentId(id, idList);
             executeSqlUpdate(sqlDelete, t);
+          } else if (!softDelete && isDeleteBySubQuery(manys[i], 1)) {
+            // delete children and their cascades using sub-queries on the parent Id's
+            List<Object> parentIds = (idList != null) ? idList : Collections.singletonList(id);
+            String parentIdIn = manys[i].getParentIdInBinding(parentIds.size());
+            if (t.isLogSummary()) {
+              t.logSummary("-- Deleting " + manys[i].getFullBeanName() + " using sub-queries");
+            }
+            deleteBySubQuery(manys[i], parentIdIn, parentIds, t);
           } else {
             // we need to fetch the Id's to delete (recurse or notify L2 cache)
             List<Object> childIds = manys[i].findIdsByParentId(id, idList, t, null);
@@ -714,6 +1010,71 @@ public final class DefaultPersister implements Persister {
     return rows;
   }
 
+  /**
+   * Return the number of Id's deleted per statement given the bind values per Id.
+   */
+  private int deleteChunkSize(BeanDescriptor<?> descriptor, List<Object> idList) {
+    int bindCount = idList.isEmpty() ? 1 : descriptor.getIdBinder().getBindValues(idList.get(0)).length;
+    return Math.max(1, databasePlatform.getMaxInBinding() / Math.max(1, bindCount));
+  }
+
+  /**
+   * Return true if the children of the OneToMany (and their cascades) can be deleted
+   * using sub-queries rather than fetching the Id's of the children.
+   * <p>
+   * This is not used when the Id's are required to notify the L2 bean cache, the children
+   * have imported or OneToOne delete cascades, or the sub-queries would nest too deeply.
+   * </p>
+   */
+  private boolean isDeleteBySubQuery(BeanPropertyAssocMany<?> many, int depth) {
+
+    if (depth > MAX_DELETE_SUBQUERY_DEPTH || !many.isDeleteBySubQuery()) {
+      return false;
+    }
+    BeanDescriptor<?> targetDesc = many.getTargetDescriptor();
+    if (targetDesc.isBeanCaching() || targetDesc.propertiesOneImportedDelete().length > 0
+        || targetDesc.propertiesOneExportedDelete().length > 0) {
+      return false;
+    }
+    BeanPropertyAssocMany<?>[] manys = targetDesc.propertiesManyDelete();
+    for (int i = 0; i < manys.length; i++) {
+      if (!manys[i].getTargetDescriptor().isDeleteByStatement() && !isDeleteBySubQuery(manys[i], depth + 1)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Delete the children of the OneToMany given the in clause of the parent Id's.
+   * <p>
+   * The cascades of the children use a sub-query selecting the child Id's such that the
+   * child Id's are not fetched. The bind values are the parent Id's at the root.
+   * </p>
+   */
+  private int deleteBySubQuery(BeanPropertyAssocMany<?> many, String parentIdIn, List<Object> bindValues, SpiTransaction t) {
+
+    BeanDescriptor<?> targetDesc = many.getTargetDescriptor();
+    String childIdIn = many.getIdInByParentIdSubQuery(parentIdIn);
+
+    BeanPropertyAssocMany<?>[] manys = targetDesc.propertiesManyDelete();
+    for (int i = 0; i < manys.length; i++) {
+      if (manys[i].getTargetDescriptor().isDeleteByStatement()) {
+        executeSqlUpdate(manys[i].deleteByParentIdIn(childIdIn, bindValues), t);
+      } else {
+        deleteBySubQuery(manys[i], childIdIn, bindValues, t);
+      }
+    }
+
+    // ManyToMany's ... delete from intersection table
+    BeanPropertyAssocMany<?>[] manyToManys = targetDesc.propertiesManyToMany();
+    for (int i = 0; i < manyToManys.length; i++) {
+      executeSqlUpdate(manyToManys[i].deleteByParentIdIn(childIdIn, bindValues), t);
+    }
+
+    return executeSqlUpdate(many.deleteByParentIdIn(parentIdIn, bindValues), t);
+  }
+
   /**
    * We need to create and execute a query to get the foreign key values as
    * the delete cascades to them (foreign keys).
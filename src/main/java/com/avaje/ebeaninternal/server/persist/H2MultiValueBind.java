@@ -0,0 +1,49 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.sql.SQLException;
+import java.sql.Types;
+
+import com.avaje.ebean.config.dbplatform.DbType;
+import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.ScalarType;
+
+/**
+ * H2 support for binding 'in' values as an array using <code>= ANY(?)</code>.
+ * <p>
+ * H2 only supports <code>ALL</code> with a subquery so 'not in' uses the padded in list.
+ * </p>
+ */
+public class H2MultiValueBind extends MultiValueBind {
+
+  @Override
+  public boolean isTypeSupported(ScalarType<?> type) {
+    switch (type.getJdbcType()) {
+      case Types.INTEGER:
+      case Types.BIGINT:
+      case Types.SMALLINT:
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+      case Types.VARCHAR:
+      case Types.DATE:
+      case Types.TIMESTAMP:
+      case DbType.UUID:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public String getInExpression(boolean not) {
+    if (not) {
+      throw new UnsupportedOperationException("'not in' is not bound as an array on H2");
+    }
+    return " = ANY(?) ";
+  }
+
+  @Override
+  public void bindMultiValues(DataBind dataBind, ScalarType<?> type, Object[] values) throws SQLException {
+    // H2 binds an Object[] as an ARRAY
+    dataBind.setObject(values);
+  }
+}
@@ -0,0 +1,66 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.sql.SQLException;
+
+import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.ScalarType;
+
+/**
+ * Binds the values of an 'in' expression as a single array parameter.
+ * <p>
+ * This default implementation is for databases that do not support this. In that case
+ * the 'in' expression uses a placeholder per value and the number of values is padded
+ * (see {@link #padSize(int)}) to limit the number of distinct sql statements and query
+ * plans.
+ * </p>
+ */
+public class MultiValueBind {
+
+  /**
+   * The maximum size padded to (Oracle limits an in list to 1000 values).
+   */
+  private static final int MAX_PAD_SIZE = 1000;
+
+  /**
+   * Return the number of values an 'in' list should be padded to.
+   * <p>
+   * This is the next power of 2 but not more than 1000 (unless the size is more than 1000
+   * in which case it is not padded).
+   * </p>
+   */
+  public static int padSize(int size) {
+    if (size <= 2 || size >= MAX_PAD_SIZE) {
+      return size;
+    }
+    int pow2 = Integer.highestOneBit(size - 1) << 1;
+    return Math.min(pow2, MAX_PAD_SIZE);
+  }
+
+  /**
+   * Return true if values of this type can be bound as a single array parameter.
+   */
+  public boolean isTypeSupported(ScalarType<?> type) {
+    return false;
+  }
+
+  /**
+   * Return true if 'not in' values can also be bound as a single array parameter.
+   */
+  public boolean isNotInSupported() {
+    return false;
+  }
+
+  /**
+   * Return the sql for the 'in' expression (to append after the column).
+   */
+  public String getInExpression(boolean not) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Bind the values (already converted to their JDBC type) as a single array parameter.
+   */
+  public void bindMultiValues(DataBind dataBind, ScalarType<?> type, Object[] values) throws SQLException {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,40 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.util.Arrays;
+
+/**
+ * Bind value holding all the values of an 'in' expression to be bound as a single array
+ * parameter (see {@link MultiValueBind}).
+ */
+public class MultiValueWrapper {
+
+  private final Class<?> type;
+
+  private final Object[] values;
+
+  /**
+   * Create with the type of the values (that is used to find the ScalarType).
+   */
+  public MultiValueWrapper(Class<?> type, Object[] values) {
+    this.type = type;
+    this.values = values;
+  }
+
+  public String toString() {
+    return Arrays.toString(values);
+  }
+
+  /**
+   * Return the type of the values.
+   */
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Return the values.
+   */
+  public Object[] getValues() {
+    return values;
+  }
+}
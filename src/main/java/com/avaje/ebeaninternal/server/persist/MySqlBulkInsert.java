@@ -0,0 +1,131 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MySql bulk insert using <code>LOAD DATA LOCAL INFILE</code> reading the rows from an in memory stream.
+ * <p>
+ * The MySql JDBC driver is used via reflection such that there is no compile time dependency on
+ * the driver. The connection must allow local infile (allowLoadLocalInfile=true with recent drivers).
+ * When the driver is not available, or the rows include values without a text format (like
+ * binary values) or columns bound via an expression, this falls back to multi-row insert
+ * statements.
+ * </p>
+ * <p>
+ * LOAD DATA reports duplicate keys and data conversion problems as warnings rather than
+ * errors so any warning is treated as an error.
+ * </p>
+ */
+public class MySqlBulkInsert extends BulkInsert {
+
+  private static final Logger logger = LoggerFactory.getLogger(MySqlBulkInsert.class);
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  /**
+   * The maximum number of LOAD DATA warnings included in the error message.
+   */
+  private static final int MAX_WARNINGS = 5;
+
+  private static final String[] STATEMENT_CLASSES = {"com.mysql.jdbc.Statement", "com.mysql.cj.jdbc.JdbcStatement"};
+
+  private final Class<?> statementClass;
+
+  private final Method setLocalInfileInputStream;
+
+  public MySqlBulkInsert() {
+    super(true);
+    Class<?> stmtClass = null;
+    Method method = null;
+    for (String className : STATEMENT_CLASSES) {
+      try {
+        stmtClass = Class.forName(className);
+        method = stmtClass.getMethod("setLocalInfileInputStream", InputStream.class);
+        break;
+      } catch (Exception e) {
+        stmtClass = null;
+      }
+    }
+    if (stmtClass == null) {
+      logger.debug("MySql driver not available, bulk insert using multi-row insert");
+    }
+    this.statementClass = stmtClass;
+    this.setLocalInfileInputStream = method;
+  }
+
+  @Override
+  public int insert(Connection connection, BulkInsertRows rows) throws SQLException {
+
+    if (statementClass == null || !rows.isPlainBind() || !isTextFormat(rows.getRows())) {
+      return super.insert(connection, rows);
+    }
+
+    Statement stmt = connection.createStatement();
+    try {
+      if (!stmt.isWrapperFor(statementClass)) {
+        return super.insert(connection, rows);
+      }
+      StringBuilder data = new StringBuilder(rows.size() * 64);
+      for (BulkInsertRows.Row row : rows.getRows()) {
+        appendRow(data, row);
+      }
+      InputStream in = new ByteArrayInputStream(data.toString().getBytes(UTF8));
+      setLocalInfileInputStream.invoke(stmt.unwrap(statementClass), in);
+
+      stmt.execute("load data local infile 'bulkinsert' into table " + rows.getTable()
+          + " character set utf8mb4 (" + rows.getColumnList() + ")");
+
+      SQLWarning warning = stmt.getWarnings();
+      if (warning != null) {
+        throw new SQLException("LOAD DATA into " + rows.getTable() + " has warnings: " + warningMessages(warning), warning);
+      }
+      return stmt.getUpdateCount();
+
+    } catch (InvocationTargetException e) {
+      throw new SQLException("Error setting LOAD DATA input stream", e.getCause());
+
+    } catch (IllegalAccessException e) {
+      throw new SQLException("Error setting LOAD DATA input stream", e);
+
+    } finally {
+      stmt.close();
+    }
+  }
+
+  /**
+   * Return the messages of the first few warnings.
+   */
+  private String warningMessages(SQLWarning warning) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; warning != null && i < MAX_WARNINGS; i++) {
+      if (i > 0) {
+        sb.append("; ");
+      }
+      sb.append(warning.getMessage());
+      warning = warning.getNextWarning();
+    }
+    if (warning != null) {
+      sb.append("; ...");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Binary values are not formatted as text so use insert statements.
+   */
+  @Override
+  protected boolean isTextFormat(Object value) {
+    return !(value instanceof byte[]) && super.isTextFormat(value);
+  }
+}
@@ -0,0 +1,239 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Postgres bulk insert streaming the rows via <code>COPY ... FROM STDIN</code>.
+ * <p>
+ * The CopyManager of the Postgres JDBC driver is used via reflection such that there is no
+ * compile time dependency on the driver. When the driver is not available (or the rows
+ * include columns bound via an expression or values without a text format like hstore and
+ * arrays) this falls back to multi-row insert statements.
+ * </p>
+ * <p>
+ * Timestamps are formatted in the time zone of the connection (the session TimeZone which
+ * the JDBC driver sets when connecting) with the offset included.
+ * </p>
+ */
+public class PostgresBulkInsert extends BulkInsert {
+
+  private static final Logger logger = LoggerFactory.getLogger(PostgresBulkInsert.class);
+
+  private final Class<?> pgConnectionClass;
+
+  private final Method getCopyAPI;
+
+  private final Method copyIn;
+
+  public PostgresBulkInsert() {
+    super(true);
+    Class<?> connectionClass = null;
+    Method copyApiMethod = null;
+    Method copyInMethod = null;
+    try {
+      connectionClass = Class.forName("org.postgresql.PGConnection");
+      copyApiMethod = connectionClass.getMethod("getCopyAPI");
+      copyInMethod = copyApiMethod.getReturnType().getMethod("copyIn", String.class, Reader.class);
+    } catch (Exception e) {
+      logger.debug("Postgres CopyManager not available, bulk insert using multi-row insert", e);
+      connectionClass = null;
+    }
+    this.pgConnectionClass = connectionClass;
+    this.getCopyAPI = copyApiMethod;
+    this.copyIn = copyInMethod;
+  }
+
+  @Override
+  public int insert(Connection connection, BulkInsertRows rows) throws SQLException {
+
+    if (pgConnectionClass == null || !rows.isPlainBind() || !isTextFormat(rows.getRows())
+        || !connection.isWrapperFor(pgConnectionClass)) {
+      return super.insert(connection, rows);
+    }
+
+    String sql = "copy " + rows.getTable() + " (" + rows.getColumnList() + ") from stdin";
+    try {
+      TimeZone timeZone = sessionTimeZone(connection);
+      Object copyManager = getCopyAPI.invoke(connection.unwrap(pgConnectionClass));
+      Object count = copyIn.invoke(copyManager, sql, new RowReader(rows.getRows(), timeZone));
+      return ((Number) count).intValue();
+
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      throw new SQLException("Error executing " + sql, cause);
+
+    } catch (IllegalAccessException e) {
+      throw new SQLException("Error executing " + sql, e);
+    }
+  }
+
+  /**
+   * Return the time zone of the session falling back to the JVM default time zone when the
+   * session time zone is not known to Java.
+   */
+  private TimeZone sessionTimeZone(Connection connection) throws SQLException {
+    String zoneId = null;
+    Statement stmt = connection.createStatement();
+    try {
+      ResultSet rset = stmt.executeQuery("show timezone");
+      try {
+        if (rset.next()) {
+          zoneId = rset.getString(1);
+        }
+      } finally {
+        rset.close();
+      }
+    } finally {
+      stmt.close();
+    }
+    if (zoneId != null) {
+      TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+      // TimeZone returns GMT for unknown ids
+      if (!"GMT".equals(timeZone.getID()) || "GMT".equalsIgnoreCase(zoneId)) {
+        return timeZone;
+      }
+    }
+    logger.debug("Session time zone [{}] not known, using the JVM default time zone", zoneId);
+    return TimeZone.getDefault();
+  }
+
+  @Override
+  protected String formatBoolean(Boolean value) {
+    return value ? "t" : "f";
+  }
+
+  @Override
+  protected String formatBytes(byte[] value) {
+    return "\\x" + toHex(value);
+  }
+
+  /**
+   * Format the timestamp (to microseconds) in the given time zone including the offset.
+   */
+  static String formatTimestamp(Timestamp timestamp, TimeZone timeZone) {
+    Calendar cal = Calendar.getInstance(timeZone);
+    cal.setTimeInMillis(timestamp.getTime());
+    StringBuilder sb = new StringBuilder(32);
+    appendPadded(sb, cal.get(Calendar.YEAR), 4);
+    sb.append('-');
+    appendPadded(sb, cal.get(Calendar.MONTH) + 1, 2);
+    sb.append('-');
+    appendPadded(sb, cal.get(Calendar.DAY_OF_MONTH), 2);
+    sb.append(' ');
+    appendPadded(sb, cal.get(Calendar.HOUR_OF_DAY), 2);
+    sb.append(':');
+    appendPadded(sb, cal.get(Calendar.MINUTE), 2);
+    sb.append(':');
+    appendPadded(sb, cal.get(Calendar.SECOND), 2);
+    sb.append('.');
+    appendPadded(sb, timestamp.getNanos() / 1000, 6);
+    sb.append(formatOffset(timeZone.getOffset(timestamp.getTime())));
+    return sb.toString();
+  }
+
+  private static void appendPadded(StringBuilder sb, int value, int width) {
+    String text = String.valueOf(value);
+    for (int i = text.length(); i < width; i++) {
+      sb.append('0');
+    }
+    sb.append(text);
+  }
+
+  /**
+   * Return the offset in the form +HH:MM.
+   */
+  static String formatOffset(int offsetMillis) {
+    int minutes = Math.abs(offsetMillis) / 60000;
+    int hours = minutes / 60;
+    minutes = minutes % 60;
+    StringBuilder sb = new StringBuilder(6);
+    sb.append(offsetMillis < 0 ? '-' : '+');
+    if (hours < 10) {
+      sb.append('0');
+    }
+    sb.append(hours).append(':');
+    if (minutes < 10) {
+      sb.append('0');
+    }
+    sb.append(minutes);
+    return sb.toString();
+  }
+
+  /**
+   * Reader that formats the rows as they are read by the CopyManager.
+   */
+  class RowReader extends Reader {
+
+    private final List<BulkInsertRows.Row> rows;
+
+    private final TimeZone timeZone;
+
+    private final StringBuilder buffer = new StringBuilder(512);
+
+    private int rowIndex;
+
+    private int bufferPos;
+
+    RowReader(List<BulkInsertRows.Row> rows, TimeZone timeZone) {
+      this.rows = rows;
+      this.timeZone = timeZone;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+
+      if (bufferPos >= buffer.length()) {
+        if (rowIndex >= rows.size()) {
+          return -1;
+        }
+        buffer.setLength(0);
+        bufferPos = 0;
+        appendRow(rows.get(rowIndex++));
+      }
+      int count = Math.min(len, buffer.length() - bufferPos);
+      buffer.getChars(bufferPos, bufferPos + count, cbuf, off);
+      bufferPos += count;
+      return count;
+    }
+
+    /**
+     * Append the row formatting timestamps in the session time zone.
+     */
+    private void appendRow(BulkInsertRows.Row row) {
+      for (int i = 0; i < row.size(); i++) {
+        if (i > 0) {
+          buffer.append('\t');
+        }
+        Object value = row.getValue(i);
+        if (value instanceof Timestamp) {
+          buffer.append(formatTimestamp((Timestamp) value, timeZone));
+        } else {
+          appendValue(buffer, value);
+        }
+      }
+      buffer.append('\n');
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+}
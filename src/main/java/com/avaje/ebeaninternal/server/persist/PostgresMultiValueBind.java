@@ -0,0 +1,61 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import java.sql.SQLException;
+import java.sql.Types;
+
+import com.avaje.ebean.config.dbplatform.DbType;
+import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.ScalarType;
+
+/**
+ * Postgres support for binding 'in' values as a java.sql.Array using <code>= any(?)</code>.
+ */
+public class PostgresMultiValueBind extends MultiValueBind {
+
+  @Override
+  public boolean isTypeSupported(ScalarType<?> type) {
+    return getArrayType(type.getJdbcType()) != null;
+  }
+
+  @Override
+  public boolean isNotInSupported() {
+    return true;
+  }
+
+  @Override
+  public String getInExpression(boolean not) {
+    return not ? " != all(?) " : " = any(?) ";
+  }
+
+  @Override
+  public void bindMultiValues(DataBind dataBind, ScalarType<?> type, Object[] values) throws SQLException {
+    dataBind.setArray(getArrayType(type.getJdbcType()), values);
+  }
+
+  /**
+   * Return the Postgres array element type name for the JDBC type.
+   */
+  private String getArrayType(int jdbcType) {
+    switch (jdbcType) {
+      case Types.INTEGER:
+        return "int4";
+      case Types.BIGINT:
+        return "int8";
+      case Types.SMALLINT:
+        return "int2";
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+        return "numeric";
+      case Types.VARCHAR:
+        return "varchar";
+      case Types.DATE:
+        return "date";
+      case Types.TIMESTAMP:
+        return "timestamp";
+      case DbType.UUID:
+        return "uuid";
+      default:
+        return null;
+    }
+  }
+}
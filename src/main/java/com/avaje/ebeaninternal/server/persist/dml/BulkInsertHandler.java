@@ -0,0 +1,82 @@
+package com.avaje.ebeaninternal.server.persist.dml;
+
+import com.avaje.ebean.bean.EntityBean;
+import com.avaje.ebeaninternal.api.DerivedRelationshipData;
+import com.avaje.ebeaninternal.server.core.PersistRequestBean;
+import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+import com.avaje.ebeaninternal.server.persist.BulkInsertDataBind;
+import com.avaje.ebeaninternal.server.persist.dmlbind.BindableRequest;
+
+import java.sql.SQLException;
+
+/**
+ * Binds the bean values into a row for bulk insert.
+ * <p>
+ * This only binds (the rows are inserted together by BulkInsert) and the bean must have
+ * its id value set (there is no fetching back of generated keys).
+ * </p>
+ */
+class BulkInsertHandler implements BindableRequest {
+
+  private final PersistRequestBean<?> persistRequest;
+
+  private final InsertMeta meta;
+
+  private final BulkInsertDataBind dataBind;
+
+  BulkInsertHandler(PersistRequestBean<?> persistRequest, InsertMeta meta, BulkInsertDataBind dataBind) {
+    this.persistRequest = persistRequest;
+    this.meta = meta;
+    this.dataBind = dataBind;
+  }
+
+  /**
+   * Bind the bean property values (including the id) into the current row.
+   */
+  void bind() throws SQLException {
+    meta.bind(this, persistRequest.getEntityBean(), true, persistRequest.isPublish());
+  }
+
+  @Override
+  public PersistRequestBean<?> getPersistRequest() {
+    return persistRequest;
+  }
+
+  @Override
+  public void setIdValue(Object idValue) {
+    persistRequest.setBoundId(idValue);
+  }
+
+  @Override
+  public void bind(Object value, BeanProperty prop) throws SQLException {
+    prop.bind(dataBind, value);
+  }
+
+  @Override
+  public void bindNoLog(Object value, BeanProperty prop) throws SQLException {
+    prop.bind(dataBind, value);
+  }
+
+  @Override
+  public void bind(Object value, int sqlType) throws SQLException {
+    dataBind.setObject(value, sqlType);
+  }
+
+  @Override
+  public void bindNoLog(Object value, int sqlType, String logPlaceHolder) throws SQLException {
+    dataBind.setObject(value, sqlType);
+  }
+
+  /**
+   * There is no where clause on insert so the generated value is set to the bean now.
+   */
+  @Override
+  public void registerUpdateGenValue(BeanProperty prop, EntityBean bean, Object value) {
+    prop.setValueIntercept(bean, value);
+  }
+
+  @Override
+  public void registerDerivedRelationship(DerivedRelationshipData derivedRelationship) {
+    persistRequest.getTransaction().registerDerivedRelationship(derivedRelationship);
+  }
+}
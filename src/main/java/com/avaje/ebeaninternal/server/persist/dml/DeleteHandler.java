@@ -8,7 +8,7 @@ import javax.persistence.OptimisticLockException;
 import com.avaje.ebeaninternal.api.DerivedRelationshipData;
 import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.server.core.PersistRequestBean;
-import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.StatementDataBind;
 
 /**
  * Delete bean handler.
@@ -37,7 +37,7 @@ public class DeleteHandler extends DmlHandler {
 		} else {
 			pstmt = getPstmt(t, sql, false);
 		}
-		dataBind = new DataBind(pstmt);
+		dataBind = new StatementDataBind(pstmt);
 		meta.bind(persistRequest, this);
 		logSql(sql);
 	}
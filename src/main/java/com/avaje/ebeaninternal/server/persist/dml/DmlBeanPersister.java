@@ -1,11 +1,16 @@
 package com.avaje.ebeaninternal.server.persist.dml;
 
+import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.server.core.PersistRequestBean;
 import com.avaje.ebeaninternal.server.lib.util.StringHelper;
 import com.avaje.ebeaninternal.server.persist.BeanPersister;
+import com.avaje.ebeaninternal.server.persist.BulkInsert;
+import com.avaje.ebeaninternal.server.persist.BulkInsertDataBind;
+import com.avaje.ebeaninternal.server.persist.BulkInsertRows;
 
 import javax.persistence.PersistenceException;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Bean persister that uses the Handler and Meta objects.
@@ -50,6 +55,43 @@ public final class DmlBeanPersister implements BeanPersister {
 		execute(request, insert);
 	}
 
+	/**
+	 * execute the bean insert requests together using bulk insert.
+	 */
+	public void insertBulk(List<PersistRequestBean<?>> requests, BulkInsert bulkInsert) {
+
+		SpiTransaction transaction = requests.get(0).getTransaction();
+		BulkInsertRows rows = insertMeta.createBulkInsertRows();
+		// with the connection to create array values
+		BulkInsertDataBind dataBind = new BulkInsertDataBind(transaction.getInternalConnection());
+		try {
+			for (int i = 0; i < requests.size(); i++) {
+				dataBind.setRow(rows.addRow());
+				new BulkInsertHandler(requests.get(i), insertMeta, dataBind).bind();
+			}
+			int count = bulkInsert.insert(transaction.getInternalConnection(), rows);
+			if (count != rows.size()) {
+				// do not treat the beans as inserted (postExecute) when rows were skipped
+				throw new SQLException("Inserted "+count+" rows but expected "+rows.size());
+			}
+
+		} catch (SQLException e) {
+			String errMsg = StringHelper.replaceStringMulti(e.getMessage(), new String[]{"\r","\n"}, "\\n ");
+			String msg = "ERROR executing bulk insert into "+rows.getTable()+" rows["+rows.size()+"] error["+errMsg+"]";
+			if (transaction.isLogSummary()) {
+				transaction.logSummary(msg);
+			}
+			throw new PersistenceException(msg, e);
+		}
+
+		if (transaction.isLogSummary()) {
+			transaction.logSummary("Bulk inserted ["+rows.getTable()+"] rows["+rows.size()+"]");
+		}
+		for (int i = 0; i < requests.size(); i++) {
+			requests.get(i).postExecute();
+		}
+	}
+
 	/**
 	 * execute the bean update request.
 	 */
@@ -5,11 +5,13 @@ import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.server.core.PersistRequestBean;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
 import com.avaje.ebeaninternal.server.lib.util.Str;
+import com.avaje.ebeaninternal.server.persist.BatchedMultiRowInsert;
 import com.avaje.ebeaninternal.server.persist.BatchedPstmt;
 import com.avaje.ebeaninternal.server.persist.BatchedPstmtHolder;
 import com.avaje.ebeaninternal.server.persist.dmlbind.BindableRequest;
 import com.avaje.ebeaninternal.server.transaction.TransactionManager;
 import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.StatementDataBind;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,7 +44,7 @@ public abstract class DmlHandler implements PersistHandler, BindableRequest {
   /**
    * The PreparedStatement used for the dml.
    */
-  protected DataBind dataBind;
+  protected StatementDataBind dataBind;
 
   protected String sql;
 
@@ -114,6 +116,13 @@ public abstract class DmlHandler implements PersistHandler, BindableRequest {
     }
   }
 
+  /**
+   * Return the DataBind that the values are bound to.
+   */
+  protected DataBind getDataBind() {
+    return dataBind;
+  }
+
   /**
    * Return the bind log.
    */
@@ -161,7 +170,7 @@ public abstract class DmlHandler implements PersistHandler, BindableRequest {
       }
       bindLog.append(",");
     }
-    dataBind.setObject(value, sqlType);
+    getDataBind().setObject(value, sqlType);
   }
 
   @Override
@@ -169,7 +178,7 @@ public abstract class DmlHandler implements PersistHandler, BindableRequest {
     if (logLevelSql) {
       bindLog.append(logPlaceHolder).append(" ");
     }
-    dataBind.setObject(value, sqlType);
+    getDataBind().setObject(value, sqlType);
   }
 
   /**
@@ -203,7 +212,7 @@ public abstract class DmlHandler implements PersistHandler, BindableRequest {
       bindLog.append(",");
     }
     // do the actual binding to PreparedStatement
-    prop.bind(dataBind, value);
+    prop.bind(getDataBind(), value);
   }
 
   /**
@@ -274,6 +283,21 @@ public abstract class DmlHandler implements PersistHandler, BindableRequest {
     return stmt;
   }
 
+  /**
+   * Return the DataBind for a new row of a batched multi-row insert.
+   */
+  protected DataBind getMultiRowInsertBind(SpiTransaction t, String sql, PersistRequestBean<?> request,
+      String returningColumn, int maxBindParameters) throws SQLException {
+
+    BatchedPstmtHolder batch = t.getBatchControl().getPstmtHolder();
+    BatchedMultiRowInsert insert = batch.getMultiRowInsert(sql, request);
+    if (insert == null) {
+      insert = new BatchedMultiRowInsert(t.getInternalConnection(), sql, returningColumn, maxBindParameters);
+      batch.addStmt(insert, request);
+    }
+    return insert.addRow();
+  }
+
   /**
    * Hold the values from GeneratedValue that need to be set to the bean
    * property after the where clause has been built.
@@ -1,5 +1,8 @@
 package com.avaje.ebeaninternal.server.persist.dml;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Helper to support the generation of DML statements.
  */
@@ -11,6 +14,8 @@ public class GenerateDmlRequest {
 
   private StringBuilder insertBindBuffer;
 
+  private List<String> insertColumns;
+
   private String prefix;
   private String prefix2;
 
@@ -46,6 +51,7 @@ public class GenerateDmlRequest {
     sb.append(column);
     //sb.append(expr);
     if (insertMode > 0) {
+      insertColumns.add(column);
       if (insertMode++ > 1) {
         insertBindBuffer.append(",");
       }
@@ -69,6 +75,13 @@ public class GenerateDmlRequest {
     return insertBindBuffer.toString();
   }
 
+  /**
+   * Return the columns appended in insert mode.
+   */
+  public List<String> getInsertColumns() {
+    return insertColumns;
+  }
+
   public String toString() {
     return sb.toString();
   }
@@ -80,6 +93,7 @@ public class GenerateDmlRequest {
 
   public void setInsertSetMode() {
     this.insertBindBuffer = new StringBuilder(100);
+    this.insertColumns = new ArrayList<String>();
     this.insertMode = 1;
     this.prefix = "";
     this.prefix2 = ", ";
@@ -10,6 +10,7 @@ import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
 import com.avaje.ebeaninternal.server.persist.DmlUtil;
 import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.StatementDataBind;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +50,16 @@ public class InsertHandler extends DmlHandler {
    */
   private String selectLastInsertedId;
 
+  /**
+   * Set when the bean is bound as a row of a batched multi-row insert.
+   */
+  private boolean multiRow;
+
+  /**
+   * The row of the batched multi-row insert the values are bound to.
+   */
+  private DataBind rowBind;
+
   /**
    * Create to handle the insert execution.
    */
@@ -92,13 +103,21 @@ public class InsertHandler extends DmlHandler {
     // get the appropriate sql
     sql = meta.getSql(withId, persistRequest.isPublish());
 
-    PreparedStatement pstmt;
-    if (persistRequest.isBatched()) {
-      pstmt = getPstmt(t, sql, persistRequest, useGeneratedKeys);
+    if (persistRequest.isBatched() && meta.isMultiRowBatch(useGeneratedKeys)) {
+      // bind to a row of a multi-row insert
+      multiRow = true;
+      String returningColumn = useGeneratedKeys ? meta.getInsertReturningColumn() : null;
+      rowBind = getMultiRowInsertBind(t, sql, persistRequest, returningColumn, meta.getMaxBindParameters());
+
     } else {
-      pstmt = getPstmt(t, sql, useGeneratedKeys);
+      PreparedStatement pstmt;
+      if (persistRequest.isBatched()) {
+        pstmt = getPstmt(t, sql, persistRequest, useGeneratedKeys);
+      } else {
+        pstmt = getPstmt(t, sql, useGeneratedKeys);
+      }
+      dataBind = new StatementDataBind(pstmt);
     }
-    dataBind = new DataBind(pstmt);
 
     // bind the bean property values
     meta.bind(this, bean, withId, persistRequest.isPublish());
@@ -106,6 +125,24 @@ public class InsertHandler extends DmlHandler {
     logSql(sql);
   }
 
+  /**
+   * Return the multi-row insert row or the statement that the values are bound to.
+   */
+  @Override
+  protected DataBind getDataBind() {
+    return multiRow ? rowBind : dataBind;
+  }
+
+  /**
+   * Add this for batch execution (a multi-row insert row has already been added).
+   */
+  @Override
+  public void addBatch() throws SQLException {
+    if (!multiRow) {
+      super.addBatch();
+    }
+  }
+
   /**
    * Check with useGeneratedKeys to get appropriate PreparedStatement.
    */
@@ -5,12 +5,15 @@ import com.avaje.ebean.config.dbplatform.DatabasePlatform;
 import com.avaje.ebeaninternal.server.core.PersistRequestBean;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.InheritInfo;
+import com.avaje.ebeaninternal.server.persist.BulkInsertRows;
 import com.avaje.ebeaninternal.server.persist.dmlbind.Bindable;
 import com.avaje.ebeaninternal.server.persist.dmlbind.BindableDiscriminator;
 import com.avaje.ebeaninternal.server.persist.dmlbind.BindableId;
 import com.avaje.ebeaninternal.server.persist.dmlbind.BindableList;
+import com.avaje.ebeaninternal.server.persist.dmlbind.BindableRequest;
 
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Meta data for insert handler. The meta data is for a particular bean type. It
@@ -46,6 +49,25 @@ public final class InsertMeta {
 
   private final boolean emptyStringToNull;
 
+  /**
+   * The base table, insert columns and values clause (with id) used for bulk insert.
+   */
+  private final String bulkTable;
+  private final String[] bulkColumns;
+  private final String bulkValues;
+
+  /**
+   * Set when batched inserts use multi-row insert statements.
+   */
+  private final boolean multiRowBatchInsert;
+
+  /**
+   * The identity column returned by multi-row inserts (null when not supported).
+   */
+  private final String insertReturningColumn;
+
+  private final int maxBindParameters;
+
   public InsertMeta(DatabasePlatform dbPlatform, BeanDescriptor<?> desc, Bindable shadowFKey, BindableId id, BindableList all) {
 
     this.emptyStringToNull = dbPlatform.isTreatEmptyStringsAsNull();
@@ -58,7 +80,16 @@ public final class InsertMeta {
     String tableName = desc.getBaseTable();
     String draftTableName = desc.getDraftTable();
 
-    this.sqlWithId = genSql(false, tableName, false);
+    GenerateDmlRequest withIdRequest = genRequest(false, tableName, false);
+    this.sqlWithId = withIdRequest.toString();
+    this.bulkTable = tableName;
+    List<String> insertColumns = withIdRequest.getInsertColumns();
+    this.bulkColumns = insertColumns.toArray(new String[insertColumns.size()]);
+    this.bulkValues = withIdRequest.getInsertBindBuffer();
+    this.multiRowBatchInsert = dbPlatform.isMultiRowBatchInsert();
+    this.maxBindParameters = dbPlatform.getMaxBindParameters();
+    boolean returning = !id.isConcatenated() && id.getIdentityColumn() != null && dbPlatform.isInsertReturning();
+    this.insertReturningColumn = returning ? id.getIdentityColumn() : null;
     this.sqlDraftWithId = desc.isDraftable() ? genSql(false, draftTableName, true) : sqlWithId;
 
     // only available for single Id property
@@ -145,7 +176,7 @@ public final class InsertMeta {
   /**
    * Bind the request based on whether the id value(s) are null.
    */
-  public void bind(DmlHandler request, EntityBean bean, boolean withId, boolean publish) throws SQLException {
+  public void bind(BindableRequest request, EntityBean bean, boolean withId, boolean publish) throws SQLException {
 
     if (withId) {
       id.dmlBind(request, bean);
@@ -175,7 +206,42 @@ public final class InsertMeta {
     }
   }
 
+  /**
+   * Return true if the batched insert should use multi-row insert statements.
+   * <p>
+   * Inserts that use generated keys are only supported via insert ... returning.
+   * </p>
+   */
+  public boolean isMultiRowBatch(boolean useGeneratedKeys) {
+    return multiRowBatchInsert && (!useGeneratedKeys || insertReturningColumn != null);
+  }
+
+  /**
+   * Return the identity column returned by a multi-row insert with generated keys.
+   */
+  public String getInsertReturningColumn() {
+    return insertReturningColumn;
+  }
+
+  /**
+   * Return the maximum number of bind parameters per statement.
+   */
+  public int getMaxBindParameters() {
+    return maxBindParameters;
+  }
+
+  /**
+   * Create the rows to capture the bound values of beans inserted via bulk insert.
+   */
+  public BulkInsertRows createBulkInsertRows() {
+    return new BulkInsertRows(bulkTable, bulkColumns, bulkValues);
+  }
+
   private String genSql(boolean nullId, String table, boolean draftTable) {
+    return genRequest(nullId, table, draftTable).toString();
+  }
+
+  private GenerateDmlRequest genRequest(boolean nullId, String table, boolean draftTable) {
 
     GenerateDmlRequest request = new GenerateDmlRequest();
     request.setInsertSetMode();
@@ -205,7 +271,7 @@ public final class InsertMeta {
     request.append(request.getInsertBindBuffer());
     request.append(")");
 
-    return request.toString();
+    return request;
   }
 
 }
@@ -0,0 +1,231 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.AsyncFuture;
+import com.avaje.ebean.meta.MetaQueryExecutorStatistic;
+import com.avaje.ebeaninternal.server.lib.DaemonThreadFactory;
+import com.avaje.ebeaninternal.server.util.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.PersistenceException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded executor for the asynchronous queries (findListAsync() etc).
+ * <p>
+ * This is separate from the BackgroundExecutor (used for cache trimming, post commit processing
+ * etc) such that it can be sized relative to the DataSource and long running queries do not
+ * delay the other background tasks. The queue is bounded with queries rejected when it is full.
+ * </p>
+ */
+public final class AsyncQueryExecutor extends ThreadPoolExecutor {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncQueryExecutor.class);
+
+  private final String name;
+
+  private final int queueCapacity;
+
+  private final int shutdownWaitSeconds;
+
+  private final LongAdder submitCount = new LongAdder();
+
+  private final LongAdder rejectCount = new LongAdder();
+
+  private final LongAdder totalWaitMicros = new LongAdder();
+
+  private final AtomicLong maxWaitMicros = new AtomicLong();
+
+  private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+  private long collectionStart = System.currentTimeMillis();
+
+  /**
+   * Create the executor.
+   *
+   * @param name                the server name (used for thread names)
+   * @param poolSize            the number of threads
+   * @param queueCapacity       the maximum number of queries waiting to execute
+   * @param threadFactory       the thread factory (null for daemon threads)
+   * @param shutdownWaitSeconds the time allowed for executing queries to complete on shutdown
+   */
+  public AsyncQueryExecutor(String name, int poolSize, int queueCapacity, ThreadFactory threadFactory, int shutdownWaitSeconds) {
+    super(Math.max(1, poolSize), Math.max(1, poolSize), 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(Math.max(1, queueCapacity)),
+        threadFactory != null ? threadFactory : new DaemonThreadFactory("ebean-" + name + "-async-"));
+    allowCoreThreadTimeOut(true);
+    this.name = name;
+    this.queueCapacity = Math.max(1, queueCapacity);
+    this.shutdownWaitSeconds = shutdownWaitSeconds;
+  }
+
+  /**
+   * Submit the query for execution returning the future.
+   * <p>
+   * If the queue is full (or the executor shutdown) the future fails with a PersistenceException.
+   * </p>
+   */
+  public <R> AsyncFuture<R> executeQuery(AsyncQueryFuture<R> future) {
+
+    submitCount.increment();
+    future.submitted(this, System.nanoTime());
+    try {
+      execute(future);
+    } catch (RejectedExecutionException e) {
+      rejectCount.increment();
+      future.fail(new PersistenceException("Async query rejected by query executor [" + name + "] with queue depth "
+          + getQueue().size() + " - see ServerConfig.setAsyncQueryPoolSize() and setAsyncQueryQueueSize()", e));
+      return future;
+    }
+    int depth = getQueue().size();
+    int max;
+    while (depth > (max = maxQueueDepth.get())) {
+      if (maxQueueDepth.compareAndSet(max, depth)) {
+        break;
+      }
+    }
+    return future;
+  }
+
+  @Override
+  protected void beforeExecute(Thread t, Runnable r) {
+    super.beforeExecute(t, r);
+    if (r instanceof AsyncQueryFuture) {
+      long waitMicros = (System.nanoTime() - ((AsyncQueryFuture<?>) r).getSubmitNanos()) / 1000L;
+      totalWaitMicros.add(waitMicros);
+      long max;
+      while (waitMicros > (max = maxWaitMicros.get())) {
+        if (maxWaitMicros.compareAndSet(max, waitMicros)) {
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Return the statistics optionally resetting them.
+   */
+  public MetaQueryExecutorStatistic getStatistic(boolean reset) {
+    long start = collectionStart;
+    if (reset) {
+      collectionStart = System.currentTimeMillis();
+      return new Statistic(getPoolSize(), getActiveCount(), getQueue().size(), maxQueueDepth.getAndSet(0), queueCapacity,
+          submitCount.sumThenReset(), rejectCount.sumThenReset(), totalWaitMicros.sumThenReset(), maxWaitMicros.getAndSet(0), start);
+    }
+    return new Statistic(getPoolSize(), getActiveCount(), getQueue().size(), maxQueueDepth.get(), queueCapacity,
+        submitCount.sum(), rejectCount.sum(), totalWaitMicros.sum(), maxWaitMicros.get(), start);
+  }
+
+  /**
+   * Shutdown allowing executing queries some time to complete.
+   */
+  public void shutdown() {
+    synchronized (this) {
+      if (super.isShutdown()) {
+        return;
+      }
+      try {
+        super.shutdown();
+        if (!super.awaitTermination(shutdownWaitSeconds, TimeUnit.SECONDS)) {
+          logger.info("AsyncQueryExecutor[" + name + "] shut down timeout exceeded. Terminating running queries.");
+          super.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        super.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Snapshot of the query executor statistics.
+   */
+  static class Statistic implements MetaQueryExecutorStatistic {
+
+    private final int poolSize;
+    private final int activeCount;
+    private final int queueDepth;
+    private final int maxQueueDepth;
+    private final int queueCapacity;
+    private final long submitCount;
+    private final long rejectCount;
+    private final long totalWaitMicros;
+    private final long maxWaitMicros;
+    private final long collectionStart;
+
+    Statistic(int poolSize, int activeCount, int queueDepth, int maxQueueDepth, int queueCapacity, long submitCount,
+              long rejectCount, long totalWaitMicros, long maxWaitMicros, long collectionStart) {
+      this.poolSize = poolSize;
+      this.activeCount = activeCount;
+      this.queueDepth = queueDepth;
+      this.maxQueueDepth = maxQueueDepth;
+      this.queueCapacity = queueCapacity;
+      this.submitCount = submitCount;
+      this.rejectCount = rejectCount;
+      this.totalWaitMicros = totalWaitMicros;
+      this.maxWaitMicros = maxWaitMicros;
+      this.collectionStart = collectionStart;
+    }
+
+    public String toString() {
+      return "poolSize:" + poolSize + " active:" + activeCount + " queueDepth:" + queueDepth + " maxQueueDepth:" + maxQueueDepth
+          + " queueCapacity:" + queueCapacity + " submitted:" + submitCount + " rejected:" + rejectCount
+          + " totalWaitMicros:" + totalWaitMicros + " maxWaitMicros:" + maxWaitMicros + " start:" + collectionStart;
+    }
+
+    @Override
+    public int getPoolSize() {
+      return poolSize;
+    }
+
+    @Override
+    public int getActiveCount() {
+      return activeCount;
+    }
+
+    @Override
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+
+    @Override
+    public int getMaxQueueDepth() {
+      return maxQueueDepth;
+    }
+
+    @Override
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    @Override
+    public long getSubmitCount() {
+      return submitCount;
+    }
+
+    @Override
+    public long getRejectCount() {
+      return rejectCount;
+    }
+
+    @Override
+    public long getTotalWaitMicros() {
+      return totalWaitMicros;
+    }
+
+    @Override
+    public long getMaxWaitMicros() {
+      return maxWaitMicros;
+    }
+
+    @Override
+    public long getCollectionStart() {
+      return collectionStart;
+    }
+  }
+}
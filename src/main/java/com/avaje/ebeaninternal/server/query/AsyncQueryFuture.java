@@ -0,0 +1,61 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.Query;
+
+/**
+ * AsyncFuture for a query executing on the AsyncQueryExecutor.
+ * <p>
+ * Cancelling this future cancels the executing query and removes a queued query from the executor.
+ * </p>
+ *
+ * @param <R> the type of the query result
+ */
+public class AsyncQueryFuture<R> extends DefaultAsyncFuture<R> {
+
+  private final Query<?> query;
+
+  private volatile AsyncQueryExecutor executor;
+
+  private volatile long submitNanos;
+
+  public AsyncQueryFuture(CallableAsyncQuery<?, R> call) {
+    super(call);
+    this.query = call.getQuery();
+  }
+
+  /**
+   * Return the query being executed.
+   */
+  public Query<?> getQuery() {
+    return query;
+  }
+
+  /**
+   * Set the executor and time the query was submitted for execution.
+   */
+  void submitted(AsyncQueryExecutor executor, long submitNanos) {
+    this.executor = executor;
+    this.submitNanos = submitNanos;
+  }
+
+  /**
+   * Return the System.nanoTime() the query was submitted.
+   */
+  long getSubmitNanos() {
+    return submitNanos;
+  }
+
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    if (!isDone()) {
+      // cancel the underlying JDBC statement if executing
+      query.cancel();
+    }
+    boolean cancelled = super.cancel(mayInterruptIfRunning);
+    if (cancelled && executor != null) {
+      // free up the queue capacity
+      executor.remove(this);
+    }
+    return cancelled;
+  }
+}
@@ -10,6 +10,7 @@ import com.avaje.ebean.bean.NodeUsageListener;
 import com.avaje.ebean.bean.ObjectGraphNode;
 import com.avaje.ebean.bean.PersistenceContext;
 import com.avaje.ebean.event.readaudit.ReadEvent;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.api.SpiQuery.Mode;
 import com.avaje.ebeaninternal.api.SpiTransaction;
@@ -24,6 +25,7 @@ import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 import com.avaje.ebeaninternal.server.deploy.DbReadContext;
 import com.avaje.ebeaninternal.server.lib.util.StringHelper;
 import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.StatementDataBind;
 import com.avaje.ebeaninternal.server.type.DataReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +40,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -335,7 +338,7 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
         pstmt.setFetchSize(query.getBufferFetchSizeHint());
       }
 
-      DataBind dataBind = new DataBind(pstmt);
+      DataBind dataBind = new StatementDataBind(pstmt);
 
       // bind keys for encrypted properties
       queryPlan.bindEncryptedProperties(dataBind);
@@ -567,13 +570,31 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
   public QueryIterator<T> readIterate(int bufferSize, OrmQueryRequest<T> request) {
 
     if (bufferSize > 0) {
-      return new CQueryIteratorWithBuffer<T>(this, request, bufferSize);
+      return new CQueryIteratorWithBuffer<T>(this, request, bufferSize, getPrefetchExecutor(request));
 
     } else {
       return new CQueryIteratorSimple<T>(this, request);
     }
   }
 
+  /**
+   * Return the executor used to prefetch the next buffer of beans (null for no prefetch).
+   * <p>
+   * Prefetch is only used when the query created its own transaction such that the
+   * application is not otherwise using the transaction while the next buffer loads. It is
+   * not used when already executing on a parallel query thread (as the prefetch could wait
+   * for threads that are waiting on this).
+   * </p>
+   */
+  private Executor getPrefetchExecutor(OrmQueryRequest<T> request) {
+    SpiEbeanServer server = request.getServer();
+    if (!server.getServerConfig().isFindIteratePrefetch() || !request.isCreatedTransaction()) {
+      return null;
+    }
+    ParallelQueryExecutor executor = server.getParallelQueryExecutor();
+    return executor.isExecutorThread() ? null : executor;
+  }
+
   public String getLoadedRowDetail() {
     if (manyProperty == null) {
       return String.valueOf(rowCount);
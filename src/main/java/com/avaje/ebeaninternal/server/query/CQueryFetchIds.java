@@ -12,7 +12,7 @@ import com.avaje.ebeaninternal.server.core.OrmQueryRequest;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 import com.avaje.ebeaninternal.server.deploy.DbReadContext;
-import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.StatementDataBind;
 import com.avaje.ebeaninternal.server.type.DataReader;
 import com.avaje.ebeaninternal.server.type.RsetDataReader;
 import org.slf4j.Logger;
@@ -144,7 +144,7 @@ public class CQueryFetchIds {
         pstmt.setQueryTimeout(query.getTimeout());
       }
 
-      bindLog = predicates.bind(new DataBind(pstmt));
+      bindLog = predicates.bind(new StatementDataBind(pstmt));
 
       ResultSet rset = pstmt.executeQuery();
       dataReader = new RsetDataReader(rset);
@@ -1,62 +1,108 @@
 package com.avaje.ebeaninternal.server.query;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import javax.persistence.PersistenceException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.avaje.ebean.QueryIterator;
 import com.avaje.ebeaninternal.server.core.OrmQueryRequest;
 
 /**
  * A QueryIterator that uses a buffer to execute secondary queries periodically.
+ * <p>
+ * The beans are loaded in chunks of bufferSize. When a prefetch executor is supplied the
+ * next chunk (including its secondary queries) is loaded in the background while the
+ * current chunk is being consumed. At most two chunks are held in memory. Each prefetched
+ * chunk has its own persistence context and load context such that the beans of the current
+ * chunk can lazy load while the next chunk is loading.
+ * </p>
  */
 class CQueryIteratorWithBuffer<T> implements QueryIterator<T> {
 
+  private static final Logger logger = LoggerFactory.getLogger(CQueryIteratorWithBuffer.class);
+
   private final CQuery<T> cquery;
   private final int bufferSize;
   private final OrmQueryRequest<T> request;
-  private final ArrayList<T> buffer;
 
-  private boolean moreToLoad = true;
+  /**
+   * Executor used to prefetch the next chunk (null for no prefetch).
+   */
+  private final Executor prefetchExecutor;
+
+  /**
+   * The chunk being consumed.
+   */
+  private Chunk current;
+
+  /**
+   * The chunk being loaded in the background (when prefetching).
+   */
+  private Chunk spare;
 
-  CQueryIteratorWithBuffer(CQuery<T> cquery, OrmQueryRequest<T> request, int bufferSize) {
+  /**
+   * The background load of the spare chunk.
+   */
+  private FutureTask<Chunk> pending;
+
+  private volatile boolean moreToLoad = true;
+
+  CQueryIteratorWithBuffer(CQuery<T> cquery, OrmQueryRequest<T> request, int bufferSize, Executor prefetchExecutor) {
     this.cquery = cquery;
     this.request = request;
     this.bufferSize = bufferSize;
-    this.buffer = new ArrayList<T>(bufferSize);
+    this.prefetchExecutor = prefetchExecutor;
+    this.current = new Chunk(bufferSize);
+    this.spare = (prefetchExecutor == null) ? null : new Chunk(bufferSize);
   }
 
-  @SuppressWarnings("unchecked")
   public boolean hasNext() {
-    try {
-      if (buffer.isEmpty() && moreToLoad) {
-        // load buffer
-        request.flushPersistenceContextOnIterate();
-
-        int i = -1;
-        while (moreToLoad && ++i < bufferSize) {
-          if (cquery.hasNext()) {
-            buffer.add((T) cquery.next());
-          } else {
-            moreToLoad = false;
-          }
-        }
-        // execute secondary queries
-        request.executeSecondaryQueries();
+    if (current.hasNext()) {
+      return true;
+    }
+    if (pending != null) {
+      // swap in the prefetched chunk
+      Chunk loaded = awaitPending();
+      spare = current;
+      current = loaded;
+
+    } else if (moreToLoad) {
+      try {
+        load(current);
+      } catch (SQLException e) {
+        throw cquery.createPersistenceException(e);
       }
-      return !buffer.isEmpty();
+    } else {
+      return false;
+    }
 
-    } catch (SQLException e) {
-      throw cquery.createPersistenceException(e);
+    if (prefetchExecutor != null && moreToLoad) {
+      prefetch(spare);
     }
+    return current.hasNext();
   }
 
+  @SuppressWarnings("unchecked")
   public T next() {
-    return buffer.remove(0);
+    return (T) current.next();
   }
 
   public void close() {
+    if (pending != null) {
+      // wait for the background load as it is using the ResultSet
+      try {
+        awaitPending();
+      } catch (RuntimeException e) {
+        logger.warn("Error in prefetch of findIterate closing", e);
+      }
+    }
     cquery.updateExecutionStatistics();
     cquery.close();
     request.endTransIfRequired();
@@ -65,4 +111,109 @@ class CQueryIteratorWithBuffer<T> implements QueryIterator<T> {
   public void remove() {
     throw new PersistenceException("Remove not allowed");
   }
-}
\ No newline at end of file
+
+  /**
+   * Load the next chunk of beans and execute the secondary queries.
+   */
+  private void load(Chunk chunk) throws SQLException {
+
+    chunk.clear();
+    if (prefetchExecutor == null) {
+      request.flushPersistenceContextOnIterate();
+    } else {
+      request.nextPersistenceContextOnIterate();
+    }
+
+    while (moreToLoad && chunk.size() < bufferSize) {
+      if (cquery.hasNext()) {
+        chunk.add(cquery.next());
+      } else {
+        moreToLoad = false;
+      }
+    }
+    // execute secondary queries
+    request.executeSecondaryQueries();
+  }
+
+  /**
+   * Load the chunk in the background.
+   */
+  private void prefetch(final Chunk chunk) {
+    chunk.clear();
+    pending = new FutureTask<Chunk>(new Callable<Chunk>() {
+      public Chunk call() throws Exception {
+        load(chunk);
+        return chunk;
+      }
+    });
+    prefetchExecutor.execute(pending);
+  }
+
+  /**
+   * Wait for the background load to complete returning the loaded chunk.
+   */
+  private Chunk awaitPending() {
+    FutureTask<Chunk> task = pending;
+    pending = null;
+    try {
+      return task.get();
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PersistenceException("Interrupted waiting for findIterate prefetch", e);
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw cquery.createPersistenceException((SQLException) cause);
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new PersistenceException(cause);
+    }
+  }
+
+  /**
+   * A chunk of beans consumed by index (rather than removing from the front of a list).
+   */
+  private static final class Chunk {
+
+    private final Object[] beans;
+
+    private int size;
+
+    private int pos;
+
+    Chunk(int bufferSize) {
+      this.beans = new Object[bufferSize];
+    }
+
+    boolean hasNext() {
+      return pos < size;
+    }
+
+    Object next() {
+      Object bean = beans[pos];
+      // release the reference as the bean is handed to the application
+      beans[pos++] = null;
+      return bean;
+    }
+
+    void add(Object bean) {
+      beans[size++] = bean;
+    }
+
+    int size() {
+      return size;
+    }
+
+    void clear() {
+      for (int i = pos; i < size; i++) {
+        beans[i] = null;
+      }
+      size = 0;
+      pos = 0;
+    }
+  }
+}
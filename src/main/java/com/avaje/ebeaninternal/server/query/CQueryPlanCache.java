@@ -0,0 +1,243 @@
+package com.avaje.ebeaninternal.server.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.avaje.ebean.meta.MetaQueryPlanCacheStatistic;
+import com.avaje.ebeaninternal.api.HashQueryPlan;
+import com.avaje.ebeaninternal.server.util.LongAdder;
+
+/**
+ * Bounded cache of the query plans for a bean type.
+ * <p>
+ * Reads do not lock. When a put takes the cache over its max size the least frequently
+ * used plans are evicted down to 90% of the max size (so eviction is amortized over many
+ * puts) and the usage counts of the remaining plans are halved such that plans that were
+ * popular a long time ago do not stay forever. Plans with the same usage are evicted
+ * oldest first.
+ * </p>
+ * <p>
+ * This stops the number of query plans growing without limit with ad hoc queries such
+ * as those with dynamic 'in' list sizes.
+ * </p>
+ */
+public class CQueryPlanCache {
+
+  private static final Comparator<Entry> EVICTION_ORDER = new Comparator<Entry>() {
+    @Override
+    public int compare(Entry o1, Entry o2) {
+      if (o1.hits != o2.hits) {
+        return o1.hits < o2.hits ? -1 : 1;
+      }
+      return o1.sequence < o2.sequence ? -1 : (o1.sequence == o2.sequence ? 0 : 1);
+    }
+  };
+
+  private final Class<?> beanType;
+
+  private final int maxSize;
+
+  private final ConcurrentHashMap<HashQueryPlan, Entry> map = new ConcurrentHashMap<HashQueryPlan, Entry>();
+
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private final LongAdder evictCount = new LongAdder();
+
+  private volatile long collectionStart = System.currentTimeMillis();
+
+  /**
+   * Create with the bean type and max size (0 for unbounded).
+   */
+  public CQueryPlanCache(Class<?> beanType, int maxSize) {
+    this.beanType = beanType;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Return the query plan for the given hash or null if it is not in the cache.
+   */
+  public CQueryPlan get(HashQueryPlan key) {
+    Entry entry = map.get(key);
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    hitCount.increment();
+    // racy increment is fine as the usage is only an estimate
+    entry.hits++;
+    return entry.plan;
+  }
+
+  /**
+   * Put the query plan into the cache evicting less frequently used plans if necessary.
+   */
+  public void put(HashQueryPlan key, CQueryPlan plan) {
+    map.put(key, new Entry(plan, sequence.incrementAndGet()));
+    if (maxSize > 0 && map.size() > maxSize && evictionLock.tryLock()) {
+      try {
+        evict();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Return the number of query plans in the cache.
+   */
+  public int size() {
+    return map.size();
+  }
+
+  /**
+   * Return all the query plans currently in the cache.
+   */
+  public List<CQueryPlan> values() {
+    List<CQueryPlan> list = new ArrayList<CQueryPlan>(map.size());
+    for (Entry entry : map.values()) {
+      list.add(entry.plan);
+    }
+    return list;
+  }
+
+  /**
+   * Return the hit, miss and eviction statistics.
+   */
+  public MetaQueryPlanCacheStatistic getStatistic(boolean reset) {
+    long start = collectionStart;
+    if (reset) {
+      collectionStart = System.currentTimeMillis();
+      return new Statistic(beanType, map.size(), maxSize, hitCount.sumThenReset(), missCount.sumThenReset(), evictCount.sumThenReset(), start);
+    }
+    return new Statistic(beanType, map.size(), maxSize, hitCount.sum(), missCount.sum(), evictCount.sum(), start);
+  }
+
+  /**
+   * Evict the least frequently used plans down to 90% of the max size.
+   */
+  private void evict() {
+
+    List<Entry> entries = new ArrayList<Entry>(map.size());
+    for (Map.Entry<HashQueryPlan, Entry> mapEntry : map.entrySet()) {
+      Entry entry = mapEntry.getValue();
+      entry.key = mapEntry.getKey();
+      entries.add(entry);
+    }
+
+    int evictTarget = entries.size() - (maxSize * 9 / 10);
+    if (evictTarget <= 0) {
+      return;
+    }
+    Collections.sort(entries, EVICTION_ORDER);
+
+    int evicted = 0;
+    for (int i = 0; i < evictTarget; i++) {
+      Entry entry = entries.get(i);
+      // remove only if not replaced by a concurrent put
+      if (map.remove(entry.key, entry)) {
+        evicted++;
+      }
+    }
+    for (int i = evictTarget; i < entries.size(); i++) {
+      // age the remaining plans
+      Entry entry = entries.get(i);
+      entry.hits = entry.hits >>> 1;
+    }
+    evictCount.add(evicted);
+  }
+
+  /**
+   * Query plan with its estimated usage.
+   */
+  private static final class Entry {
+
+    final CQueryPlan plan;
+
+    final long sequence;
+
+    HashQueryPlan key;
+
+    volatile int hits;
+
+    Entry(CQueryPlan plan, long sequence) {
+      this.plan = plan;
+      this.sequence = sequence;
+    }
+  }
+
+  /**
+   * Snapshot of the query plan cache statistics.
+   */
+  static class Statistic implements MetaQueryPlanCacheStatistic {
+
+    private final Class<?> beanType;
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictCount;
+    private final long collectionStart;
+
+    Statistic(Class<?> beanType, int size, int maxSize, long hitCount, long missCount, long evictCount, long collectionStart) {
+      this.beanType = beanType;
+      this.size = size;
+      this.maxSize = maxSize;
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictCount = evictCount;
+      this.collectionStart = collectionStart;
+    }
+
+    public String toString() {
+      return beanType.getName() + " size:" + size + " maxSize:" + maxSize + " hits:" + hitCount
+          + " misses:" + missCount + " evicted:" + evictCount + " start:" + collectionStart;
+    }
+
+    @Override
+    public Class<?> getBeanType() {
+      return beanType;
+    }
+
+    @Override
+    public int getSize() {
+      return size;
+    }
+
+    @Override
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    @Override
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    @Override
+    public long getMissCount() {
+      return missCount;
+    }
+
+    @Override
+    public long getEvictCount() {
+      return evictCount;
+    }
+
+    @Override
+    public long getCollectionStart() {
+      return collectionStart;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.avaje.ebeaninternal.server.query;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.avaje.ebean.Transaction;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.api.SpiQuery;
+
+/**
+ * Base object for making asynchronous query execution into Callable's.
+ * <p>
+ * Unlike CallableQuery the transaction is created when the query starts executing such that
+ * queries waiting in the executor queue do not hold connections.
+ * </p>
+ *
+ * @param <T> the entity bean type
+ * @param <R> the type of the query result
+ */
+public abstract class CallableAsyncQuery<T, R> implements Callable<R> {
+
+  protected final SpiEbeanServer server;
+
+  protected final SpiQuery<T> query;
+
+  public CallableAsyncQuery(SpiEbeanServer server, SpiQuery<T> query) {
+    this.server = server;
+    this.query = query;
+  }
+
+  public SpiQuery<T> getQuery() {
+    return query;
+  }
+
+  /**
+   * Execute the query in its own transaction.
+   */
+  public R call() throws Exception {
+    Transaction transaction = server.createTransaction();
+    try {
+      return execute(transaction);
+    } finally {
+      // cleanup the underlying connection
+      transaction.end();
+    }
+  }
+
+  /**
+   * Execute the query returning the result.
+   */
+  protected abstract R execute(Transaction transaction);
+
+  /**
+   * The findList query as a Callable.
+   */
+  public static class FindList<T> extends CallableAsyncQuery<T, List<T>> {
+
+    public FindList(SpiEbeanServer server, SpiQuery<T> query) {
+      super(server, query);
+    }
+
+    @Override
+    protected List<T> execute(Transaction transaction) {
+      return server.findList(query, transaction);
+    }
+  }
+
+  /**
+   * The findUnique query as a Callable.
+   */
+  public static class FindUnique<T> extends CallableAsyncQuery<T, T> {
+
+    public FindUnique(SpiEbeanServer server, SpiQuery<T> query) {
+      super(server, query);
+    }
+
+    @Override
+    protected T execute(Transaction transaction) {
+      return server.findUnique(query, transaction);
+    }
+  }
+
+  /**
+   * The findRowCount query as a Callable.
+   */
+  public static class FindRowCount<T> extends CallableAsyncQuery<T, Integer> {
+
+    public FindRowCount(SpiEbeanServer server, SpiQuery<T> query) {
+      super(server, query);
+    }
+
+    @Override
+    protected Integer execute(Transaction transaction) {
+      return server.findRowCountWithCopy(query, transaction);
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.AsyncCallback;
+import com.avaje.ebean.AsyncFunction;
+import com.avaje.ebean.AsyncFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * FutureTask based implementation of AsyncFuture that notifies the registered callbacks on completion.
+ *
+ * @param <R> the type of the result
+ */
+public class DefaultAsyncFuture<R> extends FutureTask<R> implements AsyncFuture<R> {
+
+  private static final Logger logger = LoggerFactory.getLogger(DefaultAsyncFuture.class);
+
+  /**
+   * The callbacks registered before completion (guarded by this).
+   */
+  private List<AsyncCallback<? super R>> callbacks;
+
+  private boolean completed;
+
+  public DefaultAsyncFuture(Callable<R> callable) {
+    super(callable);
+  }
+
+  /**
+   * Complete this future with the given exception (without executing it).
+   */
+  public void fail(Throwable e) {
+    setException(e);
+  }
+
+  @Override
+  protected void done() {
+    List<AsyncCallback<? super R>> notifyList;
+    synchronized (this) {
+      completed = true;
+      notifyList = callbacks;
+      callbacks = null;
+    }
+    if (notifyList != null) {
+      for (int i = 0; i < notifyList.size(); i++) {
+        notify(notifyList.get(i));
+      }
+    }
+  }
+
+  @Override
+  public AsyncFuture<R> whenComplete(AsyncCallback<? super R> callback) {
+    synchronized (this) {
+      if (!completed) {
+        if (callbacks == null) {
+          callbacks = new ArrayList<AsyncCallback<? super R>>(2);
+        }
+        callbacks.add(callback);
+        return this;
+      }
+    }
+    // already completed so notify now
+    notify(callback);
+    return this;
+  }
+
+  @Override
+  public <U> AsyncFuture<U> thenApply(final AsyncFunction<? super R, U> function) {
+
+    final Dependent<U> dependent = new Dependent<U>(this, new Callable<U>() {
+      public U call() throws Exception {
+        return function.apply(getCompleted());
+      }
+    });
+
+    whenComplete(new AsyncCallback<R>() {
+      public void onSuccess(R result) {
+        dependent.run();
+      }
+
+      public void onFailure(Throwable e) {
+        if (e instanceof CancellationException) {
+          dependent.cancel(false);
+        } else {
+          dependent.fail(e);
+        }
+      }
+    });
+    return dependent;
+  }
+
+  /**
+   * Return the result of this completed future.
+   */
+  private R getCompleted() throws Exception {
+    try {
+      return get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw e;
+    }
+  }
+
+  private void notify(AsyncCallback<? super R> callback) {
+    try {
+      R result;
+      try {
+        result = get();
+      } catch (CancellationException e) {
+        callback.onFailure(e);
+        return;
+      } catch (ExecutionException e) {
+        callback.onFailure(e.getCause());
+        return;
+      } catch (InterruptedException e) {
+        // not expected as the future has completed
+        Thread.currentThread().interrupt();
+        callback.onFailure(e);
+        return;
+      }
+      callback.onSuccess(result);
+
+    } catch (RuntimeException e) {
+      logger.error("Error executing AsyncCallback", e);
+    }
+  }
+
+  @Override
+  public R getUnchecked() {
+    try {
+      return get();
+    } catch (InterruptedException e) {
+      throw new PersistenceException(e);
+    } catch (ExecutionException e) {
+      throw new PersistenceException(e);
+    }
+  }
+
+  @Override
+  public R getUnchecked(long timeout, TimeUnit unit) throws TimeoutException {
+    try {
+      return get(timeout, unit);
+    } catch (InterruptedException e) {
+      throw new PersistenceException(e);
+    } catch (ExecutionException e) {
+      throw new PersistenceException(e);
+    }
+  }
+
+  /**
+   * Future created by thenApply() that cancels its source future when cancelled.
+   */
+  private static class Dependent<U> extends DefaultAsyncFuture<U> {
+
+    private final Future<?> source;
+
+    Dependent(Future<?> source, Callable<U> callable) {
+      super(callable);
+      this.source = source;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled) {
+        source.cancel(mayInterruptIfRunning);
+      }
+      return cancelled;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.server.query;
 
+import com.avaje.ebean.QueryIterator;
 import com.avaje.ebean.SqlQueryListener;
 import com.avaje.ebean.SqlRow;
 import com.avaje.ebean.bean.BeanCollection;
@@ -12,7 +13,7 @@ import com.avaje.ebeaninternal.server.core.RelationalQueryRequest;
 import com.avaje.ebeaninternal.server.lib.util.Str;
 import com.avaje.ebeaninternal.server.persist.Binder;
 import com.avaje.ebeaninternal.server.transaction.TransactionManager;
-import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.StatementDataBind;
 import com.avaje.ebeaninternal.server.util.BindParamsParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,22 +47,14 @@ public class DefaultRelationalQueryEngine implements RelationalQueryEngine {
     long startTime = System.currentTimeMillis();
 
     SpiTransaction t = request.getTransaction();
-    Connection conn = t.getInternalConnection();
     ResultSet rset = null;
     PreparedStatement pstmt = null;
 
-    String sql = query.getQuery();
-
-    BindParams bindParams = query.getBindParams();
-
-    if (!bindParams.isEmpty()) {
-      // convert any named parameters if required
-      sql = BindParamsParser.parse(bindParams, sql);
-    }
+    String sql = getSql(query);
 
     try {
 
-      String bindLog = "";
+      String bindLog;
       String[] propNames;
 
       synchronized (query) {
@@ -71,26 +64,8 @@ public class DefaultRelationalQueryEngine implements RelationalQueryEngine {
         }
 
         // synchronise for query.cancel() support
-        pstmt = conn.prepareStatement(sql);
-
-        if (query.getTimeout() > 0) {
-          pstmt.setQueryTimeout(query.getTimeout());
-        }
-        if (query.getBufferFetchSizeHint() > 0) {
-          pstmt.setFetchSize(query.getBufferFetchSizeHint());
-        }
-
-        if (!bindParams.isEmpty()) {
-          bindLog = binder.bind(bindParams, new DataBind(pstmt));
-        }
-
-        if (request.isLogSql()) {
-          String logSql = sql;
-          if (TransactionManager.SQL_LOGGER.isTraceEnabled()) {
-            logSql = Str.add(logSql, "; --bind(", bindLog, ")");
-          }
-          t.logSql(logSql);
-        }
+        pstmt = prepareStatement(request, sql);
+        bindLog = bindAndLog(request, pstmt, sql);
 
         rset = pstmt.executeQuery();
 
@@ -103,10 +78,7 @@ public class DefaultRelationalQueryEngine implements RelationalQueryEngine {
       int estimateCapacity = (int) initCap + 1;
 
       // determine the maxRows limit
-      int maxRows = GLOBAL_ROW_LIMIT;
-      if (query.getMaxRows() >= 1) {
-        maxRows = query.getMaxRows();
-      }
+      int maxRows = getMaxRows(query);
 
       int loadRowCount = 0;
 
@@ -167,21 +139,99 @@ public class DefaultRelationalQueryEngine implements RelationalQueryEngine {
       throw new PersistenceException(m, e);
 
     } finally {
-      try {
-        if (rset != null) {
-          rset.close();
-        }
-      } catch (SQLException e) {
-        logger.error(null, e);
+      SqlRowIterator.closeResources(rset, pstmt);
+    }
+  }
+
+  public QueryIterator<SqlRow> findIterate(RelationalQueryRequest request) {
+
+    SpiSqlQuery query = request.getQuery();
+
+    long startTime = System.currentTimeMillis();
+
+    String sql = getSql(query);
+
+    ResultSet rset = null;
+    PreparedStatement pstmt = null;
+    try {
+      String bindLog;
+      SqlRowColumns columns;
+
+      synchronized (query) {
+        // synchronise for query.cancel() support
+        pstmt = prepareStatement(request, sql);
+        bindLog = bindAndLog(request, pstmt, sql);
+
+        rset = pstmt.executeQuery();
+        columns = SqlRowColumns.read(rset);
       }
-      try {
-        if (pstmt != null) {
-          pstmt.close();
-        }
-      } catch (SQLException e) {
-        logger.error(null, e);
+
+      return new SqlRowIterator(request, sql, bindLog, pstmt, rset, columns, dbTrueValue, getMaxRows(query), startTime);
+
+    } catch (Exception e) {
+      SqlRowIterator.closeResources(rset, pstmt);
+      String m = Message.msg("fetch.error", e.getMessage(), sql);
+      throw new PersistenceException(m, e);
+    }
+  }
+
+  /**
+   * Return the sql converting named parameters if required.
+   */
+  private String getSql(SpiSqlQuery query) {
+    String sql = query.getQuery();
+    BindParams bindParams = query.getBindParams();
+    if (!bindParams.isEmpty()) {
+      // convert any named parameters if required
+      sql = BindParamsParser.parse(bindParams, sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Return the maximum number of rows to read.
+   */
+  private int getMaxRows(SpiSqlQuery query) {
+    return query.getMaxRows() >= 1 ? query.getMaxRows() : GLOBAL_ROW_LIMIT;
+  }
+
+  /**
+   * Create the PreparedStatement applying the timeout and fetch size.
+   */
+  private PreparedStatement prepareStatement(RelationalQueryRequest request, String sql) throws SQLException {
+
+    SpiSqlQuery query = request.getQuery();
+    Connection conn = request.getTransaction().getInternalConnection();
+
+    PreparedStatement pstmt = conn.prepareStatement(sql);
+    if (query.getTimeout() > 0) {
+      pstmt.setQueryTimeout(query.getTimeout());
+    }
+    if (query.getBufferFetchSizeHint() > 0) {
+      pstmt.setFetchSize(query.getBufferFetchSizeHint());
+    }
+    return pstmt;
+  }
+
+  /**
+   * Bind the parameters and log the sql returning the bind log.
+   */
+  private String bindAndLog(RelationalQueryRequest request, PreparedStatement pstmt, String sql) throws SQLException {
+
+    String bindLog = "";
+    BindParams bindParams = request.getQuery().getBindParams();
+    if (!bindParams.isEmpty()) {
+      bindLog = binder.bind(bindParams, new StatementDataBind(pstmt));
+    }
+
+    if (request.isLogSql()) {
+      String logSql = sql;
+      if (TransactionManager.SQL_LOGGER.isTraceEnabled()) {
+        logSql = Str.add(logSql, "; --bind(", bindLog, ")");
       }
+      request.getTransaction().logSql(logSql);
     }
+    return bindLog;
   }
 
   /**
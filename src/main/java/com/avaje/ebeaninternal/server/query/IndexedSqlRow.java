@@ -0,0 +1,162 @@
+package com.avaje.ebeaninternal.server.query;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+import com.avaje.ebean.SqlRow;
+import com.avaje.ebeaninternal.server.core.BasicTypeConverter;
+
+/**
+ * Compact SqlRow used by SqlQuery findEach() and findIterate().
+ * <p>
+ * The row is an array of values with the column names shared by all the rows of the query
+ * (rather than a map per row as per DefaultSqlRow). The columns are fixed so put() can
+ * replace the value of an existing column but other keys can not be added or removed.
+ * </p>
+ */
+final class IndexedSqlRow extends AbstractMap<String, Object> implements SqlRow {
+
+  private static final long serialVersionUID = 1L;
+
+  private final SqlRowColumns columns;
+
+  private final Object[] values;
+
+  private final String dbTrueValue;
+
+  IndexedSqlRow(SqlRowColumns columns, Object[] values, String dbTrueValue) {
+    this.columns = columns;
+    this.values = values;
+    this.dbTrueValue = dbTrueValue;
+  }
+
+  public Iterator<String> keys() {
+    return keySet().iterator();
+  }
+
+  public Object get(Object name) {
+    int pos = columns.indexOf(name);
+    return pos == -1 ? null : values[pos];
+  }
+
+  public boolean containsKey(Object name) {
+    return columns.indexOf(name) > -1;
+  }
+
+  public Object put(String name, Object value) {
+    return set(name, value);
+  }
+
+  public Object set(String name, Object value) {
+    int pos = columns.indexOf(name);
+    if (pos == -1) {
+      throw new UnsupportedOperationException("Column [" + name + "] is not in the query result");
+    }
+    Object oldValue = values[pos];
+    values[pos] = value;
+    return oldValue;
+  }
+
+  public int size() {
+    return values.length;
+  }
+
+  public boolean isEmpty() {
+    return values.length == 0;
+  }
+
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<String, Object>>() {
+      public Iterator<Map.Entry<String, Object>> iterator() {
+        return new Iterator<Map.Entry<String, Object>>() {
+          private int pos;
+
+          public boolean hasNext() {
+            return pos < values.length;
+          }
+
+          public Map.Entry<String, Object> next() {
+            if (pos >= values.length) {
+              throw new NoSuchElementException();
+            }
+            Map.Entry<String, Object> entry = new SimpleImmutableEntry<String, Object>(columns.name(pos), values[pos]);
+            pos++;
+            return entry;
+          }
+
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+
+      public int size() {
+        return values.length;
+      }
+    };
+  }
+
+  public UUID getUUID(String name) {
+    return BasicTypeConverter.toUUID(get(name));
+  }
+
+  public Boolean getBoolean(String name) {
+    return BasicTypeConverter.toBoolean(get(name), dbTrueValue);
+  }
+
+  public Integer getInteger(String name) {
+    return BasicTypeConverter.toInteger(get(name));
+  }
+
+  public BigDecimal getBigDecimal(String name) {
+    return BasicTypeConverter.toBigDecimal(get(name));
+  }
+
+  public Long getLong(String name) {
+    return BasicTypeConverter.toLong(get(name));
+  }
+
+  public Double getDouble(String name) {
+    return BasicTypeConverter.toDouble(get(name));
+  }
+
+  public Float getFloat(String name) {
+    return BasicTypeConverter.toFloat(get(name));
+  }
+
+  public String getString(String name) {
+    return BasicTypeConverter.toString(get(name));
+  }
+
+  public java.util.Date getUtilDate(String name) {
+    return BasicTypeConverter.toUtilDate(get(name));
+  }
+
+  public Date getDate(String name) {
+    return BasicTypeConverter.toDate(get(name));
+  }
+
+  public Timestamp getTimestamp(String name) {
+    return BasicTypeConverter.toTimestamp(get(name));
+  }
+
+  public String toString() {
+    StringBuilder sb = new StringBuilder(values.length * 16);
+    sb.append("{");
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(columns.name(i)).append("=").append(values[i]);
+    }
+    return sb.append("}").toString();
+  }
+}
@@ -0,0 +1,70 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebeaninternal.server.lib.DaemonThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded executor for the parts of a query that execute in parallel (the branches of
+ * parallel secondary queries and the findIterate prefetch of the next buffer).
+ * <p>
+ * This is separate from the BackgroundExecutor (used for cache trimming, post commit
+ * processing etc) as the caller waits for the tasks to complete. A task that can not be
+ * queued (queue full or executor shutdown) runs in the calling thread and callers that are
+ * already executor threads should run their tasks inline (see {@link #isExecutorThread()})
+ * such that a caller never waits on tasks that can not run.
+ * </p>
+ */
+public final class ParallelQueryExecutor extends ThreadPoolExecutor {
+
+  /**
+   * The number of queued tasks per thread (beyond which tasks run in the calling thread).
+   */
+  private static final int QUEUE_PER_THREAD = 10;
+
+  /**
+   * Set for the threads of this executor.
+   */
+  private final ThreadLocal<Boolean> executorThread = new ThreadLocal<Boolean>();
+
+  /**
+   * Create the executor.
+   *
+   * @param name     the server name (used for thread names)
+   * @param poolSize the number of threads
+   */
+  public ParallelQueryExecutor(String name, int poolSize) {
+    super(Math.max(1, poolSize), Math.max(1, poolSize), 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<Runnable>(Math.max(1, poolSize) * QUEUE_PER_THREAD),
+        new DaemonThreadFactory("ebean-" + name + "-parallel-"), new CallerRuns());
+    allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Return true if the current thread is one of the threads of this executor.
+   */
+  public boolean isExecutorThread() {
+    return executorThread.get() != null;
+  }
+
+  @Override
+  protected void beforeExecute(Thread t, Runnable r) {
+    executorThread.set(Boolean.TRUE);
+    super.beforeExecute(t, r);
+  }
+
+  /**
+   * Run rejected tasks in the calling thread (including after shutdown as the caller waits
+   * for the task to complete).
+   */
+  private static final class CallerRuns implements RejectedExecutionHandler {
+
+    @Override
+    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+      r.run();
+    }
+  }
+}
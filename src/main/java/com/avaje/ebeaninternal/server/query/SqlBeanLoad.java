@@ -51,6 +51,13 @@ public class SqlBeanLoad {
     ctx.getDataReader().incrementPos(increment);
   }
 
+  /**
+   * Load the property value into the bean.
+   * <p>
+   * Returns the value read or null for primitive properties that are read directly into the
+   * field of the bean.
+   * </p>
+   */
   public Object load(BeanProperty prop) {
 
     if (!rawSql && !prop.isLoadProperty(ctx.isDraftQuery())) {
@@ -71,6 +78,17 @@ public class SqlBeanLoad {
     }
 
     try {
+      if (!refreshLoading && prop.isPrimitiveRead()) {
+        // read directly into the primitive field without boxing which bypasses the
+        // enhanced setter so the property is marked as loaded here
+        if (prop.readPrimitive(ctx, bean)) {
+          ebi.setLoadedProperty(prop.getPropertyIndex());
+        } else {
+          prop.setValue(bean, null);
+        }
+        return null;
+      }
+
       Object dbVal = prop.read(ctx);
       if (!refreshLoading) {
         prop.setValue(bean, dbVal);
@@ -0,0 +1,79 @@
+package com.avaje.ebeaninternal.server.query;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The column names of a SqlQuery result shared by all the rows of the query.
+ * <p>
+ * The names are read from the ResultSetMetaData once per query and converted to lower case
+ * (as per DefaultSqlRow). The rows are then just an array of values.
+ * </p>
+ */
+final class SqlRowColumns implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String[] names;
+
+  private final Map<String, Integer> index;
+
+  SqlRowColumns(String[] columnNames) {
+    this.names = new String[columnNames.length];
+    this.index = new HashMap<String, Integer>(columnNames.length * 2);
+    for (int i = 0; i < columnNames.length; i++) {
+      names[i] = columnNames[i].toLowerCase();
+      if (!index.containsKey(names[i])) {
+        // first column wins for duplicate labels
+        index.put(names[i], i);
+      }
+    }
+  }
+
+  /**
+   * Read the column labels from the ResultSet meta data.
+   */
+  static SqlRowColumns read(ResultSet rset) throws SQLException {
+    ResultSetMetaData metaData = rset.getMetaData();
+    String[] names = new String[metaData.getColumnCount()];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = metaData.getColumnLabel(i + 1);
+    }
+    return new SqlRowColumns(names);
+  }
+
+  /**
+   * Return the number of columns.
+   */
+  int size() {
+    return names.length;
+  }
+
+  /**
+   * Return the (lower case) name of the column at the given index.
+   */
+  String name(int i) {
+    return names[i];
+  }
+
+  /**
+   * Return the index of the column or -1 if there is no such column.
+   * <p>
+   * Names that are already lower case are found without converting the name.
+   * </p>
+   */
+  int indexOf(Object name) {
+    if (!(name instanceof String)) {
+      return -1;
+    }
+    Integer pos = index.get(name);
+    if (pos == null) {
+      pos = index.get(((String) name).toLowerCase());
+    }
+    return pos == null ? -1 : pos;
+  }
+}
@@ -0,0 +1,145 @@
+package com.avaje.ebeaninternal.server.query;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+import javax.persistence.PersistenceException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.avaje.ebean.QueryIterator;
+import com.avaje.ebean.SqlRow;
+import com.avaje.ebeaninternal.api.SpiSqlQuery;
+import com.avaje.ebeaninternal.server.core.Message;
+import com.avaje.ebeaninternal.server.core.RelationalQueryRequest;
+
+/**
+ * QueryIterator for SqlQuery reading the rows from the ResultSet as they are requested.
+ */
+final class SqlRowIterator implements QueryIterator<SqlRow> {
+
+  private static final Logger logger = LoggerFactory.getLogger(SqlRowIterator.class);
+
+  private final RelationalQueryRequest request;
+
+  private final SpiSqlQuery query;
+
+  private final String sql;
+
+  private final String bindLog;
+
+  private final PreparedStatement pstmt;
+
+  private final ResultSet rset;
+
+  private final SqlRowColumns columns;
+
+  private final String dbTrueValue;
+
+  private final int maxRows;
+
+  private final long startTime;
+
+  private int rowCount;
+
+  private SqlRow nextRow;
+
+  private boolean finished;
+
+  SqlRowIterator(RelationalQueryRequest request, String sql, String bindLog, PreparedStatement pstmt, ResultSet rset,
+                 SqlRowColumns columns, String dbTrueValue, int maxRows, long startTime) {
+    this.request = request;
+    this.query = request.getQuery();
+    this.sql = sql;
+    this.bindLog = bindLog;
+    this.pstmt = pstmt;
+    this.rset = rset;
+    this.columns = columns;
+    this.dbTrueValue = dbTrueValue;
+    this.maxRows = maxRows;
+    this.startTime = startTime;
+  }
+
+  public boolean hasNext() {
+    if (nextRow != null) {
+      return true;
+    }
+    if (finished) {
+      return false;
+    }
+    try {
+      synchronized (query) {
+        // synchronise for query.cancel() support
+        if (rowCount < maxRows && !query.isCancelled() && rset.next()) {
+          nextRow = readRow();
+          rowCount++;
+        } else {
+          finished = true;
+        }
+      }
+      return nextRow != null;
+
+    } catch (SQLException e) {
+      throw new PersistenceException(Message.msg("fetch.error", e.getMessage(), sql), e);
+    }
+  }
+
+  public SqlRow next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    SqlRow row = nextRow;
+    nextRow = null;
+    return row;
+  }
+
+  private SqlRow readRow() throws SQLException {
+    Object[] values = new Object[columns.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = rset.getObject(i + 1);
+    }
+    return new IndexedSqlRow(columns, values, dbTrueValue);
+  }
+
+  public void close() {
+    try {
+      if (request.isLogSummary()) {
+        long exeTime = System.currentTimeMillis() - startTime;
+        request.getTransaction().logSummary("SqlQuery iterate rows[" + rowCount + "] time[" + exeTime + "] bind[" + bindLog + "]");
+      }
+      if (query.isCancelled()) {
+        logger.debug("Query was cancelled during execution rows:" + rowCount);
+      }
+    } finally {
+      closeResources(rset, pstmt);
+      request.endTransIfRequired();
+    }
+  }
+
+  public void remove() {
+    throw new PersistenceException("Remove not allowed");
+  }
+
+  /**
+   * Close the ResultSet and PreparedStatement.
+   */
+  static void closeResources(ResultSet rset, PreparedStatement pstmt) {
+    try {
+      if (rset != null) {
+        rset.close();
+      }
+    } catch (SQLException e) {
+      logger.error(null, e);
+    }
+    try {
+      if (pstmt != null) {
+        pstmt.close();
+      }
+    } catch (SQLException e) {
+      logger.error(null, e);
+    }
+  }
+}
@@ -5,6 +5,7 @@ import com.avaje.ebeaninternal.server.deploy.BeanProperty;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -141,6 +142,16 @@ public class SqlTree {
     return rootNode;
   }
 
+  /**
+   * Return the (lower case) names of the tables joined to by the query (excluding the base table
+   * of the root unless it is also joined to).
+   */
+  public Set<String> getJoinedTables() {
+    Set<String> tables = new HashSet<String>();
+    rootNode.addDependentTables(tables);
+    return tables;
+  }
+
   /**
    * Return the property that is associated with the many. There can only be one
    * per SqlSelect. This can be null.
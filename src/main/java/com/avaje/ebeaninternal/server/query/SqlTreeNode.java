@@ -8,6 +8,7 @@ import com.avaje.ebeaninternal.server.deploy.DbSqlContext;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Set;
 
 public interface SqlTreeNode {
 
@@ -44,6 +45,11 @@ public interface SqlTreeNode {
    */
   void addSoftDeletePredicate(SpiQuery<?> query);
 
+  /**
+   * Recurse through the tree adding the (lower case) names of the tables the query reads from.
+   */
+  void addDependentTables(Set<String> tables);
+
   /**
    * Load the appropriate information from the SqlSelectReader.
    * <p>
@@ -5,6 +5,7 @@ import java.sql.Timestamp;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.avaje.ebean.Version;
 import com.avaje.ebean.bean.BeanCollection;
@@ -17,6 +18,7 @@ import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssoc;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocOne;
 import com.avaje.ebeaninternal.server.deploy.DbReadContext;
 import com.avaje.ebeaninternal.server.deploy.DbSqlContext;
 import com.avaje.ebeaninternal.server.deploy.InheritInfo;
@@ -493,6 +495,35 @@ public class SqlTreeNodeBean implements SqlTreeNode {
     }
   }
 
+  public void addDependentTables(Set<String> tables) {
+    tables.add(desc.getBaseTable().toLowerCase());
+    addJoinedTables(tables);
+  }
+
+  /**
+   * Add the tables joined to from this node.
+   */
+  protected void addJoinedTables(Set<String> tables) {
+
+    if (nodeBeanProp instanceof BeanPropertyAssocMany<?>) {
+      BeanPropertyAssocMany<?> manyProp = (BeanPropertyAssocMany<?>) nodeBeanProp;
+      if (manyProp.isManyToMany()) {
+        tables.add(manyProp.getIntersectionTableJoin().getTable().toLowerCase());
+      }
+    }
+    for (int i = 0; i < properties.length; i++) {
+      if (properties[i] instanceof BeanPropertyAssocOne<?>) {
+        BeanPropertyAssocOne<?> oneProp = (BeanPropertyAssocOne<?>) properties[i];
+        if (oneProp.isOneToOneExported()) {
+          tables.add(oneProp.getTargetDescriptor().getBaseTable().toLowerCase());
+        }
+      }
+    }
+    for (int i = 0; i < children.length; i++) {
+      children[i].addDependentTables(tables);
+    }
+  }
+
   public void addAsOfTableAlias(SpiQuery<?> query) {
     // if history on this bean type add it's alias
     // for each alias we add an effect date predicate
@@ -12,6 +12,7 @@ import com.avaje.ebeaninternal.server.deploy.TableJoin;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The purpose is to add an extra join to the query.
@@ -52,6 +53,22 @@ public class SqlTreeNodeExtraJoin implements SqlTreeNode {
     // nothing to do here
   }
 
+  @Override
+  public void addDependentTables(Set<String> tables) {
+    tables.add(assocBeanProperty.getTargetDescriptor().getBaseTable().toLowerCase());
+    if (manyJoin) {
+      BeanPropertyAssocMany<?> manyProp = (BeanPropertyAssocMany<?>) assocBeanProperty;
+      if (manyProp.isManyToMany()) {
+        tables.add(manyProp.getIntersectionTableJoin().getTable().toLowerCase());
+      }
+    }
+    if (children != null) {
+      for (int i = 0; i < children.size(); i++) {
+        children.get(i).addDependentTables(tables);
+      }
+    }
+  }
+
   /**
    * Return true if the extra join is a many join.
    * <p>
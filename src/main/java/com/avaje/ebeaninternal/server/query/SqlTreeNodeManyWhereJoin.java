@@ -12,6 +12,7 @@ import com.avaje.ebeaninternal.server.deploy.TableJoin;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Join to Many (or child of a many) to support where clause predicates on many properties.
@@ -49,6 +50,17 @@ public class SqlTreeNodeManyWhereJoin implements SqlTreeNode {
     // do nothing here ...
   }
 
+  @Override
+  public void addDependentTables(Set<String> tables) {
+    tables.add(nodeBeanProp.getTargetDescriptor().getBaseTable().toLowerCase());
+    if (nodeBeanProp instanceof BeanPropertyAssocMany<?>) {
+      BeanPropertyAssocMany<?> manyProp = (BeanPropertyAssocMany<?>) nodeBeanProp;
+      if (manyProp.isManyToMany()) {
+        tables.add(manyProp.getIntersectionTableJoin().getTable().toLowerCase());
+      }
+    }
+  }
+
   /**
    * Append to the FROM clause for this node.
    */
@@ -7,6 +7,7 @@ import com.avaje.ebeaninternal.server.deploy.DbSqlContext;
 import com.avaje.ebeaninternal.server.deploy.TableJoin;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents the root node of the Sql Tree.
@@ -33,6 +34,17 @@ public final class SqlTreeNodeRoot extends SqlTreeNodeBean {
     this.includeJoin = null;
   }
 
+  /**
+   * Add the joined tables only (not the base table of the root).
+   */
+  @Override
+  public void addDependentTables(Set<String> tables) {
+    addJoinedTables(tables);
+    if (includeJoin != null) {
+      tables.add(includeJoin.getTable().toLowerCase());
+    }
+  }
+
   /**
    * For the root node there is no join type or on clause etc.
    */
@@ -1089,6 +1089,18 @@ public class DefaultOrmQuery<T> implements SpiQuery<T> {
     return server.findFutureRowCount(this, null);
   }
 
+  public AsyncFuture<List<T>> findListAsync() {
+    return server.findListAsync(this, null);
+  }
+
+  public AsyncFuture<T> findUniqueAsync() {
+    return server.findUniqueAsync(this, null);
+  }
+
+  public AsyncFuture<Integer> findRowCountAsync() {
+    return server.findRowCountAsync(this, null);
+  }
+
   @Override
   public PagedList<T> findPagedList(int pageIndex, int pageSize) {
     return server.findPagedList(this, null, pageIndex, pageSize);
@@ -1456,6 +1468,19 @@ public class DefaultOrmQuery<T> implements SpiQuery<T> {
    * Validate all the expression properties/paths given the bean descriptor.
    */
   public Set<String> validate(SpiBeanType<T> desc) {
+    return validateExpressions(desc).getUnknownProperties();
+  }
+
+  @Override
+  public Set<String> getPredicateProperties(SpiBeanType<T> desc) {
+    if (rawSql != null || additionalWhere != null || additionalHaving != null) {
+      return null;
+    }
+    SpiExpressionValidation validation = validateExpressions(desc);
+    return validation.isRaw() ? null : validation.getProperties();
+  }
+
+  private SpiExpressionValidation validateExpressions(SpiBeanType<T> desc) {
 
     SpiExpressionValidation validation = new SpiExpressionValidation(desc);
     if (whereExpressions != null) {
@@ -1469,6 +1494,6 @@ public class DefaultOrmQuery<T> implements SpiQuery<T> {
         validation.validate(property.getProperty());
       }
     }
-    return validation.getUnknownProperties();
+    return validation;
   }
 }
@@ -9,6 +9,9 @@ import java.util.Set;
 import javax.persistence.PersistenceException;
 
 import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.QueryEachConsumer;
+import com.avaje.ebean.QueryEachWhileConsumer;
+import com.avaje.ebean.QueryIterator;
 import com.avaje.ebean.SqlFutureList;
 import com.avaje.ebean.SqlQueryListener;
 import com.avaje.ebean.SqlRow;
@@ -89,6 +92,18 @@ public class DefaultRelationalQuery implements SpiSqlQuery {
     return server.findUnique(this, null);
   }
 
+  public void findEach(QueryEachConsumer<SqlRow> consumer) {
+    server.findEach(this, consumer, null);
+  }
+
+  public void findEachWhile(QueryEachWhileConsumer<SqlRow> consumer) {
+    server.findEachWhile(this, consumer, null);
+  }
+
+  public QueryIterator<SqlRow> findIterate() {
+    return server.findIterate(this, null);
+  }
+
   public SqlFutureList findFutureList() {
     return server.findFutureList(this, null);
   }
@@ -32,6 +32,11 @@ public class DJsonContext implements JsonContext {
 
   private final JsonConfig.Include defaultInclude;
 
+  /**
+   * Cache of the JSON write plans by bean type and included properties.
+   */
+  private final WriteJsonPlanCache writePlanCache = new WriteJsonPlanCache();
+
   public DJsonContext(SpiEbeanServer server, JsonFactory jsonFactory, TypeManager typeManager) {
     this.server = server;
     this.typeManager = typeManager;
@@ -290,7 +295,7 @@ public class DJsonContext implements JsonContext {
   private WriteJson createWriteJson(JsonGenerator gen, JsonWriteOptions options) {
     PathProperties pathProps = (options == null) ? null : options.getPathProperties();
     Map<String, JsonWriteBeanVisitor<?>> visitors = (options == null) ? null : options.getVisitorMap();
-    return new WriteJson(server, gen, pathProps, visitors, determineObjectMapper(options), determineInclude(options));
+    return new WriteJson(server, gen, pathProps, visitors, determineObjectMapper(options), determineInclude(options), writePlanCache);
   }
 
   private <T> void toJsonFromCollection(Collection<T> collection, String key, JsonGenerator gen, JsonWriteOptions options) throws IOException {
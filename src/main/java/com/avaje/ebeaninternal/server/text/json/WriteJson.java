@@ -8,7 +8,6 @@ import com.avaje.ebean.text.json.JsonWriteBeanVisitor;
 import com.avaje.ebean.text.json.JsonWriter;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
-import com.avaje.ebeaninternal.server.deploy.BeanProperty;
 import com.avaje.ebeaninternal.server.util.ArrayStack;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,6 +16,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,13 +38,34 @@ public class WriteJson implements JsonWriter {
 
   private final JsonConfig.Include include;
 
+  /**
+   * Shared cache of the write plans (can be null).
+   */
+  private final WriteJsonPlanCache planCache;
+
+  /**
+   * The write plans used by this writer by path.
+   */
+  private final Map<String, WriteJsonPlan> pathPlans;
+
   /**
    * Construct for full bean use (normal).
    */
   public WriteJson(SpiEbeanServer server, JsonGenerator generator, PathProperties pathProperties,
                    Map<String, JsonWriteBeanVisitor<?>> visitors, Object objectMapper, JsonConfig.Include include) {
+    this(server, generator, pathProperties, visitors, objectMapper, include, null);
+  }
+
+  /**
+   * Construct for full bean use with a shared cache of write plans.
+   */
+  public WriteJson(SpiEbeanServer server, JsonGenerator generator, PathProperties pathProperties,
+                   Map<String, JsonWriteBeanVisitor<?>> visitors, Object objectMapper, JsonConfig.Include include,
+                   WriteJsonPlanCache planCache) {
 
     this.server = server;
+    this.planCache = planCache;
+    this.pathPlans = new HashMap<String, WriteJsonPlan>();
     this.generator = generator;
     this.pathProperties = pathProperties;
     this.visitors = visitors;
@@ -66,6 +87,8 @@ public class WriteJson implements JsonWriter {
     this.objectMapper = null;
     this.parentBeans = null;
     this.pathStack = null;
+    this.planCache = null;
+    this.pathPlans = null;
   }
 
   /**
@@ -377,7 +400,7 @@ public class WriteJson implements JsonWriter {
     String path = pathStack.peekWithNull();
     JsonWriteBeanVisitor visitor = (visitors == null) ? null : visitors.get(path);
     if (pathProperties == null) {
-      return new WriteBean(desc, bean, visitor);
+      return new WriteBean(desc, false, null, bean, visitor, plan(desc, path, false, null));
     }
 
     boolean explicitAllProps = false;
@@ -388,7 +411,27 @@ public class WriteJson implements JsonWriter {
         currentIncludeProps = null;
       }
     }
-    return new WriteBean(desc, explicitAllProps, currentIncludeProps, bean, visitor);
+    return new WriteBean(desc, explicitAllProps, currentIncludeProps, bean, visitor, plan(desc, path, explicitAllProps, currentIncludeProps));
+  }
+
+  /**
+   * Return the write plan for the bean type at the given path.
+   */
+  private WriteJsonPlan plan(BeanDescriptor<?> desc, String path, boolean explicitAllProps, Set<String> includeProps) {
+    if (desc == null) {
+      return null;
+    }
+    WriteJsonPlan plan = pathPlans.get(path);
+    if (plan == null || plan.getDescriptor() != desc) {
+      // first bean at this path (or a different type with inheritance)
+      if (planCache != null) {
+        plan = planCache.get(desc, explicitAllProps, includeProps);
+      } else {
+        plan = new WriteJsonPlan(desc, explicitAllProps, includeProps);
+      }
+      pathPlans.put(path, plan);
+    }
+    return plan;
   }
 
   public void writeValueUsingObjectMapper(String name, Object value) {
@@ -425,72 +468,24 @@ public class WriteJson implements JsonWriter {
     final BeanDescriptor<?> desc;
     final EntityBean currentBean;
     final JsonWriteBeanVisitor visitor;
+    final WriteJsonPlan plan;
 
-    WriteBean(BeanDescriptor<?> desc, EntityBean currentBean, JsonWriteBeanVisitor visitor) {
-      this(desc, false, null, currentBean, visitor);
-    }
-
-    WriteBean(BeanDescriptor<?> desc, boolean explicitAllProps, Set<String> currentIncludeProps, EntityBean currentBean, JsonWriteBeanVisitor visitor) {
+    WriteBean(BeanDescriptor<?> desc, boolean explicitAllProps, Set<String> currentIncludeProps, EntityBean currentBean,
+              JsonWriteBeanVisitor visitor, WriteJsonPlan plan) {
       super();
       this.desc = desc;
       this.currentBean = currentBean;
       this.explicitAllProps = explicitAllProps;
       this.currentIncludeProps = currentIncludeProps;
       this.visitor = visitor;
-    }
-
-    private boolean isReferenceOnly() {
-      return !explicitAllProps && currentIncludeProps == null && currentBean._ebean_getIntercept().isReference();
-    }
-
-    private boolean isIncludeProperty(BeanProperty prop) {
-      if (explicitAllProps)
-        return true;
-      if (currentIncludeProps != null) {
-        // explicitly controlled by pathProperties
-        return currentIncludeProps.contains(prop.getName());
-      } else {
-        // include only loaded properties
-        return currentBean._ebean_getIntercept().isLoadedProperty(prop.getPropertyIndex());
-      }
-    }
-
-    private boolean isIncludeTransientProperty(BeanProperty prop) {
-      if (!explicitAllProps && currentIncludeProps != null) {
-        // explicitly controlled by pathProperties
-        return currentIncludeProps.contains(prop.getName());
-      } else {
-        // by default include transient properties
-        return true;
-      }
+      this.plan = plan;
     }
 
     @SuppressWarnings("unchecked")
     public void write(WriteJson writeJson) {
 
       try {
-        BeanProperty beanProp = desc.getIdProperty();
-        if (beanProp != null) {
-          if (isIncludeProperty(beanProp)) {
-            beanProp.jsonWrite(writeJson, currentBean);
-          }
-        }
-
-        if (!isReferenceOnly()) {
-          // render all the properties and invoke lazy loading if required
-          BeanProperty[] props = desc.propertiesNonTransient();
-          for (int j = 0; j < props.length; j++) {
-            if (isIncludeProperty(props[j])) {
-              props[j].jsonWrite(writeJson, currentBean);
-            }
-          }
-          props = desc.propertiesTransient();
-          for (int j = 0; j < props.length; j++) {
-            if (isIncludeTransientProperty(props[j])) {
-              props[j].jsonWrite(writeJson, currentBean);
-            }
-          }
-        }
+        plan.write(writeJson, currentBean);
 
         if (visitor != null) {
           visitor.visit(currentBean, writeJson);
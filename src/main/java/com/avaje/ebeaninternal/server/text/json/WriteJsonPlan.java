@@ -0,0 +1,123 @@
+package com.avaje.ebeaninternal.server.text.json;
+
+import com.avaje.ebean.bean.EntityBean;
+import com.avaje.ebean.bean.EntityBeanIntercept;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The properties to write as JSON for a bean type given the included properties of a path.
+ * <p>
+ * The properties are determined once (rather than checking the included properties for each
+ * property of each bean) and the plan is then used to write all the beans at that path.
+ * </p>
+ */
+final class WriteJsonPlan {
+
+  private final BeanDescriptor<?> desc;
+
+  /**
+   * When true properties are only written if they are loaded (no explicit properties).
+   */
+  private final boolean loadedOnly;
+
+  /**
+   * The Id property or null if it is not included.
+   */
+  private final BeanProperty idProperty;
+
+  /**
+   * The included non-transient properties.
+   */
+  private final BeanProperty[] properties;
+
+  /**
+   * The property indexes of the non-transient properties (for the loaded check).
+   */
+  private final int[] propertyIndexes;
+
+  /**
+   * The included transient properties.
+   */
+  private final BeanProperty[] transientProperties;
+
+  /**
+   * Create the plan for the bean type.
+   *
+   * @param explicitAllProps true if "*" was used to include all properties
+   * @param includeProps     the explicitly included properties or null to include loaded properties
+   */
+  WriteJsonPlan(BeanDescriptor<?> desc, boolean explicitAllProps, Set<String> includeProps) {
+    this.desc = desc;
+    this.loadedOnly = !explicitAllProps && includeProps == null;
+
+    BeanProperty id = desc.getIdProperty();
+    boolean includeId = id != null && (includeProps == null || includeProps.contains(id.getName()));
+    this.idProperty = includeId ? id : null;
+
+    this.properties = filter(desc.propertiesNonTransient(), includeProps);
+    this.transientProperties = filter(desc.propertiesTransient(), includeProps);
+    this.propertyIndexes = new int[properties.length];
+    for (int i = 0; i < properties.length; i++) {
+      propertyIndexes[i] = properties[i].getPropertyIndex();
+    }
+  }
+
+  /**
+   * Return the included properties that are serialised to JSON.
+   */
+  private static BeanProperty[] filter(BeanProperty[] props, Set<String> includeProps) {
+    List<BeanProperty> list = new ArrayList<BeanProperty>(props.length);
+    for (BeanProperty prop : props) {
+      if (prop.isJsonSerialize() && (includeProps == null || includeProps.contains(prop.getName()))) {
+        list.add(prop);
+      }
+    }
+    return list.toArray(new BeanProperty[list.size()]);
+  }
+
+  /**
+   * Return the bean type this plan is for.
+   */
+  BeanDescriptor<?> getDescriptor() {
+    return desc;
+  }
+
+  /**
+   * Write the properties of the bean.
+   */
+  void write(WriteJson writeJson, EntityBean bean) throws IOException {
+
+    if (!loadedOnly) {
+      if (idProperty != null) {
+        idProperty.jsonWrite(writeJson, bean);
+      }
+      for (BeanProperty property : properties) {
+        property.jsonWrite(writeJson, bean);
+      }
+    } else {
+      EntityBeanIntercept ebi = bean._ebean_getIntercept();
+      if (idProperty != null && ebi.isLoadedProperty(idProperty.getPropertyIndex())) {
+        idProperty.jsonWrite(writeJson, bean);
+      }
+      if (ebi.isReference()) {
+        // only the Id of a reference bean
+        return;
+      }
+      for (int i = 0; i < properties.length; i++) {
+        if (ebi.isLoadedProperty(propertyIndexes[i])) {
+          properties[i].jsonWrite(writeJson, bean);
+        }
+      }
+    }
+
+    for (BeanProperty property : transientProperties) {
+      property.jsonWrite(writeJson, bean);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.avaje.ebeaninternal.server.text.json;
+
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the JSON write plans by bean type and included properties.
+ * <p>
+ * Shared by all the JSON writes of the server such that the plans are only determined once.
+ * </p>
+ */
+public final class WriteJsonPlanCache {
+
+  /**
+   * Maximum number of plans cached (dynamically built PathProperties are not all cached).
+   */
+  private static final int MAX_SIZE = 1000;
+
+  private final ConcurrentHashMap<Key, WriteJsonPlan> plans = new ConcurrentHashMap<Key, WriteJsonPlan>();
+
+  /**
+   * Return the plan for the bean type and included properties.
+   */
+  WriteJsonPlan get(BeanDescriptor<?> desc, boolean explicitAllProps, Set<String> includeProps) {
+
+    Key key = new Key(desc, explicitAllProps, includeProps);
+    WriteJsonPlan plan = plans.get(key);
+    if (plan == null) {
+      plan = new WriteJsonPlan(desc, explicitAllProps, includeProps);
+      if (plans.size() < MAX_SIZE) {
+        // copy the included properties as the key is held by the cache
+        Set<String> props = (includeProps == null) ? null : new HashSet<String>(includeProps);
+        plans.put(new Key(desc, explicitAllProps, props), plan);
+      }
+    }
+    return plan;
+  }
+
+  /**
+   * Return the number of plans cached.
+   */
+  int size() {
+    return plans.size();
+  }
+
+  private static final class Key {
+
+    private final BeanDescriptor<?> desc;
+
+    private final boolean explicitAllProps;
+
+    private final Set<String> includeProps;
+
+    private final int hash;
+
+    Key(BeanDescriptor<?> desc, boolean explicitAllProps, Set<String> includeProps) {
+      this.desc = desc;
+      this.explicitAllProps = explicitAllProps;
+      this.includeProps = includeProps;
+      int h = desc.hashCode();
+      h = 31 * h + (explicitAllProps ? 1 : 0);
+      h = 31 * h + (includeProps == null ? 0 : includeProps.hashCode());
+      this.hash = h;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return desc == other.desc
+          && explicitAllProps == other.explicitAllProps
+          && (includeProps == null ? other.includeProps == null : includeProps.equals(other.includeProps));
+    }
+  }
+}
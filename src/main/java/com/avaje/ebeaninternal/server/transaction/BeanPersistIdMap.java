@@ -36,6 +36,13 @@ public final class BeanPersistIdMap {
     r.addId(type, (Serializable) id);
   }
 
+  /**
+   * Merge the Ids of the other into this (merging the events of multiple transactions).
+   */
+  public void addAll(BeanPersistIds other) {
+    getPersistIds(other.getBeanDescriptor()).addAll(other);
+  }
+
   private BeanPersistIds getPersistIds(BeanDescriptor<?> desc) {
     String beanType = desc.getFullName();
     BeanPersistIds r = beanMap.get(beanType);
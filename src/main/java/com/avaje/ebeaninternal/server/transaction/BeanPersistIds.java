@@ -2,6 +2,7 @@ package com.avaje.ebeaninternal.server.transaction;
 
 import com.avaje.ebean.event.BeanPersistListener;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.server.cache.QueryCacheInvalidation;
 import com.avaje.ebeaninternal.server.cluster.BinaryMessage;
 import com.avaje.ebeaninternal.server.cluster.BinaryMessageList;
 import com.avaje.ebeaninternal.server.core.PersistRequest;
@@ -174,6 +175,28 @@ public class BeanPersistIds implements Serializable {
     return sb.toString();
   }
 
+  /**
+   * Add all the Ids of the other (for the same bean type) merging the events of
+   * multiple transactions.
+   */
+  public void addAll(BeanPersistIds other) {
+    if (other.insertIds != null) {
+      for (int i = 0; i < other.insertIds.size(); i++) {
+        addInsertId(other.insertIds.get(i));
+      }
+    }
+    if (other.updateIds != null) {
+      for (int i = 0; i < other.updateIds.size(); i++) {
+        addUpdateId(other.updateIds.get(i));
+      }
+    }
+    if (other.deleteIds != null) {
+      for (int i = 0; i < other.deleteIds.size(); i++) {
+        addDeleteId(other.deleteIds.get(i));
+      }
+    }
+  }
+
   public void addId(PersistRequest.Type type, Serializable id) {
     switch (type) {
       case INSERT:
@@ -233,8 +256,17 @@ public class BeanPersistIds implements Serializable {
 
     BeanPersistListener listener = beanDescriptor.getPersistListener();
 
-    // any change invalidates the query cache
-    beanDescriptor.queryCacheClear();
+    if (insertIds != null) {
+      // inserts can change the membership of any cached query
+      beanDescriptor.queryCacheClear(QueryCacheInvalidation.INSERT);
+    } else if (deleteIds != null) {
+      beanDescriptor.queryCacheClear(QueryCacheInvalidation.DELETE);
+    } else if (updateIds != null) {
+      // the updated properties are not known
+      for (int i = 0; i < updateIds.size(); i++) {
+        beanDescriptor.queryCacheUpdate(updateIds.get(i), null);
+      }
+    }
 
     if (insertIds != null) {
       if (listener != null) {
@@ -0,0 +1,137 @@
+package com.avaje.ebeaninternal.server.transaction;
+
+import com.avaje.ebean.bean.PersistenceContext;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PersistenceContext implementation for concurrent use.
+ * <p>
+ * Unlike DefaultPersistenceContext there is no single monitor. The beans are held by
+ * root bean type in ConcurrentHashMaps such that concurrent loading (for example parallel
+ * secondary queries or lazy loading in background threads) into the same persistence
+ * context does not contend on a lock.
+ * </p>
+ *
+ * @see com.avaje.ebean.config.ServerConfig#setConcurrentPersistenceContext(boolean)
+ */
+public final class ConcurrentPersistenceContext implements PersistenceContext {
+
+  /**
+   * Map of the ClassContext by root bean type.
+   */
+  private final ConcurrentHashMap<Class<?>, ClassContext> typeCache = new ConcurrentHashMap<Class<?>, ClassContext>();
+
+  /**
+   * Create a new PersistenceContext.
+   */
+  public ConcurrentPersistenceContext() {
+  }
+
+  public void put(Object id, Object bean) {
+    getClassContext(bean.getClass()).map.put(id, bean);
+  }
+
+  public Object putIfAbsent(Object id, Object bean) {
+    return getClassContext(bean.getClass()).map.putIfAbsent(id, bean);
+  }
+
+  public Object get(Class<?> beanType, Object id) {
+    ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
+    return classMap == null ? null : classMap.map.get(id);
+  }
+
+  public WithOption getWithOption(Class<?> beanType, Object id) {
+    ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
+    return classMap == null ? null : classMap.getWithOption(id);
+  }
+
+  public int size(Class<?> beanType) {
+    ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
+    return classMap == null ? 0 : classMap.map.size();
+  }
+
+  public void clear() {
+    typeCache.clear();
+  }
+
+  public void clear(Class<?> beanType) {
+    ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
+    if (classMap != null) {
+      classMap.map.clear();
+    }
+  }
+
+  public void deleted(Class<?> beanType, Object id) {
+    ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
+    if (classMap != null && id != null) {
+      classMap.deleted(id);
+    }
+  }
+
+  public void clear(Class<?> beanType, Object id) {
+    ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
+    if (classMap != null && id != null) {
+      classMap.map.remove(id);
+    }
+  }
+
+  public String toString() {
+    return typeCache.toString();
+  }
+
+  private ClassContext getClassContext(Class<?> beanType) {
+
+    Class<?> rootType = PersistenceContextTypes.rootType(beanType);
+    ClassContext classMap = typeCache.get(rootType);
+    if (classMap == null) {
+      classMap = new ClassContext();
+      ClassContext existing = typeCache.putIfAbsent(rootType, classMap);
+      if (existing != null) {
+        return existing;
+      }
+    }
+    return classMap;
+  }
+
+  private static class ClassContext {
+
+    private final ConcurrentHashMap<Object, Object> map = new ConcurrentHashMap<Object, Object>();
+
+    private volatile Set<Object> deleteSet;
+
+    private ClassContext() {
+    }
+
+    public String toString() {
+      return "size:" + map.size();
+    }
+
+    private WithOption getWithOption(Object id) {
+      Set<Object> deleted = deleteSet;
+      if (deleted != null && deleted.contains(id)) {
+        return WithOption.DELETED;
+      }
+      Object bean = map.get(id);
+      return (bean == null) ? null : new WithOption(bean);
+    }
+
+    private void deleted(Object id) {
+      Set<Object> deleted = deleteSet;
+      if (deleted == null) {
+        synchronized (this) {
+          deleted = deleteSet;
+          if (deleted == null) {
+            deleted = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+            deleteSet = deleted;
+          }
+        }
+      }
+      deleted.add(id);
+      map.remove(id);
+    }
+  }
+
+}
@@ -3,7 +3,6 @@ package com.avaje.ebeaninternal.server.transaction;
 import com.avaje.ebean.bean.PersistenceContext;
 import com.avaje.ebeaninternal.api.Monitor;
 
-import javax.persistence.Entity;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -29,9 +28,16 @@ import java.util.Set;
 public final class DefaultPersistenceContext implements PersistenceContext {
 
   /**
-   * Map used hold caches. One cache per bean type.
+   * Map used hold caches. One cache per root bean type.
    */
-  private final HashMap<String, ClassContext> typeCache = new HashMap<String, ClassContext>();
+  private final HashMap<Class<?>, ClassContext> typeCache = new HashMap<Class<?>, ClassContext>();
+
+  /**
+   * The bean type and ClassContext last used (as typically the same type is used repeatedly).
+   */
+  private Class<?> lastType;
+
+  private ClassContext lastContext;
 
   private final Monitor monitor = new Monitor();
 
@@ -76,7 +82,7 @@ public final class DefaultPersistenceContext implements PersistenceContext {
    */
   public int size(Class<?> beanType) {
     synchronized (monitor) {
-      ClassContext classMap = typeCache.get(beanType.getName());
+      ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
       return classMap == null ? 0 : classMap.size();
     }
   }
@@ -87,12 +93,14 @@ public final class DefaultPersistenceContext implements PersistenceContext {
   public void clear() {
     synchronized (monitor) {
       typeCache.clear();
+      lastType = null;
+      lastContext = null;
     }
   }
 
   public void clear(Class<?> beanType) {
     synchronized (monitor) {
-      ClassContext classMap = typeCache.get(beanType.getName());
+      ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
       if (classMap != null) {
         classMap.clear();
       }
@@ -101,7 +109,7 @@ public final class DefaultPersistenceContext implements PersistenceContext {
 
   public void deleted(Class<?> beanType, Object id) {
     synchronized (monitor) {
-      ClassContext classMap = typeCache.get(beanType.getName());
+      ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
       if (classMap != null && id != null) {
         classMap.deleted(id);
       }
@@ -110,7 +118,7 @@ public final class DefaultPersistenceContext implements PersistenceContext {
 
   public void clear(Class<?> beanType, Object id) {
     synchronized (monitor) {
-      ClassContext classMap = typeCache.get(beanType.getName());
+      ClassContext classMap = typeCache.get(PersistenceContextTypes.rootType(beanType));
       if (classMap != null && id != null) {
         classMap.remove(id);
       }
@@ -125,25 +133,20 @@ public final class DefaultPersistenceContext implements PersistenceContext {
 
   private ClassContext getClassContext(Class<?> beanType) {
 
-    String clsName = getBeanBaseType(beanType).getName();
-    ClassContext classMap = typeCache.get(clsName);
+    if (beanType == lastType) {
+      return lastContext;
+    }
+    Class<?> rootType = PersistenceContextTypes.rootType(beanType);
+    ClassContext classMap = typeCache.get(rootType);
     if (classMap == null) {
       classMap = new ClassContext();
-      typeCache.put(clsName, classMap);
+      typeCache.put(rootType, classMap);
     }
+    lastType = beanType;
+    lastContext = classMap;
     return classMap;
   }
 
-  private Class<?> getBeanBaseType(Class<?> beanType) {
-    Class<?> parent = beanType.getSuperclass();
-
-    while (parent != null && parent.isAnnotationPresent(Entity.class)) {
-      beanType = parent;
-      parent = parent.getSuperclass();
-    }
-    return beanType;
-  }
-
   private static class ClassContext {
 
     private final Map<Object, Object> map = new HashMap<Object, Object>();
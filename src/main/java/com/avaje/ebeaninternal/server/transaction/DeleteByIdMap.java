@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.server.transaction;
 
+import com.avaje.ebeaninternal.server.cache.QueryCacheInvalidation;
 import com.avaje.ebeaninternal.server.core.PersistRequest;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 
@@ -25,7 +26,7 @@ public final class DeleteByIdMap {
       BeanDescriptor<?> d = deleteIds.getBeanDescriptor();
       List<Serializable> idValues = deleteIds.getDeleteIds();
       if (idValues != null) {
-        d.queryCacheClear();
+        d.queryCacheClear(QueryCacheInvalidation.DELETE);
         for (int i = 0; i < idValues.size(); i++) {
           d.cacheBeanRemove(idValues.get(i));
         }
@@ -62,6 +63,13 @@ public final class DeleteByIdMap {
     }
   }
 
+  /**
+   * Merge the Ids of the other into this (merging the events of multiple transactions).
+   */
+  public void addAll(BeanPersistIds other) {
+    getPersistIds(other.getBeanDescriptor()).addAll(other);
+  }
+
   private BeanPersistIds getPersistIds(BeanDescriptor<?> desc) {
     String beanType = desc.getFullName();
     BeanPersistIds r = beanMap.get(beanType);
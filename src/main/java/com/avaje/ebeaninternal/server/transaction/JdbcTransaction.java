@@ -156,7 +156,7 @@ public class JdbcTransaction implements SpiTransaction {
       this.batchMode = manager == null ? PersistBatch.NONE : manager.getPersistBatch();
       this.batchOnCascadeMode = manager == null ? PersistBatch.NONE : manager.getPersistBatchOnCascade();
       this.onQueryOnly = manager == null ? OnQueryOnly.ROLLBACK : manager.getOnQueryOnly();
-      this.persistenceContext = new DefaultPersistenceContext();
+      this.persistenceContext = manager == null ? new DefaultPersistenceContext() : manager.createPersistenceContext();
 
       checkAutoCommit(connection);
 
@@ -0,0 +1,42 @@
+package com.avaje.ebeaninternal.server.transaction;
+
+import javax.persistence.Entity;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps bean types to the root bean type of their inheritance hierarchy.
+ * <p>
+ * Beans in an inheritance hierarchy share the same id space so are held in the persistence
+ * context by the root type. The mapping is cached rather than walking the super classes
+ * checking for the Entity annotation on every persistence context access.
+ * </p>
+ */
+final class PersistenceContextTypes {
+
+  private static final ConcurrentHashMap<Class<?>, Class<?>> rootTypes = new ConcurrentHashMap<Class<?>, Class<?>>();
+
+  private PersistenceContextTypes() {
+  }
+
+  /**
+   * Return the root bean type for the given bean type.
+   */
+  static Class<?> rootType(Class<?> beanType) {
+    Class<?> rootType = rootTypes.get(beanType);
+    if (rootType == null) {
+      rootType = findRootType(beanType);
+      rootTypes.put(beanType, rootType);
+    }
+    return rootType;
+  }
+
+  private static Class<?> findRootType(Class<?> beanType) {
+    Class<?> parent = beanType.getSuperclass();
+
+    while (parent != null && parent.isAnnotationPresent(Entity.class)) {
+      beanType = parent;
+      parent = parent.getSuperclass();
+    }
+    return beanType;
+  }
+}
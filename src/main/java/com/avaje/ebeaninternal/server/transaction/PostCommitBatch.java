@@ -0,0 +1,171 @@
+package com.avaje.ebeaninternal.server.transaction;
+
+import com.avaje.ebean.BackgroundExecutor;
+import com.avaje.ebeaninternal.api.TransactionEventTable;
+import com.avaje.ebeaninternal.api.TransactionEventTable.TableIUD;
+import com.avaje.ebeaninternal.server.cluster.ClusterManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges the post commit processing of the transactions committed within a short window.
+ * <p>
+ * Rather than each transaction broadcasting its own RemoteTransactionEvent and executing its own
+ * background task to notify the BeanPersistListeners, the transactions are collected and processed
+ * together. The table events and bean Ids are merged per table and bean type such that a single
+ * RemoteTransactionEvent is broadcast (and the other members clear each query cache once).
+ * </p>
+ * <p>
+ * A batch is processed when the window elapses or when the maximum number of transactions are
+ * pending. Batches are processed in commit order.
+ * </p>
+ */
+public final class PostCommitBatch {
+
+  private static final Logger logger = LoggerFactory.getLogger(PostCommitBatch.class);
+
+  private final ClusterManager clusterManager;
+
+  private final String serverName;
+
+  private final BackgroundExecutor backgroundExecutor;
+
+  private final int maxSize;
+
+  private final Runnable flushTask = new Runnable() {
+    public void run() {
+      flush();
+    }
+  };
+
+  /**
+   * Used to process the batches one at a time (in order).
+   */
+  private final Object flushLock = new Object();
+
+  private List<PostCommitProcessing> pending;
+
+  private boolean flushQueued;
+
+  /**
+   * Create with the window in millis and maximum number of transactions per batch.
+   */
+  public PostCommitBatch(ClusterManager clusterManager, String serverName, BackgroundExecutor backgroundExecutor,
+                         int batchMillis, int maxSize) {
+
+    this.clusterManager = clusterManager;
+    this.serverName = serverName;
+    this.backgroundExecutor = backgroundExecutor;
+    this.maxSize = Math.max(1, maxSize);
+    this.pending = new ArrayList<PostCommitProcessing>(this.maxSize);
+    backgroundExecutor.executePeriodically(flushTask, batchMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Add the post commit processing of a transaction to the batch.
+   */
+  public void add(PostCommitProcessing postCommit) {
+
+    boolean queueFlush;
+    synchronized (this) {
+      pending.add(postCommit);
+      queueFlush = !flushQueued && pending.size() >= maxSize;
+      if (queueFlush) {
+        flushQueued = true;
+      }
+    }
+    if (queueFlush) {
+      // full so process without waiting for the window
+      backgroundExecutor.execute(flushTask);
+    }
+  }
+
+  /**
+   * Process the pending transactions.
+   */
+  public void flush() {
+
+    synchronized (flushLock) {
+      List<PostCommitProcessing> batch;
+      synchronized (this) {
+        flushQueued = false;
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = pending;
+        pending = new ArrayList<PostCommitProcessing>(maxSize);
+      }
+      process(batch);
+    }
+  }
+
+  private void process(List<PostCommitProcessing> batch) {
+
+    for (int i = 0; i < batch.size(); i++) {
+      try {
+        batch.get(i).localPersistListenersNotify();
+      } catch (Exception e) {
+        logger.error("Error notifying persist listeners", e);
+      }
+    }
+
+    if (clusterManager.isClustering()) {
+      RemoteTransactionEvent remoteTransactionEvent = createRemoteTransactionEvent(batch);
+      if (!remoteTransactionEvent.isEmpty()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Cluster Send: {} transactions {}", batch.size(), remoteTransactionEvent);
+        }
+        clusterManager.broadcast(remoteTransactionEvent);
+      }
+    }
+  }
+
+  /**
+   * Return a RemoteTransactionEvent with the events of the transactions merged per table and bean type.
+   */
+  RemoteTransactionEvent createRemoteTransactionEvent(List<PostCommitProcessing> batch) {
+
+    BeanPersistIdMap beanPersistIdMap = new BeanPersistIdMap();
+    DeleteByIdMap deleteByIdMap = new DeleteByIdMap();
+    TransactionEventTable eventTables = new TransactionEventTable();
+
+    for (int i = 0; i < batch.size(); i++) {
+      PostCommitProcessing postCommit = batch.get(i);
+      BeanPersistIdMap persistIds = postCommit.getBeanPersistIdMap();
+      if (persistIds != null) {
+        for (BeanPersistIds beanPersist : persistIds.values()) {
+          beanPersistIdMap.addAll(beanPersist);
+        }
+      }
+      DeleteByIdMap deleteIds = postCommit.getDeleteByIdMap();
+      if (deleteIds != null) {
+        for (BeanPersistIds beanPersist : deleteIds.values()) {
+          deleteByIdMap.addAll(beanPersist);
+        }
+      }
+      TransactionEventTable tables = postCommit.getEventTables();
+      if (tables != null) {
+        for (TableIUD tableIUD : tables.values()) {
+          // copy as the merge modifies the TableIUD added
+          eventTables.add(new TableIUD(tableIUD.getTableName(), tableIUD.isInsert(), tableIUD.isUpdate(), tableIUD.isDelete()));
+        }
+      }
+    }
+
+    RemoteTransactionEvent remoteTransactionEvent = new RemoteTransactionEvent(serverName);
+    for (BeanPersistIds beanPersist : beanPersistIdMap.values()) {
+      remoteTransactionEvent.addBeanPersistIds(beanPersist);
+    }
+    if (!deleteByIdMap.isEmpty()) {
+      remoteTransactionEvent.setDeleteByIdMap(deleteByIdMap);
+    }
+    for (TableIUD tableIUD : eventTables.values()) {
+      remoteTransactionEvent.addTableIUD(tableIUD);
+    }
+    return remoteTransactionEvent;
+  }
+}
@@ -9,7 +9,9 @@ import com.avaje.ebeaninternal.server.deploy.BeanDescriptorManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Performs post commit processing using a background thread.
@@ -33,8 +35,6 @@ public final class PostCommitProcessing {
 
   private final BeanPersistIdMap beanPersistIdMap;
 
-  private final RemoteTransactionEvent remoteTransactionEvent;
-
   private final DeleteByIdMap deleteByIdMap;
 
   /**
@@ -49,7 +49,6 @@ public final class PostCommitProcessing {
     this.deleteByIdMap = event.getDeleteByIdMap();
     this.persistBeanRequests = event.getPersistRequestBeans();
     this.beanPersistIdMap = createBeanPersistIdMap();
-    this.remoteTransactionEvent = createRemoteTransactionEvent();
   }
 
   public void notifyLocalCacheIndex() {
@@ -59,6 +58,25 @@ public final class PostCommitProcessing {
 
     // notify cache with bean changes
     event.notifyCache();
+
+    // query cache entries of other bean types that join to the modified tables
+    manager.getBeanDescriptorManager().queryCacheJoinedTables(changedTables());
+  }
+
+  /**
+   * Return the (lower case) tables modified by the transaction.
+   */
+  private Set<String> changedTables() {
+
+    Set<String> tables = event.getChangedTables();
+    TransactionEventTable tableEvents = event.getEventTables();
+    if (tableEvents != null && !tableEvents.isEmpty()) {
+      tables = (tables == null) ? new HashSet<String>() : tables;
+      for (TableIUD tableIUD : tableEvents.values()) {
+        tables.add(tableIUD.getTableName().toLowerCase());
+      }
+    }
+    return tables;
   }
 
   /**
@@ -77,6 +95,7 @@ public final class PostCommitProcessing {
   }
 
   public void notifyCluster() {
+    RemoteTransactionEvent remoteTransactionEvent = createRemoteTransactionEvent();
     if (remoteTransactionEvent != null && !remoteTransactionEvent.isEmpty()) {
       // send the interesting events to the cluster
       if (logger.isDebugEnabled()) {
@@ -95,7 +114,28 @@ public final class PostCommitProcessing {
     };
   }
 
-  private void localPersistListenersNotify() {
+  /**
+   * Return the bean persist Ids (for merging into a PostCommitBatch).
+   */
+  BeanPersistIdMap getBeanPersistIdMap() {
+    return beanPersistIdMap;
+  }
+
+  /**
+   * Return the beans deleted by Id (for merging into a PostCommitBatch).
+   */
+  DeleteByIdMap getDeleteByIdMap() {
+    return deleteByIdMap;
+  }
+
+  /**
+   * Return the bulk table events (for merging into a PostCommitBatch).
+   */
+  TransactionEventTable getEventTables() {
+    return event.getEventTables();
+  }
+
+  void localPersistListenersNotify() {
     if (persistBeanRequests != null) {
       for (int i = 0; i < persistBeanRequests.size(); i++) {
         persistBeanRequests.get(i).notifyLocalPersistListener();
@@ -1,6 +1,7 @@
 package com.avaje.ebeaninternal.server.transaction;
 
 import com.avaje.ebean.BackgroundExecutor;
+import com.avaje.ebean.bean.PersistenceContext;
 import com.avaje.ebean.config.PersistBatch;
 import com.avaje.ebean.config.ServerConfig;
 import com.avaje.ebean.config.dbplatform.DatabasePlatform.OnQueryOnly;
@@ -24,7 +25,9 @@ import javax.persistence.PersistenceException;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -72,6 +75,8 @@ public class TransactionManager {
 
   protected final PersistBatch persistBatch;
 
+  protected final boolean concurrentPersistenceContext;
+
   protected final PersistBatch persistBatchOnCascade;
 
   /**
@@ -94,6 +99,11 @@ public class TransactionManager {
    */
   private final ChangeLogListener changeLogListener;
 
+  /**
+   * Merges the post commit processing of transactions (null when not batching).
+   */
+  private final PostCommitBatch postCommitBatch;
+
   /**
    * Create the TransactionManager
    */
@@ -101,6 +111,7 @@ public class TransactionManager {
                             BeanDescriptorManager descMgr, BootupClasses bootupClasses) {
 
     this.persistBatch = config.getPersistBatch();
+    this.concurrentPersistenceContext = config.isConcurrentPersistenceContext();
     this.persistBatchOnCascade = config.appliedPersistBatchOnCascade();
     this.beanDescriptorManager = descMgr;
     this.changeLogPrepare = descMgr.getChangeLogPrepare();
@@ -120,6 +131,10 @@ public class TransactionManager {
 
     this.onQueryOnly = initOnQueryOnly(config.getDatabasePlatform().getOnQueryOnly(), dataSource);
 
+    int postCommitBatchMillis = config.getPostCommitBatchMillis();
+    this.postCommitBatch = (postCommitBatchMillis <= 0) ? null
+        : new PostCommitBatch(clusterManager, serverName, backgroundExecutor, postCommitBatchMillis, config.getPostCommitBatchSize());
+
     initialiseHeartbeat();
   }
 
@@ -131,6 +146,10 @@ public class TransactionManager {
   }
 
   public void shutdown(boolean shutdownDataSource, boolean deregisterDriver) {
+    if (postCommitBatch != null) {
+      // process the remaining post commit events
+      postCommitBatch.flush();
+    }
     if (shutdownDataSource && (dataSource instanceof DataSourcePool)) {
       ((DataSourcePool) dataSource).shutdown(deregisterDriver);
     }
@@ -144,6 +163,13 @@ public class TransactionManager {
     return bulkEventListenerMap;
   }
 
+  /**
+   * Create a new PersistenceContext for a transaction.
+   */
+  public PersistenceContext createPersistenceContext() {
+    return concurrentPersistenceContext ? new ConcurrentPersistenceContext() : new DefaultPersistenceContext();
+  }
+
   public PersistBatch getPersistBatch() {
     return persistBatch;
   }
@@ -394,10 +420,14 @@ public class TransactionManager {
       PostCommitProcessing postCommit = new PostCommitProcessing(clusterManager, this, transaction.getEvent());
 
       postCommit.notifyLocalCacheIndex();
-      postCommit.notifyCluster();
-
-      // cluster and text indexing
-      backgroundExecutor.execute(postCommit.notifyPersistListeners());
+      if (postCommitBatch != null) {
+        // cluster and persist listeners merged with other transactions
+        postCommitBatch.add(postCommit);
+      } else {
+        postCommit.notifyCluster();
+        // cluster and text indexing
+        backgroundExecutor.execute(postCommit.notifyPersistListeners());
+      }
 
       for (TransactionEventListener listener : transactionEventListeners) {
         listener.postTransactionCommit(transaction);
@@ -437,11 +467,14 @@ public class TransactionManager {
       logger.debug("Cluster Received: " + remoteEvent.toString());
     }
 
+    Set<String> changedTables = new HashSet<String>();
+
     List<TableIUD> tableIUDList = remoteEvent.getTableIUDList();
     if (tableIUDList != null) {
       for (int i = 0; i < tableIUDList.size(); i++) {
         TableIUD tableIUD = tableIUDList.get(i);
         beanDescriptorManager.cacheNotify(tableIUD);
+        changedTables.add(tableIUD.getTableName().toLowerCase());
       }
     }
 
@@ -450,8 +483,15 @@ public class TransactionManager {
       for (int i = 0; i < beanPersistList.size(); i++) {
         BeanPersistIds beanPersist = beanPersistList.get(i);
         beanPersist.notifyCacheAndListener();
+        String baseTable = beanPersist.getBeanDescriptor().getBaseTable();
+        if (baseTable != null) {
+          changedTables.add(baseTable.toLowerCase());
+        }
       }
     }
+
+    // query cache entries of other bean types that join to the modified tables
+    beanDescriptorManager.queryCacheJoinedTables(changedTables);
   }
 
   /**
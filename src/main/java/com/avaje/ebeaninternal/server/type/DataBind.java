@@ -1,27 +1,22 @@
 package com.avaje.ebeaninternal.server.type;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.io.Reader;
-import java.io.StringReader;
 import java.math.BigDecimal;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
 
-public class DataBind {
-
-  private final PreparedStatement pstmt;
+/**
+ * Binds values (in their JDBC form) in order.
+ * <p>
+ * The ScalarTypes bind to this. The values are bound to a PreparedStatement (see
+ * {@link StatementDataBind}) or captured into a row for bulk and multi-row insert.
+ * </p>
+ */
+public abstract class DataBind {
 
   private final StringBuilder bindLog = new StringBuilder();
 
-  private int pos;
-
-  public DataBind(PreparedStatement pstmt) {
-    this.pstmt = pstmt;
-  }
-
   /**
    * Append an entry to the bind log.
    */
@@ -37,112 +32,52 @@ public class DataBind {
   }
 
   /**
-   * Close the underlying prepared statement.
+   * Return the position of the last bound value.
    */
-  public void close() throws SQLException {
-    pstmt.close();
-  }
+  public abstract int currentPos();
 
-  public int currentPos() {
-    return pos;
-  }
+  public abstract void setObject(Object value) throws SQLException;
 
-  public void setObject(Object value) throws SQLException {
-    pstmt.setObject(++pos, value);
-  }
+  public abstract void setObject(Object value, int sqlType) throws SQLException;
 
-  public void setObject(Object value, int sqlType) throws SQLException {
-    pstmt.setObject(++pos, value, sqlType);
-  }
-
-  public void setNull(int jdbcType) throws SQLException {
-    pstmt.setNull(++pos, jdbcType);
-  }
-
-  public int nextPos() {
-    return ++pos;
-  }
-
-  public void decrementPos() {
-    --pos;
-  }
-
-  public int executeUpdate() throws SQLException {
-    return pstmt.executeUpdate();
-  }
-
-  public PreparedStatement getPstmt() {
-    return pstmt;
-  }
+  /**
+   * Bind the elements as a java.sql.Array of the given database type.
+   */
+  public abstract void setArray(String typeName, Object[] elements) throws SQLException;
 
-  public void setString(String s) throws SQLException {
-    pstmt.setString(++pos, s);
-  }
+  public abstract void setNull(int jdbcType) throws SQLException;
 
-  public void setInt(int i) throws SQLException {
-    pstmt.setInt(++pos, i);
-  }
+  public abstract void setString(String s) throws SQLException;
 
-  public void setLong(long i) throws SQLException {
-    pstmt.setLong(++pos, i);
-  }
+  public abstract void setInt(int i) throws SQLException;
 
-  public void setShort(short i) throws SQLException {
-    pstmt.setShort(++pos, i);
-  }
+  public abstract void setLong(long i) throws SQLException;
 
-  public void setFloat(float i) throws SQLException {
-    pstmt.setFloat(++pos, i);
-  }
+  public abstract void setShort(short i) throws SQLException;
 
-  public void setDouble(double i) throws SQLException {
-    pstmt.setDouble(++pos, i);
-  }
+  public abstract void setFloat(float i) throws SQLException;
 
-  public void setBigDecimal(BigDecimal v) throws SQLException {
-    pstmt.setBigDecimal(++pos, v);
-  }
+  public abstract void setDouble(double i) throws SQLException;
 
-  public void setDate(java.sql.Date v) throws SQLException {
-    pstmt.setDate(++pos, v);
-  }
+  public abstract void setBigDecimal(BigDecimal v) throws SQLException;
 
-  public void setTimestamp(Timestamp v) throws SQLException {
-    pstmt.setTimestamp(++pos, v);
-  }
+  public abstract void setDate(java.sql.Date v) throws SQLException;
 
-  public void setTime(Time v) throws SQLException {
-    pstmt.setTime(++pos, v);
-  }
+  public abstract void setTimestamp(Timestamp v) throws SQLException;
 
-  public void setBoolean(boolean v) throws SQLException {
-    pstmt.setBoolean(++pos, v);
-  }
+  public abstract void setTime(Time v) throws SQLException;
 
-  public void setBytes(byte[] v) throws SQLException {
-    pstmt.setBytes(++pos, v);
-  }
+  public abstract void setBoolean(boolean v) throws SQLException;
 
-  public void setByte(byte v) throws SQLException {
-    pstmt.setByte(++pos, v);
-  }
+  public abstract void setBytes(byte[] v) throws SQLException;
 
-  public void setChar(char v) throws SQLException {
-    pstmt.setString(++pos, String.valueOf(v));
-  }
+  public abstract void setByte(byte v) throws SQLException;
 
-  public void setBinaryStream(InputStream inputStream, long length) throws SQLException {
-    pstmt.setBinaryStream(++pos, inputStream, length);
-  }
+  public abstract void setChar(char v) throws SQLException;
 
-  public void setBlob(byte[] bytes) throws SQLException {
-    ByteArrayInputStream is = new ByteArrayInputStream(bytes);
-    pstmt.setBinaryStream(++pos, is, bytes.length);
-  }
+  public abstract void setBinaryStream(InputStream inputStream, long length) throws SQLException;
 
-  public void setClob(String content) throws SQLException {
-    Reader reader = new StringReader(content);
-    pstmt.setCharacterStream(++pos, reader, content.length());
-  }
+  public abstract void setBlob(byte[] bytes) throws SQLException;
 
-}
\ No newline at end of file
+  public abstract void setClob(String content) throws SQLException;
+}
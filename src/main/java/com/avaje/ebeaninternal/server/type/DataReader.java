@@ -36,6 +36,39 @@ public interface DataReader {
 
   Double getDouble() throws SQLException;
 
+  /**
+   * Return true if the last column read was null.
+   * <p>
+   * Used with the primitive reads which return 0 (or false) for null.
+   * </p>
+   */
+  boolean wasNull() throws SQLException;
+
+  /**
+   * Read an int without boxing (0 when null, check with wasNull()).
+   */
+  int getIntPrimitive() throws SQLException;
+
+  /**
+   * Read a long without boxing (0 when null, check with wasNull()).
+   */
+  long getLongPrimitive() throws SQLException;
+
+  /**
+   * Read a double without boxing (0 when null, check with wasNull()).
+   */
+  double getDoublePrimitive() throws SQLException;
+
+  /**
+   * Read a short without boxing (0 when null, check with wasNull()).
+   */
+  short getShortPrimitive() throws SQLException;
+
+  /**
+   * Read a boolean without boxing (false when null, check with wasNull()).
+   */
+  boolean getBooleanPrimitive() throws SQLException;
+
   byte[] getBytes() throws SQLException;
 
   java.sql.Date getDate() throws SQLException;
@@ -126,6 +126,30 @@ public class RsetDataReader implements DataReader {
   }
 
 
+  public boolean wasNull() throws SQLException {
+    return rset.wasNull();
+  }
+
+  public int getIntPrimitive() throws SQLException {
+    return rset.getInt(pos());
+  }
+
+  public long getLongPrimitive() throws SQLException {
+    return rset.getLong(pos());
+  }
+
+  public double getDoublePrimitive() throws SQLException {
+    return rset.getDouble(pos());
+  }
+
+  public short getShortPrimitive() throws SQLException {
+    return rset.getShort(pos());
+  }
+
+  public boolean getBooleanPrimitive() throws SQLException {
+    return rset.getBoolean(pos());
+  }
+
   public Ref getRef() throws SQLException {
     return rset.getRef(pos());
   }
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.core.JsonToken;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.sql.SQLException;
 import java.sql.Types;
 
@@ -20,7 +21,7 @@ import java.sql.Types;
  */
 public class ScalarTypeBoolean {
 
-  public static class Native extends BooleanBase {
+  public static class Native extends BooleanBase implements ScalarTypePrimitive {
 
     /**
      * Native Boolean database type.
@@ -59,6 +60,21 @@ public class ScalarTypeBoolean {
     public Boolean read(DataReader dataReader) throws SQLException {
       return dataReader.getBoolean();
     }
+
+    @Override
+    public Class<?> getPrimitiveType() {
+      return boolean.class;
+    }
+
+    @Override
+    public boolean readPrimitive(DataReader dataReader, Object bean, Field field) throws SQLException, IllegalAccessException {
+      boolean value = dataReader.getBooleanPrimitive();
+      if (dataReader.wasNull()) {
+        return false;
+      }
+      field.setBoolean(bean, value);
+      return true;
+    }
   }
 
   /**
@@ -69,7 +85,7 @@ public class ScalarTypeBoolean {
    * type.boolean.dbtype="bit" in the ebean configuration
    * </p>
    */
-  public static class BitBoolean extends BooleanBase {
+  public static class BitBoolean extends BooleanBase implements ScalarTypePrimitive {
 
     /**
      * Native Boolean database type.
@@ -110,19 +126,36 @@ public class ScalarTypeBoolean {
       return dataReader.getBoolean();
     }
 
+    @Override
+    public Class<?> getPrimitiveType() {
+      return boolean.class;
+    }
+
+    @Override
+    public boolean readPrimitive(DataReader dataReader, Object bean, Field field) throws SQLException, IllegalAccessException {
+      boolean value = dataReader.getBooleanPrimitive();
+      if (dataReader.wasNull()) {
+        return false;
+      }
+      field.setBoolean(bean, value);
+      return true;
+    }
+
   }
 
   /**
    * Converted to/from an Integer in the Database.
    */
-  public static class IntBoolean extends BooleanBase {
+  public static class IntBoolean extends BooleanBase implements ScalarTypePrimitive {
 
     private final Integer trueValue;
     private final Integer falseValue;
+    private final int trueInt;
 
     public IntBoolean(Integer trueValue, Integer falseValue) {
       super(false, Types.INTEGER);
       this.trueValue = trueValue;
+      this.trueInt = trueValue;
       this.falseValue = falseValue;
     }
 
@@ -150,17 +183,32 @@ public class ScalarTypeBoolean {
     }
 
     public Boolean read(DataReader dataReader) throws SQLException {
-      Integer i = dataReader.getInt();
-      if (i == null) {
+      int i = dataReader.getIntPrimitive();
+      if (dataReader.wasNull()) {
         return null;
       }
-      if (i.equals(trueValue)) {
+      if (i == trueInt) {
         return Boolean.TRUE;
       } else {
         return Boolean.FALSE;
       }
     }
 
+    @Override
+    public Class<?> getPrimitiveType() {
+      return boolean.class;
+    }
+
+    @Override
+    public boolean readPrimitive(DataReader dataReader, Object bean, Field field) throws SQLException, IllegalAccessException {
+      int i = dataReader.getIntPrimitive();
+      if (dataReader.wasNull()) {
+        return false;
+      }
+      field.setBoolean(bean, i == trueInt);
+      return true;
+    }
+
     public Object toJdbcType(Object value) {
       return toInteger(value);
     }
@@ -8,13 +8,14 @@ import com.fasterxml.jackson.core.JsonToken;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.sql.SQLException;
 import java.sql.Types;
 
 /**
  * ScalarType for Double and double.
  */
-public class ScalarTypeDouble extends ScalarTypeBase<Double> {
+public class ScalarTypeDouble extends ScalarTypeBase<Double> implements ScalarTypePrimitive {
 
   public ScalarTypeDouble() {
     super(Double.class, true, Types.DOUBLE);
@@ -34,6 +35,21 @@ public class ScalarTypeDouble extends ScalarTypeBase<Double> {
     return dataReader.getDouble();
   }
 
+  @Override
+  public Class<?> getPrimitiveType() {
+    return double.class;
+  }
+
+  @Override
+  public boolean readPrimitive(DataReader dataReader, Object bean, Field field) throws SQLException, IllegalAccessException {
+    double value = dataReader.getDoublePrimitive();
+    if (dataReader.wasNull()) {
+      return false;
+    }
+    field.setDouble(bean, value);
+    return true;
+  }
+
   @Override
   public Object toJdbcType(Object value) {
     return BasicTypeConverter.toDouble(value);
@@ -9,13 +9,14 @@ import com.fasterxml.jackson.core.JsonToken;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.sql.SQLException;
 import java.sql.Types;
 
 /**
  * ScalarType for Integer and int.
  */
-public class ScalarTypeInteger extends ScalarTypeBase<Integer> {
+public class ScalarTypeInteger extends ScalarTypeBase<Integer> implements ScalarTypePrimitive {
 
   public ScalarTypeInteger() {
     super(Integer.class, true, Types.INTEGER);
@@ -35,6 +36,21 @@ public class ScalarTypeInteger extends ScalarTypeBase<Integer> {
     return dataReader.getInt();
   }
 
+  @Override
+  public Class<?> getPrimitiveType() {
+    return int.class;
+  }
+
+  @Override
+  public boolean readPrimitive(DataReader dataReader, Object bean, Field field) throws SQLException, IllegalAccessException {
+    int value = dataReader.getIntPrimitive();
+    if (dataReader.wasNull()) {
+      return false;
+    }
+    field.setInt(bean, value);
+    return true;
+  }
+
   @Override
   public Integer readData(DataInput dataInput) throws IOException {
     if (!dataInput.readBoolean()) {
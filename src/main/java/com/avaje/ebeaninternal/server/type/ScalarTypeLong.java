@@ -8,13 +8,14 @@ import com.fasterxml.jackson.core.JsonToken;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.sql.SQLException;
 import java.sql.Types;
 
 /**
  * ScalarType for Long and long.
  */
-public class ScalarTypeLong extends ScalarTypeBase<Long> {
+public class ScalarTypeLong extends ScalarTypeBase<Long> implements ScalarTypePrimitive {
 
   public ScalarTypeLong() {
     super(Long.class, true, Types.BIGINT);
@@ -34,6 +35,21 @@ public class ScalarTypeLong extends ScalarTypeBase<Long> {
     return dataReader.getLong();
   }
 
+  @Override
+  public Class<?> getPrimitiveType() {
+    return long.class;
+  }
+
+  @Override
+  public boolean readPrimitive(DataReader dataReader, Object bean, Field field) throws SQLException, IllegalAccessException {
+    long value = dataReader.getLongPrimitive();
+    if (dataReader.wasNull()) {
+      return false;
+    }
+    field.setLong(bean, value);
+    return true;
+  }
+
   @Override
   public Object toJdbcType(Object value) {
     return BasicTypeConverter.toLong(value);
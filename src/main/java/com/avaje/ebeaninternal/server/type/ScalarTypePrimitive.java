@@ -0,0 +1,28 @@
+package com.avaje.ebeaninternal.server.type;
+
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+
+/**
+ * A ScalarType that can read its value directly into a primitive field of a bean.
+ * <p>
+ * This avoids boxing the value (allocating a wrapper object per column per row) when
+ * loading primitive properties such as int, long and double.
+ * </p>
+ */
+public interface ScalarTypePrimitive {
+
+  /**
+   * Return the primitive type that can be read (int.class, long.class etc).
+   */
+  Class<?> getPrimitiveType();
+
+  /**
+   * Read the value setting it into the primitive field of the bean.
+   * <p>
+   * Returns false without setting the field when the value read is null.
+   * </p>
+   */
+  boolean readPrimitive(DataReader dataReader, Object bean, Field field) throws SQLException, IllegalAccessException;
+
+}
@@ -9,13 +9,14 @@ import com.fasterxml.jackson.core.JsonToken;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.sql.SQLException;
 import java.sql.Types;
 
 /**
  * ScalarType for Short and short.
  */
-public class ScalarTypeShort extends ScalarTypeBase<Short> {
+public class ScalarTypeShort extends ScalarTypeBase<Short> implements ScalarTypePrimitive {
 
   public ScalarTypeShort() {
     super(Short.class, true, Types.SMALLINT);
@@ -35,6 +36,21 @@ public class ScalarTypeShort extends ScalarTypeBase<Short> {
     return dataReader.getShort();
   }
 
+  @Override
+  public Class<?> getPrimitiveType() {
+    return short.class;
+  }
+
+  @Override
+  public boolean readPrimitive(DataReader dataReader, Object bean, Field field) throws SQLException, IllegalAccessException {
+    short value = dataReader.getShortPrimitive();
+    if (dataReader.wasNull()) {
+      return false;
+    }
+    field.setShort(bean, value);
+    return true;
+  }
+
   @Override
   public Object toJdbcType(Object value) {
     return BasicTypeConverter.toShort(value);
@@ -1,6 +1,9 @@
 package com.avaje.ebeaninternal.server.type;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.IvParameterSpec;
@@ -11,6 +14,13 @@ import com.avaje.ebean.config.Encryptor;
 
 /**
  * Simple AES based encryption and decryption.
+ * <p>
+ * Looking up and initialising a Cipher is expensive relative to encrypting a typical
+ * property value. The initialised Ciphers are held per thread and per key such that
+ * loading or persisting many encrypted values only looks up the Cipher once per thread.
+ * A Cipher resets to its initialised state after doFinal() so it can be reused for the
+ * next value with the same key.
+ * </p>
  */
 public class SimpleAesEncryptor implements Encryptor {
 
@@ -18,6 +28,23 @@ public class SimpleAesEncryptor implements Encryptor {
 
   private static final String padding = "asldkalsdkadsdfkjsldfjl";
 
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  /**
+   * The maximum number of keys that Ciphers are held for per thread.
+   */
+  private static final int MAX_KEYS = 100;
+
+  /**
+   * The initialised Ciphers per key (thread confined as Cipher is not thread safe).
+   */
+  private final ThreadLocal<Map<String, AesCipher>> ciphers = new ThreadLocal<Map<String, AesCipher>>() {
+    @Override
+    protected Map<String, AesCipher> initialValue() {
+      return new HashMap<String, AesCipher>();
+    }
+  };
+
   public SimpleAesEncryptor() {
   }
 
@@ -33,17 +60,30 @@ public class SimpleAesEncryptor implements Encryptor {
     return key;
   }
 
-  private byte[] getKeyBytes(String skey) {
+  /**
+   * Return the Ciphers for the key held by the current thread.
+   */
+  private AesCipher getCipher(EncryptKey encryptKey) {
 
-    try {
-      return skey.getBytes("UTF-8");
-    } catch (UnsupportedEncodingException e) {
-      throw new RuntimeException(e);
+    String key = encryptKey.getStringValue();
+    Map<String, AesCipher> map = ciphers.get();
+    AesCipher cipher = map.get(key);
+    if (cipher == null) {
+      if (map.size() >= MAX_KEYS) {
+        map.clear();
+      }
+      String paddedKey = paddKey(encryptKey);
+      cipher = new AesCipher(new SecretKeySpec(paddedKey.getBytes(UTF8), "AES"), new IvParameterSpec(paddedKey.getBytes()));
+      map.put(key, cipher);
     }
+    return cipher;
   }
 
-  private IvParameterSpec getIvParameterSpec(String initialVector) {
-    return new IvParameterSpec(initialVector.getBytes());
+  /**
+   * Remove the Ciphers for the key as they may need to be reset after an error.
+   */
+  private void removeCipher(EncryptKey encryptKey) {
+    ciphers.get().remove(encryptKey.getStringValue());
   }
 
   public byte[] decrypt(byte[] data, EncryptKey encryptKey) {
@@ -52,21 +92,11 @@ public class SimpleAesEncryptor implements Encryptor {
       return null;
     }
 
-    String key = paddKey(encryptKey);
-
     try {
-
-      byte[] keyBytes = getKeyBytes(key);
-      IvParameterSpec iv = getIvParameterSpec(key);
-
-      SecretKeySpec sks = new SecretKeySpec(keyBytes, "AES");
-      Cipher c = Cipher.getInstance(AES_CIPHER);
-
-      c.init(Cipher.DECRYPT_MODE, sks, iv);
-
-      return c.doFinal(data);
+      return getCipher(encryptKey).decrypt(data);
 
     } catch (Exception e) {
+      removeCipher(encryptKey);
       throw new RuntimeException(e);
     }
   }
@@ -77,20 +107,11 @@ public class SimpleAesEncryptor implements Encryptor {
       return null;
     }
 
-    String key = paddKey(encryptKey);
-
     try {
-      byte[] keyBytes = getKeyBytes(key);
-      IvParameterSpec iv = getIvParameterSpec(key);
-
-      SecretKeySpec sks = new SecretKeySpec(keyBytes, "AES");
-      Cipher c = Cipher.getInstance(AES_CIPHER);
-
-      c.init(Cipher.ENCRYPT_MODE, sks, iv);
-
-      return c.doFinal(data);
+      return getCipher(encryptKey).encrypt(data);
 
     } catch (Exception e) {
+      removeCipher(encryptKey);
       throw new RuntimeException(e);
     }
   }
@@ -101,12 +122,7 @@ public class SimpleAesEncryptor implements Encryptor {
     }
 
     byte[] bytes = decrypt(data, key);
-    try {
-      return new String(bytes, "UTF-8");
-
-    } catch (UnsupportedEncodingException e) {
-      throw new RuntimeException(e);
-    }
+    return new String(bytes, UTF8);
   }
 
   public byte[] encryptString(String valueFormatValue, EncryptKey key) {
@@ -114,13 +130,45 @@ public class SimpleAesEncryptor implements Encryptor {
     if (valueFormatValue == null) {
       return null;
     }
-    try {
-      byte[] d = valueFormatValue.getBytes("UTF-8");
-      return encrypt(d, key);
+    return encrypt(valueFormatValue.getBytes(UTF8), key);
+  }
 
-    } catch (UnsupportedEncodingException e) {
-      throw new RuntimeException(e);
+  /**
+   * The encrypt and decrypt Ciphers for a key (initialised on first use).
+   */
+  private static final class AesCipher {
+
+    private final SecretKeySpec keySpec;
+
+    private final IvParameterSpec iv;
+
+    private Cipher encryptCipher;
+
+    private Cipher decryptCipher;
+
+    AesCipher(SecretKeySpec keySpec, IvParameterSpec iv) {
+      this.keySpec = keySpec;
+      this.iv = iv;
+    }
+
+    byte[] encrypt(byte[] data) throws GeneralSecurityException {
+      if (encryptCipher == null) {
+        encryptCipher = init(Cipher.ENCRYPT_MODE);
+      }
+      return encryptCipher.doFinal(data);
     }
-  }
 
+    byte[] decrypt(byte[] data) throws GeneralSecurityException {
+      if (decryptCipher == null) {
+        decryptCipher = init(Cipher.DECRYPT_MODE);
+      }
+      return decryptCipher.doFinal(data);
+    }
+
+    private Cipher init(int mode) throws GeneralSecurityException {
+      Cipher cipher = Cipher.getInstance(AES_CIPHER);
+      cipher.init(mode, keySpec, iv);
+      return cipher;
+    }
+  }
 }
@@ -0,0 +1,162 @@
+package com.avaje.ebeaninternal.server.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * DataBind that binds the values to a PreparedStatement.
+ */
+public class StatementDataBind extends DataBind {
+
+  private final PreparedStatement pstmt;
+
+  private int pos;
+
+  public StatementDataBind(PreparedStatement pstmt) {
+    this.pstmt = pstmt;
+  }
+
+  /**
+   * Close the underlying prepared statement.
+   */
+  public void close() throws SQLException {
+    pstmt.close();
+  }
+
+  @Override
+  public int currentPos() {
+    return pos;
+  }
+
+  @Override
+  public void setObject(Object value) throws SQLException {
+    pstmt.setObject(++pos, value);
+  }
+
+  @Override
+  public void setObject(Object value, int sqlType) throws SQLException {
+    pstmt.setObject(++pos, value, sqlType);
+  }
+
+  @Override
+  public void setArray(String typeName, Object[] elements) throws SQLException {
+    Array array = pstmt.getConnection().createArrayOf(typeName, elements);
+    pstmt.setArray(++pos, array);
+  }
+
+  @Override
+  public void setNull(int jdbcType) throws SQLException {
+    pstmt.setNull(++pos, jdbcType);
+  }
+
+  public int nextPos() {
+    return ++pos;
+  }
+
+  public void decrementPos() {
+    --pos;
+  }
+
+  public int executeUpdate() throws SQLException {
+    return pstmt.executeUpdate();
+  }
+
+  public PreparedStatement getPstmt() {
+    return pstmt;
+  }
+
+  @Override
+  public void setString(String s) throws SQLException {
+    pstmt.setString(++pos, s);
+  }
+
+  @Override
+  public void setInt(int i) throws SQLException {
+    pstmt.setInt(++pos, i);
+  }
+
+  @Override
+  public void setLong(long i) throws SQLException {
+    pstmt.setLong(++pos, i);
+  }
+
+  @Override
+  public void setShort(short i) throws SQLException {
+    pstmt.setShort(++pos, i);
+  }
+
+  @Override
+  public void setFloat(float i) throws SQLException {
+    pstmt.setFloat(++pos, i);
+  }
+
+  @Override
+  public void setDouble(double i) throws SQLException {
+    pstmt.setDouble(++pos, i);
+  }
+
+  @Override
+  public void setBigDecimal(BigDecimal v) throws SQLException {
+    pstmt.setBigDecimal(++pos, v);
+  }
+
+  @Override
+  public void setDate(java.sql.Date v) throws SQLException {
+    pstmt.setDate(++pos, v);
+  }
+
+  @Override
+  public void setTimestamp(Timestamp v) throws SQLException {
+    pstmt.setTimestamp(++pos, v);
+  }
+
+  @Override
+  public void setTime(Time v) throws SQLException {
+    pstmt.setTime(++pos, v);
+  }
+
+  @Override
+  public void setBoolean(boolean v) throws SQLException {
+    pstmt.setBoolean(++pos, v);
+  }
+
+  @Override
+  public void setBytes(byte[] v) throws SQLException {
+    pstmt.setBytes(++pos, v);
+  }
+
+  @Override
+  public void setByte(byte v) throws SQLException {
+    pstmt.setByte(++pos, v);
+  }
+
+  @Override
+  public void setChar(char v) throws SQLException {
+    pstmt.setString(++pos, String.valueOf(v));
+  }
+
+  @Override
+  public void setBinaryStream(InputStream inputStream, long length) throws SQLException {
+    pstmt.setBinaryStream(++pos, inputStream, length);
+  }
+
+  @Override
+  public void setBlob(byte[] bytes) throws SQLException {
+    ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+    pstmt.setBinaryStream(++pos, is, bytes.length);
+  }
+
+  @Override
+  public void setClob(String content) throws SQLException {
+    Reader reader = new StringReader(content);
+    pstmt.setCharacterStream(++pos, reader, content.length());
+  }
+}
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.avaje.ebeaninternal.server.util;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.persistence.PersistenceException;
 
@@ -13,6 +15,10 @@ import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 /**
  * Parses the BindParams if they are using named parameters.
  * <p>
+ * The parsed form of the sql is cached such that repeated executions of the same sql
+ * only need to bind the parameters in order.
+ * </p>
+ * <p>
  * This is a thread safe implementation.
  * </p>
  */
@@ -25,14 +31,14 @@ public class BindParamsParser {
   private static final int ENCRYPTKEY_GAP_LEN = ENCRYPTKEY_GAP.length();
 
   /**
-   * Used to parse sql looking for named parameters.
+   * The maximum number of parsed sql templates held.
    */
-  private static final String quote = "'";
+  private static final int MAX_TEMPLATES = 1000;
 
   /**
-   * Used to parse sql looking for named parameters.
+   * Cache of the parsed sql keyed by the sql with named parameters.
    */
-  private static final String colon = ":";
+  private static final ConcurrentHashMap<String, BindParamsTemplate> templateCache = new ConcurrentHashMap<String, BindParamsTemplate>();
 
   private final BindParams params;
   private final String sql;
@@ -84,20 +90,11 @@ public class BindParamsParser {
    */
   private String parseSql() {
 
-    if (params.isSameBindHash()) {
-      String preparedSql = params.getPreparedSql();
-      if (preparedSql != null && preparedSql.length() > 0) {
-        // the sql has already been parsed and positionedParameters are set in order
-        return preparedSql;
-      }
-    }
-
     String preparedSql;
     if (params.requiresNamedParamsPrepare()) {
       // convert named parameters into ordered list
       OrderedList orderedList = params.createOrderedList();
-      parseNamedParams(orderedList);
-      preparedSql = orderedList.getPreparedSql();
+      preparedSql = bindNamedParams(orderedList);
     } else {
       preparedSql = sql;
     }
@@ -109,94 +106,80 @@ public class BindParamsParser {
    * Named parameters need to be parsed and replaced with ?.
    */
   private void parseNamedParams(OrderedList orderedList) {
-
-    parseNamedParams(0, orderedList);
+    orderedList.appendSql(bindNamedParams(orderedList));
   }
 
-  private void parseNamedParams(int startPos, OrderedList orderedList) {
+  /**
+   * Add the named parameters to the orderedList in binding order returning the prepared sql.
+   * <p>
+   * Collection parameters are expanded into an individual parameter per element.
+   * </p>
+   */
+  private String bindNamedParams(OrderedList orderedList) {
 
     if (sql == null) {
       throw new PersistenceException("query does not contain any named bind parameters?");
     }
-    if (startPos > sql.length()) {
-      return;
-    }
 
-    // search for quotes and named params... in order...
-    int beginQuotePos = sql.indexOf(quote, startPos);
-    int nameParamStart = sql.indexOf(colon, startPos);
-    if (beginQuotePos > 0 && beginQuotePos < nameParamStart) {
-      // the quote precedes the named parameter...
-      // find and add up to the end quote
-      int endQuotePos = sql.indexOf(quote, beginQuotePos + 1);
-      String sub = sql.substring(startPos, endQuotePos + 1);
-      orderedList.appendSql(sub);
+    BindParamsTemplate template = getTemplate(sql);
+    String[] paramNames = template.getParamNames();
 
-      // start again after the end quote
-      parseNamedParams(endQuotePos + 1, orderedList);
+    int[] collectionSizes = null;
+    for (int i = 0; i < paramNames.length; i++) {
+      String paramName = paramNames[i];
+      Param param;
+      if (paramName.startsWith(ENCRYPTKEY_PREFIX)) {
+        param = addEncryptKeyParam(paramName);
+      } else {
+        param = params.getParameter(paramName);
+      }
 
-    } else {
-      if (nameParamStart < 0) {
-        // no more params, add the rest
-        String sub = sql.substring(startPos, sql.length());
-        orderedList.appendSql(sub);
+      if (param == null) {
+        String msg = "Bind value is not set or null for [" + paramName + "] in [" + sql + "]";
+        throw new PersistenceException(msg);
+      }
 
-      } else {
-        // find the end of the parameter name
-        int endOfParam = nameParamStart + 1;
-        do {
-          char c = sql.charAt(endOfParam);
-          if (c != '_' && !Character.isLetterOrDigit(c)) {
-            break;
-          }
-          endOfParam++;
-        } while (endOfParam < sql.length());
-
-        // add the named parameter value to bindList
-        String paramName = sql.substring(nameParamStart + 1, endOfParam);
-
-        Param param;
-        if (paramName.startsWith(ENCRYPTKEY_PREFIX)) {
-          param = addEncryptKeyParam(paramName);
-        } else {
-          param = params.getParameter(paramName);
+      // check if inValue is a Collection type...
+      Object inValue = param.getInValue();
+      if (inValue instanceof Collection<?>) {
+        // Chop up Collection parameter into a number
+        // of individual parameters and add each one individually
+        Collection<?> collection = (Collection<?>) inValue;
+        if (collectionSizes == null) {
+          collectionSizes = new int[paramNames.length];
+          Arrays.fill(collectionSizes, -1);
         }
-
-        if (param == null) {
-          String msg = "Bind value is not set or null for [" + paramName + "] in [" + sql + "]";
-          throw new PersistenceException(msg);
+        collectionSizes[i] = collection.size();
+        for (Object elVal : collection) {
+          BindParams.Param elParam = new BindParams.Param();
+          elParam.setInValue(elVal);
+          orderedList.add(elParam);
         }
 
-        String sub = sql.substring(startPos, nameParamStart);
-        orderedList.appendSql(sub);
-
-        // check if inValue is a Collection type...
-        Object inValue = param.getInValue();
-        if (inValue != null && inValue instanceof Collection<?>) {
-          // Chop up Collection parameter into a number
-          // of individual parameters and add each one individually
-          Collection<?> collection = (Collection<?>) inValue;
-          int c = 0;
-          for (Object elVal : collection) {
-            if (++c > 1) {
-              orderedList.appendSql(",");
-            }
-            orderedList.appendSql("?");
-            BindParams.Param elParam = new BindParams.Param();
-            elParam.setInValue(elVal);
-            orderedList.add(elParam);
-          }
-
-        } else {
-          // its a normal scalar value parameter...
-          orderedList.add(param);
-          orderedList.appendSql("?");
-        }
+      } else {
+        // its a normal scalar value parameter...
+        orderedList.add(param);
+      }
+    }
+
+    return template.getPreparedSql(collectionSizes);
+  }
 
-        // continue on after the end of the parameter
-        parseNamedParams(endOfParam, orderedList);
+  /**
+   * Return the parsed template for the sql (from the cache if possible).
+   */
+  private static BindParamsTemplate getTemplate(String sql) {
+
+    BindParamsTemplate template = templateCache.get(sql);
+    if (template == null) {
+      template = BindParamsTemplate.parse(sql);
+      if (templateCache.size() >= MAX_TEMPLATES) {
+        // not a bounded set of statements (sql with literal values etc) so start again
+        templateCache.clear();
       }
+      templateCache.put(sql, template);
     }
+    return template;
   }
 
   /**
@@ -0,0 +1,183 @@
+package com.avaje.ebeaninternal.server.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The parsed form of sql with named parameters.
+ * <p>
+ * This holds the sql split at the named parameters and the parameter names in binding order
+ * such that repeated executions of the same sql do not need to scan the sql text again. The
+ * prepared sql (with ? place holders) is held per shape of the collection parameters (the
+ * number of elements of each collection parameter that is expanded into an 'in' list).
+ * </p>
+ * <p>
+ * This is immutable (apart from the internal cache of prepared sql) and thread safe.
+ * </p>
+ */
+final class BindParamsTemplate {
+
+  /**
+   * The maximum number of collection shapes held per template.
+   */
+  private static final int MAX_SHAPES = 32;
+
+  private static final char QUOTE = '\'';
+
+  private static final char COLON = ':';
+
+  /**
+   * The sql before, between and after the named parameters (size is paramNames + 1).
+   */
+  private final String[] sqlParts;
+
+  /**
+   * The named parameters in binding order.
+   */
+  private final String[] paramNames;
+
+  /**
+   * The prepared sql when none of the parameters are collections.
+   */
+  private final String scalarSql;
+
+  /**
+   * The prepared sql by collection shape.
+   */
+  private final ConcurrentHashMap<Shape, String> shapeSql = new ConcurrentHashMap<Shape, String>();
+
+  private BindParamsTemplate(String[] sqlParts, String[] paramNames) {
+    this.sqlParts = sqlParts;
+    this.paramNames = paramNames;
+    this.scalarSql = buildSql(null);
+  }
+
+  /**
+   * Parse the sql splitting it at the named parameters (skipping quoted literals).
+   */
+  static BindParamsTemplate parse(String sql) {
+
+    List<String> parts = new ArrayList<String>();
+    List<String> names = new ArrayList<String>();
+    StringBuilder part = new StringBuilder();
+
+    int length = sql.length();
+    int pos = 0;
+    while (pos <= length) {
+      int beginQuotePos = sql.indexOf(QUOTE, pos);
+      int nameParamStart = sql.indexOf(COLON, pos);
+      if (beginQuotePos > 0 && beginQuotePos < nameParamStart) {
+        // the quote precedes the named parameter so add up to the end quote
+        int endQuotePos = sql.indexOf(QUOTE, beginQuotePos + 1);
+        if (endQuotePos < 0) {
+          part.append(sql, pos, length);
+          break;
+        }
+        part.append(sql, pos, endQuotePos + 1);
+        pos = endQuotePos + 1;
+
+      } else if (nameParamStart < 0) {
+        // no more params, add the rest
+        part.append(sql, pos, length);
+        break;
+
+      } else {
+        // find the end of the parameter name
+        int endOfParam = nameParamStart + 1;
+        while (endOfParam < length) {
+          char c = sql.charAt(endOfParam);
+          if (c != '_' && !Character.isLetterOrDigit(c)) {
+            break;
+          }
+          endOfParam++;
+        }
+        part.append(sql, pos, nameParamStart);
+        parts.add(part.toString());
+        part.setLength(0);
+        names.add(sql.substring(nameParamStart + 1, endOfParam));
+        pos = endOfParam;
+      }
+    }
+    parts.add(part.toString());
+
+    return new BindParamsTemplate(parts.toArray(new String[parts.size()]), names.toArray(new String[names.size()]));
+  }
+
+  /**
+   * Return the named parameters in binding order.
+   */
+  String[] getParamNames() {
+    return paramNames;
+  }
+
+  /**
+   * Return the prepared sql given the sizes of the collection parameters.
+   *
+   * @param collectionSizes the size per parameter (-1 for a scalar parameter) or null when
+   *                        none of the parameters are collections
+   */
+  String getPreparedSql(int[] collectionSizes) {
+    if (collectionSizes == null) {
+      return scalarSql;
+    }
+    Shape shape = new Shape(collectionSizes);
+    String sql = shapeSql.get(shape);
+    if (sql == null) {
+      sql = buildSql(collectionSizes);
+      if (shapeSql.size() >= MAX_SHAPES) {
+        // many 'in' list sizes, just start again
+        shapeSql.clear();
+      }
+      shapeSql.put(shape, sql);
+    }
+    return sql;
+  }
+
+  private String buildSql(int[] collectionSizes) {
+
+    StringBuilder sb = new StringBuilder(sqlParts[0].length() + 20 * paramNames.length);
+    sb.append(sqlParts[0]);
+    for (int i = 0; i < paramNames.length; i++) {
+      int size = (collectionSizes == null) ? -1 : collectionSizes[i];
+      if (size < 0) {
+        sb.append('?');
+      } else {
+        for (int j = 0; j < size; j++) {
+          if (j > 0) {
+            sb.append(',');
+          }
+          sb.append('?');
+        }
+      }
+      sb.append(sqlParts[i + 1]);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Key for the sizes of the collection parameters.
+   */
+  private static final class Shape {
+
+    private final int[] sizes;
+
+    private final int hash;
+
+    Shape(int[] sizes) {
+      this.sizes = sizes;
+      this.hash = Arrays.hashCode(sizes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Shape && Arrays.equals(sizes, ((Shape) obj).sizes);
+    }
+  }
+}
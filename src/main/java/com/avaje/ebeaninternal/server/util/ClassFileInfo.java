@@ -0,0 +1,172 @@
+package com.avaje.ebeaninternal.server.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * The type information read from a class file without loading the class.
+ * <p>
+ * This reads the constant pool, access flags, super class and interfaces of the class file.
+ * A class is deemed annotated when the constant pool contains the descriptor of one of the
+ * annotations of interest (which can include false positives such as the annotation being
+ * used on a field but never misses an annotated class).
+ * </p>
+ */
+final class ClassFileInfo {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int ACC_INTERFACE = 0x0200;
+
+  private static final int ACC_ABSTRACT = 0x0400;
+
+  private final String className;
+
+  private final String superName;
+
+  private final String[] interfaces;
+
+  private final boolean concrete;
+
+  private final boolean annotated;
+
+  private ClassFileInfo(String className, String superName, String[] interfaces, boolean concrete, boolean annotated) {
+    this.className = className;
+    this.superName = superName;
+    this.interfaces = interfaces;
+    this.concrete = concrete;
+    this.annotated = annotated;
+  }
+
+  /**
+   * Read the class file.
+   *
+   * @param in                    the class file content
+   * @param annotationDescriptors the descriptors (e.g. Ljavax/persistence/Entity;) of the annotations of interest
+   */
+  static ClassFileInfo read(InputStream in, Set<String> annotationDescriptors) throws IOException {
+
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Not a class file");
+    }
+    // minor and major version
+    data.readUnsignedShort();
+    data.readUnsignedShort();
+
+    int poolCount = data.readUnsignedShort();
+    String[] utf8 = new String[poolCount];
+    int[] classNameIndex = new int[poolCount];
+    boolean annotated = false;
+
+    for (int i = 1; i < poolCount; i++) {
+      int tag = data.readUnsignedByte();
+      switch (tag) {
+        case 1:
+          // Utf8
+          utf8[i] = data.readUTF();
+          if (!annotated && annotationDescriptors.contains(utf8[i])) {
+            annotated = true;
+          }
+          break;
+        case 7:
+          // Class
+          classNameIndex[i] = data.readUnsignedShort();
+          break;
+        case 8:
+        case 16:
+        case 19:
+        case 20:
+          // String, MethodType, Module, Package
+          data.skipBytes(2);
+          break;
+        case 15:
+          // MethodHandle
+          data.skipBytes(3);
+          break;
+        case 3:
+        case 4:
+        case 9:
+        case 10:
+        case 11:
+        case 12:
+        case 17:
+        case 18:
+          // Integer, Float, Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic, InvokeDynamic
+          data.skipBytes(4);
+          break;
+        case 5:
+        case 6:
+          // Long and Double take two entries
+          data.skipBytes(8);
+          i++;
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+
+    int access = data.readUnsignedShort();
+    String className = className(utf8, classNameIndex, data.readUnsignedShort());
+    String superName = className(utf8, classNameIndex, data.readUnsignedShort());
+    int interfaceCount = data.readUnsignedShort();
+    String[] interfaces = new String[interfaceCount];
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaces[i] = className(utf8, classNameIndex, data.readUnsignedShort());
+    }
+
+    boolean concrete = (access & (ACC_INTERFACE | ACC_ABSTRACT)) == 0;
+    return new ClassFileInfo(className, superName, interfaces, concrete, annotated);
+  }
+
+  /**
+   * Return the (dot separated) class name for the given Class constant index.
+   */
+  private static String className(String[] utf8, int[] classNameIndex, int index) throws IOException {
+    if (index == 0) {
+      // super class of java.lang.Object
+      return null;
+    }
+    if (index >= classNameIndex.length || utf8[classNameIndex[index]] == null) {
+      throw new IOException("Invalid class constant " + index);
+    }
+    return utf8[classNameIndex[index]].replace('/', '.');
+  }
+
+  /**
+   * Return the class name.
+   */
+  String getClassName() {
+    return className;
+  }
+
+  /**
+   * Return the super class name (null for java.lang.Object).
+   */
+  String getSuperName() {
+    return superName;
+  }
+
+  /**
+   * Return the names of the directly implemented interfaces.
+   */
+  String[] getInterfaces() {
+    return interfaces;
+  }
+
+  /**
+   * Return true if this is neither an interface nor an abstract class.
+   */
+  boolean isConcrete() {
+    return concrete;
+  }
+
+  /**
+   * Return true if the class file refers to one of the annotations of interest.
+   */
+  boolean isAnnotated() {
+    return annotated;
+  }
+}
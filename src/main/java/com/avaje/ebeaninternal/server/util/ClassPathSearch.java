@@ -2,13 +2,18 @@ package com.avaje.ebeaninternal.server.util;
 
 import com.avaje.ebeaninternal.api.ClassPathSearchService;
 import com.avaje.ebeaninternal.api.ClassUtil;
+import com.avaje.ebeaninternal.server.lib.DaemonThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.loader.jar.JarEntryData;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -18,13 +23,22 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
 
 /**
  * Can search the class path for classes using a ClassPathSearchMatcher. A
@@ -33,6 +47,12 @@ import java.util.jar.Manifest;
  * <p>
  * For example, used to find all the Entity beans and ScalarTypes for Ebean.
  * </p>
+ * <p>
+ * When the matcher is a ClassPathSearchTypeMatcher the class files are read
+ * (in parallel across the class path entries) to determine the candidate classes
+ * and only those candidates are loaded. Otherwise every class in the searched
+ * packages is loaded and checked by the matcher.
+ * </p>
  */
 public class ClassPathSearch implements ClassPathSearchService {
 
@@ -46,6 +66,16 @@ public class ClassPathSearch implements ClassPathSearchService {
 
   private ClassPathSearchMatcher matcher;
 
+  /**
+   * The matcher when it can determine candidate classes from the class files (otherwise null).
+   */
+  private ClassPathSearchTypeMatcher typeMatcher;
+
+  /**
+   * The descriptors of the annotations of the typeMatcher (e.g. Ljavax/persistence/Entity;).
+   */
+  private final Set<String> annotationDescriptors = new HashSet<String>();
+
   private final ArrayList<Class<?>> matchList = new ArrayList<Class<?>>();
 
   private final HashSet<String> jarHits = new HashSet<String>();
@@ -65,6 +95,12 @@ public class ClassPathSearch implements ClassPathSearchService {
     this.classLoader = classLoader;
     this.filter = filter;
     this.matcher = matcher;
+    if (matcher instanceof ClassPathSearchTypeMatcher) {
+      this.typeMatcher = (ClassPathSearchTypeMatcher) matcher;
+      for (Class<? extends Annotation> annotation : typeMatcher.getMatchAnnotations()) {
+        annotationDescriptors.add("L" + annotation.getName().replace('.', '/') + ";");
+      }
+    }
     initClassPaths(classPathReaderClassName);
   }
 
@@ -159,21 +195,52 @@ public class ClassPathSearch implements ClassPathSearchService {
     }
 
     int classPathSize = classPath.size();
-    for (int i = 0; i < classPathSize; i++) {
+    List<Future<Scan>> scans = new ArrayList<Future<Scan>>(classPathSize);
 
-      ClassPathElement element = getClassPathElement(classPath.get(i));
-
-      if (element.isDirectory()) {
-        scanDirectory(element);
+    ExecutorService executor = createExecutor(classPathSize);
+    try {
+      for (int i = 0; i < classPathSize; i++) {
+
+        final ClassPathElement element = getClassPathElement(classPath.get(i));
+
+        if (element.isDirectory()) {
+          scans.add(submit(executor, new Callable<Scan>() {
+            @Override
+            public Scan call() {
+              Scan scan = new Scan();
+              scanDirectory(scan, element);
+              return scan;
+            }
+          }));
+
+        } else if (element.isJarOrWar()) {
+          // search name including the ! offset if it is there
+          if (classPathSize == 1 || filter.isSearchJar(element.getJarNameWithOffset(), element.getJarOffset())) {
+            scans.add(submit(executor, new Callable<Scan>() {
+              @Override
+              public Scan call() throws IOException {
+                Scan scan = new Scan();
+                scanJar(scan, element);
+                return scan;
+              }
+            }));
+          }
 
-      } else if (element.isJarOrWar()) {
-        // search name including the ! offset if it is there
-        if (classPathSize == 1 || filter.isSearchJar(element.getJarNameWithOffset(), element.getJarOffset())) {
-          scanJar(element);
+        } else {
+          logger.error("Error: expected classPath entry [" + element + "] to be a directory or a .jar file but it is not either of those?");
         }
+      }
 
-      } else {
-        logger.error("Error: expected classPath entry [" + element + "] to be a directory or a .jar file but it is not either of those?");
+      // collect the results in class path order
+      List<ScannedClass> scannedClasses = new ArrayList<ScannedClass>();
+      for (Future<Scan> scan : scans) {
+        scannedClasses.addAll(getScan(scan).classes);
+      }
+      loadMatches(scannedClasses);
+
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
       }
     }
 
@@ -184,6 +251,87 @@ public class ClassPathSearch implements ClassPathSearchService {
     return matchList;
   }
 
+  /**
+   * Return the executor used to read the class files in parallel (or null to scan in the calling thread).
+   * <p>
+   * Without a ClassPathSearchTypeMatcher every class is loaded in the calling thread anyway so the
+   * class path entries are just listed in the calling thread.
+   * </p>
+   */
+  private ExecutorService createExecutor(int classPathSize) {
+    int threads = Math.min(classPathSize, Runtime.getRuntime().availableProcessors());
+    if (typeMatcher == null || threads < 2) {
+      return null;
+    }
+    return Executors.newFixedThreadPool(threads, new DaemonThreadFactory("ebean-classpath-search"));
+  }
+
+  /**
+   * Submit the scan to the executor or run it in this thread when there is no executor.
+   */
+  private Future<Scan> submit(ExecutorService executor, Callable<Scan> task) {
+    if (executor != null) {
+      return executor.submit(task);
+    }
+    FutureTask<Scan> future = new FutureTask<Scan>(task);
+    future.run();
+    return future;
+  }
+
+  /**
+   * Return the result of the scan rethrowing any exception it failed with.
+   */
+  private Scan getScan(Future<Scan> future) throws IOException {
+    try {
+      return future.get();
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted searching the class path", e);
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException("Error searching the class path", cause);
+    }
+  }
+
+  /**
+   * Load and check the scanned classes that are candidates to match.
+   */
+  private void loadMatches(List<ScannedClass> scannedClasses) {
+
+    CandidateTypes candidateTypes = null;
+    if (typeMatcher != null) {
+      Map<String, ClassFileInfo> scannedTypes = new HashMap<String, ClassFileInfo>();
+      for (ScannedClass scannedClass : scannedClasses) {
+        ClassFileInfo info = scannedClass.info;
+        if (info != null && !scannedTypes.containsKey(info.getClassName())) {
+          scannedTypes.put(info.getClassName(), info);
+        }
+      }
+      candidateTypes = new CandidateTypes(scannedTypes);
+    }
+
+    int loadCount = 0;
+    for (ScannedClass scannedClass : scannedClasses) {
+      // a class file that could not be read is always loaded and checked
+      if (candidateTypes == null || scannedClass.info == null || candidateTypes.isCandidate(scannedClass.info)) {
+        loadClass(scannedClass.jarFileName, scannedClass.className);
+        loadCount++;
+      }
+    }
+    logger.debug("loaded {} of {} scanned classes", loadCount, scannedClasses.size());
+  }
+
   private ClassPathElement getClassPathElement(Object classPathEntry) throws MalformedURLException {
 
     URL fileUrl;
@@ -213,31 +361,42 @@ public class ClassPathSearch implements ClassPathSearchService {
     return new ClassPathElement(new File(fileName), jarOffset);
   }
 
-  private void scanDirectory(ClassPathElement classPathEntry) {
-    scanDirectory(classPathEntry.classPath);
+  private void scanDirectory(Scan scan, ClassPathElement classPathEntry) {
+    scanDirectory(scan, classPathEntry.classPath);
   }
 
-  private void scanDirectory(File directory) {
+  private void scanDirectory(Scan scan, final File directory) {
     List<String> directoryFiles = getDirectoryFiles(directory);
-    searchFiles(Collections.enumeration(directoryFiles), null, null, null);
+    ClassFileSource source = new ClassFileSource() {
+      @Override
+      public InputStream open(String entryName) throws IOException {
+        return new FileInputStream(new File(directory, entryName));
+      }
+    };
+    searchFiles(scan, source, Collections.enumeration(directoryFiles), null, null, null);
   }
 
-  private void scanUri(URI uri) throws IOException {
+  private void scanUri(Scan scan, URI uri) throws IOException {
 
-    if (uri.getScheme().equals("file") && scannedUris.add(uri)) {
+    if (uri.getScheme().equals("file") && addScannedUri(uri)) {
       File file = new File(uri);
       if (file.exists()) {
         if (file.isDirectory()) {
-          scanDirectory(file);
+          scanDirectory(scan, file);
         } else {
-          scanJar(new ClassPathElement(file));
+          scanJar(scan, new ClassPathElement(file));
         }
       }
     }
   }
 
+  private boolean addScannedUri(URI uri) {
+    synchronized (scannedUris) {
+      return scannedUris.add(uri);
+    }
+  }
 
-  private void scanJar(ClassPathElement classPathEntry) throws IOException {
+  private void scanJar(Scan scan, ClassPathElement classPathEntry) throws IOException {
 
     JarFile module = null;
     try {
@@ -249,10 +408,10 @@ public class ClassPathSearch implements ClassPathSearchService {
 
       List<URI> classPathFromManifest = getClassPathFromManifest(file, module.getManifest());
       for (URI uri : classPathFromManifest) {
-        scanUri(uri);
+        scanUri(scan, uri);
       }
 
-      searchFiles(module.entries(), classPathEntry.getJarName(), classPathEntry.jarOffset, file);
+      searchFiles(scan, new JarClassFileSource(module), module.entries(), classPathEntry.getJarName(), classPathEntry.jarOffset, file);
 
     } catch (MalformedURLException ex) {
       throw new IOException("Bad classpath error: ", ex);
@@ -297,6 +456,8 @@ public class ClassPathSearch implements ClassPathSearchService {
   /**
    * Searches through the Java Archive (jar or war file) looking for classes
    * that match our requirements.
+   * @param scan        - the scan the classes are added to
+   * @param source      - used to read the class files
    * @param entries       - all of the entries in the Java Archive, this is an enumeration
    *                    provided by the Jar file
    * @param jarFileName - the name of the java archive
@@ -304,7 +465,7 @@ public class ClassPathSearch implements ClassPathSearchService {
    *                    this is used when we have bang path offsets (e.g.
    * @param module the containing jar/war file (used for spring boot embedded jar scanning)
    */
-  private void searchFiles(Enumeration<?> entries, String jarFileName, String jarOffset, File module) {
+  private void searchFiles(Scan scan, ClassFileSource source, Enumeration<?> entries, String jarFileName, String jarOffset, File module) {
 
     if (entries == null) {
       return;
@@ -336,12 +497,12 @@ public class ClassPathSearch implements ClassPathSearchService {
       String entryName = element.toString();
 
       if (isEntryEmbeddedJar(module, entryName)) {
-        scanSpringBootEmbeddedJar(jarFileName, module, entryName);
+        scanSpringBootEmbeddedJar(scan, jarFileName, module, entryName);
       }
 
       if (isEntryClass(jarOffset, entryName)) {
         // check if it an 'interesting' class - entity etc
-        registerScannedClass(jarFileName, jarOffset, entryName);
+        registerScannedClass(scan, source, jarFileName, jarOffset, entryName);
       }
     }
   }
@@ -360,18 +521,19 @@ public class ClassPathSearch implements ClassPathSearchService {
     return entryName.endsWith(".class") && (jarOffset == null || entryName.startsWith(jarOffset));
   }
 
-  private void scanSpringBootEmbeddedJar(String jarFileName, File module, String fileName) {
+  private void scanSpringBootEmbeddedJar(Scan scan, String jarFileName, File module, String fileName) {
     // spring boot embedded jar
     logger.debug("spring boot embedded:{} : module:{}", fileName, module.getAbsoluteFile());
     try {
       org.springframework.boot.loader.jar.JarFile jarFile = new org.springframework.boot.loader.jar.JarFile(module);
       org.springframework.boot.loader.jar.JarFile jarEntryFile = jarFile.getNestedJarFile(jarFile.getJarEntryData(fileName));
+      ClassFileSource source = new JarClassFileSource(jarEntryFile);
       Iterator<JarEntryData> iterator = jarEntryFile.iterator();
       while (iterator.hasNext()) {
         JarEntryData jarEntryData = iterator.next();
         if (jarEntryData.getName().toString().endsWith(".class")) {
           logger.debug("... spring boot class entry:{}", jarEntryData.getName().toString());
-          registerScannedClass(jarFileName, null, jarEntryData.getName().toString());
+          registerScannedClass(scan, source, jarFileName, null, jarEntryData.getName().toString());
         }
       }
     } catch (IOException e) {
@@ -379,8 +541,16 @@ public class ClassPathSearch implements ClassPathSearchService {
     }
   }
 
-  private void registerScannedClass(String jarFileName, String jarOffset, String fileName) {
+  /**
+   * Add the class to the scan if it is in a searched package.
+   * <p>
+   * With a ClassPathSearchTypeMatcher the class file is read here (so in parallel) such
+   * that later only the candidate classes are loaded.
+   * </p>
+   */
+  private void registerScannedClass(Scan scan, ClassFileSource source, String jarFileName, String jarOffset, String entryName) {
 
+    String fileName = entryName;
     if (jarOffset != null) {
       // we got through here only if there is an offset and we
       // matched it, so strip it off the file
@@ -399,22 +569,53 @@ public class ClassPathSearch implements ClassPathSearchService {
     }
 
     if (filter.isSearchPackage(pckgName)) {
-      // get the class for our class name
+      ClassFileInfo info = (typeMatcher == null) ? null : readClassFile(source, entryName);
+      scan.classes.add(new ScannedClass(jarFileName, className, info));
+    }
+  }
+
+  /**
+   * Read the class file returning null if it can not be read (and so the class should be loaded and checked).
+   */
+  private ClassFileInfo readClassFile(ClassFileSource source, String entryName) {
+    try {
+      InputStream in = source.open(entryName);
+      if (in == null) {
+        return null;
+      }
       try {
-        Class<?> theClass = Class.forName(className, false, classLoader);
+        return ClassFileInfo.read(new BufferedInputStream(in), annotationDescriptors);
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      logger.trace("Error reading class file " + entryName + " " + e.getMessage());
+      return null;
+    } catch (RuntimeException e) {
+      logger.trace("Error reading class file " + entryName + " " + e.getMessage());
+      return null;
+    }
+  }
 
-        if (matcher.isMatch(theClass)) {
-          matchList.add(theClass);
-          registerHit(jarFileName, theClass);
-        }
+  /**
+   * Load the class and check it with the matcher.
+   */
+  private void loadClass(String jarFileName, String className) {
+    // get the class for our class name
+    try {
+      Class<?> theClass = Class.forName(className, false, classLoader);
 
-      } catch (ClassNotFoundException e) {
-        // expected to get this hence trace
-        logger.trace("Error searching classpath" + e.getMessage());
-      } catch (NoClassDefFoundError e) {
-        // expected to get this hence trace
-        logger.trace("Error searching classpath" + e.getMessage());
+      if (matcher.isMatch(theClass)) {
+        matchList.add(theClass);
+        registerHit(jarFileName, theClass);
       }
+
+    } catch (ClassNotFoundException e) {
+      // expected to get this hence trace
+      logger.trace("Error searching classpath" + e.getMessage());
+    } catch (NoClassDefFoundError e) {
+      // expected to get this hence trace
+      logger.trace("Error searching classpath" + e.getMessage());
     }
   }
 
@@ -517,6 +718,154 @@ public class ClassPathSearch implements ClassPathSearchService {
     }
   }
 
+  /**
+   * The classes found (in the searched packages) scanning a class path entry.
+   */
+  private static class Scan {
+
+    private final List<ScannedClass> classes = new ArrayList<ScannedClass>();
+  }
+
+  /**
+   * A class found scanning the class path with its class file info (null when not read).
+   */
+  private static class ScannedClass {
+
+    private final String jarFileName;
+    private final String className;
+    private final ClassFileInfo info;
+
+    ScannedClass(String jarFileName, String className, ClassFileInfo info) {
+      this.jarFileName = jarFileName;
+      this.className = className;
+      this.info = info;
+    }
+  }
+
+  /**
+   * Opens the class file of an entry in a directory or jar.
+   */
+  private interface ClassFileSource {
+
+    /**
+     * Return the content of the class file or null if not found.
+     */
+    InputStream open(String entryName) throws IOException;
+  }
+
+  /**
+   * Reads the class files from a jar.
+   */
+  private static class JarClassFileSource implements ClassFileSource {
+
+    private final JarFile jarFile;
+
+    JarClassFileSource(JarFile jarFile) {
+      this.jarFile = jarFile;
+    }
+
+    @Override
+    public InputStream open(String entryName) throws IOException {
+      ZipEntry entry = jarFile.getEntry(entryName);
+      return (entry == null) ? null : jarFile.getInputStream(entry);
+    }
+  }
+
+  /**
+   * Determines the candidate classes from the class file info.
+   * <p>
+   * A class is a candidate if it has one of the annotations of interest or if it is
+   * concrete and extends or implements one of the types of interest. The super types are
+   * followed through the scanned class files and only super types that were not scanned
+   * (typically in a library jar not searched) are loaded.
+   * </p>
+   */
+  private class CandidateTypes {
+
+    private final Map<String, ClassFileInfo> scannedTypes;
+
+    private final Set<String> matchTypeNames = new HashSet<String>();
+
+    /**
+     * Cache of whether a type extends or implements one of the types of interest.
+     */
+    private final Map<String, Boolean> matchTypeCache = new HashMap<String, Boolean>();
+
+    CandidateTypes(Map<String, ClassFileInfo> scannedTypes) {
+      this.scannedTypes = scannedTypes;
+      for (Class<?> matchType : typeMatcher.getMatchTypes()) {
+        matchTypeNames.add(matchType.getName());
+      }
+    }
+
+    boolean isCandidate(ClassFileInfo info) {
+      return info.isAnnotated() || (info.isConcrete() && isMatchType(info));
+    }
+
+    private boolean isMatchType(ClassFileInfo info) {
+      if (info.getSuperName() != null && isMatchType(info.getSuperName())) {
+        return true;
+      }
+      for (String interfaceName : info.getInterfaces()) {
+        if (isMatchType(interfaceName)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean isMatchType(String typeName) {
+
+      Boolean cached = matchTypeCache.get(typeName);
+      if (cached != null) {
+        return cached;
+      }
+
+      boolean matchType;
+      if (matchTypeNames.contains(typeName)) {
+        matchType = true;
+
+      } else {
+        ClassFileInfo info = scannedTypes.get(typeName);
+        if (info != null) {
+          // guard against cyclic (invalid) class files
+          matchTypeCache.put(typeName, Boolean.FALSE);
+          matchType = isMatchType(info);
+        } else {
+          matchType = isLoadedMatchType(typeName);
+        }
+      }
+
+      matchTypeCache.put(typeName, matchType);
+      return matchType;
+    }
+
+    /**
+     * Load a super type that was not scanned and check it against the types of interest.
+     */
+    private boolean isLoadedMatchType(String typeName) {
+      if (typeName.startsWith("java.")) {
+        return false;
+      }
+      try {
+        Class<?> type = Class.forName(typeName, false, classLoader);
+        for (Class<?> matchType : typeMatcher.getMatchTypes()) {
+          if (matchType.isAssignableFrom(type)) {
+            return true;
+          }
+        }
+        return false;
+
+      } catch (ClassNotFoundException e) {
+        logger.trace("Error searching classpath" + e.getMessage());
+        return false;
+      } catch (LinkageError e) {
+        logger.trace("Error searching classpath" + e.getMessage());
+        return false;
+      }
+    }
+  }
+
   /**
    * Element that has both underlying file and ! jarOffset.
    */
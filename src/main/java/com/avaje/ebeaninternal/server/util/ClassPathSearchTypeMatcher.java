@@ -0,0 +1,22 @@
+package com.avaje.ebeaninternal.server.util;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * A ClassPathSearchMatcher that describes the classes it matches such that the class path
+ * search can determine the candidate classes by reading the class files (without loading
+ * all the classes on the class path).
+ */
+public interface ClassPathSearchTypeMatcher extends ClassPathSearchMatcher {
+
+  /**
+   * Return the annotations that a matching class is annotated with.
+   */
+  List<Class<? extends Annotation>> getMatchAnnotations();
+
+  /**
+   * Return the types that a matching concrete class extends or implements.
+   */
+  List<Class<?>> getMatchTypes();
+}
@@ -196,6 +196,21 @@ public class DefaultExpressionList<T> implements SpiExpressionList<T> {
     return query.findFutureList();
   }
 
+  @Override
+  public AsyncFuture<List<T>> findListAsync() {
+    return query.findListAsync();
+  }
+
+  @Override
+  public AsyncFuture<T> findUniqueAsync() {
+    return query.findUniqueAsync();
+  }
+
+  @Override
+  public AsyncFuture<Integer> findRowCountAsync() {
+    return query.findRowCountAsync();
+  }
+
   @Override
   public PagedList<T> findPagedList(int pageIndex, int pageSize) {
     return query.findPagedList(pageIndex, pageSize);
@@ -74,6 +74,16 @@ public class DefaultExpressionRequest implements SpiExpressionRequest {
     return binder.getJsonExpressionHandler();
   }
 
+  @Override
+  public boolean isMultiValueSupported(Class<?> valueType, boolean not) {
+    return binder != null && binder.isMultiValueSupported(valueType, not);
+  }
+
+  @Override
+  public String getMultiValueInExpression(boolean not) {
+    return binder.getMultiValueInExpression(not);
+  }
+
   public String parseDeploy(String logicalProp) {
 
     String s = deployParser.getDeployWord(logicalProp);
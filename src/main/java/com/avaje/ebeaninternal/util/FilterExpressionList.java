@@ -56,6 +56,21 @@ public class FilterExpressionList<T> extends DefaultExpressionList<T> {
     return rootQuery.findFutureRowCount();
   }
 
+  @Override
+  public AsyncFuture<List<T>> findListAsync() {
+    return rootQuery.findListAsync();
+  }
+
+  @Override
+  public AsyncFuture<T> findUniqueAsync() {
+    return rootQuery.findUniqueAsync();
+  }
+
+  @Override
+  public AsyncFuture<Integer> findRowCountAsync() {
+    return rootQuery.findRowCountAsync();
+  }
+
   @Override
   public List<T> findList() {
     return rootQuery.findList();
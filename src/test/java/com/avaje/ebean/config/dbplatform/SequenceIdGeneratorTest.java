@@ -0,0 +1,163 @@
+package com.avaje.ebean.config.dbplatform;
+
+import com.avaje.ebean.BackgroundExecutor;
+import com.avaje.ebean.Transaction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceIdGeneratorTest {
+
+  /**
+   * Runs the background tasks in the calling thread.
+   */
+  static class InlineExecutor implements BackgroundExecutor {
+
+    @Override
+    public void execute(Runnable r) {
+      r.run();
+    }
+
+    @Override
+    public void executePeriodically(Runnable r, long delay, TimeUnit unit) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Sequence generator that does not use the database.
+   */
+  static class TestSequenceIdGenerator extends SequenceIdGenerator {
+
+    final AtomicLong sequence = new AtomicLong();
+
+    final List<Integer> loadSizes = new ArrayList<Integer>();
+
+    TestSequenceIdGenerator(BackgroundExecutor be, int batchSize, int maxBatchSize) {
+      super(be, null, "test_seq", batchSize, maxBatchSize);
+    }
+
+    @Override
+    public String getSql(int batchSize) {
+      return null;
+    }
+
+    @Override
+    protected long[] getMoreIdValues(int loadSize, Transaction t) {
+      synchronized (loadSizes) {
+        loadSizes.add(loadSize);
+      }
+      long[] ids = new long[loadSize];
+      for (int i = 0; i < loadSize; i++) {
+        ids[i] = sequence.incrementAndGet();
+      }
+      return ids;
+    }
+  }
+
+  /**
+   * Sequence generator overriding the deprecated getMoreIds().
+   */
+  static class LegacySequenceIdGenerator extends SequenceIdGenerator {
+
+    long sequence;
+
+    LegacySequenceIdGenerator(BackgroundExecutor be, int batchSize) {
+      super(be, null, "legacy_seq", batchSize);
+    }
+
+    @Override
+    public String getSql(int batchSize) {
+      return null;
+    }
+
+    @Override
+    protected ArrayList<Long> getMoreIds(int loadSize, Transaction t) {
+      ArrayList<Long> ids = new ArrayList<Long>(loadSize);
+      for (int i = 0; i < loadSize; i++) {
+        ids.add(++sequence);
+      }
+      return ids;
+    }
+  }
+
+  @Test
+  public void testNextId_legacyGetMoreIds() {
+
+    LegacySequenceIdGenerator gen = new LegacySequenceIdGenerator(new InlineExecutor(), 10);
+    for (long i = 1; i <= 25; i++) {
+      assertEquals(i, gen.nextId(null));
+    }
+  }
+
+  @Test
+  public void testNextId_inOrder() {
+
+    TestSequenceIdGenerator gen = new TestSequenceIdGenerator(new InlineExecutor(), 10, 10);
+    for (long i = 1; i <= 100; i++) {
+      assertEquals(i, gen.nextId(null));
+    }
+    // only the very first load blocked
+    assertEquals(1, gen.getBlockedCount());
+    assertEquals(11, gen.getLoadCount());
+    assertEquals(10, gen.getCurrentBatchSize());
+  }
+
+  @Test
+  public void testAdaptiveBatchSize() {
+
+    TestSequenceIdGenerator gen = new TestSequenceIdGenerator(new InlineExecutor(), 20, 100);
+    for (int i = 0; i < 1000; i++) {
+      gen.nextId(null);
+    }
+    // ids consumed quickly so the batch size grows up to the max
+    assertEquals(100, gen.getCurrentBatchSize());
+    assertTrue(gen.loadSizes.contains(40));
+    assertTrue(gen.loadSizes.contains(80));
+  }
+
+  @Test
+  public void testPreAllocate_maxBatchSize() {
+
+    TestSequenceIdGenerator gen = new TestSequenceIdGenerator(new InlineExecutor(), 20, 500);
+    gen.preAllocateIds(10000);
+    assertEquals(500, gen.getAvailable());
+    assertEquals(1L, gen.nextId(null));
+    assertEquals(0, gen.getBlockedCount());
+  }
+
+  @Test
+  public void testConcurrentUse_uniqueIds() throws InterruptedException {
+
+    final TestSequenceIdGenerator gen = new TestSequenceIdGenerator(new InlineExecutor(), 50, 1000);
+    final Set<Object> ids = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 10000; i++) {
+            ids.add(gen.nextId(null));
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(80000, ids.size());
+  }
+}
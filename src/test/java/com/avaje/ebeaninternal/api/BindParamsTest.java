@@ -18,23 +18,20 @@ public class BindParamsTest {
     bindParams.setParameter("ids", ids);
     BindParams.Param param = bindParams.getParameter("ids");
     assertEquals(3, param.queryBindCount());
-    assertFalse(bindParams.isSameBindHash());
+    int[] hash = bindParams.calcQueryPlanHash();
+    assertEquals(3, hash[1]);
 
     List<String> ids2 = Arrays.asList("1", "2", "3", "4");
     bindParams.setParameter("ids", ids2);
     assertEquals(4, param.queryBindCount());
-    assertFalse(bindParams.isSameBindHash());
+    int[] hash2 = bindParams.calcQueryPlanHash();
+    assertEquals(4, hash2[1]);
+    assertNotEquals(hash[0], hash2[0]);
 
     List<String> ids3 = Arrays.asList("2", "99", "44");
     bindParams.setParameter("ids", ids3);
     assertEquals(3, param.queryBindCount());
-    assertFalse(bindParams.isSameBindHash());
-
-
-    List<String> ids4 = Arrays.asList("4545", "3499", "3444");
-    bindParams.setParameter("ids", ids4);
-    assertEquals(3, param.queryBindCount());
-    assertTrue(bindParams.isSameBindHash());
+    assertArrayEquals(hash, bindParams.calcQueryPlanHash());
   }
 
 }
\ No newline at end of file
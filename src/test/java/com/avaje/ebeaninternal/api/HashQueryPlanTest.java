@@ -42,4 +42,16 @@ public class HashQueryPlanTest {
     assertThat(hc(null,10, 7)).isNotEqualTo(hc("foo", 10, 7));
     assertThat(hc(null,10, 7)).isEqualTo(hc(null, 10, 7));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testBuilderStringCollision() throws Exception {
+
+    // "Aa" and "BB" have the same String hashCode()
+    HashQueryPlan aa = new HashQueryPlanBuilder().add("Aa").build();
+    HashQueryPlan bb = new HashQueryPlanBuilder().add("BB").build();
+
+    assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+    assertThat(aa).isNotEqualTo(bb);
+    assertThat(new HashQueryPlanBuilder().add("Aa").build()).isEqualTo(aa);
+  }
+}
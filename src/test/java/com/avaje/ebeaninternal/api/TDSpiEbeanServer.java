@@ -5,6 +5,7 @@ import com.avaje.ebean.bean.BeanCollection;
 import com.avaje.ebean.bean.CallStack;
 import com.avaje.ebean.bean.EntityBeanIntercept;
 import com.avaje.ebean.bean.ObjectGraphNode;
+import com.avaje.ebean.bean.PersistenceContext;
 import com.avaje.ebean.cache.ServerCacheManager;
 import com.avaje.ebean.config.ServerConfig;
 import com.avaje.ebean.config.dbplatform.DatabasePlatform;
@@ -19,6 +20,7 @@ import com.avaje.ebeaninternal.server.core.SpiOrmQueryRequest;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.query.CQuery;
 import com.avaje.ebeaninternal.server.query.CQueryEngine;
+import com.avaje.ebeaninternal.server.query.ParallelQueryExecutor;
 import com.avaje.ebeaninternal.server.transaction.RemoteTransactionEvent;
 
 import javax.persistence.OptimisticLockException;
@@ -72,6 +74,11 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public boolean isMultiValueSupported(Class<?> valueType, boolean not) {
+    return false;
+  }
+
   @Override
   public CallStack createCallStack() {
     return null;
@@ -82,6 +89,11 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public PersistenceContext createPersistenceContext() {
+    return null;
+  }
+
   @Override
   public DdlGenerator getDdlGenerator() {
     return null;
@@ -147,6 +159,11 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public ParallelQueryExecutor getParallelQueryExecutor() {
+    return null;
+  }
+
   @Override
   public void remoteTransactionEvent(RemoteTransactionEvent event) {
 
@@ -372,6 +389,26 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public <T> int publishBatched(Query<T> query, PublishOptions options, Transaction transaction) {
+    return 0;
+  }
+
+  @Override
+  public <T> int publishBatched(Query<T> query, PublishOptions options) {
+    return 0;
+  }
+
+  @Override
+  public <T> int draftRestoreBatched(Query<T> query, PublishOptions options, Transaction transaction) {
+    return 0;
+  }
+
+  @Override
+  public <T> int draftRestoreBatched(Query<T> query, PublishOptions options) {
+    return 0;
+  }
+
   @Override
   public <T> T draftRestore(Class<T> beanType, Object id, Transaction transaction) {
     return null;
@@ -502,6 +539,21 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public <T> AsyncFuture<List<T>> findListAsync(Query<T> query, Transaction transaction) {
+    return null;
+  }
+
+  @Override
+  public <T> AsyncFuture<T> findUniqueAsync(Query<T> query, Transaction transaction) {
+    return null;
+  }
+
+  @Override
+  public <T> AsyncFuture<Integer> findRowCountAsync(Query<T> query, Transaction transaction) {
+    return null;
+  }
+
   @Override
   public SqlFutureList findFutureList(SqlQuery query, Transaction transaction) {
     return null;
@@ -552,6 +604,21 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public void findEach(SqlQuery query, QueryEachConsumer<SqlRow> consumer, Transaction transaction) {
+
+  }
+
+  @Override
+  public void findEachWhile(SqlQuery query, QueryEachWhileConsumer<SqlRow> consumer, Transaction transaction) {
+
+  }
+
+  @Override
+  public QueryIterator<SqlRow> findIterate(SqlQuery query, Transaction transaction) {
+    return null;
+  }
+
   @Override
   public void save(Object bean) throws OptimisticLockException {
 
@@ -796,4 +863,14 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
   public void insertAll(Collection<?> beans, Transaction transaction) {
 
   }
+
+  @Override
+  public <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans) {
+
+  }
+
+  @Override
+  public <T> void bulkInsert(Class<T> beanType, Iterable<? extends T> beans, Transaction transaction) {
+
+  }
 }
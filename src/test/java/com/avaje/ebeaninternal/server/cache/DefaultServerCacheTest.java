@@ -3,6 +3,9 @@ package com.avaje.ebeaninternal.server.cache;
 import com.avaje.ebean.cache.ServerCacheOptions;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 public class DefaultServerCacheTest {
@@ -56,4 +59,19 @@ public class DefaultServerCacheTest {
     DefaultServerCache cache = createCache();
     assertEquals(90, cache.getTrimSize());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetAll() throws Exception {
+
+    DefaultServerCache cache = createCache();
+    cache.put("A", "a");
+    cache.put("C", "c");
+
+    Map<Object, Object> hits = cache.getAll(Arrays.<Object>asList("A", "B", "C"));
+    assertEquals(2, hits.size());
+    assertEquals("a", hits.get("A"));
+    assertEquals("c", hits.get("C"));
+    assertFalse(hits.containsKey("B"));
+    assertEquals(66, cache.getHitRatio());
+  }
+}
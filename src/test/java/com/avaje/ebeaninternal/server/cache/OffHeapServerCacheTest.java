@@ -0,0 +1,101 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebean.cache.ServerCacheOptions;
+import com.avaje.ebean.cache.ServerCacheStatistics;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OffHeapServerCacheTest {
+
+  private OffHeapServerCache createCache(long maxOffHeapBytes) {
+
+    ServerCacheOptions cacheOptions = new ServerCacheOptions();
+    cacheOptions.setMaxSize(100);
+    cacheOptions.setMaxIdleSecs(60);
+    cacheOptions.setMaxSecsToLive(600);
+    cacheOptions.setTrimFrequency(60);
+
+    return new OffHeapServerCache("foo", cacheOptions, 1024, maxOffHeapBytes);
+  }
+
+  @Test
+  public void testPutGet_bytes() throws Exception {
+
+    OffHeapServerCache cache = createCache(4096);
+    cache.put(1, new byte[]{1, 2, 3});
+    cache.put(2, new byte[200]);
+
+    assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) cache.get(1));
+    assertEquals(200, ((byte[]) cache.get(2)).length);
+    assertNull(cache.get(3));
+
+    ServerCacheStatistics statistics = cache.getStatistics(false);
+    assertEquals(2048, statistics.getOffHeapBytes());
+    assertEquals(64 + 256, statistics.getOffHeapUsedBytes());
+  }
+
+  @Test
+  public void testRemove_freesChunk() throws Exception {
+
+    OffHeapServerCache cache = createCache(4096);
+    cache.put(1, new byte[]{1, 2, 3});
+    assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) cache.remove(1));
+    assertNull(cache.remove(1));
+    assertNull(cache.get(1));
+    assertEquals(0, cache.getStatistics(false).getOffHeapUsedBytes());
+
+    // chunk reused
+    cache.put(2, new byte[]{4});
+    assertEquals(1024, cache.getStatistics(false).getOffHeapBytes());
+    assertArrayEquals(new byte[]{4}, (byte[]) cache.get(2));
+  }
+
+  @Test
+  public void testPut_returnsPreviousValue() throws Exception {
+
+    OffHeapServerCache cache = createCache(4096);
+    assertNull(cache.put(1, new byte[]{1, 2, 3}));
+    assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) cache.put(1, new byte[]{4}));
+    assertArrayEquals(new byte[]{4}, (byte[]) cache.get(1));
+    assertEquals(64, cache.getStatistics(false).getOffHeapUsedBytes());
+  }
+
+  @Test
+  public void testPut_when_noOffHeapMemory_heldOnHeap() throws Exception {
+
+    OffHeapServerCache cache = createCache(1024);
+    cache.put(1, new byte[1000]);
+    cache.put(2, new byte[1000]);
+    cache.put(3, new byte[2000]);
+
+    assertEquals(1000, ((byte[]) cache.get(1)).length);
+    assertEquals(1000, ((byte[]) cache.get(2)).length);
+    assertEquals(2000, ((byte[]) cache.get(3)).length);
+    assertEquals(1024, cache.getStatistics(false).getOffHeapBytes());
+  }
+
+  @Test
+  public void testPut_otherValues_heldOnHeap() throws Exception {
+
+    OffHeapServerCache cache = createCache(4096);
+    assertNull(cache.put("A", "A"));
+    assertEquals("A", cache.put("A", "B"));
+    assertEquals("B", cache.get("A"));
+    assertEquals(0, cache.getStatistics(false).getOffHeapBytes());
+  }
+
+  @Test
+  public void testEvictAndClear_freesChunks() throws Exception {
+
+    OffHeapServerCache cache = createCache(64 * 1024);
+    for (int i = 0; i < 500; i++) {
+      cache.put(i, new byte[]{(byte) i});
+    }
+    assertEquals(100, cache.size());
+    assertEquals(100 * 64, cache.getStatistics(false).getOffHeapUsedBytes());
+
+    cache.clear();
+    assertEquals(0, cache.getStatistics(false).getOffHeapUsedBytes());
+  }
+}
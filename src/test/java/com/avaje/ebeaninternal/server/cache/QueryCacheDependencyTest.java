@@ -0,0 +1,72 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QueryCacheDependencyTest {
+
+  private Set<Object> ids(Object... ids) {
+    return new HashSet<Object>(Arrays.asList(ids));
+  }
+
+  private Set<String> names(String... names) {
+    return new HashSet<String>(Arrays.asList(names));
+  }
+
+  @Test
+  public void isInvalidatedByUpdate_when_containsId() {
+
+    QueryCacheDependency dependency = new QueryCacheDependency(ids(1L, 2L), names(), names("name"));
+    assertTrue(dependency.isInvalidatedByUpdate(1L, names("smallnote")));
+    assertFalse(dependency.isInvalidatedByUpdate(3L, names("smallnote")));
+  }
+
+  @Test
+  public void isInvalidatedByUpdate_when_predicateProperty() {
+
+    QueryCacheDependency dependency = new QueryCacheDependency(ids(1L), names(), names("name", "billingAddress.city"));
+    assertTrue(dependency.isInvalidatedByUpdate(3L, names("name")));
+    assertTrue(dependency.isInvalidatedByUpdate(3L, names("billingAddress")));
+    assertFalse(dependency.isInvalidatedByUpdate(3L, names("status")));
+    // updated properties not known
+    assertTrue(dependency.isInvalidatedByUpdate(3L, null));
+  }
+
+  @Test
+  public void isInvalidatedByUpdate_when_noPredicates() {
+
+    QueryCacheDependency dependency = new QueryCacheDependency(ids(1L), names(), Collections.<String>emptySet());
+    assertFalse(dependency.isInvalidatedByUpdate(3L, null));
+    assertTrue(dependency.isInvalidatedByUpdate(1L, null));
+  }
+
+  @Test
+  public void isInvalidatedByUpdate_when_unknown() {
+
+    assertTrue(QueryCacheDependency.UNKNOWN.isInvalidatedByUpdate(3L, names("status")));
+    QueryCacheDependency rawPredicates = new QueryCacheDependency(ids(1L), names(), null);
+    assertTrue(rawPredicates.isInvalidatedByUpdate(3L, names("status")));
+  }
+
+  @Test
+  public void isJoinedTable() {
+
+    QueryCacheDependency dependency = new QueryCacheDependency(ids(1L), names("o_customer"), names());
+    assertTrue(dependency.isJoinedTable("o_customer"));
+    assertFalse(dependency.isJoinedTable("o_order"));
+  }
+
+  @Test
+  public void isJoinedTable_when_unknown() {
+
+    assertTrue(QueryCacheDependency.UNKNOWN.isJoinedTable("o_customer"));
+    assertTrue(QueryCacheDependency.UNKNOWN.isJoinedTable("o_order"));
+  }
+}
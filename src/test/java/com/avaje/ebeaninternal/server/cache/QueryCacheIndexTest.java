@@ -0,0 +1,120 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QueryCacheIndexTest {
+
+  private Set<Object> ids(Object... ids) {
+    return new HashSet<Object>(Arrays.asList(ids));
+  }
+
+  private Set<String> names(String... names) {
+    return new HashSet<String>(Arrays.asList(names));
+  }
+
+  private Set<Object> keys(List<Object> keys) {
+    return new HashSet<Object>(keys);
+  }
+
+  private QueryCacheIndex createIndex() {
+    QueryCacheIndex index = new QueryCacheIndex();
+    index.put("byId", new QueryCacheDependency(ids(1L, 2L), names("o_customer"), Collections.<String>emptySet()));
+    index.put("byName", new QueryCacheDependency(ids(3L), names(), names("name")));
+    index.put("byCity", new QueryCacheDependency(ids(4L), names("o_address"), names("billingAddress.city")));
+    index.put("raw", new QueryCacheDependency(ids(5L), names(), null));
+    index.put("unknown", QueryCacheDependency.UNKNOWN);
+    return index;
+  }
+
+  @Test
+  public void removeByUpdate_when_id() {
+
+    QueryCacheIndex index = createIndex();
+    assertEquals(keys(Arrays.<Object>asList("byId", "raw", "unknown")), keys(index.removeByUpdate(1L, names("smallnote"))));
+    assertEquals(2, index.size());
+
+    // removed so not invalidated again
+    assertEquals(0, index.removeByUpdate(2L, names("smallnote")).size());
+  }
+
+  @Test
+  public void removeByUpdate_when_predicateProperty() {
+
+    QueryCacheIndex index = createIndex();
+    assertEquals(keys(Arrays.<Object>asList("byCity", "raw", "unknown")), keys(index.removeByUpdate(9L, names("billingAddress"))));
+    assertEquals(keys(Arrays.<Object>asList("byName")), keys(index.removeByUpdate(9L, names("name", "status"))));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  public void removeByUpdate_when_updatedPropertiesUnknown() {
+
+    QueryCacheIndex index = createIndex();
+    assertEquals(keys(Arrays.<Object>asList("byName", "byCity", "raw", "unknown")), keys(index.removeByUpdate(9L, null)));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  public void removeByTables() {
+
+    QueryCacheIndex index = createIndex();
+    assertEquals(keys(Arrays.<Object>asList("byCity", "unknown")), keys(index.removeByTables(names("o_address"))));
+    assertEquals(keys(Arrays.<Object>asList("byId")), keys(index.removeByTables(names("o_customer", "o_order"))));
+    assertEquals(0, index.removeByTables(names("o_address")).size());
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  public void put_when_replaced() {
+
+    QueryCacheIndex index = createIndex();
+    index.put("byId", new QueryCacheDependency(ids(7L), names(), Collections.<String>emptySet()));
+
+    assertEquals(keys(Arrays.<Object>asList("byName", "byCity", "raw", "unknown")), keys(index.removeByUpdate(1L, null)));
+    assertEquals(keys(Arrays.<Object>asList("byId")), keys(index.removeByUpdate(7L, names("smallnote"))));
+    assertEquals(0, index.removeByTables(names("o_customer")).size());
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  public void clear() {
+
+    QueryCacheIndex index = createIndex();
+    index.clear();
+    assertEquals(0, index.size());
+    assertEquals(0, index.removeByUpdate(1L, null).size());
+    assertEquals(0, index.removeByTables(names("o_customer")).size());
+  }
+
+  @Test
+  public void contains_when_invalidatedOrReplaced() {
+
+    QueryCacheIndex index = new QueryCacheIndex();
+    QueryCacheDependency dependency = new QueryCacheDependency(ids(1L), names(), Collections.<String>emptySet());
+    index.put("byId", dependency);
+    assertTrue(index.contains("byId", dependency));
+
+    // a concurrent invalidation removed the dependency
+    index.removeByUpdate(1L, null);
+    assertFalse(index.contains("byId", dependency));
+
+    index.put("byId", dependency);
+    index.clear();
+    assertFalse(index.contains("byId", dependency));
+
+    // a concurrent put replaced the dependency
+    index.put("byId", dependency);
+    index.put("byId", new QueryCacheDependency(ids(1L), names(), Collections.<String>emptySet()));
+    assertFalse(index.contains("byId", dependency));
+  }
+}
@@ -1,6 +1,7 @@
 package com.avaje.ebeaninternal.server.cache;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -120,4 +121,54 @@ public class TestCacheBeanData extends BaseTestCase {
     Assert.assertEquals(person.getAddress().getCity(), newPerson.getAddress().getCity());
         
   }
+
+  @Test
+  public void testCacheBeanBinaryWriteAndRead() {
+
+    SpiEbeanServer server = (SpiEbeanServer)Ebean.getServer(null);
+    BeanDescriptor<EPerson> desc = server.getBeanDescriptor(EPerson.class);
+    Assert.assertTrue(CachedBeanDataBinary.isSupported(desc));
+
+    EAddress address = new EAddress();
+    address.setStreet("92 Someplace Else");
+    address.setCity("Auckland");
+
+    EPerson person = new EPerson();
+    person.setId(98989L);
+    person.setName("Rob");
+    person.setAddress(address);
+
+    CachedBeanData cacheData = desc.cacheBeanExtractData((EntityBean)person);
+    byte[] bytes = CachedBeanDataBinary.write(desc, cacheData);
+    CachedBeanData readData = CachedBeanDataBinary.read(desc, bytes);
+
+    Assert.assertEquals(cacheData.getWhenCreated(), readData.getWhenCreated());
+    Assert.assertNull(readData.getSharableBean());
+
+    EPerson newPerson = new EPerson();
+    desc.cacheBeanLoadData((EntityBean)newPerson, readData);
+
+    Assert.assertEquals(person.getId(), newPerson.getId());
+    Assert.assertEquals(person.getName(), newPerson.getName());
+    Assert.assertEquals(address.getStreet(), newPerson.getAddress().getStreet());
+    Assert.assertEquals(address.getCity(), newPerson.getAddress().getCity());
+    Assert.assertNull(newPerson.getAddress().getSuburb());
+  }
+
+  @Test
+  public void testCacheBeanBinaryWrite_when_valueTooLong_returnsNull() {
+
+    SpiEbeanServer server = (SpiEbeanServer)Ebean.getServer(null);
+    BeanDescriptor<EPerson> desc = server.getBeanDescriptor(EPerson.class);
+
+    char[] longName = new char[70000];
+    Arrays.fill(longName, 'a');
+
+    EPerson person = new EPerson();
+    person.setId(98989L);
+    person.setName(new String(longName));
+
+    CachedBeanData cacheData = desc.cacheBeanExtractData((EntityBean)person);
+    Assert.assertNull(CachedBeanDataBinary.write(desc, cacheData));
+  }
 }
@@ -0,0 +1,127 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebean.cache.ServerCacheOptions;
+import com.avaje.ebean.cache.ServerCacheStatistics;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TinyLfuServerCacheTest {
+
+  private TinyLfuServerCache createCache(int maxSize) {
+
+    ServerCacheOptions cacheOptions = new ServerCacheOptions();
+    cacheOptions.setMaxSize(maxSize);
+    cacheOptions.setMaxIdleSecs(60);
+    cacheOptions.setMaxSecsToLive(600);
+    cacheOptions.setTrimFrequency(60);
+
+    return new TinyLfuServerCache("foo", cacheOptions);
+  }
+
+  @Test
+  public void testPut_when_overMaxSize_evictsOnPut() throws Exception {
+
+    TinyLfuServerCache cache = createCache(100);
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, "v" + i);
+      assertTrue(cache.size() <= 100);
+    }
+    assertEquals(100, cache.size());
+
+    ServerCacheStatistics statistics = cache.getStatistics(true);
+    assertEquals(900, statistics.getEvictByLRU());
+    assertEquals(1000, statistics.getInsertCount());
+    assertEquals(0, cache.getStatistics(false).getEvictByLRU());
+  }
+
+  @Test
+  public void testFrequentlyUsed_survivesScan() throws Exception {
+
+    TinyLfuServerCache cache = createCache(100);
+    for (int i = 0; i < 50; i++) {
+      cache.put("hot" + i, i);
+    }
+    for (int j = 0; j < 5; j++) {
+      for (int i = 0; i < 50; i++) {
+        assertNotNull(cache.get("hot" + i));
+      }
+    }
+
+    // a scan of keys that are only used once
+    for (int i = 0; i < 500; i++) {
+      cache.put("scan" + i, i);
+    }
+
+    int hotCount = 0;
+    for (int i = 0; i < 50; i++) {
+      if (cache.get("hot" + i) != null) {
+        hotCount++;
+      }
+    }
+    assertEquals(50, hotCount);
+    assertEquals(100, cache.size());
+  }
+
+  @Test
+  public void testPutUpdateRemove() throws Exception {
+
+    TinyLfuServerCache cache = createCache(10);
+    assertNull(cache.put("A", "A"));
+    assertEquals("A", cache.put("A", "B"));
+    assertEquals("B", cache.get("A"));
+    assertEquals(1, cache.size());
+
+    assertEquals("B", cache.remove("A"));
+    assertNull(cache.remove("A"));
+    assertNull(cache.get("A"));
+    assertEquals(0, cache.size());
+
+    ServerCacheStatistics statistics = cache.getStatistics(false);
+    assertEquals(1, statistics.getInsertCount());
+    assertEquals(1, statistics.getUpdateCount());
+    assertEquals(1, statistics.getRemoveCount());
+  }
+
+  @Test
+  public void testClear() throws Exception {
+
+    TinyLfuServerCache cache = createCache(10);
+    for (int i = 0; i < 20; i++) {
+      cache.put(i, i);
+    }
+    cache.clear();
+    assertEquals(0, cache.size());
+
+    for (int i = 0; i < 20; i++) {
+      cache.put(i, i);
+    }
+    assertEquals(10, cache.size());
+  }
+
+  @Test
+  public void testSetOptions_reduceMaxSize() throws Exception {
+
+    TinyLfuServerCache cache = createCache(100);
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+    }
+
+    ServerCacheOptions options = cache.getOptions();
+    options.setMaxSize(20);
+    cache.setOptions(options);
+    assertEquals(20, cache.size());
+  }
+
+  @Test
+  public void testRunEviction_when_notExpired() throws Exception {
+
+    TinyLfuServerCache cache = createCache(10);
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, i);
+    }
+    cache.runEviction();
+    assertEquals(10, cache.size());
+    assertEquals(1, cache.getStatistics(false).getEvictionRunCount());
+  }
+}
@@ -0,0 +1,151 @@
+package com.avaje.ebeaninternal.server.cluster.nio;
+
+import com.avaje.ebean.config.ContainerConfig;
+import com.avaje.ebeaninternal.api.TDSpiEbeanServer;
+import com.avaje.ebeaninternal.api.TransactionEventTable;
+import com.avaje.ebeaninternal.server.cluster.ClusterManager;
+import com.avaje.ebeaninternal.server.transaction.RemoteTransactionEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NioClusterBroadcastTest {
+
+  class TestServer extends TDSpiEbeanServer {
+
+    final List<RemoteTransactionEvent> events = new ArrayList<RemoteTransactionEvent>();
+
+    TestServer(String name) {
+      super(name);
+    }
+
+    @Override
+    public void remoteTransactionEvent(RemoteTransactionEvent event) {
+      synchronized (events) {
+        events.add(event);
+      }
+    }
+
+    int eventCount() {
+      synchronized (events) {
+        return events.size();
+      }
+    }
+  }
+
+  private ContainerConfig createContainerConfig(String local, String threadPoolName) {
+    ContainerConfig container = new ContainerConfig();
+    container.setMode(ContainerConfig.ClusterMode.NIO);
+
+    ContainerConfig.SocketConfig socketConfig = new ContainerConfig.SocketConfig();
+    socketConfig.setLocalHostPort(local);
+    socketConfig.setThreadPoolName(threadPoolName);
+    socketConfig.setMembers(Arrays.asList("127.0.0.1:9886", "127.0.0.1:9887", "127.0.0.1:9888"));
+
+    container.setSocketConfig(socketConfig);
+    return container;
+  }
+
+  private RemoteTransactionEvent event(String tableName) {
+    RemoteTransactionEvent evt = new RemoteTransactionEvent("s001");
+    evt.addTableIUD(new TransactionEventTable.TableIUD(tableName, true, false, false));
+    return evt;
+  }
+
+  private void waitFor(TestServer server, int count) throws InterruptedException {
+    for (int i = 0; i < 100 && server.eventCount() < count; i++) {
+      Thread.sleep(50);
+    }
+  }
+
+  /**
+   * Wait until the broadcast is connected to all the other members.
+   */
+  private void waitForOnline(NioClusterBroadcast broadcast, int members) throws InterruptedException {
+    for (int i = 0; i < 200 && broadcast.getStatus().getCurrentGroupSize() < members; i++) {
+      Thread.sleep(50);
+    }
+    assertEquals(members, broadcast.getStatus().getCurrentGroupSize());
+  }
+
+  /**
+   * Start the broadcast with a (non clustering) manager that provides the server.
+   */
+  private NioClusterBroadcast start(String local, String threadPoolName, TestServer server) {
+    ClusterManager manager = new ClusterManager(new ContainerConfig());
+    manager.registerServer(server);
+    NioClusterBroadcast broadcast = new NioClusterBroadcast(createContainerConfig(local, threadPoolName));
+    broadcast.startup(manager);
+    return broadcast;
+  }
+
+  @Test
+  public void broadcast_to_allMembers() throws Exception {
+
+    TestServer server0 = new TestServer("s001");
+    TestServer server1 = new TestServer("s001");
+    TestServer server2 = new TestServer("s001");
+
+    NioClusterBroadcast nio0 = start("127.0.0.1:9886", "nio0", server0);
+    NioClusterBroadcast nio1 = start("127.0.0.1:9887", "nio1", server1);
+    NioClusterBroadcast nio2 = start("127.0.0.1:9888", "nio2", server2);
+
+    try {
+      // members only count as online once connected
+      waitForOnline(nio0, 2);
+      waitForOnline(nio1, 2);
+      waitForOnline(nio2, 2);
+
+      int count = 200;
+      for (int i = 0; i < count; i++) {
+        nio0.broadcast(event("table" + i));
+      }
+      nio1.broadcast(event("fromOne"));
+
+      waitFor(server1, count);
+      waitFor(server2, count + 1);
+      waitFor(server0, 1);
+
+      assertEquals(count, server1.eventCount());
+      assertEquals(count + 1, server2.eventCount());
+      assertEquals(1, server0.eventCount());
+
+      // events from a member are processed in order
+      for (int i = 0; i < count; i++) {
+        assertEquals("table" + i, server1.events.get(i).getTableIUDList().get(0).getTableName());
+      }
+
+    } finally {
+      nio0.shutdown();
+      nio1.shutdown();
+      nio2.shutdown();
+    }
+  }
+
+  @Test
+  public void broadcast_when_memberNotListening_notOnline() throws Exception {
+
+    TestServer server0 = new TestServer("s001");
+    NioClusterBroadcast nio0 = start("127.0.0.1:9886", "nio0", server0);
+    try {
+      // the other members are not listening so never connect
+      Thread.sleep(300);
+      assertEquals(0, nio0.getStatus().getCurrentGroupSize());
+
+      // does not wait on members that are not connected
+      long start = System.currentTimeMillis();
+      for (int i = 0; i < 10; i++) {
+        nio0.broadcast(event("table" + i));
+      }
+      assertTrue(System.currentTimeMillis() - start < 1000);
+
+    } finally {
+      nio0.shutdown();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.avaje.ebeaninternal.server.cluster.nio;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NioFramesTest {
+
+  private byte[] bytes(ByteBuffer buffer) {
+    byte[] content = new byte[buffer.remaining()];
+    buffer.get(content);
+    return content;
+  }
+
+  @Test
+  public void encode_read_singleFrame() throws IOException {
+
+    byte[] m0 = "hello".getBytes();
+    byte[] m1 = new byte[0];
+    byte[] m2 = "world!".getBytes();
+
+    byte[] frame = bytes(NioFrames.encode(Arrays.asList(m0, m1, m2)));
+    assertEquals(4 + 4 + 3 * 4 + 11, frame.length);
+
+    NioFrames.Reader reader = new NioFrames.Reader(64);
+    reader.read(Channels.newChannel(new ByteArrayInputStream(frame)));
+
+    List<byte[]> messages = reader.messages();
+    assertEquals(3, messages.size());
+    assertArrayEquals(m0, messages.get(0));
+    assertArrayEquals(m1, messages.get(1));
+    assertArrayEquals(m2, messages.get(2));
+  }
+
+  @Test
+  public void read_when_framesSpanReads() throws IOException {
+
+    byte[] large = new byte[1000];
+    for (int i = 0; i < large.length; i++) {
+      large[i] = (byte) i;
+    }
+    byte[] frame0 = bytes(NioFrames.encode(Arrays.asList("a".getBytes(), large)));
+    byte[] frame1 = bytes(NioFrames.encode(Arrays.asList("b".getBytes())));
+
+    byte[] all = new byte[frame0.length + frame1.length];
+    System.arraycopy(frame0, 0, all, 0, frame0.length);
+    System.arraycopy(frame1, 0, all, frame0.length, frame1.length);
+
+    // small initial buffer such that it needs to grow
+    NioFrames.Reader reader = new NioFrames.Reader(16);
+    List<byte[]> messages = new ArrayList<byte[]>();
+
+    int chunk = 7;
+    for (int pos = 0; pos < all.length; pos += chunk) {
+      byte[] part = Arrays.copyOfRange(all, pos, Math.min(all.length, pos + chunk));
+      ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(part));
+      while (reader.read(channel) > 0) {
+        messages.addAll(reader.messages());
+      }
+    }
+
+    assertEquals(3, messages.size());
+    assertArrayEquals("a".getBytes(), messages.get(0));
+    assertArrayEquals(large, messages.get(1));
+    assertArrayEquals("b".getBytes(), messages.get(2));
+  }
+
+  @Test
+  public void read_when_invalidFrameLength() {
+
+    ByteBuffer buffer = ByteBuffer.allocate(8);
+    buffer.putInt(-1);
+    buffer.putInt(0);
+
+    NioFrames.Reader reader = new NioFrames.Reader(16);
+    try {
+      reader.read(Channels.newChannel(new ByteArrayInputStream(buffer.array())));
+      reader.messages();
+      assertTrue("expected IOException", false);
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("Invalid cluster frame length"));
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.avaje.ebeaninternal.server.core;
+
+import com.avaje.tests.model.basic.Address;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.Order;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BootupClassesSnapshotTest {
+
+  private File tempFile() throws IOException {
+    File file = File.createTempFile("ebean-snapshot", ".txt");
+    file.deleteOnExit();
+    return file;
+  }
+
+  @Test
+  public void read_whenNoFile() throws IOException {
+
+    File file = tempFile();
+    assertTrue(file.delete());
+    assertNull(new BootupClassesSnapshot(file.getPath(), null).read());
+  }
+
+  @Test
+  public void writeThenRead() throws IOException {
+
+    List<Class<?>> classes = new ArrayList<Class<?>>();
+    classes.add(Customer.class);
+    classes.add(Order.class);
+    classes.add(Address.class);
+    classes.add(String.class);
+
+    BootupClasses bootupClasses = new BootupClasses(classes);
+    assertEquals(3, bootupClasses.getMatchedClasses().size());
+
+    File file = tempFile();
+    BootupClassesSnapshot snapshot = new BootupClassesSnapshot(file.getPath(), null);
+    snapshot.write(bootupClasses);
+
+    BootupClasses read = snapshot.read();
+    assertEquals(bootupClasses.getEntities(), read.getEntities());
+    assertEquals(bootupClasses.getEmbeddables(), read.getEmbeddables());
+    assertEquals(bootupClasses.getMatchedClasses(), read.getMatchedClasses());
+  }
+
+  @Test
+  public void read_whenStale() throws IOException {
+
+    BootupClassesSnapshot snapshot = new BootupClassesSnapshot(tempFile().getPath(), null);
+    File file = tempFile();
+    FileWriter writer = new FileWriter(file);
+    writer.write("# classpath " + snapshot.getFingerprint() + "\n");
+    writer.write(Customer.class.getName() + "\ncom.example.DoesNotExist\n");
+    writer.close();
+
+    assertNull(new BootupClassesSnapshot(file.getPath(), null).read());
+  }
+
+  @Test
+  public void read_whenNoFingerprint() throws IOException {
+
+    File file = tempFile();
+    FileWriter writer = new FileWriter(file);
+    writer.write(Customer.class.getName() + "\n");
+    writer.close();
+
+    assertNull(new BootupClassesSnapshot(file.getPath(), null).read());
+  }
+
+  @Test
+  public void read_whenClassPathChanged() throws IOException {
+
+    File dir = tempFile();
+    assertTrue(dir.delete());
+    assertTrue(dir.mkdir());
+    File classFile = new File(dir, "Existing.class");
+    writeContent(classFile, "a");
+
+    List<Class<?>> classes = new ArrayList<Class<?>>();
+    classes.add(Customer.class);
+
+    File file = tempFile();
+    Object[] classPath = {dir};
+    new BootupClassesSnapshot(file.getPath(), null, classPath).write(new BootupClasses(classes));
+    assertNotNull(new BootupClassesSnapshot(file.getPath(), null, classPath).read());
+
+    // a new class file in the directory
+    File newClassFile = new File(dir, "Added.class");
+    writeContent(newClassFile, "b");
+    assertNull(new BootupClassesSnapshot(file.getPath(), null, classPath).read());
+
+    assertTrue(newClassFile.delete());
+    assertTrue(classFile.delete());
+    assertTrue(dir.delete());
+  }
+
+  private void writeContent(File file, String content) throws IOException {
+    FileWriter writer = new FileWriter(file);
+    writer.write(content);
+    writer.close();
+  }
+}
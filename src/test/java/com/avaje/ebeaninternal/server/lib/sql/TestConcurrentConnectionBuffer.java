@@ -0,0 +1,145 @@
+package com.avaje.ebeaninternal.server.lib.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.avaje.ebean.BaseTestCase;
+
+public class TestConcurrentConnectionBuffer extends BaseTestCase {
+
+  @Test
+  public void testTakeRelease() {
+
+    ConcurrentConnectionBuffer b = new ConcurrentConnectionBuffer();
+
+    PooledConnection p0 = new PooledConnection("0");
+    PooledConnection p1 = new PooledConnection("1");
+
+    Assert.assertEquals(0, b.size());
+    Assert.assertNull(b.take());
+
+    b.add(p0, false);
+    b.add(p1, false);
+
+    Assert.assertEquals(2, b.size());
+    Assert.assertEquals(2, b.freeSize());
+    Assert.assertEquals(0, b.busySize());
+
+    PooledConnection r0 = b.take();
+    PooledConnection r1 = b.take();
+    Assert.assertTrue(r0 == p0);
+    Assert.assertTrue(r1 == p1);
+    Assert.assertNull(b.take());
+    Assert.assertEquals(2, b.busySize());
+    Assert.assertEquals(0, b.freeSize());
+    Assert.assertEquals(2, b.getHighWaterMark());
+
+    Assert.assertTrue(b.release(r1));
+    Assert.assertFalse(b.release(r1));
+    Assert.assertEquals(1, b.busySize());
+
+    // thread affinity, the connection last released is taken first
+    Assert.assertTrue(b.release(r0));
+    Assert.assertTrue(b.take() == p0);
+    Assert.assertTrue(b.take() == p1);
+    Assert.assertNull(b.take());
+
+    b.resetHighWaterMark();
+    Assert.assertEquals(2, b.getHighWaterMark());
+  }
+
+  @Test
+  public void testRemoveBusy() {
+
+    ConcurrentConnectionBuffer b = new ConcurrentConnectionBuffer();
+
+    PooledConnection p0 = new PooledConnection("0");
+    Assert.assertEquals(1, b.add(p0, true));
+    Assert.assertEquals(1, b.busySize());
+
+    Assert.assertTrue(b.removeBusy(p0));
+    Assert.assertFalse(b.removeBusy(p0));
+    Assert.assertFalse(b.release(p0));
+    Assert.assertEquals(0, b.size());
+    Assert.assertEquals(0, b.busySize());
+    Assert.assertNull(b.take());
+  }
+
+  @Test
+  public void testTrimNotRequired() {
+
+    ConcurrentConnectionBuffer b = new ConcurrentConnectionBuffer();
+
+    PooledConnection p0 = new PooledConnection("0");
+    PooledConnection p1 = new PooledConnection("1");
+    b.add(p0, false);
+    b.add(p1, false);
+
+    // take p0 via the shared queue leaving a stale entry for p0
+    Assert.assertTrue(b.take() == p0);
+
+    Assert.assertEquals(0, b.trim(0, 0));
+    Assert.assertEquals(2, b.size());
+    Assert.assertEquals(1, b.freeSize());
+
+    // p1 remains free after being reserved by trim
+    Assert.assertTrue(b.take() == p1);
+    Assert.assertNull(b.take());
+  }
+
+  @Test
+  public void testConcurrentUse() throws InterruptedException {
+
+    final ConcurrentConnectionBuffer b = new ConcurrentConnectionBuffer();
+    for (int i = 0; i < 4; i++) {
+      b.add(new PooledConnection("" + i), false);
+    }
+
+    final Set<PooledConnection> inUse = Collections.newSetFromMap(new ConcurrentHashMap<PooledConnection, Boolean>());
+    final AtomicInteger errors = new AtomicInteger();
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 10000; i++) {
+            PooledConnection pc = b.take();
+            if (pc != null) {
+              if (!inUse.add(pc)) {
+                // taken by two threads at the same time
+                errors.incrementAndGet();
+              }
+              inUse.remove(pc);
+              if (!b.release(pc)) {
+                errors.incrementAndGet();
+              }
+            }
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    Assert.assertEquals(0, errors.get());
+    Assert.assertEquals(0, b.busySize());
+    Assert.assertEquals(4, b.freeSize());
+
+    // all the connections can still be taken
+    for (int i = 0; i < 4; i++) {
+      Assert.assertNotNull(b.take());
+    }
+    Assert.assertNull(b.take());
+  }
+}
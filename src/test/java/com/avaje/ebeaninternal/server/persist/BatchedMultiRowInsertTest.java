@@ -0,0 +1,129 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import com.avaje.ebeaninternal.server.type.DataBind;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchedMultiRowInsertTest {
+
+  private static final String SQL = "insert into o_customer (id, name) values (?,?)";
+
+  @Test
+  public void testInsertSql() {
+
+    BatchedMultiRowInsert insert = new BatchedMultiRowInsert(null, SQL, null, 2000);
+    assertEquals(SQL, insert.insertSql(1));
+    assertEquals("insert into o_customer (id, name) values (?,?),(?,?)", insert.insertSql(2));
+
+    BatchedMultiRowInsert returning = new BatchedMultiRowInsert(null, "insert into o_customer (name) values (?)", "id", 2000);
+    assertEquals("insert into o_customer (name) values (?),(?) returning id", returning.insertSql(2));
+  }
+
+  @Test
+  public void testRowsPerStatement_adaptsToBindLimit() {
+
+    assertEquals(1000, new BatchedMultiRowInsert(null, SQL, null, 2000).getRowsPerStatement());
+    assertEquals(499, new BatchedMultiRowInsert(null, SQL, null, 999).getRowsPerStatement());
+    assertEquals(1, new BatchedMultiRowInsert(null, SQL, null, 1).getRowsPerStatement());
+  }
+
+  @Test
+  public void testExecute_chunksByBindLimit() throws SQLException {
+
+    Connection connection = mock(Connection.class);
+    PreparedStatement pstmt = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString())).thenReturn(pstmt);
+    when(pstmt.executeUpdate()).thenReturn(2, 2, 1);
+
+    // 4 bind parameters allows 2 rows per statement
+    BatchedMultiRowInsert insert = new BatchedMultiRowInsert(connection, SQL, null, 4);
+    BatchPostExecute[] post = new BatchPostExecute[5];
+    for (int i = 0; i < post.length; i++) {
+      post[i] = mock(BatchPostExecute.class);
+      insert.add(post[i]);
+      DataBind bind = insert.addRow();
+      bind.setLong(i);
+      bind.setString("n" + i);
+    }
+
+    insert.executeBatch(true);
+
+    // the statement for the full chunks is reused
+    verify(connection, times(1)).prepareStatement("insert into o_customer (id, name) values (?,?),(?,?)");
+    verify(connection, times(1)).prepareStatement(SQL);
+    verify(pstmt, times(3)).executeUpdate();
+    verify(pstmt).setObject(3, 1L, Types.BIGINT);
+    verify(pstmt).setObject(2, "n4", Types.VARCHAR);
+    for (BatchPostExecute postExecute : post) {
+      verify(postExecute).checkRowCount(1);
+      verify(postExecute).postExecute();
+    }
+  }
+
+  @Test
+  public void testExecute_returningKeys() throws SQLException {
+
+    Connection connection = mock(Connection.class);
+    PreparedStatement pstmt = mock(PreparedStatement.class);
+    ResultSet rset = mock(ResultSet.class);
+    when(connection.prepareStatement(anyString())).thenReturn(pstmt);
+    when(pstmt.executeQuery()).thenReturn(rset);
+    when(rset.next()).thenReturn(true, true, false);
+    when(rset.getObject(1)).thenReturn(10L, 11L);
+
+    BatchedMultiRowInsert insert = new BatchedMultiRowInsert(connection, "insert into o_customer (name) values (?)", "id", 2000);
+    BatchPostExecute first = mock(BatchPostExecute.class);
+    BatchPostExecute second = mock(BatchPostExecute.class);
+    insert.add(first);
+    insert.addRow().setString("a");
+    insert.add(second);
+    insert.addRow().setString("b");
+
+    insert.executeBatch(true);
+
+    verify(connection).prepareStatement("insert into o_customer (name) values (?),(?) returning id");
+    verify(first).setGeneratedKey(10L);
+    verify(second).setGeneratedKey(11L);
+    verify(first).postExecute();
+    verify(second).postExecute();
+  }
+
+  @Test
+  public void testExecute_rowCountMismatch() throws SQLException {
+
+    Connection connection = mock(Connection.class);
+    PreparedStatement pstmt = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString())).thenReturn(pstmt);
+    when(pstmt.executeUpdate()).thenReturn(1);
+
+    BatchedMultiRowInsert insert = new BatchedMultiRowInsert(connection, SQL, null, 2000);
+    BatchPostExecute postExecute = mock(BatchPostExecute.class);
+    for (int i = 0; i < 2; i++) {
+      insert.add(postExecute);
+      DataBind bind = insert.addRow();
+      bind.setLong(i);
+      bind.setString("n" + i);
+    }
+    try {
+      insert.executeBatch(true);
+      fail("expected SQLException");
+    } catch (SQLException e) {
+      // expected
+    }
+    verify(pstmt).close();
+    verify(postExecute, times(0)).postExecute();
+  }
+}
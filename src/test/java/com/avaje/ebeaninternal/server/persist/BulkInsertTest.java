@@ -0,0 +1,260 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import org.junit.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkInsertTest {
+
+  private BulkInsertRows rows() {
+    return new BulkInsertRows("o_customer", new String[]{"id", "name", "active"}, "?,?,?");
+  }
+
+  @Test
+  public void testPlainBind() {
+
+    assertTrue(rows().isPlainBind());
+    assertEquals(3, rows().getBindCount());
+
+    BulkInsertRows encrypted = new BulkInsertRows("o_customer", new String[]{"id", "name"}, "?,AES_ENCRYPT(?,?)");
+    assertFalse(encrypted.isPlainBind());
+    assertEquals(3, encrypted.getBindCount());
+  }
+
+  @Test
+  public void testInsertSql() {
+
+    BulkInsert bulkInsert = new BulkInsert(true);
+    assertEquals("insert into o_customer (id, name, active) values (?,?,?)", bulkInsert.insertSql(rows(), 1));
+    assertEquals("insert into o_customer (id, name, active) values (?,?,?),(?,?,?)", bulkInsert.insertSql(rows(), 2));
+  }
+
+  @Test
+  public void testDataBind_capture() throws SQLException {
+
+    BulkInsertRows rows = rows();
+    BulkInsertDataBind dataBind = new BulkInsertDataBind();
+    dataBind.setRow(rows.addRow());
+    dataBind.setLong(42L);
+    dataBind.setNull(Types.VARCHAR);
+    dataBind.setBoolean(true);
+
+    BulkInsertRows.Row row = rows.getRows().get(0);
+    assertEquals(3, row.size());
+    assertEquals(42L, row.getValue(0));
+    assertEquals(Types.BIGINT, row.getType(0));
+    assertEquals(null, row.getValue(1));
+    assertEquals(Types.VARCHAR, row.getType(1));
+    assertEquals(3, dataBind.currentPos());
+  }
+
+  @Test
+  public void testAppendRow_escaped() throws SQLException {
+
+    BulkInsertRows rows = rows();
+    BulkInsertDataBind dataBind = new BulkInsertDataBind();
+    dataBind.setRow(rows.addRow());
+    dataBind.setObject(new BigDecimal("1E+3"));
+    dataBind.setString("a\tb\nc\\d");
+    dataBind.setNull(Types.BOOLEAN);
+
+    StringBuilder sb = new StringBuilder();
+    new BulkInsert(false).appendRow(sb, rows.getRows().get(0));
+    assertEquals("1000\ta\\tb\\nc\\\\d\t\\N\n", sb.toString());
+  }
+
+  @Test
+  public void testPostgresFormat() throws Exception {
+
+    BulkInsertRows rows = rows();
+    BulkInsertDataBind dataBind = new BulkInsertDataBind();
+    dataBind.setRow(rows.addRow());
+    dataBind.setInt(1);
+    dataBind.setBytes(new byte[]{1, (byte) 0xAB});
+    dataBind.setBoolean(false);
+    dataBind.setRow(rows.addRow());
+    dataBind.setInt(2);
+    dataBind.setString("x");
+    dataBind.setBoolean(true);
+
+    PostgresBulkInsert bulkInsert = new PostgresBulkInsert();
+    Reader reader = bulkInsert.new RowReader(rows.getRows(), TimeZone.getTimeZone("UTC"));
+    assertEquals("1\t\\\\x01ab\tf\n2\tx\tt\n", readAll(reader));
+  }
+
+  private String readAll(Reader reader) throws Exception {
+    StringBuilder sb = new StringBuilder();
+    char[] buf = new char[3];
+    int len;
+    while ((len = reader.read(buf, 0, buf.length)) != -1) {
+      sb.append(buf, 0, len);
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testFormatTimestamp() {
+
+    Timestamp timestamp = new Timestamp(1700000000123L);
+    timestamp.setNanos(123456789);
+    assertEquals("2023-11-14 22:13:20.123456+00:00", PostgresBulkInsert.formatTimestamp(timestamp, TimeZone.getTimeZone("UTC")));
+    assertEquals("2023-11-15 11:13:20.123456+13:00", PostgresBulkInsert.formatTimestamp(timestamp, TimeZone.getTimeZone("Pacific/Auckland")));
+  }
+
+  private BulkInsertRows timestampRows() throws SQLException {
+    BulkInsertRows rows = new BulkInsertRows("o_customer", new String[]{"id", "cretime"}, "?,?");
+    BulkInsertDataBind dataBind = new BulkInsertDataBind();
+    dataBind.setRow(rows.addRow());
+    dataBind.setInt(1);
+    dataBind.setTimestamp(new Timestamp(1700000000000L));
+    return rows;
+  }
+
+  @Test
+  public void testPostgresCopy_usesSessionTimeZone() throws Exception {
+
+    Connection connection = mock(Connection.class);
+    Statement stmt = mock(Statement.class);
+    ResultSet rset = mock(ResultSet.class);
+    PGConnection pgConnection = mock(PGConnection.class);
+    CopyManager copyManager = mock(CopyManager.class);
+
+    when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    when(connection.createStatement()).thenReturn(stmt);
+    when(stmt.executeQuery("show timezone")).thenReturn(rset);
+    when(rset.next()).thenReturn(true);
+    when(rset.getString(1)).thenReturn("Pacific/Auckland");
+    when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+
+    final StringBuilder copied = new StringBuilder();
+    when(copyManager.copyIn(anyString(), any(Reader.class))).thenAnswer(new org.mockito.stubbing.Answer<Long>() {
+      @Override
+      public Long answer(org.mockito.invocation.InvocationOnMock invocation) throws Throwable {
+        copied.append(readAll((Reader) invocation.getArguments()[1]));
+        return 1L;
+      }
+    });
+
+    assertEquals(1, new PostgresBulkInsert().insert(connection, timestampRows()));
+    verify(copyManager).copyIn(eq("copy o_customer (id, cretime) from stdin"), any(Reader.class));
+    assertEquals("1\t2023-11-15 11:13:20.000000+13:00\n", copied.toString());
+  }
+
+  @Test
+  public void testMySqlLoadData_rowCount() throws Exception {
+
+    Connection connection = mock(Connection.class);
+    com.mysql.jdbc.Statement stmt = mock(com.mysql.jdbc.Statement.class);
+    when(connection.createStatement()).thenReturn(stmt);
+    when(stmt.isWrapperFor(com.mysql.jdbc.Statement.class)).thenReturn(true);
+    when(stmt.unwrap(com.mysql.jdbc.Statement.class)).thenReturn(stmt);
+    when(stmt.getUpdateCount()).thenReturn(1);
+
+    assertEquals(1, new MySqlBulkInsert().insert(connection, timestampRows()));
+    verify(stmt).setLocalInfileInputStream(any(InputStream.class));
+    verify(stmt).execute("load data local infile 'bulkinsert' into table o_customer character set utf8mb4 (id, cretime)");
+  }
+
+  @Test
+  public void testMySqlLoadData_warnings() throws Exception {
+
+    Connection connection = mock(Connection.class);
+    com.mysql.jdbc.Statement stmt = mock(com.mysql.jdbc.Statement.class);
+    when(connection.createStatement()).thenReturn(stmt);
+    when(stmt.isWrapperFor(com.mysql.jdbc.Statement.class)).thenReturn(true);
+    when(stmt.unwrap(com.mysql.jdbc.Statement.class)).thenReturn(stmt);
+    when(stmt.getUpdateCount()).thenReturn(0);
+    when(stmt.getWarnings()).thenReturn(new SQLWarning("Duplicate entry '1' for key 'PRIMARY'"));
+
+    try {
+      new MySqlBulkInsert().insert(connection, timestampRows());
+      fail("expected SQLException");
+    } catch (SQLException e) {
+      assertTrue(e.getMessage().contains("Duplicate entry"));
+    }
+  }
+
+  @Test
+  public void testTextFormat() throws SQLException {
+
+    BulkInsertRows rows = rows();
+    BulkInsertDataBind dataBind = new BulkInsertDataBind();
+    dataBind.setRow(rows.addRow());
+    dataBind.setInt(1);
+    dataBind.setBytes(new byte[]{1});
+    dataBind.setObject(UUID.randomUUID());
+
+    assertTrue(new PostgresBulkInsert().isTextFormat(rows.getRows()));
+    // binary values are not loaded via LOAD DATA
+    assertFalse(new MySqlBulkInsert().isTextFormat(rows.getRows()));
+
+    // hstore values are only bound via insert statements
+    Map<String, String> hstore = new HashMap<String, String>();
+    hstore.put("a", "b");
+    dataBind.setRow(rows.addRow());
+    dataBind.setInt(2);
+    dataBind.setNull(Types.BINARY);
+    dataBind.setObject(hstore);
+
+    assertFalse(new PostgresBulkInsert().isTextFormat(rows.getRows()));
+    assertFalse(new BulkInsert(true).isTextFormat(new int[]{1}));
+  }
+
+  @Test
+  public void testPostgresCopy_when_hstore_insertStatement() throws Exception {
+
+    BulkInsertRows rows = rows();
+    BulkInsertDataBind dataBind = new BulkInsertDataBind();
+    dataBind.setRow(rows.addRow());
+    dataBind.setInt(1);
+    dataBind.setString("x");
+    dataBind.setObject(new HashMap<String, String>());
+
+    Connection connection = mock(Connection.class);
+    PreparedStatement pstmt = mock(PreparedStatement.class);
+    when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+    when(connection.prepareStatement(anyString())).thenReturn(pstmt);
+    when(pstmt.executeUpdate()).thenReturn(1);
+
+    assertEquals(1, new PostgresBulkInsert().insert(connection, rows));
+    verify(connection).prepareStatement("insert into o_customer (id, name, active) values (?,?,?)");
+    verify(connection, never()).unwrap(PGConnection.class);
+  }
+
+  @Test
+  public void testFormatOffset() {
+
+    assertEquals("+00:00", PostgresBulkInsert.formatOffset(0));
+    assertEquals("+13:00", PostgresBulkInsert.formatOffset(13 * 3600000));
+    assertEquals("-05:30", PostgresBulkInsert.formatOffset(-(5 * 3600000 + 30 * 60000)));
+  }
+}
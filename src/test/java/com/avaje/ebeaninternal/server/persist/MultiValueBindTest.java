@@ -0,0 +1,46 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultiValueBindTest {
+
+  @Test
+  public void testPadSize() {
+
+    assertEquals(0, MultiValueBind.padSize(0));
+    assertEquals(1, MultiValueBind.padSize(1));
+    assertEquals(2, MultiValueBind.padSize(2));
+    assertEquals(4, MultiValueBind.padSize(3));
+    assertEquals(4, MultiValueBind.padSize(4));
+    assertEquals(8, MultiValueBind.padSize(5));
+    assertEquals(512, MultiValueBind.padSize(300));
+    assertEquals(512, MultiValueBind.padSize(512));
+    assertEquals(1000, MultiValueBind.padSize(513));
+    assertEquals(1000, MultiValueBind.padSize(999));
+    assertEquals(1000, MultiValueBind.padSize(1000));
+    assertEquals(1500, MultiValueBind.padSize(1500));
+  }
+
+  @Test
+  public void testNotSupported() {
+
+    MultiValueBind bind = new MultiValueBind();
+    assertFalse(bind.isTypeSupported(null));
+    assertFalse(bind.isNotInSupported());
+  }
+
+  @Test
+  public void testNotInSupported() {
+
+    // H2 only supports ALL with a subquery
+    assertFalse(new H2MultiValueBind().isNotInSupported());
+    assertEquals(" = ANY(?) ", new H2MultiValueBind().getInExpression(false));
+
+    assertTrue(new PostgresMultiValueBind().isNotInSupported());
+    assertEquals(" != all(?) ", new PostgresMultiValueBind().getInExpression(true));
+  }
+}
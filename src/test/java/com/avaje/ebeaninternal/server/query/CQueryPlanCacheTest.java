@@ -0,0 +1,86 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.meta.MetaQueryPlanCacheStatistic;
+import com.avaje.ebeaninternal.api.HashQueryPlan;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class CQueryPlanCacheTest {
+
+  private HashQueryPlan key(int i) {
+    return new HashQueryPlan(null, i, 0);
+  }
+
+  @Test
+  public void testGetPutStatistics() {
+
+    CQueryPlanCache cache = new CQueryPlanCache(Object.class, 100);
+
+    assertNull(cache.get(key(1)));
+    cache.put(key(1), null);
+    assertEquals(1, cache.size());
+    assertNotNull(cache.values());
+
+    cache.get(key(1));
+    cache.get(key(1));
+
+    MetaQueryPlanCacheStatistic statistic = cache.getStatistic(true);
+    assertEquals(Object.class, statistic.getBeanType());
+    assertEquals(1, statistic.getSize());
+    assertEquals(100, statistic.getMaxSize());
+    assertEquals(2, statistic.getHitCount());
+    assertEquals(1, statistic.getMissCount());
+    assertEquals(0, statistic.getEvictCount());
+
+    statistic = cache.getStatistic(false);
+    assertEquals(0, statistic.getHitCount());
+    assertEquals(0, statistic.getMissCount());
+  }
+
+  @Test
+  public void testEvictLeastFrequentlyUsed() {
+
+    CQueryPlanCache cache = new CQueryPlanCache(Object.class, 10);
+    for (int i = 0; i < 10; i++) {
+      cache.put(key(i), null);
+    }
+    // plans 0 to 4 are used
+    for (int i = 0; i < 5; i++) {
+      cache.get(key(i));
+    }
+
+    // takes the cache over the max size evicting down to 9
+    cache.put(key(10), null);
+    assertEquals(9, cache.size());
+
+    MetaQueryPlanCacheStatistic statistic = cache.getStatistic(false);
+    assertEquals(2, statistic.getEvictCount());
+
+    // the oldest unused plans were evicted (plans are null so check the statistics)
+    cache.getStatistic(true);
+    cache.get(key(5));
+    cache.get(key(6));
+    assertEquals(2, cache.getStatistic(true).getMissCount());
+
+    for (int i = 0; i < 5; i++) {
+      cache.get(key(i));
+    }
+    cache.get(key(7));
+    cache.get(key(10));
+    assertEquals(7, cache.getStatistic(false).getHitCount());
+  }
+
+  @Test
+  public void testUnbounded() {
+
+    CQueryPlanCache cache = new CQueryPlanCache(Object.class, 0);
+    for (int i = 0; i < 2000; i++) {
+      cache.put(key(i), null);
+    }
+    assertEquals(2000, cache.size());
+    assertEquals(0, cache.getStatistic(false).getEvictCount());
+  }
+}
@@ -0,0 +1,71 @@
+package com.avaje.ebeaninternal.server.query;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedSqlRowTest {
+
+  private final SqlRowColumns columns = new SqlRowColumns(new String[]{"ID", "Name", "active"});
+
+  private IndexedSqlRow row(Object... values) {
+    return new IndexedSqlRow(columns, values, "true");
+  }
+
+  @Test
+  public void testGet() {
+
+    IndexedSqlRow row = row(42, "Rob", "true");
+
+    assertEquals(42, row.get("id"));
+    assertEquals(42, row.get("ID"));
+    assertEquals("Rob", row.get("name"));
+    assertEquals("Rob", row.getString("NaMe"));
+    assertEquals(Long.valueOf(42), row.getLong("id"));
+    assertEquals(Boolean.TRUE, row.getBoolean("active"));
+    assertNull(row.get("other"));
+    assertTrue(row.containsKey("Name"));
+    assertFalse(row.containsKey("other"));
+    assertEquals(3, row.size());
+  }
+
+  @Test
+  public void testKeysAndEntries() {
+
+    IndexedSqlRow row = row(1, "Rob", null);
+
+    Iterator<String> keys = row.keys();
+    assertEquals("id", keys.next());
+    assertEquals("name", keys.next());
+    assertEquals("active", keys.next());
+    assertFalse(keys.hasNext());
+
+    int count = 0;
+    for (Map.Entry<String, Object> entry : row.entrySet()) {
+      assertEquals(row.get(entry.getKey()), entry.getValue());
+      count++;
+    }
+    assertEquals(3, count);
+    assertEquals("{id=1, name=Rob, active=null}", row.toString());
+  }
+
+  @Test
+  public void testSet() {
+
+    IndexedSqlRow row = row(1, "Rob", null);
+    assertEquals("Rob", row.set("NAME", "Jim"));
+    assertEquals("Jim", row.get("name"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSet_unknownColumn() {
+
+    row(1, "Rob", null).put("other", 2);
+  }
+}
@@ -0,0 +1,55 @@
+package com.avaje.ebeaninternal.server.text.json;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.text.PathProperties;
+import com.avaje.ebean.text.json.JsonContext;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.tests.model.basic.Customer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class WriteJsonPlanCacheTest extends BaseTestCase {
+
+  @Test
+  public void get_cachedByIncludedProperties() {
+
+    SpiEbeanServer server = (SpiEbeanServer) Ebean.getDefaultServer();
+    BeanDescriptor<Customer> desc = server.getBeanDescriptor(Customer.class);
+
+    WriteJsonPlanCache cache = new WriteJsonPlanCache();
+    Set<String> props = new LinkedHashSet<String>(Arrays.asList("id", "name"));
+    WriteJsonPlan plan = cache.get(desc, false, props);
+
+    assertSame(plan, cache.get(desc, false, new HashSet<String>(Arrays.asList("name", "id"))));
+    assertNotSame(plan, cache.get(desc, false, null));
+    assertNotSame(plan, cache.get(desc, true, null));
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void toJson_withPathProperties() {
+
+    Customer customer = new Customer();
+    customer.setId(42);
+    customer.setName("Rob");
+    customer.setSmallnote("note");
+
+    JsonContext json = Ebean.json();
+    PathProperties pathProps = PathProperties.parse("id,name");
+
+    assertEquals("{\"id\":42,\"name\":\"Rob\"}", json.toJson(customer, pathProps));
+    // second write uses the cached plan
+    assertEquals("{\"id\":42,\"name\":\"Rob\"}", json.toJson(customer, pathProps));
+    assertEquals("{\"name\":\"Rob\"}", json.toJson(customer, PathProperties.parse("name")));
+  }
+}
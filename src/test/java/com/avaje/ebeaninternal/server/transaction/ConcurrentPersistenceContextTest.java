@@ -0,0 +1,92 @@
+package com.avaje.ebeaninternal.server.transaction;
+
+import com.avaje.ebean.bean.PersistenceContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ConcurrentPersistenceContextTest {
+
+  static class Foo {
+  }
+
+  static class Bar {
+  }
+
+  @Test
+  public void testPutGet() {
+
+    ConcurrentPersistenceContext pc = new ConcurrentPersistenceContext();
+
+    Foo foo = new Foo();
+    pc.put(1, foo);
+    assertSame(foo, pc.get(Foo.class, 1));
+    assertNull(pc.get(Foo.class, 2));
+    assertNull(pc.get(Bar.class, 1));
+    assertEquals(1, pc.size(Foo.class));
+    assertEquals(0, pc.size(Bar.class));
+
+    Foo other = new Foo();
+    assertSame(foo, pc.putIfAbsent(1, other));
+    assertNull(pc.putIfAbsent(2, other));
+    assertEquals(2, pc.size(Foo.class));
+
+    pc.clear(Foo.class, 2);
+    assertEquals(1, pc.size(Foo.class));
+
+    pc.clear();
+    assertEquals(0, pc.size(Foo.class));
+  }
+
+  @Test
+  public void testDeleted() {
+
+    ConcurrentPersistenceContext pc = new ConcurrentPersistenceContext();
+
+    Foo foo = new Foo();
+    pc.put(1, foo);
+    assertSame(foo, pc.getWithOption(Foo.class, 1).getBean());
+
+    pc.deleted(Foo.class, 1);
+    assertSame(PersistenceContext.WithOption.DELETED, pc.getWithOption(Foo.class, 1));
+    assertNull(pc.get(Foo.class, 1));
+  }
+
+  @Test
+  public void testConcurrentPutIfAbsent() throws InterruptedException {
+
+    final ConcurrentPersistenceContext pc = new ConcurrentPersistenceContext();
+    final AtomicInteger added = new AtomicInteger();
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 1000; i++) {
+            if (pc.putIfAbsent(i, new Foo()) == null) {
+              added.incrementAndGet();
+            }
+            pc.putIfAbsent(i, new Bar());
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // only one bean per id was put
+    assertEquals(1000, added.get());
+    assertEquals(1000, pc.size(Foo.class));
+    assertEquals(1000, pc.size(Bar.class));
+  }
+}
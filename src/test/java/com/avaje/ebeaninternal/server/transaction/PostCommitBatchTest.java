@@ -0,0 +1,102 @@
+package com.avaje.ebeaninternal.server.transaction;
+
+import com.avaje.ebean.BackgroundExecutor;
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.event.BulkTableEventListener;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.api.TransactionEvent;
+import com.avaje.ebeaninternal.api.TransactionEventTable.TableIUD;
+import com.avaje.ebeaninternal.server.cluster.ClusterManager;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.tests.model.basic.Customer;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PostCommitBatchTest extends BaseTestCase {
+
+  private final ClusterManager clusterManager = Mockito.mock(ClusterManager.class);
+
+  private final BackgroundExecutor backgroundExecutor = Mockito.mock(BackgroundExecutor.class);
+
+  private final TransactionManager manager = Mockito.mock(TransactionManager.class);
+
+  private final BeanDescriptor<Customer> customerDesc = ((SpiEbeanServer) Ebean.getDefaultServer()).getBeanDescriptor(Customer.class);
+
+  public PostCommitBatchTest() {
+    when(clusterManager.isClustering()).thenReturn(true);
+    when(manager.getServerName()).thenReturn("db");
+    when(manager.getBulkEventListenerMap()).thenReturn(new BulkEventListenerMap(new ArrayList<BulkTableEventListener>()));
+  }
+
+  private PostCommitProcessing postCommit(String table, boolean insert, boolean update, boolean delete, Object deleteId) {
+    TransactionEvent event = new TransactionEvent();
+    event.add(table, insert, update, delete);
+    if (deleteId != null) {
+      event.addDeleteById(customerDesc, deleteId);
+    }
+    return new PostCommitProcessing(clusterManager, manager, event);
+  }
+
+  @Test
+  public void flush_mergesIntoSingleRemoteEvent() {
+
+    PostCommitBatch batch = new PostCommitBatch(clusterManager, "db", backgroundExecutor, 10, 100);
+    verify(backgroundExecutor).executePeriodically(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+    batch.add(postCommit("o_order", true, false, false, 1));
+    batch.add(postCommit("o_order", false, true, false, 2));
+    batch.add(postCommit("o_customer", false, false, true, 3));
+    batch.flush();
+
+    ArgumentCaptor<RemoteTransactionEvent> captor = ArgumentCaptor.forClass(RemoteTransactionEvent.class);
+    verify(clusterManager, times(1)).broadcast(captor.capture());
+
+    RemoteTransactionEvent remote = captor.getValue();
+    List<TableIUD> tables = remote.getTableIUDList();
+    assertEquals(2, tables.size());
+    for (TableIUD tableIUD : tables) {
+      if (tableIUD.getTableName().equals("O_ORDER")) {
+        assertTrue(tableIUD.isInsert() && tableIUD.isUpdate());
+      }
+    }
+
+    // the deletes of the 3 transactions merged for the bean type
+    assertEquals(1, remote.getDeleteByIdMap().values().size());
+    assertEquals(3, remote.getDeleteByIdMap().values().iterator().next().getDeleteIds().size());
+
+    // nothing pending
+    batch.flush();
+    verify(clusterManager, times(1)).broadcast(any(RemoteTransactionEvent.class));
+  }
+
+  @Test
+  public void add_when_full_queuesFlush() {
+
+    PostCommitBatch batch = new PostCommitBatch(clusterManager, "db", backgroundExecutor, 10, 2);
+
+    batch.add(postCommit("o_order", true, false, false, null));
+    verify(backgroundExecutor, never()).execute(any(Runnable.class));
+
+    batch.add(postCommit("o_order", true, false, false, null));
+    batch.add(postCommit("o_order", true, false, false, null));
+    verify(backgroundExecutor, times(1)).execute(any(Runnable.class));
+
+    batch.flush();
+    verify(clusterManager, times(1)).broadcast(any(RemoteTransactionEvent.class));
+  }
+}
@@ -0,0 +1,91 @@
+package com.avaje.ebeaninternal.server.type;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScalarTypePrimitiveTest {
+
+  static class Holder {
+    int intValue = -1;
+    long longValue = -1;
+    double doubleValue = -1;
+    short shortValue = -1;
+    boolean booleanValue;
+  }
+
+  private Field field(String name) throws NoSuchFieldException {
+    Field field = Holder.class.getDeclaredField(name);
+    field.setAccessible(true);
+    return field;
+  }
+
+  @Test
+  public void readPrimitive() throws Exception {
+
+    ResultSet rset = mock(ResultSet.class);
+    when(rset.getInt(1)).thenReturn(42);
+    when(rset.getLong(2)).thenReturn(123456789L);
+    when(rset.getDouble(3)).thenReturn(1.5D);
+    when(rset.getShort(4)).thenReturn((short) 7);
+    when(rset.getBoolean(5)).thenReturn(true);
+    when(rset.wasNull()).thenReturn(false);
+
+    RsetDataReader reader = new RsetDataReader(rset);
+    Holder holder = new Holder();
+
+    assertTrue(new ScalarTypeInteger().readPrimitive(reader, holder, field("intValue")));
+    assertTrue(new ScalarTypeLong().readPrimitive(reader, holder, field("longValue")));
+    assertTrue(new ScalarTypeDouble().readPrimitive(reader, holder, field("doubleValue")));
+    assertTrue(new ScalarTypeShort().readPrimitive(reader, holder, field("shortValue")));
+    assertTrue(new ScalarTypeBoolean.Native().readPrimitive(reader, holder, field("booleanValue")));
+
+    assertEquals(42, holder.intValue);
+    assertEquals(123456789L, holder.longValue);
+    assertEquals(1.5D, holder.doubleValue, 0D);
+    assertEquals(7, holder.shortValue);
+    assertTrue(holder.booleanValue);
+  }
+
+  @Test
+  public void readPrimitive_when_null() throws Exception {
+
+    ResultSet rset = mock(ResultSet.class);
+    when(rset.getInt(1)).thenReturn(0);
+    when(rset.wasNull()).thenReturn(true);
+
+    RsetDataReader reader = new RsetDataReader(rset);
+    Holder holder = new Holder();
+
+    assertFalse(new ScalarTypeInteger().readPrimitive(reader, holder, field("intValue")));
+    // field not set when null
+    assertEquals(-1, holder.intValue);
+  }
+
+  @Test
+  public void intBoolean_read() throws Exception {
+
+    ResultSet rset = mock(ResultSet.class);
+    when(rset.getInt(1)).thenReturn(1);
+    when(rset.getInt(2)).thenReturn(0);
+    when(rset.getInt(3)).thenReturn(0);
+    when(rset.wasNull()).thenReturn(false, false, true);
+
+    ScalarTypeBoolean.IntBoolean type = new ScalarTypeBoolean.IntBoolean(1, 0);
+    RsetDataReader reader = new RsetDataReader(rset);
+
+    Holder holder = new Holder();
+    assertTrue(type.readPrimitive(reader, holder, field("booleanValue")));
+    assertTrue(holder.booleanValue);
+    assertEquals(Boolean.FALSE, type.read(reader));
+    assertNull(type.read(reader));
+  }
+}
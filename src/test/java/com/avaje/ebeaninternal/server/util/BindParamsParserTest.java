@@ -4,6 +4,7 @@ import com.avaje.ebeaninternal.api.BindParams;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 
@@ -32,4 +33,63 @@ public class BindParamsParserTest {
     assertEquals("delete from foo where id in (?,?,?,?)", sql1);
 
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testParse_collectionValuesRebound() throws Exception {
+
+    String dml = "delete from foo where id in (:ids) and name = :name";
+    BindParams bindParams = new BindParams();
+
+    bindParams.setParameter("ids", Arrays.asList("1", "2"));
+    bindParams.setParameter("name", "a");
+    assertEquals("delete from foo where id in (?,?) and name = ?", BindParamsParser.parse(bindParams, dml));
+
+    // same number of elements but different values
+    bindParams.setParameter("ids", Arrays.asList("3", "4"));
+    assertEquals("delete from foo where id in (?,?) and name = ?", BindParamsParser.parse(bindParams, dml));
+
+    List<BindParams.Param> params = bindParams.positionedParameters();
+    assertEquals(3, params.size());
+    assertEquals("3", params.get(0).getInValue());
+    assertEquals("4", params.get(1).getInValue());
+    assertEquals("a", params.get(2).getInValue());
+  }
+
+  @Test
+  public void testParse_quotedLiteral() throws Exception {
+
+    String sql = "select * from foo where a = ':notParam' and b = :b and c = 'x' and d = :d";
+    BindParams bindParams = new BindParams();
+    bindParams.setParameter("d", 2);
+    bindParams.setParameter("b", 1);
+
+    assertEquals("select * from foo where a = ':notParam' and b = ? and c = 'x' and d = ?", BindParamsParser.parse(bindParams, sql));
+
+    List<BindParams.Param> params = bindParams.positionedParameters();
+    assertEquals(2, params.size());
+    assertEquals(1, params.get(0).getInValue());
+    assertEquals(2, params.get(1).getInValue());
+  }
+
+  @Test
+  public void testParseNamedParams() throws Exception {
+
+    BindParams bindParams = new BindParams();
+    bindParams.setParameter("min", 10);
+
+    BindParams.OrderedList orderedList = BindParamsParser.parseNamedParams(bindParams, "count(*) > :min");
+    assertEquals("count(*) > ?", orderedList.getPreparedSql());
+    assertEquals(1, orderedList.size());
+    assertEquals(10, orderedList.list().get(0).getInValue());
+  }
+
+  @Test
+  public void template_parse() {
+
+    BindParamsTemplate template = BindParamsTemplate.parse("select :a, :b_1 from t where x in (:c)");
+    assertEquals(Arrays.asList("a", "b_1", "c"), Arrays.asList(template.getParamNames()));
+    assertEquals("select ?, ? from t where x in (?)", template.getPreparedSql(null));
+    assertEquals("select ?, ? from t where x in (?,?,?)", template.getPreparedSql(new int[]{-1, -1, 3}));
+    assertEquals("select ?, ? from t where x in ()", template.getPreparedSql(new int[]{-1, -1, 0}));
+  }
+}
@@ -0,0 +1,74 @@
+package com.avaje.ebeaninternal.server.util;
+
+import com.avaje.tests.model.basic.BasicDomain;
+import com.avaje.tests.model.basic.Customer;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ClassFileInfoTest {
+
+  private final Set<String> annotations = new HashSet<String>(Arrays.asList("Ljavax/persistence/Entity;", "Ljavax/persistence/Embeddable;"));
+
+  private ClassFileInfo read(Class<?> cls) throws IOException {
+    InputStream in = cls.getResourceAsStream("/" + cls.getName().replace('.', '/') + ".class");
+    try {
+      return ClassFileInfo.read(in, annotations);
+    } finally {
+      in.close();
+    }
+  }
+
+  @Test
+  public void read_entity() throws IOException {
+
+    ClassFileInfo info = read(Customer.class);
+    assertEquals(Customer.class.getName(), info.getClassName());
+    assertEquals(BasicDomain.class.getName(), info.getSuperName());
+    assertTrue(info.isAnnotated());
+    assertTrue(info.isConcrete());
+  }
+
+  @Test
+  public void read_plainClass() throws IOException {
+
+    ClassFileInfo info = read(SimpleJarClass.class);
+    assertEquals(SimpleJarClass.class.getName(), info.getClassName());
+    assertEquals(Object.class.getName(), info.getSuperName());
+    assertEquals(0, info.getInterfaces().length);
+    assertFalse(info.isAnnotated());
+    assertTrue(info.isConcrete());
+  }
+
+  @Test
+  public void read_interfaces() throws IOException {
+
+    ClassFileInfo info = read(Task.class);
+    assertArrayEquals(new String[]{Runnable.class.getName()}, info.getInterfaces());
+    assertTrue(info.isConcrete());
+
+    assertFalse(read(AbstractTask.class).isConcrete());
+    assertFalse(read(ClassPathSearchMatcher.class).isConcrete());
+  }
+
+  @Test(expected = IOException.class)
+  public void read_notClassFile() throws IOException {
+    ClassFileInfo.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}), annotations);
+  }
+
+  static class Task implements Runnable {
+    @Override
+    public void run() {
+    }
+  }
+
+  static abstract class AbstractTask implements Runnable {
+  }
+}
@@ -0,0 +1,75 @@
+package com.avaje.tests.basic.delete;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.tests.model.basic.ECascadeLeaf;
+import com.avaje.tests.model.basic.ECascadeMid;
+import com.avaje.tests.model.basic.ECascadeTop;
+
+public class TestDeleteAllByIdsCascade extends BaseTestCase {
+
+  private List<Long> insertTops(String prefix, int count) {
+
+    List<Long> ids = new ArrayList<Long>();
+    for (int i = 0; i < count; i++) {
+      ECascadeTop top = new ECascadeTop(prefix + i);
+      for (int j = 0; j < 2; j++) {
+        ECascadeMid mid = top.addMid(prefix + i + "-" + j);
+        mid.addLeaf("a");
+        mid.addLeaf("b");
+      }
+      Ebean.save(top);
+      ids.add(top.getId());
+    }
+    return ids;
+  }
+
+  private int countMids(List<Long> topIds) {
+    return Ebean.find(ECascadeMid.class).where().in("top.id", topIds).findRowCount();
+  }
+
+  private int countLeaves(List<Long> topIds) {
+    return Ebean.find(ECascadeLeaf.class).where().in("mid.top.id", topIds).findRowCount();
+  }
+
+  @Test
+  public void deleteAll_cascadeBySubQuery() {
+
+    List<Long> ids = insertTops("subq", 3);
+    Assert.assertEquals(6, countMids(ids));
+    Assert.assertEquals(12, countLeaves(ids));
+
+    Ebean.deleteAll(ECascadeTop.class, ids);
+
+    Assert.assertEquals(0, Ebean.find(ECascadeTop.class).where().idIn(ids).findRowCount());
+    Assert.assertEquals(0, countMids(ids));
+    Assert.assertEquals(0, countLeaves(ids));
+  }
+
+  @Test
+  public void deleteAll_inChunks() {
+
+    List<Long> ids = insertTops("chunk", 5);
+
+    DatabasePlatform platform = ((SpiEbeanServer) Ebean.getServer(null)).getDatabasePlatform();
+    int maxInBinding = platform.getMaxInBinding();
+    platform.setMaxInBinding(2);
+    try {
+      Ebean.deleteAll(ECascadeTop.class, ids);
+    } finally {
+      platform.setMaxInBinding(maxInBinding);
+    }
+
+    Assert.assertEquals(0, Ebean.find(ECascadeTop.class).where().idIn(ids).findRowCount());
+    Assert.assertEquals(0, countMids(ids));
+    Assert.assertEquals(0, countLeaves(ids));
+  }
+}
@@ -0,0 +1,122 @@
+package com.avaje.tests.batchload;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.FetchConfig;
+import com.avaje.ebean.Query;
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.api.SpiQuery;
+import com.avaje.tests.model.basic.Contact;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.Order;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.avaje.ebeantest.LoggedSqlCollector;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestSecondaryQueriesParallel extends BaseTestCase {
+
+  @Test
+  public void testParallel() {
+
+    ResetBasicData.reset();
+
+    ServerConfig serverConfig = ((SpiEbeanServer) Ebean.getServer(null)).getServerConfig();
+    serverConfig.setParallelSecondaryQueries(true);
+    try {
+      Query<Customer> query = Ebean.find(Customer.class)
+          .setAutoTune(false)
+          .fetch("orders", new FetchConfig().query())
+          .fetch("contacts", new FetchConfig().query())
+          .fetch("billingAddress", new FetchConfig().query())
+          .fetch("shippingAddress", new FetchConfig().query())
+          .order().asc("id");
+
+      SpiQuery<?> spiQuery = (SpiQuery<?>) query;
+      spiQuery.setLogSecondaryQuery(true);
+
+      List<Customer> list = query.findList();
+      assertTrue(list.size() > 0);
+
+      List<SpiQuery<?>> secondaryQueries = spiQuery.getLoggedSecondaryQueries();
+      assertNotNull(secondaryQueries);
+      assertEquals(4, secondaryQueries.size());
+
+      // loaded into the shared persistence context (so the same instances)
+      for (Customer customer : list) {
+        assertNotNull(customer.getOrders());
+        assertNotNull(customer.getContacts());
+        for (int i = 0; i < customer.getOrders().size(); i++) {
+          assertTrue(customer.getOrders().get(i).getCustomer() == customer);
+        }
+      }
+
+    } finally {
+      serverConfig.setParallelSecondaryQueries(false);
+    }
+  }
+
+  @Test
+  public void testParallel_branchesRegisterNewContexts() {
+
+    ResetBasicData.reset();
+
+    ServerConfig serverConfig = ((SpiEbeanServer) Ebean.getServer(null)).getServerConfig();
+    int batchSize = serverConfig.getLazyLoadBatchSize();
+    serverConfig.setParallelSecondaryQueries(true);
+    try {
+      for (int attempt = 0; attempt < 20; attempt++) {
+        // the orders and contacts branches concurrently register the load contexts
+        // for orders.details, orders.shipments, contacts.notes and contacts.group
+        List<Customer> list = Ebean.find(Customer.class)
+            .setAutoTune(false)
+            .fetch("orders", new FetchConfig().query())
+            .fetch("contacts", new FetchConfig().query())
+            .fetch("billingAddress", new FetchConfig().query())
+            .order().asc("id")
+            .findList();
+
+        int orderCount = 0;
+        int contactCount = 0;
+        LoggedSqlCollector.start();
+        for (Customer customer : list) {
+          for (Order order : customer.getOrders()) {
+            order.getDetails().size();
+            orderCount++;
+          }
+          for (Contact contact : customer.getContacts()) {
+            contact.getNotes().size();
+            contactCount++;
+          }
+        }
+        List<String> sql = LoggedSqlCollector.stop();
+
+        // a lost or duplicated load context would split the lazy loading batches
+        assertTrue(count(sql, "o_order_detail") <= batches(orderCount, batchSize));
+        assertTrue(count(sql, "contact_note") <= batches(contactCount, batchSize));
+      }
+    } finally {
+      serverConfig.setParallelSecondaryQueries(false);
+    }
+  }
+
+  private int batches(int count, int batchSize) {
+    return (count + batchSize - 1) / batchSize;
+  }
+
+  private int count(List<String> sql, String table) {
+    int count = 0;
+    for (String statement : sql) {
+      if (statement.contains(" " + table + " ")) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,102 @@
+package com.avaje.tests.cache;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.Transaction;
+import com.avaje.ebean.cache.ServerCache;
+import com.avaje.tests.model.basic.Country;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestCacheIdIn extends BaseTestCase {
+
+  @Test
+  public void findList_idIn_when_partlyInBeanCache() {
+
+    ResetBasicData.reset();
+
+    Ebean.getServerCacheManager().clear(Country.class);
+    ServerCache countryCache = Ebean.getServerCacheManager().getBeanCache(Country.class);
+
+    // load NZ into the bean cache
+    Ebean.find(Country.class, "NZ");
+    assertEquals(1, countryCache.size());
+    countryCache.getStatistics(true);
+
+    List<Country> countries = Ebean.find(Country.class)
+        .where().idIn(Arrays.asList("NZ", "AU"))
+        .findList();
+
+    assertEquals(2, countries.size());
+    Set<String> codes = new HashSet<String>();
+    for (Country country : countries) {
+      codes.add(country.getCode());
+    }
+    assertTrue(codes.contains("NZ"));
+    assertTrue(codes.contains("AU"));
+
+    assertEquals(1, countryCache.getStatistics(false).getHitCount());
+    assertEquals(1, countryCache.getStatistics(false).getMissCount());
+
+    // AU was fetched from the database and put into the bean cache
+    assertEquals(2, countryCache.size());
+  }
+
+  @Test
+  public void findList_idIn_when_allInBeanCache() {
+
+    ResetBasicData.reset();
+
+    Ebean.getServerCacheManager().clear(Country.class);
+    ServerCache countryCache = Ebean.getServerCacheManager().getBeanCache(Country.class);
+
+    Ebean.find(Country.class, "NZ");
+    Ebean.find(Country.class, "AU");
+    countryCache.getStatistics(true);
+
+    List<Country> countries = Ebean.find(Country.class)
+        .where().idIn(Arrays.asList("NZ", "AU"))
+        .findList();
+
+    assertEquals(2, countries.size());
+    assertEquals(2, countryCache.getStatistics(false).getHitCount());
+    assertEquals(0, countryCache.getStatistics(false).getMissCount());
+  }
+
+  @Test
+  public void findList_idIn_when_inPersistenceContext() {
+
+    ResetBasicData.reset();
+
+    Ebean.getServerCacheManager().clear(Country.class);
+    Ebean.find(Country.class, "AU");
+
+    Transaction transaction = Ebean.beginTransaction();
+    try {
+      Country nz = Ebean.find(Country.class, "NZ");
+      Country au = Ebean.find(Country.class, "AU");
+
+      List<Country> countries = Ebean.find(Country.class)
+          .where().idIn(Arrays.asList("NZ", "AU"))
+          .findList();
+
+      // the instances already held by the transaction persistence context are returned
+      assertEquals(2, countries.size());
+      assertTrue(countries.contains(nz));
+      assertTrue(countries.contains(au));
+      for (Country country : countries) {
+        assertTrue(country == nz || country == au);
+      }
+    } finally {
+      transaction.end();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.avaje.tests.cache;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.server.cache.QueryCacheInvalidation;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.Order;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestQueryCacheInvalidation extends BaseTestCase {
+
+  private List<Customer> findByName(String name) {
+    return Ebean.find(Customer.class).setUseQueryCache(true).where().eq("name", name).findList();
+  }
+
+  private List<Order> findOrdersWithCustomer() {
+    return Ebean.find(Order.class).setUseQueryCache(true).fetch("customer", "name").where().eq("customer.name", "Rob").findList();
+  }
+
+  @Test
+  public void update_invalidatesOnlyAffectedEntries() {
+
+    ResetBasicData.reset();
+
+    Customer c1 = new Customer();
+    c1.setName("qcInv1");
+    Ebean.save(c1);
+    Customer c2 = new Customer();
+    c2.setName("qcInv2");
+    Ebean.save(c2);
+
+    BeanDescriptor<Customer> desc = ((SpiEbeanServer) Ebean.getDefaultServer()).getBeanDescriptor(Customer.class);
+
+    List<Customer> list1 = findByName("qcInv1");
+    List<Customer> list2 = findByName("qcInv2");
+    List<Order> orders = findOrdersWithCustomer();
+    assertSame(list1, findByName("qcInv1"));
+    assertSame(orders, findOrdersWithCustomer());
+
+    Map<QueryCacheInvalidation, Long> before = desc.getQueryCacheInvalidationCounts();
+
+    // update of a property not used by the predicates
+    c2.setSmallnote("changed");
+    Ebean.save(c2);
+
+    // list1 does not contain c2 and does not have a predicate on smallnote
+    assertSame(list1, findByName("qcInv1"));
+    // list2 contains c2
+    assertNotSame(list2, findByName("qcInv2"));
+    // the order query joins to the customer table
+    assertNotSame(orders, findOrdersWithCustomer());
+
+    Map<QueryCacheInvalidation, Long> after = desc.getQueryCacheInvalidationCounts();
+    assertTrue(after.get(QueryCacheInvalidation.UPDATE) > before.get(QueryCacheInvalidation.UPDATE));
+    assertEquals(before.get(QueryCacheInvalidation.INSERT), after.get(QueryCacheInvalidation.INSERT));
+
+    // update of a property used by the predicates invalidates list1
+    list1 = findByName("qcInv1");
+    c2.setName("qcInv2b");
+    Ebean.save(c2);
+    assertNotSame(list1, findByName("qcInv1"));
+
+    // inserts clear the query cache
+    list1 = findByName("qcInv1");
+    Customer c3 = new Customer();
+    c3.setName("qcInv3");
+    Ebean.save(c3);
+    assertNotSame(list1, findByName("qcInv1"));
+    assertTrue(desc.getQueryCacheInvalidationCounts().get(QueryCacheInvalidation.INSERT) > after.get(QueryCacheInvalidation.INSERT));
+  }
+}
@@ -0,0 +1,60 @@
+package com.avaje.tests.config;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.EbeanServerFactory;
+import com.avaje.ebean.config.ContainerConfig;
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.tests.model.basic.Address;
+import com.avaje.tests.model.basic.Contact;
+import com.avaje.tests.model.basic.ContactGroup;
+import com.avaje.tests.model.basic.ContactNote;
+import com.avaje.tests.model.basic.Country;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.Order;
+import com.avaje.tests.model.basic.OrderDetail;
+import com.avaje.tests.model.basic.OrderShipment;
+import com.avaje.tests.model.basic.Product;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class TestDeployParallelism extends BaseTestCase {
+
+  @Test
+  public void test_parallelDeployment() {
+
+    ServerConfig config = new ServerConfig();
+    config.setName("deployParallel");
+
+    Properties properties = new Properties();
+    properties.setProperty("datasource.deployParallel.username", "sa");
+    properties.setProperty("datasource.deployParallel.password", "");
+    properties.setProperty("datasource.deployParallel.databaseUrl", "jdbc:h2:mem:deployParallel;");
+    properties.setProperty("datasource.deployParallel.databaseDriver", "org.h2.Driver");
+    properties.setProperty("ebean.deployParallelism", "4");
+
+    config.loadFromProperties(properties);
+    config.setContainerConfig(new ContainerConfig());
+    assertEquals(4, config.getDeployParallelism());
+
+    Class<?>[] classes = {Customer.class, Order.class, OrderDetail.class, OrderShipment.class,
+        Product.class, Address.class, Country.class, Contact.class, ContactGroup.class, ContactNote.class};
+    for (Class<?> cls : classes) {
+      config.addClass(cls);
+    }
+
+    EbeanServer server = EbeanServerFactory.create(config);
+    try {
+      assertEquals(classes.length, server.getPluginApi().getBeanTypes().size());
+      for (Class<?> cls : classes) {
+        assertNotNull(server.getPluginApi().getBeanType(cls));
+      }
+    } finally {
+      server.shutdown(false, false);
+    }
+  }
+}
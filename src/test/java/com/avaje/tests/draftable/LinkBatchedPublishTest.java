@@ -0,0 +1,110 @@
+package com.avaje.tests.draftable;
+
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.PublishListener;
+import com.avaje.ebean.PublishOptions;
+import com.avaje.ebean.Query;
+import com.avaje.ebean.Transaction;
+import com.avaje.ebean.bean.PersistenceContext;
+import com.avaje.ebeaninternal.api.SpiTransaction;
+import com.avaje.tests.model.draftable.Link;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LinkBatchedPublishTest {
+
+  private final EbeanServer server = Ebean.getDefaultServer();
+
+  private List<Object> createLinks(String prefix, int count) {
+    List<Object> ids = new ArrayList<Object>();
+    for (int i = 0; i < count; i++) {
+      Link link = new Link(prefix + i);
+      link.save();
+      ids.add(link.getId());
+    }
+    return ids;
+  }
+
+  @Test
+  public void testPublishBatched() {
+
+    List<Object> ids = createLinks("BatchPub", 5);
+
+    final List<Integer> totals = new ArrayList<Integer>();
+    final List<Integer> inserts = new ArrayList<Integer>();
+    PublishOptions options = new PublishOptions()
+        .setBatchSize(2)
+        .setCommitBatch(true)
+        .setListener(new PublishListener() {
+          @Override
+          public void batchComplete(Class<?> beanType, int insertCount, int updateCount, int totalCount) {
+            inserts.add(insertCount);
+            totals.add(totalCount);
+          }
+        });
+
+    Query<Link> pubQuery = server.find(Link.class).where().idIn(ids).query();
+    int count = server.publishBatched(pubQuery, options);
+
+    assertThat(count).isEqualTo(5);
+    assertThat(totals).containsExactly(2, 4, 5);
+    assertThat(inserts).containsExactly(2, 2, 1);
+
+    List<Link> live = server.find(Link.class).where().idIn(ids).findList();
+    assertThat(live).hasSize(5);
+
+    // publish again which updates the existing live beans
+    totals.clear();
+    inserts.clear();
+    count = server.publishBatched(server.find(Link.class).where().idIn(ids).query(), options);
+    assertThat(count).isEqualTo(5);
+    assertThat(inserts).containsExactly(0, 0, 0);
+  }
+
+  @Test
+  public void testPublishBatched_withTransaction() {
+
+    List<Object> ids = createLinks("BatchPubTxn", 5);
+
+    Transaction transaction = server.beginTransaction();
+    try {
+      PersistenceContext persistenceContext = ((SpiTransaction) transaction).getPersistenceContext();
+
+      Query<Link> pubQuery = server.find(Link.class).where().idIn(ids).query();
+      int count = server.publishBatched(pubQuery, new PublishOptions().setBatchSize(2), transaction);
+      assertThat(count).isEqualTo(5);
+
+      // batches use their own persistence context and the transaction's is restored
+      assertThat(((SpiTransaction) transaction).getPersistenceContext()).isSameAs(persistenceContext);
+      transaction.commit();
+    } finally {
+      transaction.end();
+    }
+
+    List<Link> live = server.find(Link.class).where().idIn(ids).findList();
+    assertThat(live).hasSize(5);
+  }
+
+  @Test
+  public void testDraftRestoreBatched() {
+
+    List<Object> ids = createLinks("BatchRestore", 3);
+    server.publishBatched(server.find(Link.class).where().idIn(ids).query(), new PublishOptions());
+
+    Link draft = server.find(Link.class).asDraft().setId(ids.get(0)).findUnique();
+    draft.setName("modified");
+    draft.save();
+
+    PublishOptions options = new PublishOptions().setBatchSize(2);
+    int count = server.draftRestoreBatched(server.find(Link.class).where().idIn(ids).query(), options);
+    assertThat(count).isEqualTo(3);
+
+    Link restored = server.find(Link.class).asDraft().setId(ids.get(0)).findUnique();
+    assertThat(restored.getName()).isEqualTo("BatchRestore0");
+  }
+}
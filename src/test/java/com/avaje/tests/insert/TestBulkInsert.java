@@ -0,0 +1,46 @@
+package com.avaje.tests.insert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.tests.model.m2m.Tenant;
+
+public class TestBulkInsert extends BaseTestCase {
+
+  @Test
+  public void test() {
+
+    List<Tenant> tenants = new ArrayList<Tenant>();
+    for (int i = 0; i < 50; i++) {
+      Tenant tenant = new Tenant();
+      tenant.setName("bulk" + i);
+      tenants.add(tenant);
+    }
+
+    Ebean.bulkInsert(Tenant.class, tenants);
+
+    for (Tenant tenant : tenants) {
+      Assert.assertNotNull(tenant.getId());
+      Assert.assertNotNull(tenant.getVersion());
+    }
+
+    int count = Ebean.find(Tenant.class).where().startsWith("name", "bulk").findRowCount();
+    Assert.assertEquals(50, count);
+
+    Tenant check = Ebean.find(Tenant.class, tenants.get(7).getId());
+    Assert.assertEquals("bulk7", check.getName());
+
+    // inserted beans are treated as loaded so a subsequent save is an update
+    Tenant first = tenants.get(0);
+    first.setName("bulk-changed");
+    Ebean.save(first);
+    Assert.assertEquals("bulk-changed", Ebean.find(Tenant.class, first.getId()).getName());
+
+    Ebean.deleteAll(tenants);
+  }
+}
@@ -0,0 +1,46 @@
+package com.avaje.tests.model.basic;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+
+@Entity
+public class ECascadeLeaf {
+
+  @Id
+  Long id;
+
+  @ManyToOne
+  ECascadeMid mid;
+
+  String name;
+
+  public ECascadeLeaf(ECascadeMid mid, String name) {
+    this.mid = mid;
+    this.name = name;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public ECascadeMid getMid() {
+    return mid;
+  }
+
+  public void setMid(ECascadeMid mid) {
+    this.mid = mid;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+}
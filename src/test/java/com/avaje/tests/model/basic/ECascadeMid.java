@@ -0,0 +1,66 @@
+package com.avaje.tests.model.basic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+
+@Entity
+public class ECascadeMid {
+
+  @Id
+  Long id;
+
+  @ManyToOne
+  ECascadeTop top;
+
+  String name;
+
+  @OneToMany(mappedBy = "mid", cascade = CascadeType.ALL)
+  List<ECascadeLeaf> leaves = new ArrayList<ECascadeLeaf>();
+
+  public ECascadeMid(ECascadeTop top, String name) {
+    this.top = top;
+    this.name = name;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public ECascadeTop getTop() {
+    return top;
+  }
+
+  public void setTop(ECascadeTop top) {
+    this.top = top;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public List<ECascadeLeaf> getLeaves() {
+    return leaves;
+  }
+
+  public void setLeaves(List<ECascadeLeaf> leaves) {
+    this.leaves = leaves;
+  }
+
+  public void addLeaf(String name) {
+    getLeaves().add(new ECascadeLeaf(this, name));
+  }
+}
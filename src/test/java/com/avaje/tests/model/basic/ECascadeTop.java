@@ -0,0 +1,55 @@
+package com.avaje.tests.model.basic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.OneToMany;
+
+@Entity
+public class ECascadeTop {
+
+  @Id
+  Long id;
+
+  String name;
+
+  @OneToMany(mappedBy = "top", cascade = CascadeType.ALL)
+  List<ECascadeMid> mids = new ArrayList<ECascadeMid>();
+
+  public ECascadeTop(String name) {
+    this.name = name;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public List<ECascadeMid> getMids() {
+    return mids;
+  }
+
+  public void setMids(List<ECascadeMid> mids) {
+    this.mids = mids;
+  }
+
+  public ECascadeMid addMid(String name) {
+    ECascadeMid mid = new ECascadeMid(this, name);
+    getMids().add(mid);
+    return mid;
+  }
+}
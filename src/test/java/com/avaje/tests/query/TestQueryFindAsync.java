@@ -0,0 +1,171 @@
+package com.avaje.tests.query;
+
+import com.avaje.ebean.AsyncCallback;
+import com.avaje.ebean.AsyncFunction;
+import com.avaje.ebean.AsyncFuture;
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.EbeanServerFactory;
+import com.avaje.ebean.Transaction;
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.ebean.meta.MetaQueryExecutorStatistic;
+import com.avaje.tests.model.basic.Country;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.Order;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestQueryFindAsync extends BaseTestCase {
+
+  @Test
+  public void test_findListAsync() throws InterruptedException, TimeoutException {
+
+    ResetBasicData.reset();
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicReference<List<Order>> result = new AtomicReference<List<Order>>();
+
+    AsyncFuture<List<Order>> future = Ebean.find(Order.class).findListAsync();
+    future.whenComplete(new AsyncCallback<List<Order>>() {
+      public void onSuccess(List<Order> orders) {
+        result.set(orders);
+        latch.countDown();
+      }
+
+      public void onFailure(Throwable e) {
+        latch.countDown();
+      }
+    });
+
+    List<Order> orders = future.getUnchecked(5, TimeUnit.SECONDS);
+    assertEquals(Ebean.find(Order.class).findRowCount(), orders.size());
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(orders, result.get());
+  }
+
+  @Test
+  public void test_thenApply() throws TimeoutException {
+
+    ResetBasicData.reset();
+
+    AsyncFuture<Integer> size = Ebean.find(Order.class).findListAsync()
+        .thenApply(new AsyncFunction<List<Order>, Integer>() {
+          public Integer apply(List<Order> orders) {
+            return orders.size();
+          }
+        });
+
+    AsyncFuture<Integer> rowCount = Ebean.find(Order.class).findRowCountAsync();
+    assertEquals(rowCount.getUnchecked(5, TimeUnit.SECONDS), size.getUnchecked(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void test_findUniqueAsync() throws TimeoutException {
+
+    ResetBasicData.reset();
+
+    Customer customer = Ebean.find(Customer.class).setMaxRows(1).findUnique();
+
+    AsyncFuture<Customer> future = Ebean.find(Customer.class).where().idEq(customer.getId()).findUniqueAsync();
+    Customer found = future.getUnchecked(5, TimeUnit.SECONDS);
+    assertNotNull(found);
+    assertEquals(customer.getId(), found.getId());
+  }
+
+  @Test
+  public void test_cancel() {
+
+    // the query executor thread waits on the latch so the query is still queued when cancelled
+    CountDownLatch startLatch = new CountDownLatch(1);
+    EbeanServer server = createServer(startLatch);
+    try {
+      AsyncFuture<List<Country>> future = server.find(Country.class).findListAsync();
+      AsyncFuture<Integer> dependent = future.thenApply(new AsyncFunction<List<Country>, Integer>() {
+        public Integer apply(List<Country> countries) {
+          return countries.size();
+        }
+      });
+
+      assertTrue(dependent.cancel(true));
+      assertTrue(dependent.isCancelled());
+      // cancel propagates to the query future
+      assertTrue(future.isCancelled());
+      assertTrue(future.isDone());
+
+    } finally {
+      startLatch.countDown();
+      server.shutdown(true, false);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void test_findListAsync_withTransaction() {
+
+    Transaction transaction = Ebean.beginTransaction();
+    try {
+      Ebean.getDefaultServer().findListAsync(Ebean.find(Order.class), transaction);
+    } finally {
+      transaction.end();
+    }
+  }
+
+  @Test
+  public void test_statistics() throws TimeoutException {
+
+    ResetBasicData.reset();
+
+    Ebean.getDefaultServer().getMetaInfoManager().collectQueryExecutorStatistic(true);
+
+    Ebean.find(Order.class).findRowCountAsync().getUnchecked(5, TimeUnit.SECONDS);
+    Ebean.find(Order.class).findRowCountAsync().getUnchecked(5, TimeUnit.SECONDS);
+
+    MetaQueryExecutorStatistic statistic = Ebean.getDefaultServer().getMetaInfoManager().collectQueryExecutorStatistic(false);
+    assertEquals(2, statistic.getSubmitCount());
+    assertEquals(0, statistic.getRejectCount());
+    assertTrue(statistic.getPoolSize() > 0);
+    assertTrue(statistic.getQueueCapacity() > 0);
+  }
+
+  private EbeanServer createServer(final CountDownLatch startLatch) {
+
+    ServerConfig config = new ServerConfig();
+    config.setName("h2other");
+    config.loadFromProperties();
+    config.setDefaultServer(false);
+    config.setRegister(false);
+    config.addClass(Country.class);
+
+    config.setAsyncQueryPoolSize(1);
+    config.setAsyncQueryThreadFactory(new ThreadFactory() {
+      public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(new Runnable() {
+          public void run() {
+            try {
+              startLatch.await();
+              runnable.run();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        });
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    return EbeanServerFactory.create(config);
+  }
+}
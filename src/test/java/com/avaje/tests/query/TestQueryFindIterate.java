@@ -3,7 +3,10 @@ package com.avaje.tests.query;
 import javax.persistence.PersistenceException;
 
 import com.avaje.ebean.*;
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.tests.model.basic.Order;
+import com.avaje.tests.model.basic.OrderDetail;
 import com.avaje.tests.model.basic.OrderShipment;
 import org.avaje.ebeantest.LoggedSqlCollector;
 import org.junit.Test;
@@ -46,6 +49,129 @@ public class TestQueryFindIterate extends BaseTestCase {
     assertEquals(2, count);
   }
 
+  @Test
+  public void testWithPrefetch() {
+
+    ResetBasicData.reset();
+
+    int expected = Ebean.find(Order.class).findRowCount();
+
+    ServerConfig serverConfig = ((SpiEbeanServer) Ebean.getServer(null)).getServerConfig();
+    boolean findIteratePrefetch = serverConfig.isFindIteratePrefetch();
+    serverConfig.setFindIteratePrefetch(true);
+    try {
+      // buffer of 2 so multiple buffers are loaded with the next one prefetched, with
+      // lazy loading disabled such that the customers must be loaded by the secondary query
+      QueryIterator<Order> it = Ebean.find(Order.class)
+          .setAutoTune(false)
+          .setDisableLazyLoading(true)
+          .fetch("customer", new FetchConfig().query(2))
+          .order().asc("id")
+          .findIterate();
+
+      int count = 0;
+      Integer lastId = null;
+      try {
+        while (it.hasNext()) {
+          Order order = it.next();
+          // loaded by the secondary query
+          assertTrue(order.getCustomer().getName() != null);
+          if (lastId != null) {
+            assertTrue(order.getId() > lastId);
+          }
+          lastId = order.getId();
+          count++;
+        }
+      } finally {
+        it.close();
+      }
+      assertEquals(expected, count);
+
+    } finally {
+      serverConfig.setFindIteratePrefetch(findIteratePrefetch);
+    }
+  }
+
+  @Test
+  public void testWithPrefetch_parallelSecondaryQueries() {
+
+    ResetBasicData.reset();
+
+    int expected = Ebean.find(Order.class).findRowCount();
+
+    ServerConfig serverConfig = ((SpiEbeanServer) Ebean.getServer(null)).getServerConfig();
+    boolean findIteratePrefetch = serverConfig.isFindIteratePrefetch();
+    boolean parallelSecondaryQueries = serverConfig.isParallelSecondaryQueries();
+    serverConfig.setFindIteratePrefetch(true);
+    serverConfig.setParallelSecondaryQueries(true);
+    try {
+      // the prefetch of each buffer executes the customer and details queries in parallel
+      QueryIterator<Order> it = Ebean.find(Order.class)
+          .setAutoTune(false)
+          .setDisableLazyLoading(true)
+          .fetch("customer", new FetchConfig().query(2))
+          .fetch("details", new FetchConfig().query(2))
+          .order().asc("id")
+          .findIterate();
+
+      int count = 0;
+      int detailCount = 0;
+      try {
+        while (it.hasNext()) {
+          Order order = it.next();
+          assertTrue(order.getCustomer().getName() != null);
+          detailCount += order.getDetails().size();
+          count++;
+        }
+      } finally {
+        it.close();
+      }
+      assertEquals(expected, count);
+      assertEquals(Ebean.find(OrderDetail.class).findRowCount(), detailCount);
+
+    } finally {
+      serverConfig.setFindIteratePrefetch(findIteratePrefetch);
+      serverConfig.setParallelSecondaryQueries(parallelSecondaryQueries);
+    }
+  }
+
+  @Test
+  public void testWithPrefetch_lazyLoadingCurrentBuffer() {
+
+    ResetBasicData.reset();
+
+    int expected = Ebean.find(Order.class).findRowCount();
+
+    ServerConfig serverConfig = ((SpiEbeanServer) Ebean.getServer(null)).getServerConfig();
+    boolean findIteratePrefetch = serverConfig.isFindIteratePrefetch();
+    serverConfig.setFindIteratePrefetch(true);
+    try {
+      QueryIterator<Order> it = Ebean.find(Order.class)
+          .setAutoTune(false)
+          .fetch("customer", new FetchConfig().query(2))
+          .order().asc("id")
+          .findIterate();
+
+      int count = 0;
+      try {
+        while (it.hasNext()) {
+          Order order = it.next();
+          // lazy loading the current buffer while the next buffer is prefetched
+          order.getDetails().size();
+          order.getShipments().size();
+          assertTrue(order.getCustomer().getName() != null);
+          count++;
+        }
+      } finally {
+        it.close();
+      }
+      assertEquals(expected, count);
+
+    } finally {
+      serverConfig.setFindIteratePrefetch(findIteratePrefetch);
+    }
+  }
+
   @Test
   public void testWithLazyLoading() {
 
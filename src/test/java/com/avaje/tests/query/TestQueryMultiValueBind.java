@@ -0,0 +1,130 @@
+package com.avaje.tests.query;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.Query;
+import com.avaje.ebean.event.BeanQueryRequest;
+import com.avaje.ebeaninternal.api.HashQueryPlan;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.api.SpiQuery;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestQueryMultiValueBind extends BaseTestCase {
+
+  private boolean isMultiValueSupported() {
+    // H2 and Postgres bind the in values as a single array parameter
+    return ((SpiEbeanServer) Ebean.getDefaultServer()).isMultiValueSupported(Integer.class, false);
+  }
+
+  private boolean isNotInMultiValueSupported() {
+    // Postgres only (H2 uses the padded not in list)
+    return ((SpiEbeanServer) Ebean.getDefaultServer()).isMultiValueSupported(Integer.class, true);
+  }
+
+  private List<Integer> customerIds() {
+    ResetBasicData.reset();
+    List<Integer> ids = new ArrayList<Integer>();
+    for (Customer customer : Ebean.find(Customer.class).orderBy("id").findList()) {
+      ids.add(customer.getId());
+    }
+    assertTrue(ids.size() >= 3);
+    return ids;
+  }
+
+  @SuppressWarnings("unchecked")
+  private HashQueryPlan planHash(Query<Customer> query) {
+    BeanQueryRequest<Customer> request = mock(BeanQueryRequest.class);
+    when(request.getEbeanServer()).thenReturn(Ebean.getDefaultServer());
+    when(request.getQuery()).thenReturn(query);
+    return ((SpiQuery<Customer>) query).queryPlanHash(request);
+  }
+
+  @Test
+  public void in_when_multiValue_sameSqlAndPlanForAnySize() {
+
+    if (!isMultiValueSupported()) {
+      return;
+    }
+    List<Integer> ids = customerIds();
+
+    Query<Customer> query2 = Ebean.find(Customer.class).where().in("id", ids.subList(0, 2)).query();
+    List<Customer> list2 = query2.findList();
+    assertEquals(2, list2.size());
+    assertTrue(query2.getGeneratedSql(), query2.getGeneratedSql().toLowerCase().contains(" = any(?) "));
+
+    Query<Customer> query3 = Ebean.find(Customer.class).where().in("id", ids.subList(0, 3)).query();
+    List<Customer> list3 = query3.findList();
+    assertEquals(3, list3.size());
+    assertEquals(query2.getGeneratedSql(), query3.getGeneratedSql());
+
+    assertEquals(planHash(query2), planHash(query3));
+  }
+
+  @Test
+  public void notIn() {
+
+    List<Integer> ids = customerIds();
+    int total = Ebean.find(Customer.class).findRowCount();
+
+    Query<Customer> query = Ebean.find(Customer.class).where().notIn("id", ids.subList(0, 3)).query();
+    assertEquals(total - 3, query.findList().size());
+
+    if (isNotInMultiValueSupported()) {
+      Query<Customer> inQuery = Ebean.find(Customer.class).where().in("id", ids.subList(0, 3)).query();
+      assertNotEquals(planHash(query), planHash(inQuery));
+    } else {
+      assertTrue(query.getGeneratedSql(), query.getGeneratedSql().contains(" not in (?, ?, ?, ? ) "));
+    }
+  }
+
+  @Test
+  public void in_when_multiValue_planIncludesValueType() {
+
+    if (!isMultiValueSupported()) {
+      return;
+    }
+    Query<Customer> intQuery = Ebean.find(Customer.class).where().in("id", 1, 2).query();
+    Query<Customer> longQuery = Ebean.find(Customer.class).where().in("id", 1L, 2L).query();
+    assertNotEquals(planHash(intQuery), planHash(longQuery));
+  }
+
+  @Test
+  public void idIn_when_multiValue_samePlanForAnySize() {
+
+    if (!isMultiValueSupported()) {
+      return;
+    }
+    List<Integer> ids = customerIds();
+
+    Query<Customer> query2 = Ebean.find(Customer.class).where().idIn(ids.subList(0, 2)).query();
+    assertEquals(2, query2.findList().size());
+
+    Query<Customer> query3 = Ebean.find(Customer.class).where().idIn(ids.subList(0, 3)).query();
+    assertEquals(3, query3.findList().size());
+    assertEquals(query2.getGeneratedSql(), query3.getGeneratedSql());
+
+    assertEquals(planHash(query2), planHash(query3));
+  }
+
+  @Test
+  public void in_when_mixedValueTypes_padded() {
+
+    List<Integer> ids = customerIds();
+
+    // mixed value types are not bound as an array
+    Query<Customer> query = Ebean.find(Customer.class).where().in("id", ids.get(0), ids.get(1).longValue(), ids.get(2)).query();
+    assertEquals(3, query.findList().size());
+    assertTrue(query.getGeneratedSql(), query.getGeneratedSql().contains(" in (?, ?, ?, ? ) "));
+  }
+}
@@ -0,0 +1,72 @@
+package com.avaje.tests.query;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.bean.EntityBean;
+import com.avaje.ebean.bean.EntityBeanIntercept;
+import com.avaje.tests.model.basic.MyLobSize;
+import com.avaje.tests.model.basic.TOne;
+import org.avaje.ebeantest.LoggedSqlCollector;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestQueryPrimitiveProperties extends BaseTestCase {
+
+  private EntityBeanIntercept intercept(Object bean) {
+    return ((EntityBean) bean)._ebean_getIntercept();
+  }
+
+  @Test
+  public void find_booleanProperty_isLoaded() {
+
+    TOne one = new TOne();
+    one.setName("primitive");
+    one.setActive(true);
+    Ebean.save(one);
+
+    TOne found = Ebean.find(TOne.class, one.getId());
+    EntityBeanIntercept ebi = intercept(found);
+    assertTrue(ebi.isLoadedProperty(ebi.findProperty("active")));
+    assertTrue(found.isActive());
+
+    String json = Ebean.json().toJson(found);
+    assertTrue(json, json.contains("\"active\":true"));
+
+    // setting the same value does not make the bean dirty
+    found.setActive(true);
+    assertFalse(ebi.isDirty());
+    found.setActive(false);
+    assertTrue(ebi.isDirty());
+  }
+
+  @Test
+  public void find_partial_intProperty_notLazyLoaded() {
+
+    MyLobSize bean = new MyLobSize();
+    bean.setName("primitive");
+    bean.setMyCount(42);
+    Ebean.save(bean);
+
+    MyLobSize found = Ebean.find(MyLobSize.class)
+        .select("name, myCount")
+        .where().idEq(bean.getId())
+        .findUnique();
+
+    EntityBeanIntercept ebi = intercept(found);
+    assertTrue(ebi.isLoadedProperty(ebi.findProperty("myCount")));
+
+    LoggedSqlCollector.start();
+    assertEquals(42, found.getMyCount());
+    String json = Ebean.json().toJson(found);
+    List<String> sql = LoggedSqlCollector.stop();
+
+    // no lazy loading of the primitive property
+    assertEquals(0, sql.size());
+    assertTrue(json, json.contains("\"myCount\":42"));
+  }
+}
@@ -0,0 +1,81 @@
+package com.avaje.tests.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.QueryEachConsumer;
+import com.avaje.ebean.QueryEachWhileConsumer;
+import com.avaje.ebean.QueryIterator;
+import com.avaje.ebean.SqlRow;
+import com.avaje.tests.model.basic.ResetBasicData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestSqlQueryFindEach extends BaseTestCase {
+
+  private static final String SQL = "select id, name from o_customer order by id";
+
+  @Test
+  public void findEach() {
+
+    ResetBasicData.reset();
+
+    int expected = Ebean.createSqlQuery(SQL).findList().size();
+
+    final List<SqlRow> rows = new ArrayList<SqlRow>();
+    Ebean.createSqlQuery(SQL).findEach(new QueryEachConsumer<SqlRow>() {
+      public void accept(SqlRow row) {
+        rows.add(row);
+      }
+    });
+
+    assertEquals(expected, rows.size());
+    SqlRow first = rows.get(0);
+    assertNotNull(first.getInteger("id"));
+    // column names are case insensitive
+    assertEquals(first.get("name"), first.get("NAME"));
+    assertEquals(2, first.size());
+    assertTrue(first.containsKey("id"));
+  }
+
+  @Test
+  public void findEachWhile() {
+
+    ResetBasicData.reset();
+
+    final List<SqlRow> rows = new ArrayList<SqlRow>();
+    Ebean.createSqlQuery(SQL).findEachWhile(new QueryEachWhileConsumer<SqlRow>() {
+      public boolean accept(SqlRow row) {
+        rows.add(row);
+        return rows.size() < 2;
+      }
+    });
+
+    assertEquals(2, rows.size());
+  }
+
+  @Test
+  public void findIterate_withMaxRows() {
+
+    ResetBasicData.reset();
+
+    QueryIterator<SqlRow> it = Ebean.createSqlQuery(SQL).setMaxRows(2).findIterate();
+    int count = 0;
+    try {
+      while (it.hasNext()) {
+        SqlRow row = it.next();
+        assertNotNull(row.getLong("id"));
+        count++;
+      }
+    } finally {
+      it.close();
+    }
+    assertEquals(2, count);
+  }
+}
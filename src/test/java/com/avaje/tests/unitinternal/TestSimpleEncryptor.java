@@ -40,4 +40,30 @@ public class TestSimpleEncryptor extends BaseTestCase {
     Assert.assertEquals(t, t1);
 
   }
+
+  @Test
+  public void test_reusedCiphers() {
+
+    SimpleAesEncryptor e = new SimpleAesEncryptor();
+
+    EncryptKey key = new BasicEncryptKey("hello");
+    EncryptKey otherKey = new BasicEncryptKey("a-key-longer-than-sixteen");
+
+    byte[] first = e.encryptString("test123", key);
+    Assert.assertArrayEquals(first, e.encryptString("test123", key));
+    Assert.assertFalse(Arrays.equals(first, e.encryptString("test123", otherKey)));
+
+    Assert.assertEquals("test123", e.decryptString(first, key));
+    Assert.assertEquals("other", e.decryptString(e.encryptString("other", otherKey), otherKey));
+
+    try {
+      e.decrypt(new byte[]{1, 2, 3}, key);
+      Assert.fail("expected exception decrypting invalid data");
+    } catch (RuntimeException ex) {
+      // expected
+    }
+
+    // still usable after the error
+    Assert.assertEquals("test123", e.decryptString(first, key));
+  }
 }